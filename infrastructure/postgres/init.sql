@@ -63,7 +63,10 @@ CREATE TABLE IF NOT EXISTS risk_scores (
 );
 
 -- Index'ler
-CREATE INDEX IF NOT EXISTS idx_risk_scores_transaction_id
+-- UNIQUE: transaction başına tek skor (senkron API + Kafka yolu + redelivery, ON CONFLICT)
+-- Mevcut veritabanları: risk-engine açılışta RiskScoreSchemaMigration ile bu index'e geçer
+-- (duplicate'leri siler, eski unique olmayan idx_risk_scores_transaction_id'yi kaldırır)
+CREATE UNIQUE INDEX IF NOT EXISTS idx_risk_scores_transaction_id_unique
     ON risk_scores(transaction_id);
 
 CREATE INDEX IF NOT EXISTS idx_risk_scores_final_score
@@ -77,7 +80,7 @@ CREATE INDEX IF NOT EXISTS idx_risk_scores_reasons
     ON risk_scores USING GIN (reasons);
 
 COMMENT ON TABLE risk_scores IS 'Her transaction için hesaplanan risk skorları';
-COMMENT ON COLUMN risk_scores.reasons IS 'JSON format - hangi kurallar tetiklendi ve ne kadar skor ekledi';
+COMMENT ON COLUMN risk_scores.reasons IS 'JSON format - tetiklenen kural -> reason parametreleri (metin uygulamada render edilir)';
 
 -- ============================================
 -- 3. ALERTS TABLE
@@ -221,6 +224,23 @@ CREATE INDEX IF NOT EXISTS idx_fraud_labels_is_fraud
 
 COMMENT ON TABLE fraud_labels IS 'Labelled data - ML model training için kullanılır';
 
+-- ============================================
+-- 7. RULE_DEFINITIONS TABLE (Rule DSL)
+-- ============================================
+-- Ne yapar? Deploy gerektirmeyen, deklaratif fraud kurallarını saklar
+-- Kim kullanır? Risk Engine (okur, fraud.rules.dsl.source=database ise), Fraud analistleri (yazar)
+-- Not: definition kolonu RuleDefinition JSON'u (when / score / priority / reason)
+CREATE TABLE IF NOT EXISTS rule_definitions (
+    rule_name VARCHAR(100) PRIMARY KEY,
+    definition JSONB NOT NULL,
+    enabled BOOLEAN NOT NULL DEFAULT TRUE,
+
+    -- Metadata (Risk Engine bu kolonla değişiklik algılar)
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+COMMENT ON TABLE rule_definitions IS 'Rule DSL tanımları - risk engine tarafından derlenip hot reload edilir';
+
 -- ============================================
 -- SAMPLE DATA (Test için)
 -- ============================================
@@ -284,7 +304,7 @@ DO $$
 BEGIN
     RAISE NOTICE '===========================================';
     RAISE NOTICE 'Fraud & Risk Scoring Engine DB initialized';
-    RAISE NOTICE 'Tables: transactions, risk_scores, alerts, customer_profiles, ml_model_metrics, fraud_labels';
+    RAISE NOTICE 'Tables: transactions, risk_scores, alerts, customer_profiles, ml_model_metrics, fraud_labels, rule_definitions';
     RAISE NOTICE 'Sample data: 2 customers added';
     RAISE NOTICE '===========================================';
 END $$;
@@ -0,0 +1,28 @@
+package com.fraud.loadgen;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Üretilen transaction - transaction-service'in REST / Kafka formatıyla aynı JSON
+ * injectedFraud sadece ölçüm içindir, JSON'a yazılmaz
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeneratedTransaction {
+    private String transactionId;
+    private String customerId;
+    private BigDecimal amount;
+    private String merchantCategory;
+    private String location;
+    private LocalDateTime timestamp;
+
+    @JsonIgnore
+    private boolean injectedFraud;
+}
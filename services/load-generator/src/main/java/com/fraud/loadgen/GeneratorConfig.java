@@ -0,0 +1,61 @@
+package com.fraud.loadgen;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ============================================
+ * GENERATOR CONFIG
+ * ============================================
+ * Ne yapar?
+ * - Sentetik transaction akışının şeklini belirler
+ *
+ * Önemli parametreler:
+ * - customers: Toplam müşteri sayısı
+ * - hotCustomerSkew: Zipf üssü (0 = uniform, ~1.1 = gerçekçi "sıcak müşteri" dağılımı)
+ * - locations / merchants: Ağırlıklı dağılımlar
+ * - fraudBurstProbability: Her event'te yeni fraud burst başlama olasılığı
+ * - fraudBurstSize: Bir burst'teki transaction sayısı (aynı müşteri, kısa sürede)
+ */
+@Data
+public class GeneratorConfig {
+
+    private int customers = 10_000;
+    private double hotCustomerSkew = 1.1;
+    private String customerPrefix = "LC";
+    private String transactionPrefix = "LG-" + System.currentTimeMillis() + "-";
+    private long seed = 42L;
+
+    // Müşterinin işlemlerinin ne kadarı "ev" lokasyonundan gelir
+    private double homeLocationShare = 0.85;
+
+    private double fraudBurstProbability = 0.001;
+    private int fraudBurstSize = 8;
+
+    private Map<String, Double> locations = defaultLocations();
+    private Map<String, Double> merchants = defaultMerchants();
+
+    private static Map<String, Double> defaultLocations() {
+        Map<String, Double> locations = new LinkedHashMap<>();
+        locations.put("Istanbul", 0.35);
+        locations.put("Ankara", 0.20);
+        locations.put("Izmir", 0.15);
+        locations.put("Antalya", 0.10);
+        locations.put("Bursa", 0.10);
+        locations.put("Adana", 0.10);
+        return locations;
+    }
+
+    private static Map<String, Double> defaultMerchants() {
+        Map<String, Double> merchants = new LinkedHashMap<>();
+        merchants.put("food", 0.40);
+        merchants.put("clothing", 0.20);
+        merchants.put("electronics", 0.15);
+        merchants.put("entertainment", 0.10);
+        merchants.put("travel", 0.10);
+        merchants.put("jewelry", 0.05);
+        return merchants;
+    }
+}
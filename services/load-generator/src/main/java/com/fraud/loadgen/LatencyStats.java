@@ -0,0 +1,61 @@
+package com.fraud.loadgen;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ============================================
+ * LATENCY STATS
+ * ============================================
+ * Ne yapar?
+ * - Gecikme örneklerini (mikrosaniye) sabit boyutlu dizide toplar
+ * - p50 / p90 / p99 / p999 / max hesaplar
+ *
+ * Kapasite dolunca yeni örnekler atılır (ölçüm boyunca allocation yok)
+ * Thread-safe: birden fazla callback thread'i aynı anda record() çağırabilir
+ */
+public class LatencyStats {
+
+    private final long[] samples;
+    private final AtomicInteger size = new AtomicInteger();
+
+    public LatencyStats(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    public void record(long micros) {
+        int index = size.getAndIncrement();
+        if (index < samples.length) {
+            samples[index] = micros;
+        }
+    }
+
+    public int count() {
+        return Math.min(size.get(), samples.length);
+    }
+
+    public Map<String, Object> summary() {
+        int count = count();
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("samples", count);
+        summary.put("p50Millis", millis(sorted, 0.50));
+        summary.put("p90Millis", millis(sorted, 0.90));
+        summary.put("p99Millis", millis(sorted, 0.99));
+        summary.put("p999Millis", millis(sorted, 0.999));
+        summary.put("maxMillis", count == 0 ? 0.0 : sorted[count - 1] / 1000.0);
+        return summary;
+    }
+
+    private static double millis(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(sorted.length * quantile) - 1);
+        return sorted[Math.max(0, index)] / 1000.0;
+    }
+}
@@ -0,0 +1,96 @@
+package com.fraud.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fraud.loadgen.sink.HttpTransactionSink;
+import com.fraud.loadgen.sink.KafkaTransactionSink;
+import com.fraud.loadgen.sink.TransactionSink;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ============================================
+ * LOAD GENERATOR (CLI)
+ * ============================================
+ * Ne yapar?
+ * - Sentetik transaction akışı üretip transaction-service'e (HTTP) veya
+ *   doğrudan transactions-topic'e (Kafka) basar
+ * - Sonunda throughput + gönderim gecikmesi yüzdeliklerini JSON olarak yazar
+ *
+ * Örnekler:
+ *   java -jar load-generator.jar --http=http://localhost:8081 --count=100000 --rate=2000
+ *   java -jar load-generator.jar --kafka=localhost:9092 --count=1000000 --rate=0 --customers=50000
+ *
+ * Parametreler:
+ *   --http=URL | --kafka=BOOTSTRAP   Hedef (biri zorunlu)
+ *   --topic=transactions-topic        Kafka topic
+ *   --count=10000                     Toplam transaction
+ *   --rate=1000                       Hedef tx/s (0 = sınırsız)
+ *   --in-flight=256                   Aynı anda açık istek sınırı
+ *   --customers=10000 --skew=1.1      Müşteri sayısı, Zipf üssü
+ *   --fraud-burst-probability=0.001 --fraud-burst-size=8
+ *   --seed=42
+ */
+public class LoadGeneratorApplication {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        if (options.containsKey("help") || (!options.containsKey("http") && !options.containsKey("kafka"))) {
+            System.out.println("Usage: java -jar load-generator.jar (--http=URL | --kafka=BOOTSTRAP) "
+                    + "[--count=N] [--rate=TPS] [--in-flight=N] [--customers=N] [--skew=S] "
+                    + "[--fraud-burst-probability=P] [--fraud-burst-size=N] [--seed=N] [--topic=NAME]");
+            return;
+        }
+
+        GeneratorConfig config = new GeneratorConfig();
+        config.setCustomers(Integer.parseInt(options.getOrDefault("customers", "10000")));
+        config.setHotCustomerSkew(Double.parseDouble(options.getOrDefault("skew", "1.1")));
+        config.setFraudBurstProbability(Double.parseDouble(options.getOrDefault("fraud-burst-probability", "0.001")));
+        config.setFraudBurstSize(Integer.parseInt(options.getOrDefault("fraud-burst-size", "8")));
+        config.setSeed(Long.parseLong(options.getOrDefault("seed", "42")));
+
+        ObjectMapper objectMapper = objectMapper();
+        long count = Long.parseLong(options.getOrDefault("count", "10000"));
+        int rate = Integer.parseInt(options.getOrDefault("rate", "1000"));
+        int inFlight = Integer.parseInt(options.getOrDefault("in-flight", "256"));
+
+        try (TransactionSink sink = options.containsKey("http")
+                ? new HttpTransactionSink(options.get("http"), objectMapper)
+                : new KafkaTransactionSink(options.get("kafka"),
+                        options.getOrDefault("topic", "transactions-topic"), objectMapper)) {
+
+            LoadRunner runner = new LoadRunner(new TransactionStreamGenerator(config), sink, rate, inFlight);
+            Map<String, Object> result = runner.run(count);
+            System.out.println(objectMapper.copy()
+                    .enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValueAsString(result));
+        }
+    }
+
+    /**
+     * transaction-service ile aynı JSON formatı (ISO-8601 timestamp)
+     */
+    public static ObjectMapper objectMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+        }
+        return options;
+    }
+}
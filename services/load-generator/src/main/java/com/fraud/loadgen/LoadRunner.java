@@ -0,0 +1,110 @@
+package com.fraud.loadgen;
+
+import com.fraud.loadgen.sink.TransactionSink;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * ============================================
+ * LOAD RUNNER
+ * ============================================
+ * Ne yapar?
+ * - Generator'dan transaction alır, sink'e hedef hızda (rate) gönderir
+ * - Aynı anda en fazla maxInFlight istek açık kalır (sistem yavaşlarsa biz de yavaşlarız)
+ * - Gönderim gecikmesini (ack / HTTP 201'e kadar) ölçer
+ *
+ * Rate kontrolü:
+ * - i. event'in planlanan zamanı = start + i / rate
+ * - Geride kalırsak bekleme yapılmaz (burst ile yakalanır), önde isek park edilir
+ * - rate <= 0 → sınırsız (sadece maxInFlight sınırlar)
+ */
+public class LoadRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadRunner.class);
+
+    private final TransactionStreamGenerator generator;
+    private final TransactionSink sink;
+    private final int ratePerSecond;
+    private final int maxInFlight;
+
+    public LoadRunner(TransactionStreamGenerator generator, TransactionSink sink,
+                      int ratePerSecond, int maxInFlight) {
+        this.generator = generator;
+        this.sink = sink;
+        this.ratePerSecond = ratePerSecond;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public Map<String, Object> run(long count) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long injectedFraud = 0;
+        LatencyStats latency = new LatencyStats((int) Math.min(count, 10_000_000));
+
+        long intervalNanos = ratePerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / ratePerSecond : 0;
+        long reportEvery = Math.max(1, ratePerSecond > 0 ? ratePerSecond * 5L : 50_000);
+
+        logger.info("Load started: target={}, count={}, rate={}/s, maxInFlight={}",
+                sink.describe(), count, ratePerSecond > 0 ? ratePerSecond : "unbounded", maxInFlight);
+        long start = System.nanoTime();
+
+        for (long i = 0; i < count; i++) {
+            if (intervalNanos > 0) {
+                long due = start + i * intervalNanos;
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+
+            GeneratedTransaction transaction = generator.next();
+            if (transaction.isInjectedFraud()) {
+                injectedFraud++;
+            }
+
+            inFlight.acquire();
+            long sentAt = System.nanoTime();
+            sink.send(transaction).whenComplete((ignored, error) -> {
+                inFlight.release();
+                if (error != null) {
+                    if (failed.incrementAndGet() <= 10) {
+                        logger.warn("Send failed: {}", error.getMessage());
+                    }
+                } else {
+                    succeeded.incrementAndGet();
+                    latency.record((System.nanoTime() - sentAt) / 1000);
+                }
+            });
+
+            if ((i + 1) % reportEvery == 0) {
+                double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+                logger.info("Sent {} / {} ({} tx/s)", i + 1, count, Math.round((i + 1) / seconds));
+            }
+        }
+
+        // Açık istekler bitsin
+        inFlight.acquire(maxInFlight);
+        inFlight.release(maxInFlight);
+        long elapsed = System.nanoTime() - start;
+        double seconds = elapsed / 1_000_000_000.0;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("target", sink.describe());
+        result.put("requested", count);
+        result.put("succeeded", succeeded.get());
+        result.put("failed", failed.get());
+        result.put("injectedFraud", injectedFraud);
+        result.put("elapsedSeconds", Math.round(seconds * 1000) / 1000.0);
+        result.put("throughputPerSecond", seconds > 0 ? Math.round(succeeded.get() / seconds) : 0);
+        result.put("sendLatency", latency.summary());
+        return result;
+    }
+}
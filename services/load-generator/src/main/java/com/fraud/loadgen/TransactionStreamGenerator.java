@@ -0,0 +1,169 @@
+package com.fraud.loadgen;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * ============================================
+ * TRANSACTION STREAM GENERATOR
+ * ============================================
+ * Ne yapar?
+ * - Gerçekçi sentetik transaction akışı üretir (deterministik, seed ile)
+ *
+ * Dağılımlar:
+ * - Müşteri: Zipf (az sayıda "sıcak" müşteri trafiğin büyük kısmını üretir)
+ * - Lokasyon: Her müşterinin bir ev lokasyonu var, geri kalanı ağırlıklı rastgele
+ * - Merchant: Ağırlıklı rastgele
+ * - Tutar: Müşteri bazlı ortalama × log-normal gürültü
+ *
+ * Fraud burst:
+ * - Rastgele bir müşteri kısa sürede fraudBurstSize işlem yapar
+ * - Yüksek tutar + alışılmadık lokasyon + riskli merchant (electronics / jewelry / travel)
+ * - Kural motorunun (HighAmount, Location, Velocity) tetiklenmesi beklenir
+ *
+ * Thread-safe DEĞİL: her üretici thread kendi generator'ını kullanmalı
+ */
+public class TransactionStreamGenerator {
+
+    private static final String[] BURST_MERCHANTS = {"electronics", "jewelry", "travel"};
+
+    private final GeneratorConfig config;
+    private final SplittableRandom random;
+
+    // Zipf CDF (rank → kümülatif olasılık)
+    private final double[] customerCdf;
+
+    // Müşteri bazlı sabit özellikler
+    private final int[] homeLocation;
+    private final double[] baseAmount;
+
+    private final String[] locations;
+    private final double[] locationCdf;
+    private final String[] merchants;
+    private final double[] merchantCdf;
+
+    private long sequence;
+
+    // Aktif fraud burst
+    private int burstCustomer = -1;
+    private int burstRemaining;
+
+    public TransactionStreamGenerator(GeneratorConfig config) {
+        if (config.getCustomers() <= 0) {
+            throw new IllegalArgumentException("customers must be positive");
+        }
+        this.config = config;
+        this.random = new SplittableRandom(config.getSeed());
+
+        this.locations = config.getLocations().keySet().toArray(new String[0]);
+        this.locationCdf = cdf(config.getLocations());
+        this.merchants = config.getMerchants().keySet().toArray(new String[0]);
+        this.merchantCdf = cdf(config.getMerchants());
+
+        int customers = config.getCustomers();
+        this.customerCdf = new double[customers];
+        double sum = 0;
+        for (int rank = 0; rank < customers; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, config.getHotCustomerSkew());
+            customerCdf[rank] = sum;
+        }
+        for (int rank = 0; rank < customers; rank++) {
+            customerCdf[rank] /= sum;
+        }
+
+        this.homeLocation = new int[customers];
+        this.baseAmount = new double[customers];
+        for (int i = 0; i < customers; i++) {
+            homeLocation[i] = pick(locationCdf);
+            // 20 - 2000 TL arası, çoğunluk 100-300 civarı
+            baseAmount[i] = Math.min(2000, Math.max(20, 150 * Math.exp(random.nextGaussian() * 0.7)));
+        }
+    }
+
+    public GeneratedTransaction next() {
+        if (burstRemaining > 0 && random.nextDouble() < 0.5) {
+            return burstTransaction();
+        }
+        if (burstRemaining == 0 && random.nextDouble() < config.getFraudBurstProbability()) {
+            burstCustomer = random.nextInt(config.getCustomers());
+            burstRemaining = config.getFraudBurstSize();
+            return burstTransaction();
+        }
+        return normalTransaction();
+    }
+
+    private GeneratedTransaction normalTransaction() {
+        int customer = sampleCustomer();
+        int location = random.nextDouble() < config.getHomeLocationShare()
+                ? homeLocation[customer]
+                : pick(locationCdf);
+        double amount = baseAmount[customer] * Math.exp(random.nextGaussian() * 0.5);
+
+        return build(customer, amount, merchants[pick(merchantCdf)], locations[location], false);
+    }
+
+    private GeneratedTransaction burstTransaction() {
+        burstRemaining--;
+        int customer = burstCustomer;
+
+        // Ev lokasyonu dışında bir yer (tek lokasyon varsa mecburen aynısı)
+        int location = pick(locationCdf);
+        if (location == homeLocation[customer] && locations.length > 1) {
+            location = (location + 1 + random.nextInt(locations.length - 1)) % locations.length;
+        }
+        double amount = baseAmount[customer] * (5 + random.nextDouble() * 15);
+        String merchant = BURST_MERCHANTS[random.nextInt(BURST_MERCHANTS.length)];
+
+        return build(customer, amount, merchant, locations[location], true);
+    }
+
+    private GeneratedTransaction build(int customer, double amount, String merchant,
+                                       String location, boolean fraud) {
+        // transaction-service gelecekteki timestamp'i reddeder → 1 saniye geri
+        return new GeneratedTransaction(
+                config.getTransactionPrefix() + (++sequence),
+                customerId(customer),
+                BigDecimal.valueOf(Math.max(1.0, amount)).setScale(2, RoundingMode.HALF_UP),
+                merchant,
+                location,
+                LocalDateTime.now().minusSeconds(1),
+                fraud);
+    }
+
+    public String customerId(int customer) {
+        return config.getCustomerPrefix() + (customer + 1);
+    }
+
+    private int sampleCustomer() {
+        int index = Arrays.binarySearch(customerCdf, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, customerCdf.length - 1);
+    }
+
+    private int pick(double[] cdf) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        int position = index >= 0 ? index : -index - 1;
+        return Math.min(position, cdf.length - 1);
+    }
+
+    private static double[] cdf(Map<String, Double> weights) {
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("weight map must not be empty");
+        }
+        double[] cdf = new double[weights.size()];
+        double sum = 0;
+        int i = 0;
+        for (double weight : weights.values()) {
+            sum += weight;
+            cdf[i++] = sum;
+        }
+        for (i = 0; i < cdf.length; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+}
@@ -0,0 +1,70 @@
+package com.fraud.loadgen.sink;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraud.loadgen.GeneratedTransaction;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ============================================
+ * HTTP SINK
+ * ============================================
+ * POST {baseUrl}/api/transactions
+ * transaction-service'in tüm yolunu (validation → DB → Kafka) ölçer
+ * 201 dışındaki her cevap hata sayılır
+ */
+public class HttpTransactionSink implements TransactionSink {
+
+    private final HttpClient client;
+    private final URI endpoint;
+    private final ObjectMapper objectMapper;
+
+    public HttpTransactionSink(String baseUrl, ObjectMapper objectMapper) {
+        this.endpoint = URI.create(baseUrl.replaceAll("/+$", "") + "/api/transactions");
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<Void> send(GeneratedTransaction transaction) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(transaction);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenAccept(response -> {
+                    if (response.statusCode() != 201) {
+                        throw new IllegalStateException("HTTP " + response.statusCode()
+                                + " for " + transaction.getTransactionId());
+                    }
+                });
+    }
+
+    @Override
+    public String describe() {
+        return "http:" + endpoint;
+    }
+
+    @Override
+    public void close() {
+        // java.net.http.HttpClient Java 17'de kapatılamaz, GC temizler
+    }
+}
@@ -0,0 +1,73 @@
+package com.fraud.loadgen.sink;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraud.loadgen.GeneratedTransaction;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ============================================
+ * KAFKA SINK
+ * ============================================
+ * transactions-topic'e doğrudan JSON basar (transaction-service atlanır)
+ * Sadece risk-engine tarafının kapasitesini ölçmek için
+ *
+ * Key = customerId (transaction-service ile aynı partition dağılımı)
+ */
+public class KafkaTransactionSink implements TransactionSink {
+
+    private final KafkaProducer<String, String> producer;
+    private final String topic;
+    private final ObjectMapper objectMapper;
+
+    public KafkaTransactionSink(String bootstrapServers, String topic, ObjectMapper objectMapper) {
+        this.topic = topic;
+        this.objectMapper = objectMapper;
+
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, 64 * 1024);
+        this.producer = new KafkaProducer<>(config);
+    }
+
+    @Override
+    public CompletableFuture<Void> send(GeneratedTransaction transaction) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(transaction);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        producer.send(new ProducerRecord<>(topic, transaction.getCustomerId(), json), (metadata, error) -> {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(null);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public String describe() {
+        return "kafka:" + topic;
+    }
+
+    @Override
+    public void close() {
+        producer.close();
+    }
+}
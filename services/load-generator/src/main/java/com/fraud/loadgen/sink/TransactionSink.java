@@ -0,0 +1,19 @@
+package com.fraud.loadgen.sink;
+
+import com.fraud.loadgen.GeneratedTransaction;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Üretilen transaction'ın gönderileceği hedef (REST veya doğrudan Kafka)
+ * send() asenkron: tamamlanınca future biter, hata olursa exceptionally biter
+ */
+public interface TransactionSink extends AutoCloseable {
+
+    CompletableFuture<Void> send(GeneratedTransaction transaction);
+
+    String describe();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,102 @@
+package com.fraud.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionStreamGeneratorTest {
+
+    private static GeneratorConfig config() {
+        GeneratorConfig config = new GeneratorConfig();
+        config.setCustomers(1_000);
+        config.setTransactionPrefix("T-");
+        config.setSeed(7L);
+        return config;
+    }
+
+    @Test
+    void sameSeedProducesSameStream() {
+        TransactionStreamGenerator first = new TransactionStreamGenerator(config());
+        TransactionStreamGenerator second = new TransactionStreamGenerator(config());
+
+        for (int i = 0; i < 1_000; i++) {
+            GeneratedTransaction a = first.next();
+            GeneratedTransaction b = second.next();
+            assertEquals(a.getTransactionId(), b.getTransactionId());
+            assertEquals(a.getCustomerId(), b.getCustomerId());
+            assertEquals(a.getAmount(), b.getAmount());
+            assertEquals(a.getLocation(), b.getLocation());
+        }
+    }
+
+    @Test
+    void hotCustomersDominateWithSkew() {
+        TransactionStreamGenerator generator = new TransactionStreamGenerator(config());
+        Map<String, Integer> counts = new HashMap<>();
+        int total = 50_000;
+        for (int i = 0; i < total; i++) {
+            counts.merge(generator.next().getCustomerId(), 1, Integer::sum);
+        }
+
+        // Zipf(1.1, 1000): ilk %1 müşteri trafiğin kabaca yarısını üretir
+        int top = 0;
+        for (int customer = 0; customer < 10; customer++) {
+            top += counts.getOrDefault(generator.customerId(customer), 0);
+        }
+        assertTrue(top > total * 0.3, "top 10 customers produced only " + top);
+    }
+
+    @Test
+    void fraudBurstsAreHighValueAndFlagged() {
+        GeneratorConfig config = config();
+        config.setFraudBurstProbability(0.01);
+        config.setFraudBurstSize(5);
+        TransactionStreamGenerator generator = new TransactionStreamGenerator(config);
+
+        BigDecimal normalTotal = BigDecimal.ZERO;
+        BigDecimal fraudTotal = BigDecimal.ZERO;
+        int normal = 0;
+        int fraud = 0;
+        for (int i = 0; i < 20_000; i++) {
+            GeneratedTransaction transaction = generator.next();
+            assertTrue(transaction.getAmount().signum() > 0);
+            assertFalse(transaction.getTimestamp().isAfter(LocalDateTime.now()));
+            if (transaction.isInjectedFraud()) {
+                fraud++;
+                fraudTotal = fraudTotal.add(transaction.getAmount());
+            } else {
+                normal++;
+                normalTotal = normalTotal.add(transaction.getAmount());
+            }
+        }
+
+        assertTrue(fraud > 0);
+        double fraudAverage = fraudTotal.doubleValue() / fraud;
+        double normalAverage = normalTotal.doubleValue() / normal;
+        assertTrue(fraudAverage > normalAverage * 3,
+                "fraud avg " + fraudAverage + " vs normal avg " + normalAverage);
+    }
+
+    @Test
+    void serializesToTransactionServiceFormat() throws Exception {
+        ObjectMapper objectMapper = LoadGeneratorApplication.objectMapper();
+        GeneratedTransaction transaction = new TransactionStreamGenerator(config()).next();
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(transaction));
+
+        assertEquals("T-1", json.get("transactionId").asText());
+        assertTrue(json.get("timestamp").isTextual());
+        assertFalse(json.has("injectedFraud"));
+        assertNotEquals(0, json.get("amount").decimalValue().signum());
+    }
+}
@@ -0,0 +1,274 @@
+package com.fraud.loadgen.e2e;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fraud.loadgen.GeneratorConfig;
+import com.fraud.loadgen.LatencyStats;
+import com.fraud.loadgen.LoadGeneratorApplication;
+import com.fraud.loadgen.LoadRunner;
+import com.fraud.loadgen.TransactionStreamGenerator;
+import com.fraud.loadgen.sink.HttpTransactionSink;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * ============================================
+ * END-TO-END THROUGHPUT SUITE
+ * ============================================
+ * Ne yapar?
+ * - Embedded Kafka (KRaft) başlatır
+ * - transaction-service ve risk-engine-service jar'larını ayrı process olarak
+ *   bu broker'a ve lokal PostgreSQL'e bağlar
+ * - Load generator ile REST'e N transaction basar
+ * - Hepsi risk_scores'a düşene kadar bekler, sonra ölçer:
+ *   - Sürekli throughput (scored tx/s, ilk ingest → son skor)
+ *   - Ingest → score gecikmesi (risk_scores.created_at - transactions.created_at) p50/p90/p99
+ * - Raporu target/e2e-report.json'a yazar, test verisini siler
+ *
+ * Ön koşullar (yoksa test SKIP edilir):
+ * - mvn package (transaction-service, risk-engine-service) → target/*.jar
+ * - Lokal PostgreSQL + init.sql (docker compose up postgres)
+ *
+ * Komut: mvn -Pe2e test -De2e.transactions=50000 -De2e.rate=5000
+ */
+class EndToEndThroughputIT {
+
+    private static final String TRANSACTIONS_TOPIC = "transactions-topic";
+    private static final String ALERTS_TOPIC = "fraud-alerts-topic";
+
+    private static final long TRANSACTIONS = Long.getLong("e2e.transactions", 20_000);
+    private static final int RATE = Integer.getInteger("e2e.rate", 2_000);
+    private static final int IN_FLIGHT = Integer.getInteger("e2e.in-flight", 128);
+    private static final long TIMEOUT_SECONDS = Long.getLong("e2e.timeout-seconds", 300);
+
+    private static final String JDBC_URL = System.getProperty("e2e.jdbc-url", "jdbc:postgresql://localhost:5432/fraud_db");
+    private static final String DB_USER = System.getProperty("e2e.db-user", "fraud_user");
+    private static final String DB_PASSWORD = System.getProperty("e2e.db-password", "fraud_pass_2025");
+
+    private static final Path SERVICES = Path.of(System.getProperty("e2e.services-dir", ".."));
+    private static final int TRANSACTION_PORT = 18081;
+    private static final int RISK_PORT = 18082;
+
+    private static EmbeddedKafkaKraftBroker kafka;
+    private static final List<Process> processes = new ArrayList<>();
+
+    @BeforeAll
+    static void startEnvironment() throws Exception {
+        Path transactionJar = SERVICES.resolve("transaction-service/target/transaction-service.jar");
+        Path riskJar = SERVICES.resolve("risk-engine-service/target/risk-engine-service.jar");
+        assumeTrue(Files.exists(transactionJar) && Files.exists(riskJar),
+                "service jars not built (mvn package in transaction-service and risk-engine-service)");
+        assumeTrue(databaseReachable(), "PostgreSQL not reachable at " + JDBC_URL);
+
+        kafka = new EmbeddedKafkaKraftBroker(1, 3, TRANSACTIONS_TOPIC, ALERTS_TOPIC);
+        kafka.afterPropertiesSet();
+        String brokers = kafka.getBrokersAsString();
+
+        processes.add(launch("risk-engine-service", riskJar, RISK_PORT, brokers));
+        processes.add(launch("transaction-service", transactionJar, TRANSACTION_PORT, brokers));
+
+        awaitHttp("http://localhost:" + RISK_PORT + "/api/rules");
+        awaitHttp("http://localhost:" + TRANSACTION_PORT + "/api/transactions/health");
+    }
+
+    @AfterAll
+    static void stopEnvironment() {
+        for (Process process : processes) {
+            process.destroy();
+        }
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(30, java.util.concurrent.TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                process.destroyForcibly();
+            }
+        }
+        if (kafka != null) {
+            kafka.destroy();
+        }
+    }
+
+    @Test
+    void sustainedThroughputAndIngestToScoreLatency() throws Exception {
+        GeneratorConfig config = new GeneratorConfig();
+        config.setTransactionPrefix("E2E-" + System.currentTimeMillis() + "-");
+        String prefix = config.getTransactionPrefix();
+
+        ObjectMapper objectMapper = LoadGeneratorApplication.objectMapper();
+        Map<String, Object> load;
+        try (HttpTransactionSink sink = new HttpTransactionSink("http://localhost:" + TRANSACTION_PORT, objectMapper)) {
+            load = new LoadRunner(new TransactionStreamGenerator(config), sink, RATE, IN_FLIGHT).run(TRANSACTIONS);
+        }
+        long accepted = (Long) load.get("succeeded");
+
+        try (Connection connection = DriverManager.getConnection(JDBC_URL, DB_USER, DB_PASSWORD)) {
+            long scored = awaitScored(connection, prefix, accepted);
+            assertEquals(accepted, scored, "not every accepted transaction was scored in time");
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("ingest", load);
+            report.put("pipeline", pipelineStats(connection, prefix));
+
+            File output = new File("target/e2e-report.json");
+            objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output, report);
+            System.out.println(objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(report));
+
+            // risk_scores / alerts CASCADE ile silinir
+            try (PreparedStatement delete = connection.prepareStatement(
+                    "DELETE FROM transactions WHERE transaction_id LIKE ?")) {
+                delete.setString(1, prefix + "%");
+                delete.executeUpdate();
+            }
+        }
+    }
+
+    // ============================================
+    // MEASUREMENT
+    // ============================================
+
+    private static long awaitScored(Connection connection, String prefix, long expected) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(TIMEOUT_SECONDS).toNanos();
+        long scored = 0;
+        while (System.nanoTime() < deadline) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT COUNT(*) FROM risk_scores WHERE transaction_id LIKE ?")) {
+                statement.setString(1, prefix + "%");
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    scored = rs.getLong(1);
+                }
+            }
+            if (scored >= expected) {
+                break;
+            }
+            Thread.sleep(500);
+        }
+        return scored;
+    }
+
+    private static Map<String, Object> pipelineStats(Connection connection, String prefix) throws SQLException {
+        LatencyStats latency = new LatencyStats((int) TRANSACTIONS);
+        Timestamp firstIngest = null;
+        Timestamp lastScore = null;
+        long scored = 0;
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT t.created_at, r.created_at FROM risk_scores r "
+                        + "JOIN transactions t ON t.transaction_id = r.transaction_id "
+                        + "WHERE t.transaction_id LIKE ?")) {
+            statement.setString(1, prefix + "%");
+            statement.setFetchSize(10_000);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp ingested = rs.getTimestamp(1);
+                    Timestamp scoredAt = rs.getTimestamp(2);
+                    scored++;
+                    if (firstIngest == null || ingested.before(firstIngest)) {
+                        firstIngest = ingested;
+                    }
+                    if (lastScore == null || scoredAt.after(lastScore)) {
+                        lastScore = scoredAt;
+                    }
+                    long micros = Duration.between(ingested.toInstant(), scoredAt.toInstant()).toNanos() / 1000;
+                    latency.record(Math.max(0, micros));
+                }
+            }
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("scored", scored);
+        if (firstIngest != null) {
+            double seconds = Duration.between(firstIngest.toInstant(), lastScore.toInstant()).toMillis() / 1000.0;
+            stats.put("elapsedSeconds", seconds);
+            stats.put("sustainedEventsPerSecond", seconds > 0 ? Math.round(scored / seconds) : 0);
+        }
+        stats.put("ingestToScoreLatency", latency.summary());
+        return stats;
+    }
+
+    // ============================================
+    // ENVIRONMENT
+    // ============================================
+
+    private static boolean databaseReachable() {
+        try (Connection ignored = DriverManager.getConnection(JDBC_URL, DB_USER, DB_PASSWORD)) {
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static Process launch(String name, Path jar, int port, String brokers) throws Exception {
+        Path logs = Path.of("target/e2e-logs");
+        Files.createDirectories(logs);
+
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-jar", jar.toAbsolutePath().toString(),
+                "--server.port=" + port,
+                "--spring.kafka.bootstrap-servers=" + brokers,
+                "--spring.datasource.url=" + JDBC_URL,
+                "--spring.datasource.username=" + DB_USER,
+                "--spring.datasource.password=" + DB_PASSWORD,
+                // Ölçümü SQL / DEBUG log I/O'su bozmasın
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.fraud=WARN",
+                "--logging.level.org.springframework.kafka=WARN",
+                "--logging.level.org.hibernate.SQL=WARN"));
+
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logs.resolve(name + ".log").toFile())
+                .start();
+    }
+
+    private static void awaitHttp(String url) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(2)).GET().build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(120).toNanos();
+        while (System.nanoTime() < deadline) {
+            for (Process process : processes) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("service exited early, see target/e2e-logs");
+                }
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (Exception ignored) {
+                // henüz ayağa kalkmadı
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException("service did not become ready: " + url);
+    }
+}
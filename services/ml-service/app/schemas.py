@@ -26,6 +26,14 @@ class PredictionRequest(BaseModel):
     avg_amount: Optional[float] = Field(None, description="Customer avg amount")
     transaction_count: Optional[int] = Field(None, description="Customer transaction count")
 
+    # Rolling amount aggregates (optional - risk engine'in bellekteki 1h / 24h / 7d özetleri)
+    amount_sum_1h: Optional[float] = Field(None, description="Customer amount total, last 1h")
+    amount_max_1h: Optional[float] = Field(None, description="Customer max amount, last 1h")
+    amount_sum_24h: Optional[float] = Field(None, description="Customer amount total, last 24h")
+    amount_max_24h: Optional[float] = Field(None, description="Customer max amount, last 24h")
+    amount_sum_7d: Optional[float] = Field(None, description="Customer amount total, last 7d")
+    amount_max_7d: Optional[float] = Field(None, description="Customer max amount, last 7d")
+
     class Config:
         json_schema_extra = {
             "example": {
@@ -3,6 +3,7 @@ package com.fraud.risk;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * ============================================
@@ -10,16 +11,17 @@ import org.springframework.kafka.annotation.EnableKafka;
  * ============================================
  * Core fraud detection engine
  * - Kafka Consumer (Transaction'ları dinler)
- * - Rule Engine (Fraud kuralları)
+ * - Rule Engine (Fraud kuralları + DSL kuralları, hot reload)
  * - ML Service Client
  * - Kafka Producer (Alert gönderir)
  */
 @SpringBootApplication
 @EnableKafka  // Kafka'yı aktifleştir
+@EnableScheduling  // DSL kural reload kontrolü için
 public class RiskEngineApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(RiskEngineApplication.java, args);
+        SpringApplication.run(RiskEngineApplication.class, args);
 
         System.out.println("""
 
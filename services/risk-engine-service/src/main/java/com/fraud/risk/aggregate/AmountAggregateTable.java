@@ -0,0 +1,311 @@
+package com.fraud.risk.aggregate;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * ============================================
+ * AMOUNT AGGREGATE TABLE (HİYERARŞİK ZAMAN BUCKET'LARI)
+ * ============================================
+ * Ne yapar?
+ * - Müşteri başına tutar toplamı ve maksimumu, üç seviyeli halka bucket'larda:
+ *     5 dakikalık x 12  → son 1 saat
+ *     1 saatlik   x 24  → son 24 saat
+ *     1 günlük    x 7   → son 7 gün
+ * - Her işlem üç seviyenin birer bucket'ına yazılır: O(1) güncelleme
+ * - Sorgu pencere başına sabit sayıda bucket okur (12 + 24 + 7), tablo taraması yok
+ *
+ * Çözünürlük: pencere kenarı bucket sınırına yuvarlanır
+ * (24h = içinde bulunulan saat + önceki 23 saat). Structuring / slow-burn için yeterli.
+ *
+ * Bellek (müşteri başına sabit):
+ * - 43 bucket x (float toplam + float max) = 344 byte + head dakikası + 2 transaction hash
+ * - Slot dizileri primitive: float[] arena (slot x STRIDE), müşteri başına nesne yok
+ *
+ * Eşzamanlılık / idempotency: LastSeenTable ile aynı (SEGMENTS kilidi, son iki transaction
+ * hash'i → aynı işlem tekrar gelince (Kafka redelivery) ikinci kez eklenmez)
+ *
+ * Changelog değeri: [head dakikası: int][43 x (toplam, max): float] = 348 byte
+ *
+ * Sınır: segment maxPerSegment'e ulaşırsa temizlenir (o müşterilerin geçmişi sıfırlanır)
+ */
+public class AmountAggregateTable {
+
+    // Seviyeler: bucket boyu (dakika) ve halka uzunluğu
+    private static final int[] BUCKET_MINUTES = {5, 60, 1440};
+    private static final int[] BUCKET_COUNTS = {12, 24, 7};
+    private static final int[] LEVEL_OFFSETS = {0, 12, 36};
+    static final int LEVELS = BUCKET_MINUTES.length;
+    static final int STRIDE = (12 + 24 + 7) * 2;  // bucket başına [toplam, max]
+    static final int VALUE_BYTES = Integer.BYTES + STRIDE * Float.BYTES;
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final int maxPerSegment;
+    private volatile ChangeListener changeListener;
+
+    public AmountAggregateTable(int maxCustomers) {
+        this.maxPerSegment = Math.max(16, maxCustomers / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * İşlemi müşterinin bucket'larına ekler
+     * Head'den eski işlem (geç gelen) halkada hâlâ yeri varsa o bucket'a yazılır, yoksa o seviyede atlanır
+     *
+     * @return false: aynı transaction zaten eklenmiş
+     */
+    public boolean record(String customerId, String transactionId, double amount, int epochMinute) {
+        int hash = spread(customerId.hashCode());
+        int transactionHash = transactionId != null ? transactionId.hashCode() : 0;
+        return segments[hash & (SEGMENTS - 1)]
+                .record(customerId, hash >>> SEGMENT_BITS, transactionHash, (float) amount, epochMinute);
+    }
+
+    /**
+     * Seviye başına [toplam, max] yazar: out[2 * level], out[2 * level + 1]
+     * (level 0 = 1h, 1 = 24h, 2 = 7d). Pencere sorgu anına göre kayar.
+     *
+     * @return false: müşteri tabloda yok (out sıfırlanır)
+     */
+    public boolean query(String customerId, int epochMinute, double[] out) {
+        int hash = spread(customerId.hashCode());
+        return segments[hash & (SEGMENTS - 1)].query(customerId, hash >>> SEGMENT_BITS, epochMinute, out);
+    }
+
+    /**
+     * Changelog'dan gelen tam değeri yazar (listener çağrılmaz)
+     * Mevcut head daha yeni veya eşitse dokunmaz
+     */
+    public void restore(String customerId, byte[] value) {
+        if (value.length != VALUE_BYTES) {
+            return;
+        }
+        int hash = spread(customerId.hashCode());
+        segments[hash & (SEGMENTS - 1)].restore(customerId, hash >>> SEGMENT_BITS, ByteBuffer.wrap(value));
+    }
+
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size;
+            }
+        }
+        return size;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    /**
+     * Segment kilidi altında çağrılır: kısa ve bloklamayan olmalı
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+        void onChange(String customerId, byte[] value);
+    }
+
+    // ============================================
+    // SEGMENT (open addressing, linear probing)
+    // ============================================
+    private final class Segment {
+
+        private String[] keys;
+        private int[] heads;
+        private int[] lastTransactions;
+        private int[] previousTransactions;
+        private float[] buckets;
+        private int size;
+
+        Segment() {
+            allocate(64);
+        }
+
+        synchronized boolean record(String key, int hash, int transactionHash, float amount, int minute) {
+            int slot = find(key, hash);
+            if (slot < 0) {
+                slot = insert(key, hash);
+                heads[slot] = minute;
+            } else if (transactionHash != 0
+                    && (lastTransactions[slot] == transactionHash || previousTransactions[slot] == transactionHash)) {
+                return false;
+            }
+
+            int base = slot * STRIDE;
+            int head = heads[slot];
+            if (minute > head) {
+                advance(base, head, minute);
+                heads[slot] = minute;
+                head = minute;
+            }
+            for (int level = 0; level < LEVELS; level++) {
+                int headIndex = head / BUCKET_MINUTES[level];
+                int index = minute / BUCKET_MINUTES[level];
+                if (headIndex - index >= BUCKET_COUNTS[level]) {
+                    continue;  // Bu seviyenin halkasından düşmüş
+                }
+                int offset = base + (LEVEL_OFFSETS[level] + Math.floorMod(index, BUCKET_COUNTS[level])) * 2;
+                buckets[offset] += amount;
+                buckets[offset + 1] = Math.max(buckets[offset + 1], amount);
+            }
+            previousTransactions[slot] = lastTransactions[slot];
+            lastTransactions[slot] = transactionHash;
+
+            ChangeListener listener = changeListener;
+            if (listener != null) {
+                listener.onChange(key, encode(slot));
+            }
+            return true;
+        }
+
+        synchronized boolean query(String key, int hash, int minute, double[] out) {
+            Arrays.fill(out, 0, LEVELS * 2, 0.0);
+            int slot = find(key, hash);
+            if (slot < 0) {
+                return false;
+            }
+            int base = slot * STRIDE;
+            int head = heads[slot];
+            for (int level = 0; level < LEVELS; level++) {
+                int count = BUCKET_COUNTS[level];
+                int headIndex = head / BUCKET_MINUTES[level];
+                int queryIndex = minute / BUCKET_MINUTES[level];
+                // Halkada geçerli aralık ile sorgu penceresinin kesişimi
+                int from = Math.max(queryIndex, headIndex) - count + 1;
+                int to = Math.min(queryIndex, headIndex);
+                double sum = 0;
+                double max = 0;
+                for (int index = from; index <= to; index++) {
+                    int offset = base + (LEVEL_OFFSETS[level] + Math.floorMod(index, count)) * 2;
+                    sum += buckets[offset];
+                    max = Math.max(max, buckets[offset + 1]);
+                }
+                out[level * 2] = sum;
+                out[level * 2 + 1] = max;
+            }
+            return true;
+        }
+
+        synchronized void restore(String key, int hash, ByteBuffer value) {
+            int head = value.getInt();
+            int slot = find(key, hash);
+            if (slot < 0) {
+                slot = insert(key, hash);
+            } else if (heads[slot] >= head) {
+                return;
+            }
+            heads[slot] = head;
+            lastTransactions[slot] = 0;
+            previousTransactions[slot] = 0;
+            int base = slot * STRIDE;
+            for (int i = 0; i < STRIDE; i++) {
+                buckets[base + i] = value.getFloat();
+            }
+        }
+
+        /**
+         * Head'den minute'e ilerlerken aradaki (artık başka zamana ait) bucket'ları sıfırlar
+         * Seviye başına en fazla halka uzunluğu kadar → O(1)
+         */
+        private void advance(int base, int head, int minute) {
+            for (int level = 0; level < LEVELS; level++) {
+                int count = BUCKET_COUNTS[level];
+                int from = head / BUCKET_MINUTES[level];
+                int steps = Math.min(minute / BUCKET_MINUTES[level] - from, count);
+                for (int step = 1; step <= steps; step++) {
+                    int offset = base + (LEVEL_OFFSETS[level] + Math.floorMod(from + step, count)) * 2;
+                    buckets[offset] = 0f;
+                    buckets[offset + 1] = 0f;
+                }
+            }
+        }
+
+        private byte[] encode(int slot) {
+            ByteBuffer buffer = ByteBuffer.allocate(VALUE_BYTES).putInt(heads[slot]);
+            int base = slot * STRIDE;
+            for (int i = 0; i < STRIDE; i++) {
+                buffer.putFloat(buckets[base + i]);
+            }
+            return buffer.array();
+        }
+
+        private int find(String key, int hash) {
+            int mask = keys.length - 1;
+            int slot = hash & mask;
+            while (keys[slot] != null) {
+                if (keys[slot].equals(key)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Boş (sıfırlanmış) slot açar; resize sonrası geçerli slot index'ini döner
+         */
+        private int insert(String key, int hash) {
+            if (size >= maxPerSegment) {
+                allocate(64);
+            }
+            if (size + 1 > keys.length * 3 / 4) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int slot = hash & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            size++;
+            return slot;
+        }
+
+        private void resize() {
+            String[] oldKeys = keys;
+            int[] oldHeads = heads;
+            int[] oldLast = lastTransactions;
+            int[] oldPrevious = previousTransactions;
+            float[] oldBuckets = buckets;
+            allocate(oldKeys.length * 2);
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == null) {
+                    continue;
+                }
+                int slot = (spread(oldKeys[i].hashCode()) >>> SEGMENT_BITS) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                heads[slot] = oldHeads[i];
+                lastTransactions[slot] = oldLast[i];
+                previousTransactions[slot] = oldPrevious[i];
+                System.arraycopy(oldBuckets, i * STRIDE, buckets, slot * STRIDE, STRIDE);
+                size++;
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new String[capacity];
+            heads = new int[capacity];
+            lastTransactions = new int[capacity];
+            previousTransactions = new int[capacity];
+            buckets = new float[capacity * STRIDE];
+            size = 0;
+        }
+    }
+}
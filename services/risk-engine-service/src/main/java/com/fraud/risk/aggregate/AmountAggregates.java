@@ -0,0 +1,120 @@
+package com.fraud.risk.aggregate;
+
+import com.fraud.risk.state.CustomerStateStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ============================================
+ * AMOUNT AGGREGATES (1h / 24h / 7d ROLLING)
+ * ============================================
+ * Ne yapar?
+ * - Müşteri başına kayan tutar toplamı ve maksimumu (AmountAggregateTable üzerinde)
+ * - Yazan: RollingAmountRule (her işlem bir kez, kural kapalı olsa da)
+ * - Okuyan: kurallar + ML feature'ları (MlScoringClient)
+ *
+ * Neden?
+ * - Structuring (eşik altı çok sayıda işlem) ve slow-burn fraud tek işleme bakınca görünmez
+ * - transactions tablosunu her işlemde taramak imkansız → bellekte sabit boyutlu özet
+ *
+ * Sorgu sonucu: out[SUM_1H..MAX_7D] (çağıranın dizisi, allocation yok)
+ *
+ * Changelog: "amount-aggregates" store'u olarak rebalance / restart sonrası geri yüklenir
+ */
+@Component
+public class AmountAggregates implements CustomerStateStore {
+
+    public static final int SUM_1H = 0;
+    public static final int MAX_1H = 1;
+    public static final int SUM_24H = 2;
+    public static final int MAX_24H = 3;
+    public static final int SUM_7D = 4;
+    public static final int MAX_7D = 5;
+    public static final int FIELDS = 6;
+
+    private final AmountAggregateTable table;
+    private final boolean enabled;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder queries = new LongAdder();
+
+    public AmountAggregates(@Value("${fraud.aggregates.amount.enabled:true}") boolean enabled,
+                            @Value("${fraud.aggregates.amount.max-customers:1000000}") int maxCustomers) {
+        this.enabled = enabled;
+        this.table = new AmountAggregateTable(enabled ? maxCustomers : 16);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * İşlemi ekler (aynı transaction ikinci kez eklenmez)
+     */
+    public void record(String customerId, String transactionId, BigDecimal amount, LocalDateTime timestamp) {
+        if (!enabled || customerId == null || amount == null || timestamp == null) {
+            return;
+        }
+        if (table.record(customerId, transactionId, amount.doubleValue(), epochMinute(timestamp))) {
+            recorded.increment();
+        } else {
+            duplicates.increment();
+        }
+    }
+
+    /**
+     * @param at  Pencerelerin bittiği an (genelde işlemin zamanı)
+     * @param out En az FIELDS uzunluğunda; müşteri yoksa sıfırlar
+     * @return müşterinin kaydı var mı
+     */
+    public boolean query(String customerId, LocalDateTime at, double[] out) {
+        if (!enabled || customerId == null || at == null) {
+            Arrays.fill(out, 0, FIELDS, 0.0);
+            return false;
+        }
+        queries.increment();
+        return table.query(customerId, epochMinute(at), out);
+    }
+
+    private static int epochMinute(LocalDateTime timestamp) {
+        return (int) (timestamp.toEpochSecond(ZoneOffset.UTC) / 60);
+    }
+
+    // ============================================
+    // STATE STORE
+    // ============================================
+    @Override
+    public String storeName() {
+        return "amount-aggregates";
+    }
+
+    @Override
+    public void restore(String customerId, byte[] value) {
+        table.restore(customerId, value);
+    }
+
+    @Override
+    public void attachChangelog(ChangelogWriter writer) {
+        table.setChangeListener(writer == null ? null : writer::write);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("customers", table.size());
+        stats.put("recorded", recorded.sum());
+        stats.put("duplicates", duplicates.sum());
+        stats.put("queries", queries.sum());
+        stats.put("bytesPerCustomer", AmountAggregateTable.VALUE_BYTES);
+        return stats;
+    }
+}
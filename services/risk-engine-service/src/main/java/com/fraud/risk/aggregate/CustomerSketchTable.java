@@ -0,0 +1,372 @@
+package com.fraud.risk.aggregate;
+
+import java.nio.ByteBuffer;
+
+/**
+ * ============================================
+ * CUSTOMER SKETCH TABLE (HLL + COUNT-MIN)
+ * ============================================
+ * Ne yapar?
+ * - Müşteri başına, boyut (lokasyon, merchant kategorisi) başına iki olasılıksal özet:
+ *   - HyperLogLog (64 register): kayan penceredeki farklı değer sayısı
+ *   - Count-min (2 x 32 sayaç): değerin geçmişte kaç kez görüldüğü (üstten tahmin)
+ *
+ * Kayan pencere (HLL): pencere = windowMinutes, iki dönem tutulur (şimdiki + önceki)
+ * → tahmin son 1-2 pencereyi kapsar. Dönem ilerleyince önceki silinir, şimdiki önceki olur.
+ *
+ * Count-min yaşlanma: her decayWindows dönemde bir tüm sayaçlar yarıya iner
+ * (eski alışkanlıklar unutulur, 8 bit sayaç taşmaz)
+ *
+ * Hata payı:
+ * - HLL m=64: ~%13 standart hata; küçük sayılarda (müşteri başına tipik) linear counting → neredeyse kesin
+ * - Count-min: sadece fazla sayar → "0" = bu değer gerçekten hiç görülmedi (novelty'de yanlış alarm yok)
+ *
+ * Bellek (müşteri başına sabit):
+ * - Boyut başına 64 + 64 (HLL iki dönem) + 64 (count-min) = 192 byte, 2 boyut = 384 byte
+ * - + dönem, geçmiş sayacı, iki transaction hash (idempotency)
+ * - Tüm slotlar tek byte[] arena'da (slot x STRIDE), müşteri başına nesne yok
+ *
+ * Eşzamanlılık / sınır: LastSeenTable ile aynı (64 segment kilidi, segment dolunca temizlenir)
+ */
+public class CustomerSketchTable {
+
+    public static final int DIMENSIONS = 2;
+
+    private static final int REGISTER_BITS = 6;
+    private static final int REGISTERS = 1 << REGISTER_BITS;
+    private static final double ALPHA = 0.709;  // m = 64 için HLL sabiti
+    private static final int CMS_DEPTH = 2;
+    private static final int CMS_WIDTH = 32;
+
+    // Boyut bloğu: [HLL şimdiki][HLL önceki][count-min]
+    private static final int HLL_CURRENT = 0;
+    private static final int HLL_PREVIOUS = REGISTERS;
+    private static final int CMS = REGISTERS * 2;
+    private static final int DIMENSION_BYTES = REGISTERS * 2 + CMS_DEPTH * CMS_WIDTH;
+    static final int STRIDE = DIMENSION_BYTES * DIMENSIONS;
+    static final int VALUE_BYTES = Integer.BYTES * 2 + STRIDE;
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final int maxPerSegment;
+    private final int windowMinutes;
+    private final int decayWindows;
+    private volatile ChangeListener changeListener;
+
+    public CustomerSketchTable(int maxCustomers, int windowMinutes, int decayWindows) {
+        this.maxPerSegment = Math.max(16, maxCustomers / SEGMENTS);
+        this.windowMinutes = Math.max(1, windowMinutes);
+        this.decayWindows = Math.max(1, decayWindows);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * İşlemin değerlerini özetlere ekler ve ekleme ÖNCESİ durumu döner
+     *
+     * @param values Boyut başına değer (null = o boyutta değer yok)
+     * @param out    Boyut başına [farklı sayısı (pencere, bu işlem dahil), değerin önceki görülme tahmini]
+     *               + out[2 * DIMENSIONS] = müşterinin (yaşlanmış) önceki işlem sayısı
+     *               Aynı transaction tekrar gelirse (Novelty + Spraying, redelivery) ilk çağrıdaki cevap
+     */
+    public void observe(String customerId, String transactionId, String[] values, int epochMinute, double[] out) {
+        int hash = spread(customerId.hashCode());
+        int transactionHash = transactionId != null ? transactionId.hashCode() : 0;
+        segments[hash & (SEGMENTS - 1)].observe(customerId, hash >>> SEGMENT_BITS, transactionHash,
+                values, epochMinute / windowMinutes, out);
+    }
+
+    /**
+     * Changelog'dan gelen tam değeri yazar (listener çağrılmaz)
+     * Mevcut dönem daha yeniyse dokunmaz
+     */
+    public void restore(String customerId, byte[] value) {
+        if (value.length != VALUE_BYTES) {
+            return;
+        }
+        int hash = spread(customerId.hashCode());
+        segments[hash & (SEGMENTS - 1)].restore(customerId, hash >>> SEGMENT_BITS, ByteBuffer.wrap(value));
+    }
+
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size;
+            }
+        }
+        return size;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    /**
+     * Değer hash'i: String.hashCode + 64 bit karıştırma (murmur3 fmix64)
+     * Üst 6 bit → HLL register, kalan bitler → rank; alt bitler → count-min satırları
+     */
+    private static long valueHash(String value) {
+        long h = value.hashCode() * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Segment kilidi altında çağrılır: kısa ve bloklamayan olmalı
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+        void onChange(String customerId, byte[] value);
+    }
+
+    // ============================================
+    // SEGMENT (open addressing, linear probing)
+    // ============================================
+    private final class Segment {
+
+        private String[] keys;
+        private int[] epochs;
+        private int[] history;
+        private int[] lastTransactions;
+        private int[] previousTransactions;
+        private byte[] sketches;
+        private int size;
+
+        Segment() {
+            allocate(64);
+        }
+
+        synchronized void observe(String key, int hash, int transactionHash, String[] values, int epoch, double[] out) {
+            int slot = find(key, hash);
+            if (slot < 0) {
+                slot = insert(key, hash);
+                epochs[slot] = epoch;
+            } else if (transactionHash != 0
+                    && (lastTransactions[slot] == transactionHash || previousTransactions[slot] == transactionHash)) {
+                // Tekrar: ekleme yapılmaz, ilk çağrıdaki "önceki" değerler geri hesaplanır
+                fill(slot, values, out, 1);
+                return;
+            }
+
+            if (epoch > epochs[slot]) {
+                advance(slot, epochs[slot], epoch);
+                epochs[slot] = epoch;
+            }
+
+            // Önce "görülme" (ekleme öncesi), sonra ekleme
+            int base = slot * STRIDE;
+            for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+                String value = dimension < values.length ? values[dimension] : null;
+                if (value == null) {
+                    continue;
+                }
+                long h = valueHash(value);
+                int block = base + dimension * DIMENSION_BYTES;
+                // Geç gelen (önceki döneme ait) işlem de şimdiki döneme yazılır: pencere en fazla bir dönem uzar
+                int register = (int) (h >>> (64 - REGISTER_BITS));
+                int rank = Math.min(Long.numberOfLeadingZeros(h << REGISTER_BITS) + 1, 64 - REGISTER_BITS + 1);
+                if (rank > sketches[block + HLL_CURRENT + register]) {
+                    sketches[block + HLL_CURRENT + register] = (byte) rank;
+                }
+                for (int row = 0; row < CMS_DEPTH; row++) {
+                    int index = block + CMS + row * CMS_WIDTH + cmsColumn(h, row);
+                    if ((sketches[index] & 0xFF) < 0xFF) {
+                        sketches[index]++;
+                    }
+                }
+            }
+            if (history[slot] < Integer.MAX_VALUE) {
+                history[slot]++;
+            }
+            previousTransactions[slot] = lastTransactions[slot];
+            lastTransactions[slot] = transactionHash;
+
+            fill(slot, values, out, 1);
+
+            ChangeListener listener = changeListener;
+            if (listener != null) {
+                listener.onChange(key, encode(slot));
+            }
+        }
+
+        synchronized void restore(String key, int hash, ByteBuffer value) {
+            int epoch = value.getInt();
+            int slot = find(key, hash);
+            if (slot < 0) {
+                slot = insert(key, hash);
+            } else if (epochs[slot] > epoch) {
+                return;
+            }
+            epochs[slot] = epoch;
+            history[slot] = value.getInt();
+            lastTransactions[slot] = 0;
+            previousTransactions[slot] = 0;
+            value.get(sketches, slot * STRIDE, STRIDE);
+        }
+
+        /**
+         * Ekleme sonrası durumdan "önceki" cevabı üretir: bu işlem her count-min satırına
+         * tam 1 eklediği için önceki tahmin = min(sayaç) - 1 (doygun sayaçta yaklaşık)
+         */
+        private void fill(int slot, String[] values, double[] out, int added) {
+            int base = slot * STRIDE;
+            for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+                String value = dimension < values.length ? values[dimension] : null;
+                int block = base + dimension * DIMENSION_BYTES;
+                out[dimension * 2] = estimate(block);
+                if (value == null) {
+                    out[dimension * 2 + 1] = 0;
+                    continue;
+                }
+                long h = valueHash(value);
+                int min = Integer.MAX_VALUE;
+                for (int row = 0; row < CMS_DEPTH; row++) {
+                    min = Math.min(min, sketches[block + CMS + row * CMS_WIDTH + cmsColumn(h, row)] & 0xFF);
+                }
+                out[dimension * 2 + 1] = Math.max(0, min - added);
+            }
+            out[DIMENSIONS * 2] = Math.max(0, history[slot] - added);
+        }
+
+        /**
+         * İki dönemin birleşimi (register başına max) üzerinden HLL tahmini
+         */
+        private double estimate(int block) {
+            double sum = 0;
+            int zeros = 0;
+            for (int register = 0; register < REGISTERS; register++) {
+                int rank = Math.max(sketches[block + HLL_CURRENT + register], sketches[block + HLL_PREVIOUS + register]);
+                sum += 1.0 / (1L << rank);
+                if (rank == 0) {
+                    zeros++;
+                }
+            }
+            if (zeros == REGISTERS) {
+                return 0;
+            }
+            double raw = ALPHA * REGISTERS * REGISTERS / sum;
+            if (raw <= 2.5 * REGISTERS && zeros > 0) {
+                return REGISTERS * Math.log((double) REGISTERS / zeros);  // Linear counting
+            }
+            return raw;
+        }
+
+        /**
+         * Dönem ilerledi: HLL şimdiki → önceki (iki+ dönem atlandıysa ikisi de silinir),
+         * decayWindows sınırı geçildiyse count-min ve geçmiş sayacı yarılanır
+         */
+        private void advance(int slot, int from, int to) {
+            int base = slot * STRIDE;
+            int halvings = Math.min(to / decayWindows - from / decayWindows, 8);
+            for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+                int block = base + dimension * DIMENSION_BYTES;
+                for (int register = 0; register < REGISTERS; register++) {
+                    sketches[block + HLL_PREVIOUS + register] = to - from == 1 ? sketches[block + HLL_CURRENT + register] : 0;
+                    sketches[block + HLL_CURRENT + register] = 0;
+                }
+                if (halvings > 0) {
+                    for (int i = 0; i < CMS_DEPTH * CMS_WIDTH; i++) {
+                        sketches[block + CMS + i] = (byte) ((sketches[block + CMS + i] & 0xFF) >>> halvings);
+                    }
+                }
+            }
+            if (halvings > 0) {
+                history[slot] >>>= halvings;
+            }
+        }
+
+        private int cmsColumn(long h, int row) {
+            return (int) ((h >>> (row * 16)) & (CMS_WIDTH - 1));
+        }
+
+        private byte[] encode(int slot) {
+            ByteBuffer buffer = ByteBuffer.allocate(VALUE_BYTES).putInt(epochs[slot]).putInt(history[slot]);
+            buffer.put(sketches, slot * STRIDE, STRIDE);
+            return buffer.array();
+        }
+
+        private int find(String key, int hash) {
+            int mask = keys.length - 1;
+            int slot = hash & mask;
+            while (keys[slot] != null) {
+                if (keys[slot].equals(key)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Boş (sıfırlanmış) slot açar; resize sonrası geçerli slot index'ini döner
+         */
+        private int insert(String key, int hash) {
+            if (size >= maxPerSegment) {
+                allocate(64);
+            }
+            if (size + 1 > keys.length * 3 / 4) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int slot = hash & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            size++;
+            return slot;
+        }
+
+        private void resize() {
+            String[] oldKeys = keys;
+            int[] oldEpochs = epochs;
+            int[] oldHistory = history;
+            int[] oldLast = lastTransactions;
+            int[] oldPrevious = previousTransactions;
+            byte[] oldSketches = sketches;
+            allocate(oldKeys.length * 2);
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == null) {
+                    continue;
+                }
+                int slot = (spread(oldKeys[i].hashCode()) >>> SEGMENT_BITS) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                epochs[slot] = oldEpochs[i];
+                history[slot] = oldHistory[i];
+                lastTransactions[slot] = oldLast[i];
+                previousTransactions[slot] = oldPrevious[i];
+                System.arraycopy(oldSketches, i * STRIDE, sketches, slot * STRIDE, STRIDE);
+                size++;
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new String[capacity];
+            epochs = new int[capacity];
+            history = new int[capacity];
+            lastTransactions = new int[capacity];
+            previousTransactions = new int[capacity];
+            sketches = new byte[capacity * STRIDE];
+            size = 0;
+        }
+    }
+}
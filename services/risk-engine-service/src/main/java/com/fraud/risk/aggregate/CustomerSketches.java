@@ -0,0 +1,124 @@
+package com.fraud.risk.aggregate;
+
+import com.fraud.risk.state.CustomerStateStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ============================================
+ * CUSTOMER SKETCHES (DISTINCT + FREQUENCY)
+ * ============================================
+ * Ne yapar?
+ * - Müşteri başına lokasyon ve merchant kategorisi için:
+ *   - Kayan penceredeki farklı değer sayısı (HyperLogLog)
+ *   - Değerin müşteri geçmişinde görülme sayısı (count-min)
+ * - Okuyan / yazan: SprayingRule ve NoveltyRule (ikisi de observe çağırır, işlem bir kez eklenir)
+ *
+ * Neden?
+ * - CustomerProfile'da kesin küme (tüm lokasyonlar / kategoriler) milyonlarca müşteride belleğe sığmaz
+ * - Sketch: müşteri başına sabit byte, sınırlı hata
+ *
+ * Sonuç: out[DISTINCT_LOCATIONS..HISTORY] (çağıranın dizisi, allocation yok)
+ * *_SEEN ve HISTORY bu işlem eklenmeden ÖNCEKİ değerdir (novelty: "ilk kez mi?")
+ *
+ * Not: Transaction modelinde karşı taraf (counterparty) alanı yok; gelirse yeni bir boyut olarak eklenir
+ *
+ * Changelog: "customer-sketches" store'u olarak rebalance / restart sonrası geri yüklenir
+ */
+@Component
+public class CustomerSketches implements CustomerStateStore {
+
+    public static final int DISTINCT_LOCATIONS = 0;
+    public static final int LOCATION_SEEN = 1;
+    public static final int DISTINCT_CATEGORIES = 2;
+    public static final int CATEGORY_SEEN = 3;
+    public static final int HISTORY = 4;
+    public static final int FIELDS = 5;
+
+    private final CustomerSketchTable table;
+    private final boolean enabled;
+    private final int windowMinutes;
+
+    // Değer dizisi [lokasyon, kategori]: thread başına tek dizi
+    private final ThreadLocal<String[]> values = ThreadLocal.withInitial(() -> new String[CustomerSketchTable.DIMENSIONS]);
+
+    private final LongAdder observed = new LongAdder();
+
+    public CustomerSketches(@Value("${fraud.aggregates.sketches.enabled:true}") boolean enabled,
+                            @Value("${fraud.aggregates.sketches.max-customers:1000000}") int maxCustomers,
+                            @Value("${fraud.aggregates.sketches.window-minutes:1440}") int windowMinutes,
+                            @Value("${fraud.aggregates.sketches.decay-windows:30}") int decayWindows) {
+        this.enabled = enabled;
+        this.windowMinutes = windowMinutes;
+        this.table = new CustomerSketchTable(enabled ? maxCustomers : 16, windowMinutes, decayWindows);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Pencere uzunluğu (dakika); farklı sayısı son 1-2 pencereyi kapsar
+     */
+    public int getWindowMinutes() {
+        return windowMinutes;
+    }
+
+    /**
+     * İşlemi ekler (aynı transaction ikinci kez eklenmez) ve ekleme öncesi durumu yazar
+     *
+     * @param out En az FIELDS uzunluğunda
+     * @return false: sketch kapalı veya eksik veri (out sıfırlanır)
+     */
+    public boolean observe(String customerId, String transactionId, String location, String merchantCategory,
+                           LocalDateTime timestamp, double[] out) {
+        if (!enabled || customerId == null || timestamp == null) {
+            Arrays.fill(out, 0, FIELDS, 0.0);
+            return false;
+        }
+        String[] dimensions = values.get();
+        dimensions[0] = location;
+        dimensions[1] = merchantCategory;
+        table.observe(customerId, transactionId, dimensions,
+                (int) (timestamp.toEpochSecond(ZoneOffset.UTC) / 60), out);
+        dimensions[0] = null;
+        dimensions[1] = null;
+        observed.increment();
+        return true;
+    }
+
+    // ============================================
+    // STATE STORE
+    // ============================================
+    @Override
+    public String storeName() {
+        return "customer-sketches";
+    }
+
+    @Override
+    public void restore(String customerId, byte[] value) {
+        table.restore(customerId, value);
+    }
+
+    @Override
+    public void attachChangelog(ChangelogWriter writer) {
+        table.setChangeListener(writer == null ? null : writer::write);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("customers", table.size());
+        stats.put("observed", observed.sum());
+        stats.put("windowMinutes", windowMinutes);
+        stats.put("bytesPerCustomer", CustomerSketchTable.VALUE_BYTES);
+        return stats;
+    }
+}
@@ -0,0 +1,225 @@
+package com.fraud.risk.aggregate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ============================================
+ * GLOBAL HOTSPOTS (MERCHANT KATEGORİSİ / LOKASYON)
+ * ============================================
+ * Ne yapar?
+ * - Tüm trafikte merchant kategorisi ve lokasyon sıklığını kayan pencerede izler (HeavyHitterSketch)
+ * - Periyodik değerlendirme: top-k (dakika başına hız) + istatistiksel olarak anlamlı sıçramalar
+ * - Sonuç değişmez bir snapshot olarak yayınlanır: kurallar tek bir hash lookup yapar
+ *
+ * Neden?
+ * - Müşteri bazlı kurallar ele geçirilmiş bir merchant'ı veya lokasyon çapında saldırıyı göremez
+ *   (her müşteri tek işlem yapar, toplamda sıçrama vardır)
+ *
+ * Hot path maliyeti (işlem başına, boyut başına):
+ * - Bir stripe kilidi (thread'e göre, pratikte çekişmesiz) + 3 sayaç + en fazla candidates karşılaştırma
+ * - Değerlendirme listener thread'inde değil, scheduler'da
+ *
+ * Idempotency: aynı işlem tekrar gelebilir (Kafka redelivery) → son işlemlerin hash'leri
+ * doğrudan eşlemeli bir dizide tutulur, aynı transaction ikinci kez sayılmaz
+ */
+@Component
+public class GlobalHotspots {
+
+    private static final Logger logger = LoggerFactory.getLogger(GlobalHotspots.class);
+
+    public static final String MERCHANT_CATEGORY = "merchant_category";
+    public static final String LOCATION = "location";
+
+    private static final int RECENT_BITS = 16;
+
+    private final boolean enabled;
+    private final HeavyHitterSketch merchantCategories;
+    private final HeavyHitterSketch locations;
+    private final AtomicLongArray recentTransactions = new AtomicLongArray(1 << RECENT_BITS);
+
+    private final double zThreshold;
+    private final long minCount;
+    private final int minBaselineBuckets;
+    private final int topK;
+
+    // Son değerlendirme; kurallar ve endpoint buradan okur
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder late = new LongAdder();
+
+    public GlobalHotspots(@Value("${fraud.aggregates.hotspots.enabled:true}") boolean enabled,
+                          @Value("${fraud.aggregates.hotspots.bucket-seconds:60}") long bucketSeconds,
+                          @Value("${fraud.aggregates.hotspots.baseline-buckets:30}") int baselineBuckets,
+                          @Value("${fraud.aggregates.hotspots.stripes:8}") int stripes,
+                          @Value("${fraud.aggregates.hotspots.candidates:32}") int candidates,
+                          @Value("${fraud.aggregates.hotspots.z-threshold:4.0}") double zThreshold,
+                          @Value("${fraud.aggregates.hotspots.min-count:20}") long minCount,
+                          @Value("${fraud.aggregates.hotspots.min-baseline-buckets:5}") int minBaselineBuckets,
+                          @Value("${fraud.aggregates.hotspots.top-k:10}") int topK) {
+        this.enabled = enabled;
+        this.merchantCategories = new HeavyHitterSketch(bucketSeconds, enabled ? baselineBuckets : 1,
+                enabled ? stripes : 1, candidates);
+        this.locations = new HeavyHitterSketch(bucketSeconds, enabled ? baselineBuckets : 1,
+                enabled ? stripes : 1, candidates);
+        this.zThreshold = zThreshold;
+        this.minCount = minCount;
+        this.minBaselineBuckets = minBaselineBuckets;
+        this.topK = topK;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * İşlemi global sayaçlara ekler (aynı transaction ikinci kez eklenmez)
+     */
+    public void record(String transactionId, String merchantCategory, String location, LocalDateTime timestamp) {
+        if (!enabled || timestamp == null) {
+            return;
+        }
+        if (transactionId != null) {
+            long hash = transactionId.hashCode() * 0x9E3779B97F4A7C15L | 1L;
+            int slot = (int) (hash >>> (64 - RECENT_BITS));
+            if (recentTransactions.get(slot) == hash) {
+                duplicates.increment();
+                return;
+            }
+            recentTransactions.set(slot, hash);
+        }
+
+        long epochSecond = timestamp.toEpochSecond(ZoneOffset.UTC);
+        boolean counted = true;
+        if (merchantCategory != null) {
+            counted = merchantCategories.add(merchantCategory, epochSecond);
+        }
+        if (location != null) {
+            counted &= locations.add(location, epochSecond);
+        }
+        if (counted) {
+            recorded.increment();
+        } else {
+            late.increment();
+        }
+    }
+
+    /**
+     * Değer şu an sıçrama yapıyorsa son değerlendirmesi, değilse null (işlem başına tek HashMap lookup)
+     */
+    public HeavyHitterSketch.Hitter getSpike(String dimension, String key) {
+        if (key == null) {
+            return null;
+        }
+        Snapshot current = snapshot;
+        return (MERCHANT_CATEGORY.equals(dimension) ? current.spikingCategories : current.spikingLocations).get(key);
+    }
+
+    // ============================================
+    // EVALUATE (scheduler thread)
+    // ============================================
+    @Scheduled(fixedDelayString = "${fraud.aggregates.hotspots.evaluate-interval-ms:5000}")
+    public void evaluate() {
+        if (!enabled) {
+            return;
+        }
+        List<HeavyHitterSketch.Hitter> categories = merchantCategories.evaluate(zThreshold, minCount, minBaselineBuckets);
+        List<HeavyHitterSketch.Hitter> places = locations.evaluate(zThreshold, minCount, minBaselineBuckets);
+
+        Snapshot previous = snapshot;
+        Snapshot next = new Snapshot(top(categories), top(places), spiking(categories), spiking(places),
+                LocalDateTime.now());
+        snapshot = next;
+
+        logNewSpikes(MERCHANT_CATEGORY, previous.spikingCategories, next.spikingCategories);
+        logNewSpikes(LOCATION, previous.spikingLocations, next.spikingLocations);
+    }
+
+    private List<HeavyHitterSketch.Hitter> top(List<HeavyHitterSketch.Hitter> hitters) {
+        return List.copyOf(hitters.subList(0, Math.min(topK, hitters.size())));
+    }
+
+    private static Map<String, HeavyHitterSketch.Hitter> spiking(List<HeavyHitterSketch.Hitter> hitters) {
+        Map<String, HeavyHitterSketch.Hitter> spikes = new HashMap<>();
+        for (HeavyHitterSketch.Hitter hitter : hitters) {
+            if (hitter.isSpiking()) {
+                spikes.put(hitter.getKey(), hitter);
+            }
+        }
+        return Map.copyOf(spikes);
+    }
+
+    private static void logNewSpikes(String dimension, Map<String, HeavyHitterSketch.Hitter> before,
+                                     Map<String, HeavyHitterSketch.Hitter> after) {
+        for (HeavyHitterSketch.Hitter hitter : after.values()) {
+            if (!before.containsKey(hitter.getKey())) {
+                logger.warn("Global spike detected - {}: {}, Count: {}, Baseline: {}, Z: {}",
+                        dimension, hitter.getKey(), Math.max(hitter.getCurrentCount(), hitter.getPreviousCount()),
+                        String.format("%.1f", hitter.getBaselineMean()), String.format("%.1f", hitter.getZScore()));
+            }
+        }
+    }
+
+    public Map<String, Object> getHotspots() {
+        Snapshot current = snapshot;
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("evaluatedAt", current.evaluatedAt);
+        response.put("topMerchantCategories", current.topCategories);
+        response.put("topLocations", current.topLocations);
+        response.put("spikingMerchantCategories", new ArrayList<>(current.spikingCategories.values()));
+        response.put("spikingLocations", new ArrayList<>(current.spikingLocations.values()));
+        return response;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("recorded", recorded.sum());
+        stats.put("duplicates", duplicates.sum());
+        stats.put("late", late.sum());
+        stats.put("bucketSeconds", merchantCategories.getBucketSeconds());
+        stats.put("latestBucketEpochSecond", merchantCategories.getLatestBucketEpochSecond());
+        stats.put("memoryBytes", merchantCategories.memoryBytes() + locations.memoryBytes()
+                + (long) recentTransactions.length() * Long.BYTES);
+        return stats;
+    }
+
+    // ============================================
+    // SNAPSHOT (değişmez, volatile referansla yayınlanır)
+    // ============================================
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(List.of(), List.of(), Map.of(), Map.of(), null);
+
+        final List<HeavyHitterSketch.Hitter> topCategories;
+        final List<HeavyHitterSketch.Hitter> topLocations;
+        final Map<String, HeavyHitterSketch.Hitter> spikingCategories;
+        final Map<String, HeavyHitterSketch.Hitter> spikingLocations;
+        final LocalDateTime evaluatedAt;
+
+        Snapshot(List<HeavyHitterSketch.Hitter> topCategories, List<HeavyHitterSketch.Hitter> topLocations,
+                 Map<String, HeavyHitterSketch.Hitter> spikingCategories,
+                 Map<String, HeavyHitterSketch.Hitter> spikingLocations, LocalDateTime evaluatedAt) {
+            this.topCategories = topCategories;
+            this.topLocations = topLocations;
+            this.spikingCategories = spikingCategories;
+            this.spikingLocations = spikingLocations;
+            this.evaluatedAt = evaluatedAt;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.fraud.risk.aggregate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ============================================
+ * HEAVY HITTER SKETCH (GLOBAL, KAYAN PENCERE)
+ * ============================================
+ * Ne yapar?
+ * - Tek bir boyutun (merchant kategorisi veya lokasyon) tüm trafikteki sıklığını izler
+ * - Zaman bucket'ları halkası: bucket başına
+ *   - Count-min (3 x 1024 sayaç): herhangi bir değerin o bucket'taki sayısı (üstten tahmin)
+ *   - Space-saving (candidates kadar): o bucket'ın en sık değerleri → top-k ve spike adayları
+ * - evaluate: adayların şimdiki / son bucket sayısını önceki bucket'ların ortalaması ve
+ *   sapmasıyla kıyaslar (z-score) → istatistiksel olarak anlamlı sıçramalar
+ *
+ * Eşzamanlılık (tüm listener thread'leri aynı global state'e yazar):
+ * - Her bucket stripes kadar kopyadan oluşur, thread id ile bir stripe seçilir
+ *   → thread'ler farklı kilit / cache line'lara yazar, sıcak anahtar tek sayaçta çakışmaz
+ * - Count-min doğrusal: evaluate stripe'ları toplayarak birleştirir (kesin)
+ * - Bucket geçişi global kilit istemez: stripe kendi bucket etiketini tutar,
+ *   eski bucket'ın stripe'ı ilk yazışta temizlenir
+ *
+ * Zaman: işlem zamanı (event time) → replay'de canlı akışla aynı sonuç
+ * Geç gelen işlem: bucket'ı halkadan düşmüş / üzerine yazılmışsa sayılmaz
+ */
+public class HeavyHitterSketch {
+
+    private static final int DEPTH = 3;
+    private static final int WIDTH = 1024;
+
+    private final long bucketSeconds;
+    private final int ring;
+    private final int stripeMask;
+    private final int candidates;
+    private final Stripe[][] buckets;
+    private final AtomicLong latestBucket = new AtomicLong(Long.MIN_VALUE);
+
+    // evaluate tek thread'den çağrılır (synchronized): birleşik count-min tamponu yeniden kullanılır
+    private final int[][] merged;
+    private final long[] mergedBuckets;
+
+    /**
+     * @param baselineBuckets Spike karşılaştırması için şimdiki + son bucket'tan önceki bucket sayısı
+     * @param stripes         2'nin kuvvetine yuvarlanır
+     */
+    public HeavyHitterSketch(long bucketSeconds, int baselineBuckets, int stripes, int candidates) {
+        this.bucketSeconds = Math.max(1, bucketSeconds);
+        this.ring = Math.max(1, baselineBuckets) + 2;
+        int stripeCount = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripeMask = stripeCount - 1;
+        this.candidates = Math.max(1, candidates);
+        this.buckets = new Stripe[ring][stripeCount];
+        for (int i = 0; i < ring; i++) {
+            for (int j = 0; j < stripeCount; j++) {
+                buckets[i][j] = new Stripe(this.candidates);
+            }
+        }
+        this.merged = new int[ring][DEPTH * WIDTH];
+        this.mergedBuckets = new long[ring];
+    }
+
+    /**
+     * @return false: işlem çok geç geldi (bucket'ı halkadan düştü)
+     */
+    public boolean add(String key, long epochSecond) {
+        long bucket = Math.floorDiv(epochSecond, bucketSeconds);
+        long latest = latestBucket.get();
+        while (bucket > latest) {
+            // Sadece ileri: bucket başına bir kez CAS, sonrası salt okuma
+            if (latestBucket.compareAndSet(latest, bucket)) {
+                break;
+            }
+            latest = latestBucket.get();
+        }
+        if (latest != Long.MIN_VALUE && latest - bucket >= ring) {
+            return false;
+        }
+
+        long hash = hash(key);
+        int stripeIndex = spread((int) Thread.currentThread().getId()) & stripeMask;
+        Stripe stripe = buckets[(int) Math.floorMod(bucket, (long) ring)][stripeIndex];
+        return stripe.add(key, hash, bucket);
+    }
+
+    /**
+     * Adayları (şimdiki + son bucket'ın space-saving özetleri) değerlendirir
+     *
+     * @param minCount           Bundan az sayı spike sayılmaz (düşük hacimde gürültü)
+     * @param minBaselineBuckets Yeterli geçmiş yoksa (başlangıç) spike üretilmez
+     * @return Pencere hızına göre azalan sırada tüm adaylar
+     */
+    public synchronized List<Hitter> evaluate(double zThreshold, long minCount, int minBaselineBuckets) {
+        long current = latestBucket.get();
+        if (current == Long.MIN_VALUE) {
+            return List.of();
+        }
+
+        // 1. Stripe'ları bucket başına birleştir + adayları topla
+        Map<String, Long> hashes = new HashMap<>();
+        for (int slot = 0; slot < ring; slot++) {
+            long bucket = current - slot;
+            int ringIndex = (int) Math.floorMod(bucket, (long) ring);
+            int[] target = merged[slot];
+            Arrays.fill(target, 0);
+            mergedBuckets[slot] = 0;
+            for (Stripe stripe : buckets[ringIndex]) {
+                synchronized (stripe) {
+                    if (stripe.bucket != bucket) {
+                        continue;
+                    }
+                    mergedBuckets[slot] += stripe.total;
+                    for (int i = 0; i < target.length; i++) {
+                        target[i] += stripe.counts[i];
+                    }
+                    if (slot <= 1) {
+                        for (int i = 0; i < stripe.size; i++) {
+                            hashes.putIfAbsent(stripe.keys[i], stripe.keyHashes[i]);
+                        }
+                    }
+                }
+            }
+        }
+
+        // Başlangıçta halka dolmamış olabilir: ilk işlemden önceki bucket'lar baseline'a girmez
+        int baselineBuckets = 0;
+        for (int slot = 2; slot < ring; slot++) {
+            if (mergedBuckets[slot] > 0) {
+                baselineBuckets = slot - 1;
+            }
+        }
+
+        // 2. Aday başına bucket sayıları → pencere hızı + z-score
+        List<Hitter> hitters = new ArrayList<>(hashes.size());
+        long[] counts = new long[ring];
+        for (Map.Entry<String, Long> candidate : hashes.entrySet()) {
+            long windowTotal = 0;
+            for (int slot = 0; slot < ring; slot++) {
+                counts[slot] = estimate(merged[slot], candidate.getValue());
+                windowTotal += counts[slot];
+            }
+
+            double mean = 0;
+            double variance = 0;
+            if (baselineBuckets > 0) {
+                for (int slot = 2; slot < baselineBuckets + 2; slot++) {
+                    mean += counts[slot];
+                }
+                mean /= baselineBuckets;
+                for (int slot = 2; slot < baselineBuckets + 2; slot++) {
+                    variance += (counts[slot] - mean) * (counts[slot] - mean);
+                }
+                variance /= baselineBuckets;
+            }
+            // Poisson tabanı: seyrek değerlerde sapma 0 olsa bile tek işlem spike olmasın
+            double deviation = Math.sqrt(Math.max(variance, Math.max(mean, 1.0)));
+            long peak = Math.max(counts[0], counts[1]);
+            double z = (peak - mean) / deviation;
+            boolean spiking = baselineBuckets >= minBaselineBuckets && peak >= minCount && z >= zThreshold;
+
+            double windowMinutes = (baselineBuckets + 2) * bucketSeconds / 60.0;
+            hitters.add(new Hitter(candidate.getKey(), counts[0], counts[1], windowTotal / windowMinutes,
+                    mean, z, spiking));
+        }
+        hitters.sort((a, b) -> Double.compare(b.getRatePerMinute(), a.getRatePerMinute()));
+        return hitters;
+    }
+
+    public long getLatestBucketEpochSecond() {
+        long latest = latestBucket.get();
+        return latest == Long.MIN_VALUE ? 0 : latest * bucketSeconds;
+    }
+
+    public long getBucketSeconds() {
+        return bucketSeconds;
+    }
+
+    public long memoryBytes() {
+        return (long) ring * (stripeMask + 1) * (DEPTH * WIDTH * Integer.BYTES + candidates * 16L);
+    }
+
+    private static long estimate(int[] counts, long hash) {
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            min = Math.min(min, counts[row * WIDTH + column(hash, row)]);
+        }
+        return min;
+    }
+
+    private static int column(long hash, int row) {
+        return (int) ((hash >>> (row * 20)) & (WIDTH - 1));
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    /**
+     * String.hashCode + 64 bit karıştırma (murmur3 fmix64): count-min satırları farklı bit aralıkları kullanır
+     */
+    private static long hash(String key) {
+        long h = key.hashCode() * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // ============================================
+    // STRIPE (bir bucket'ın bir thread grubuna düşen kopyası)
+    // ============================================
+    private static final class Stripe {
+
+        private long bucket = Long.MIN_VALUE;
+        private long total;
+        private final int[] counts = new int[DEPTH * WIDTH];
+
+        // Space-saving: dolunca en küçük sayaçlı aday yenisiyle değiştirilir (sayaç + 1 devralınır)
+        private final String[] keys;
+        private final long[] keyHashes;
+        private final long[] keyCounts;
+        private int size;
+
+        Stripe(int candidates) {
+            this.keys = new String[candidates];
+            this.keyHashes = new long[candidates];
+            this.keyCounts = new long[candidates];
+        }
+
+        synchronized boolean add(String key, long hash, long target) {
+            if (bucket != target) {
+                if (bucket > target) {
+                    return false;  // Halka bu slot'ta daha yeni bir bucket'a geçmiş
+                }
+                Arrays.fill(counts, 0);
+                Arrays.fill(keys, null);
+                size = 0;
+                total = 0;
+                bucket = target;
+            }
+
+            total++;
+            for (int row = 0; row < DEPTH; row++) {
+                int index = row * WIDTH + column(hash, row);
+                if (counts[index] < Integer.MAX_VALUE) {
+                    counts[index]++;
+                }
+            }
+
+            int min = 0;
+            for (int i = 0; i < size; i++) {
+                if (keyHashes[i] == hash && keys[i].equals(key)) {
+                    keyCounts[i]++;
+                    return true;
+                }
+                if (keyCounts[i] < keyCounts[min]) {
+                    min = i;
+                }
+            }
+            if (size < keys.length) {
+                keys[size] = key;
+                keyHashes[size] = hash;
+                keyCounts[size] = 1;
+                size++;
+            } else {
+                keys[min] = key;
+                keyHashes[min] = hash;
+                keyCounts[min]++;
+            }
+            return true;
+        }
+    }
+
+    // ============================================
+    // HITTER (evaluate sonucu, değişmez)
+    // ============================================
+    public static final class Hitter {
+
+        private final String key;
+        private final long currentCount;
+        private final long previousCount;
+        private final double ratePerMinute;
+        private final double baselineMean;
+        private final double zScore;
+        private final boolean spiking;
+
+        Hitter(String key, long currentCount, long previousCount, double ratePerMinute,
+               double baselineMean, double zScore, boolean spiking) {
+            this.key = key;
+            this.currentCount = currentCount;
+            this.previousCount = previousCount;
+            this.ratePerMinute = ratePerMinute;
+            this.baselineMean = baselineMean;
+            this.zScore = zScore;
+            this.spiking = spiking;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getCurrentCount() {
+            return currentCount;
+        }
+
+        public long getPreviousCount() {
+            return previousCount;
+        }
+
+        public double getRatePerMinute() {
+            return ratePerMinute;
+        }
+
+        public double getBaselineMean() {
+            return baselineMean;
+        }
+
+        public double getZScore() {
+            return zScore;
+        }
+
+        public boolean isSpiking() {
+            return spiking;
+        }
+    }
+}
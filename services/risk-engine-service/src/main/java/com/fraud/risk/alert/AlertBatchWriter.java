@@ -0,0 +1,219 @@
+package com.fraud.risk.alert;
+
+import com.fraud.risk.model.Alert;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ============================================
+ * ALERT BATCH WRITER
+ * ============================================
+ * Ne yapar?
+ * - Alert'leri alerts tablosuna yazar (analist review kuyruğu, status = NEW)
+ * - Skorlama thread'i sadece kuyruğa bırakır, INSERT ayrı thread'de yapılır
+ *
+ * Neden asenkron + batch?
+ * - Skorlama yolunda senkron INSERT = her alert için ekstra DB round-trip
+ * - Tek multi-row INSERT (VALUES (...), (...), ...) → N satır tek round-trip
+ *
+ * Flush: batch-size'a ulaşınca veya flush-interval-ms dolunca (hangisi önce)
+ *
+ * Kuyruk dolarsa alert DB'ye yazılmaz (dropped sayacı) - Kafka'ya gitmeye devam eder,
+ * skorlama hiçbir zaman bloklanmaz.
+ * Batch INSERT hata verirse (örn. tek bir transaction_id FK ihlali) satır satır tekrar
+ * denenir, böylece tek hatalı kayıt tüm batch'i kaybettirmez.
+ */
+@Component
+public class AlertBatchWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertBatchWriter.class);
+    private static final String INSERT_PREFIX =
+            "INSERT INTO alerts (transaction_id, risk_score, status, created_at) VALUES ";
+    private static final String ROW = "(?, ?, 'NEW', ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${fraud.alerts.persistence.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fraud.alerts.persistence.batch-size:500}")
+    private int batchSize;
+
+    @Value("${fraud.alerts.persistence.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${fraud.alerts.persistence.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    private BlockingQueue<PendingAlert> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    public AlertBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writerThread = new Thread(this::run, "alert-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+
+        logger.info("Alert batch writer started: batchSize={}, queueCapacity={}, flushIntervalMs={}",
+                batchSize, queueCapacity, flushIntervalMs);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Skorlama thread'inden çağrılır - asla bloklamaz
+     */
+    public void enqueue(Alert alert) {
+        if (queue == null) {
+            return;
+        }
+        PendingAlert pending = new PendingAlert(alert.getTransactionId(), alert.getRiskScore(),
+                alert.getTimestamp() != null ? alert.getTimestamp() : LocalDateTime.now());
+        if (!queue.offer(pending)) {
+            dropped.increment();
+            if (dropped.sum() % 1000 == 1) {
+                logger.warn("Alert write queue full, dropped {} alerts so far", dropped.sum());
+            }
+        }
+    }
+
+    private void run() {
+        List<PendingAlert> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingAlert first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Batch'i doldurmak için flush-interval kadar bekle (düşük trafikte gecikme sınırlı)
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingAlert next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Kapanış: kuyrukta kalanları da yaz
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+        logger.info("Alert batch writer stopped: written={}, dropped={}, failed={}",
+                written.sum(), dropped.sum(), failed.sum());
+    }
+
+    private void write(List<PendingAlert> batch) {
+        try {
+            insert(batch);
+            written.add(batch.size());
+            batches.increment();
+            logger.debug("Persisted {} alerts", batch.size());
+        } catch (Exception e) {
+            logger.warn("Batch alert insert failed ({} rows), retrying row by row: {}",
+                    batch.size(), e.getMessage());
+            for (PendingAlert alert : batch) {
+                try {
+                    insert(List.of(alert));
+                    written.increment();
+                } catch (Exception rowError) {
+                    failed.increment();
+                    logger.error("Failed to persist alert for transaction {}: {}",
+                            alert.transactionId, rowError.getMessage());
+                }
+            }
+        }
+    }
+
+    private void insert(List<PendingAlert> rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows.size() * (ROW.length() + 2));
+        sql.append(INSERT_PREFIX);
+        Object[] args = new Object[rows.size() * 3];
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW);
+            PendingAlert row = rows.get(i);
+            args[i * 3] = row.transactionId;
+            args[i * 3 + 1] = row.riskScore;
+            args[i * 3 + 2] = Timestamp.valueOf(row.createdAt);
+        }
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("queued", queue != null ? queue.size() : 0);
+        stats.put("written", written.sum());
+        stats.put("batches", batches.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("failed", failed.sum());
+        return stats;
+    }
+
+    private static final class PendingAlert {
+        private final String transactionId;
+        private final BigDecimal riskScore;
+        private final LocalDateTime createdAt;
+
+        private PendingAlert(String transactionId, BigDecimal riskScore, LocalDateTime createdAt) {
+            this.transactionId = transactionId;
+            this.riskScore = riskScore;
+            this.createdAt = createdAt;
+        }
+    }
+}
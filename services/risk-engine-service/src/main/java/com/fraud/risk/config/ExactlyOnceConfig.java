@@ -0,0 +1,152 @@
+package com.fraud.risk.config;
+
+import com.fraud.risk.model.RiskScore;
+import com.fraud.risk.model.Transaction;
+import com.fraud.risk.state.StateRestorer;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.IsolationLevel;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultAfterRollbackProcessor;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ============================================
+ * EXACTLY-ONCE KAFKA CONFIGURATION
+ * ============================================
+ * Aktifleştirme: fraud.kafka.exactly-once.enabled=true
+ *
+ * Ne yapar?
+ * - Transactional producer (transactional.id prefix'li) + KafkaTransactionManager
+ * - Batch listener container: her poll (max-poll-records kayıt) TEK Kafka transaction'ı:
+ *   skor / alert kayıtları + consumer offset'leri birlikte commit edilir ya da hiçbiri
+ * - Risk score sink container'ı: read_committed, sadece commit edilmiş skorları görür
+ *
+ * Neden batch?
+ * - Transaction başına commit maliyeti (transaction marker'ları, coordinator round-trip'i)
+ *   kayıt başına ödenirse throughput çöker; 100 kayıtta bir ödenince fark edilmez
+ *
+ * Not: Producer factory / template / transaction manager bean olarak kaydedilmez.
+ * Kaydedilirse Spring Boot'un varsayılan KafkaTemplate'i (AlertProducer) ve
+ * JPA transaction manager'ı @ConditionalOnMissingBean yüzünden oluşmaz.
+ */
+@Configuration
+@ConditionalOnProperty(name = "fraud.kafka.exactly-once.enabled", havingValue = "true")
+public class ExactlyOnceConfig {
+
+    private final DefaultKafkaProducerFactory<String, Object> producerFactory;
+    private final KafkaTemplate<String, Object> transactionalTemplate;
+    private final KafkaTransactionManager<String, Object> transactionManager;
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    // Replay / streams runtime'da listener başlamaz
+    @Value("${fraud.kafka.listener.auto-startup:true}")
+    private boolean listenerAutoStartup;
+
+    @Value("${fraud.kafka.listener.concurrency:1}")
+    private int concurrency;
+
+    @Value("${fraud.kafka.exactly-once.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Value("${fraud.kafka.exactly-once.sink.max-poll-records:500}")
+    private int sinkMaxPollRecords;
+
+    public ExactlyOnceConfig(@Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                             @Value("${fraud.kafka.exactly-once.transaction-id-prefix:risk-engine-tx-${HOSTNAME:local}-}") String transactionIdPrefix) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        config.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+
+        this.producerFactory = new DefaultKafkaProducerFactory<>(config);
+        // EOS v2: prefix uygulama instance'ı başına benzersiz olmalı (aynı prefix birbirini fence eder),
+        // Spring sonuna producer sayacını ekler
+        this.producerFactory.setTransactionIdPrefix(transactionIdPrefix);
+        this.transactionalTemplate = new KafkaTemplate<>(producerFactory);
+        this.transactionManager = new KafkaTransactionManager<>(producerFactory);
+    }
+
+    /**
+     * Listener thread'inde açık Kafka transaction'ına katılan template
+     */
+    public KafkaTemplate<String, Object> getTransactionalTemplate() {
+        return transactionalTemplate;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Transaction> exactlyOnceListenerContainerFactory(
+            ConsumerFactory<String, Transaction> consumerFactory, ObjectProvider<StateRestorer> stateRestorer) {
+        ConcurrentKafkaListenerContainerFactory<String, Transaction> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setAutoStartup(listenerAutoStartup);
+        factory.setConcurrency(concurrency);
+        // Offset'ler listener dönünce transaction'a eklenir (sendOffsetsToTransaction)
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.getContainerProperties().setTransactionManager(transactionManager);
+        factory.getContainerProperties().setPauseImmediate(true);
+        // Listener'dan çıkan hatalar geçicidir (kalıcı olanlar kayıt bazında atlanır):
+        // rollback → aynı batch'e seek → backoff ile sınırsız tekrar
+        factory.setAfterRollbackProcessor(new DefaultAfterRollbackProcessor<>(
+                new FixedBackOff(retryBackoffMs, FixedBackOff.UNLIMITED_ATTEMPTS)));
+        stateRestorer.ifAvailable(factory.getContainerProperties()::setConsumerRebalanceListener);
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, RiskScore> riskScoreSinkContainerFactory() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        config.put(JsonDeserializer.TRUSTED_PACKAGES, "com.fraud.*");
+        config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, RiskScore.class.getName());
+        config.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        // Abort edilmiş transaction'ların kayıtları hiç görülmez
+        config.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, IsolationLevel.READ_COMMITTED.toString().toLowerCase(Locale.ROOT));
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, sinkMaxPollRecords);
+
+        ConcurrentKafkaListenerContainerFactory<String, RiskScore> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(config));
+        factory.setBatchListener(true);
+        // DB commit'inden sonra offset commit (insert'ler idempotent, tekrar gelen batch zararsız)
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+
+    @PreDestroy
+    public void close() {
+        producerFactory.destroy();
+    }
+}
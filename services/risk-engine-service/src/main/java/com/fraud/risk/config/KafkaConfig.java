@@ -1,8 +1,10 @@
 package com.fraud.risk.config;
 
 import com.fraud.risk.model.Transaction;
+import com.fraud.risk.state.StateRestorer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -30,6 +32,18 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    // Replay (offline backtest) modunda listener başlamaz
+    @Value("${fraud.kafka.listener.auto-startup:true}")
+    private boolean listenerAutoStartup;
+
+    // Consumer thread sayısı = AIMD limitinin üst sınırı (partition sayısını geçmemeli)
+    @Value("${fraud.kafka.listener.concurrency:1}")
+    private int concurrency;
+
+    // Küçük poll: yavaş downstream'de bir poll'un işlenmesi max.poll.interval'ı aşmasın
+    @Value("${fraud.kafka.listener.max-poll-records:100}")
+    private int maxPollRecords;
+
     @Bean
     public ConsumerFactory<String, Transaction> consumerFactory() {
         Map<String, Object> config = new HashMap<>();
@@ -39,17 +53,28 @@ public class KafkaConfig {
         config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
         config.put(JsonDeserializer.TRUSTED_PACKAGES, "com.fraud.*");
         config.put(JsonDeserializer.VALUE_DEFAULT_TYPE, Transaction.class.getName());
+        // Producer (transaction-service) kendi sınıf adını / "transaction" token'ını header'a yazar,
+        // bu sınıf burada yok → header'ı yok say, her zaman risk Transaction DTO'suna çevir
+        config.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
         config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);  // Manual commit
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
 
         return new DefaultKafkaConsumerFactory<>(config);
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, Transaction> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, Transaction> kafkaListenerContainerFactory(
+            ObjectProvider<StateRestorer> stateRestorer) {
         ConcurrentKafkaListenerContainerFactory<String, Transaction> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);  // Manual ack
+        factory.setAutoStartup(listenerAutoStartup);
+        factory.setConcurrency(concurrency);
+        // AdaptiveFlowController pause ettiğinde poll'un kalan kayıtları beklemeden dursun
+        factory.getContainerProperties().setPauseImmediate(true);
+        // Partition atanınca bellek state'i changelog'dan yüklenir, sonra ilk kayıt işlenir
+        stateRestorer.ifAvailable(factory.getContainerProperties()::setConsumerRebalanceListener);
         return factory;
     }
 }
@@ -0,0 +1,185 @@
+package com.fraud.risk.config;
+
+import com.fraud.risk.ml.MlScoringClient;
+import com.fraud.risk.model.Alert;
+import com.fraud.risk.model.CustomerProfile;
+import com.fraud.risk.model.RiskScore;
+import com.fraud.risk.model.Transaction;
+import com.fraud.risk.rules.RuleRegistry;
+import com.fraud.risk.service.RiskScorer;
+import com.fraud.risk.streams.FraudScoringProcessor;
+import com.fraud.risk.streams.ScoringRecord;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.kstream.Branched;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.KTable;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.state.Stores;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
+import org.springframework.kafka.config.KafkaStreamsConfiguration;
+import org.springframework.kafka.config.StreamsBuilderFactoryBeanConfigurer;
+import org.springframework.kafka.support.serializer.JsonSerde;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ============================================
+ * KAFKA STREAMS RUNTIME
+ * ============================================
+ * Aktifleştirme: --spring.profiles.active=streams (fraud.runtime=streams)
+ * Listener tabanlı runtime'ın (TransactionConsumer / ExactlyOnceTransactionConsumer) yerine geçer
+ *
+ * Topology:
+ *   transactions-topic (key = customerId)
+ *     → leftJoin customer_profiles KTable (RocksDB, kaynak topic = changelog)
+ *     → FraudScoringProcessor (velocity window store + kural seti + ML + hybrid skor)
+ *     → risk-scores topic
+ *     → split: final_score > alert-threshold → fraud-alerts-topic
+ *
+ * Neden?
+ * - Profil ve velocity state'i yerel RocksDB'de: hot path'te PostgreSQL lookup yok
+ * - Ölçekleme / failover Kafka Streams'in task atamasıyla (state changelog'dan restore)
+ *
+ * Farklar (listener runtime'a göre):
+ * - risk_scores / alerts tablolarına yazılmaz, çıktı sadece topic'lerde
+ * - Alert'ler müşteri penceresinde birleştirilmez, shadow scoring yok
+ */
+@Configuration
+@EnableKafkaStreams
+@ConditionalOnProperty(name = "fraud.runtime", havingValue = "streams")
+public class StreamsRuntimeConfig {
+
+    private static final String PROFILES_STORE = "customer-profiles-store";
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${fraud.kafka.topic.transactions}")
+    private String transactionsTopic;
+
+    @Value("${fraud.kafka.topic.customer-profiles}")
+    private String profilesTopic;
+
+    @Value("${fraud.kafka.topic.risk-scores}")
+    private String scoresTopic;
+
+    @Value("${fraud.kafka.topic.alerts}")
+    private String alertsTopic;
+
+    @Value("${fraud.detection.alert-threshold:70}")
+    private double alertThreshold;
+
+    @Value("${fraud.scoring.budget-ms:300}")
+    private long budgetMs;
+
+    @Value("${fraud.rules.velocity.max-transactions:5}")
+    private long velocityMaxTransactions;
+
+    @Value("${fraud.rules.velocity.window-minutes:10}")
+    private long velocityWindowMinutes;
+
+    @Value("${fraud.rules.velocity.score:40}")
+    private int velocityScore;
+
+    @Value("${fraud.streams.velocity.bucket-ms:60000}")
+    private long velocityBucketMs;
+
+    @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
+    public KafkaStreamsConfiguration kafkaStreamsConfiguration(
+            @Value("${fraud.streams.application-id:risk-engine-streams}") String applicationId,
+            @Value("${fraud.streams.threads:3}") int threads,
+            @Value("${fraud.streams.processing-guarantee:exactly_once_v2}") String processingGuarantee,
+            @Value("${fraud.streams.state-dir:streams-state}") String stateDir,
+            @Value("${fraud.streams.standby-replicas:0}") int standbyReplicas) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(StreamsConfig.APPLICATION_ID_CONFIG, applicationId);
+        config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, threads);
+        config.put(StreamsConfig.PROCESSING_GUARANTEE_CONFIG, processingGuarantee);
+        config.put(StreamsConfig.STATE_DIR_CONFIG, stateDir);
+        config.put(StreamsConfig.NUM_STANDBY_REPLICAS_CONFIG, standbyReplicas);
+        // KTable kaynak topic'i compacted → ayrı changelog topic'i açılmaz
+        config.put(StreamsConfig.TOPOLOGY_OPTIMIZATION_CONFIG, StreamsConfig.OPTIMIZE);
+        config.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.StringSerde.class);
+        config.put(StreamsConfig.consumerPrefix(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG), "earliest");
+        return new KafkaStreamsConfiguration(config);
+    }
+
+    /**
+     * Profil preload (MAX - 200) ve profil topic'i (MAX - 180) hazır olmadan işleme başlamasın
+     */
+    @Bean
+    public StreamsBuilderFactoryBeanConfigurer streamsPhaseConfigurer() {
+        return factoryBean -> factoryBean.setPhase(Integer.MAX_VALUE - 100);
+    }
+
+    @Bean
+    public KStream<String, ScoringRecord> fraudTopology(StreamsBuilder builder,
+                                                         RuleRegistry ruleRegistry,
+                                                         RiskScorer riskScorer,
+                                                         MlScoringClient mlScoringClient) {
+        // Producer'lar kendi sınıf adlarını header'a yazar → header yok sayılır, hedef tip sabit
+        JsonSerde<Transaction> transactionSerde = new JsonSerde<>(Transaction.class).ignoreTypeHeaders().noTypeInfo();
+        JsonSerde<CustomerProfile> profileSerde = new JsonSerde<>(CustomerProfile.class).ignoreTypeHeaders().noTypeInfo();
+        JsonSerde<RiskScore> scoreSerde = new JsonSerde<>(RiskScore.class).noTypeInfo();
+        JsonSerde<Alert> alertSerde = new JsonSerde<>(Alert.class).noTypeInfo();
+
+        // Bucket başına tek sayaç; retention = velocity penceresi + geç gelenler için bir pencere
+        long windowMs = Duration.ofMinutes(velocityWindowMinutes).toMillis();
+        builder.addStateStore(Stores.windowStoreBuilder(
+                Stores.persistentWindowStore(FraudScoringProcessor.VELOCITY_STORE,
+                        Duration.ofMillis(windowMs * 2), Duration.ofMillis(velocityBucketMs), false),
+                Serdes.String(), Serdes.Long()));
+
+        KTable<String, CustomerProfile> profiles = builder.table(profilesTopic,
+                Consumed.with(Serdes.String(), profileSerde),
+                Materialized.as(PROFILES_STORE));
+
+        KStream<String, ScoringRecord> scored = builder
+                .stream(transactionsTopic, Consumed.with(Serdes.String(), transactionSerde))
+                .filter((customerId, transaction) -> transaction != null && customerId != null)
+                .leftJoin(profiles, ScoringRecord::new)
+                .process(() -> new FraudScoringProcessor(ruleRegistry, riskScorer, mlScoringClient,
+                                velocityMaxTransactions, velocityWindowMinutes, velocityScore,
+                                velocityBucketMs, budgetMs),
+                        FraudScoringProcessor.VELOCITY_STORE);
+
+        scored.mapValues(ScoringRecord::getRiskScore)
+                .to(scoresTopic, Produced.with(Serdes.String(), scoreSerde));
+
+        scored.split()
+                .branch((customerId, record) -> record.getRiskScore().getFinalScore().doubleValue() > alertThreshold,
+                        Branched.withConsumer(alerts -> alerts
+                                .mapValues(StreamsRuntimeConfig::toAlert)
+                                .to(alertsTopic, Produced.with(Serdes.String(), alertSerde))))
+                .noDefaultBranch();
+
+        return scored;
+    }
+
+    private static Alert toAlert(ScoringRecord record) {
+        Transaction transaction = record.getTransaction();
+        RiskScore riskScore = record.getRiskScore();
+        return new Alert(
+                transaction.getTransactionId(),
+                transaction.getCustomerId(),
+                transaction.getAmount(),
+                riskScore.getFinalScore(),
+                riskScore.getReasons(),
+                LocalDateTime.now()
+        );
+    }
+}
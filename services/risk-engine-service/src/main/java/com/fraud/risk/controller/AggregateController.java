@@ -0,0 +1,84 @@
+package com.fraud.risk.controller;
+
+import com.fraud.risk.aggregate.AmountAggregates;
+import com.fraud.risk.aggregate.CustomerSketches;
+import com.fraud.risk.aggregate.GlobalHotspots;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ============================================
+ * AGGREGATE CONTROLLER
+ * ============================================
+ * Endpoint'ler:
+ * - GET /api/aggregates/{customerId}[?at=2025-01-15T10:00:00] → 1h / 24h / 7d toplam + max
+ * - GET /api/aggregates/stats                                 → Müşteri sayısı, kayıt / tekrar sayaçları
+ * - GET /api/aggregates/sketches/stats                        → Distinct / frequency sketch sayaçları
+ * - GET /api/aggregates/hotspots                              → Global top-k + sıçrayan kategori / lokasyonlar
+ * - GET /api/aggregates/hotspots/stats                        → Global sayaç istatistikleri
+ *
+ * at verilmezse şimdiki zaman (işlem timestamp'leri gibi sunucu saatiyle)
+ */
+@RestController
+@RequestMapping("/api/aggregates")
+public class AggregateController {
+
+    private final AmountAggregates aggregates;
+    private final CustomerSketches sketches;
+    private final GlobalHotspots hotspots;
+
+    public AggregateController(AmountAggregates aggregates, CustomerSketches sketches, GlobalHotspots hotspots) {
+        this.aggregates = aggregates;
+        this.sketches = sketches;
+        this.hotspots = hotspots;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(aggregates.getStats());
+    }
+
+    @GetMapping("/sketches/stats")
+    public ResponseEntity<Map<String, Object>> getSketchStats() {
+        return ResponseEntity.ok(sketches.getStats());
+    }
+
+    @GetMapping("/hotspots")
+    public ResponseEntity<Map<String, Object>> getHotspots() {
+        return ResponseEntity.ok(hotspots.getHotspots());
+    }
+
+    @GetMapping("/hotspots/stats")
+    public ResponseEntity<Map<String, Object>> getHotspotStats() {
+        return ResponseEntity.ok(hotspots.getStats());
+    }
+
+    @GetMapping("/{customerId}")
+    public ResponseEntity<Map<String, Object>> getAggregates(
+            @PathVariable String customerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        double[] totals = new double[AmountAggregates.FIELDS];
+        if (!aggregates.query(customerId, at != null ? at : LocalDateTime.now(), totals)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("customerId", customerId);
+        response.put("sum1h", totals[AmountAggregates.SUM_1H]);
+        response.put("max1h", totals[AmountAggregates.MAX_1H]);
+        response.put("sum24h", totals[AmountAggregates.SUM_24H]);
+        response.put("max24h", totals[AmountAggregates.MAX_24H]);
+        response.put("sum7d", totals[AmountAggregates.SUM_7D]);
+        response.put("max7d", totals[AmountAggregates.MAX_7D]);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,82 @@
+package com.fraud.risk.controller;
+
+import com.fraud.risk.alert.AlertBatchWriter;
+import com.fraud.risk.model.AlertRecord;
+import com.fraud.risk.repository.AlertQueryRepository;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ============================================
+ * ALERT CONTROLLER (REVIEW QUEUE)
+ * ============================================
+ * Endpoint'ler:
+ * - GET /api/alerts?limit=50              → En yeni NEW alert'ler
+ * - GET /api/alerts?limit=50&cursor=...   → Sonraki sayfa (önceki cevabın nextCursor'ı)
+ * - GET /api/alerts/stats                 → Bekleyen NEW sayısı + writer istatistikleri
+ *
+ * Cursor formatı: "{createdAt}_{id}" (örn. 2025-01-15T10:30:00.123_4711)
+ * nextCursor null ise son sayfadır
+ */
+@RestController
+@RequestMapping("/api/alerts")
+public class AlertController {
+
+    private static final int MAX_LIMIT = 200;
+
+    private final AlertQueryRepository alertQueryRepository;
+    private final AlertBatchWriter alertBatchWriter;
+
+    public AlertController(AlertQueryRepository alertQueryRepository, AlertBatchWriter alertBatchWriter) {
+        this.alertQueryRepository = alertQueryRepository;
+        this.alertBatchWriter = alertBatchWriter;
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getNewAlerts(
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor) {
+
+        int pageSize = Math.max(1, Math.min(MAX_LIMIT, limit));
+        List<AlertRecord> alerts;
+        if (cursor == null || cursor.isBlank()) {
+            alerts = alertQueryRepository.findNewAlerts(pageSize);
+        } else {
+            int separator = cursor.lastIndexOf('_');
+            try {
+                LocalDateTime createdAt = LocalDateTime.parse(cursor.substring(0, separator));
+                long id = Long.parseLong(cursor.substring(separator + 1));
+                alerts = alertQueryRepository.findNewAlertsBefore(createdAt, id, pageSize);
+            } catch (DateTimeParseException | NumberFormatException | IndexOutOfBoundsException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor: " + cursor));
+            }
+        }
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("items", alerts);
+        if (alerts.size() == pageSize) {
+            AlertRecord last = alerts.get(alerts.size() - 1);
+            page.put("nextCursor", last.getCreatedAt() + "_" + last.getId());
+        } else {
+            page.put("nextCursor", null);
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("newAlerts", alertQueryRepository.countNewAlerts());
+        stats.put("writer", alertBatchWriter.getStats());
+        return ResponseEntity.ok(stats);
+    }
+}
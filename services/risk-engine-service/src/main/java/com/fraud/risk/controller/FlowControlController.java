@@ -0,0 +1,33 @@
+package com.fraud.risk.controller;
+
+import com.fraud.risk.flow.AdaptiveFlowController;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * ============================================
+ * FLOW CONTROL CONTROLLER
+ * ============================================
+ * Endpoint: GET /api/flow/stats
+ *
+ * Response: concurrency limiti, in-flight, EWMA latency / hata oranı, pause durumu ve sayaçlar
+ */
+@RestController
+@RequestMapping("/api/flow")
+public class FlowControlController {
+
+    private final AdaptiveFlowController flowController;
+
+    public FlowControlController(AdaptiveFlowController flowController) {
+        this.flowController = flowController;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(flowController.getStats());
+    }
+}
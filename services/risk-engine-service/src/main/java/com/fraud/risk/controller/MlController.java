@@ -0,0 +1,33 @@
+package com.fraud.risk.controller;
+
+import com.fraud.risk.ml.MlScoringClient;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * ============================================
+ * ML CONTROLLER
+ * ============================================
+ * Endpoint: GET /api/ml/stats
+ *
+ * Response: circuit breaker durumu, ML çağrı sayıları, sebebe göre fallback sayıları
+ */
+@RestController
+@RequestMapping("/api/ml")
+public class MlController {
+
+    private final MlScoringClient mlScoringClient;
+
+    public MlController(MlScoringClient mlScoringClient) {
+        this.mlScoringClient = mlScoringClient;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(mlScoringClient.getStats());
+    }
+}
@@ -0,0 +1,53 @@
+package com.fraud.risk.controller;
+
+import com.fraud.risk.profile.CustomerProfileProvider;
+import com.fraud.risk.profile.ProfileRecomputeJob;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * ============================================
+ * PROFILE CONTROLLER
+ * ============================================
+ * Endpoint'ler:
+ * - GET  /api/profiles/stats            → depo tipi, bellekteki profil sayısı, preload durumu, hit / DB lookup sayısı
+ * - POST /api/profiles/recompute        → customer_profiles batch job'unu hemen başlatır (202, çalışıyorsa 409)
+ * - GET  /api/profiles/recompute/stats  → son çalışma: süre, okunan işlem, yazılan profil, hata
+ */
+@RestController
+@RequestMapping("/api/profiles")
+public class ProfileController {
+
+    private final CustomerProfileProvider customerProfileProvider;
+    private final ProfileRecomputeJob profileRecomputeJob;
+
+    public ProfileController(CustomerProfileProvider customerProfileProvider,
+                             ProfileRecomputeJob profileRecomputeJob) {
+        this.customerProfileProvider = customerProfileProvider;
+        this.profileRecomputeJob = profileRecomputeJob;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(customerProfileProvider.getStats());
+    }
+
+    @PostMapping("/recompute")
+    public ResponseEntity<Map<String, Object>> recompute() {
+        if (!profileRecomputeJob.trigger()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Profile recompute already running"));
+        }
+        return ResponseEntity.accepted().body(Map.of("status", "started"));
+    }
+
+    @GetMapping("/recompute/stats")
+    public ResponseEntity<Map<String, Object>> getRecomputeStats() {
+        return ResponseEntity.ok(profileRecomputeJob.getStats());
+    }
+}
@@ -0,0 +1,125 @@
+package com.fraud.risk.controller;
+
+import com.fraud.risk.model.RiskScore;
+import com.fraud.risk.repository.RiskScoreRepository;
+import com.fraud.risk.rules.ReasonRenderer;
+import com.fraud.risk.service.RiskScoreCache;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ============================================
+ * RISK SCORE CONTROLLER
+ * ============================================
+ * Endpoint'ler:
+ * - GET /api/scores/{transactionId}                 → Tek skor (önce cache, sonra DB)
+ * - GET /api/scores/top?limit=20                    → En yüksek N skor
+ * - GET /api/scores?minScore=70&limit=50[&cursor=]  → Threshold üstü, keyset sayfalı
+ * - GET /api/scores/stats                           → Cache hit / miss
+ *
+ * Cursor formatı: "{finalScore}_{id}" (örn. 87.40_10234), nextCursor null ise son sayfa
+ * Lookup cevabında X-Cache header'ı: HIT | MISS
+ * Reason'lar kompakt saklanır, cevapta metne render edilir (ReasonRenderer)
+ */
+@RestController
+@RequestMapping("/api/scores")
+public class RiskScoreController {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final RiskScoreCache riskScoreCache;
+    private final RiskScoreRepository riskScoreRepository;
+    private final ReasonRenderer reasonRenderer;
+
+    public RiskScoreController(RiskScoreCache riskScoreCache, RiskScoreRepository riskScoreRepository,
+                               ReasonRenderer reasonRenderer) {
+        this.riskScoreCache = riskScoreCache;
+        this.riskScoreRepository = riskScoreRepository;
+        this.reasonRenderer = reasonRenderer;
+    }
+
+    @GetMapping("/{transactionId}")
+    public ResponseEntity<RiskScore> getScore(@PathVariable String transactionId) {
+        RiskScore cached = riskScoreCache.get(transactionId);
+        if (cached != null) {
+            return ResponseEntity.ok().header("X-Cache", "HIT").body(rendered(cached));
+        }
+
+        // Henüz skorlanmadıysa (404) cache'e bir şey yazılmaz, sonraki poll tekrar DB'ye gider
+        return riskScoreRepository.findByTransactionId(transactionId)
+                .map(riskScore -> {
+                    riskScoreCache.put(riskScore);
+                    return ResponseEntity.ok().header("X-Cache", "MISS").body(rendered(riskScore));
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/top")
+    public ResponseEntity<List<RiskScore>> getTopScores(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(rendered(riskScoreRepository.findTopScores(PageRequest.of(0, clamp(limit)))));
+    }
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getScoresAboveThreshold(
+            @RequestParam(defaultValue = "70") BigDecimal minScore,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor) {
+
+        int pageSize = clamp(limit);
+        List<RiskScore> scores;
+        if (cursor == null || cursor.isBlank()) {
+            scores = riskScoreRepository.findAboveThreshold(minScore, PageRequest.of(0, pageSize));
+        } else {
+            int separator = cursor.lastIndexOf('_');
+            try {
+                BigDecimal lastScore = new BigDecimal(cursor.substring(0, separator));
+                long lastId = Long.parseLong(cursor.substring(separator + 1));
+                scores = riskScoreRepository.findAboveThresholdAfter(
+                        minScore, lastScore, lastId, PageRequest.of(0, pageSize));
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor: " + cursor));
+            }
+        }
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("items", rendered(scores));
+        if (scores.size() == pageSize) {
+            RiskScore last = scores.get(scores.size() - 1);
+            page.put("nextCursor", last.getFinalScore().toPlainString() + "_" + last.getId());
+        } else {
+            page.put("nextCursor", null);
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(riskScoreCache.getStats());
+    }
+
+    /**
+     * Kopya üzerinde render: cache'teki / managed entity'deki kompakt reason'lar değişmez
+     */
+    private RiskScore rendered(RiskScore score) {
+        return new RiskScore(score.getId(), score.getTransactionId(), score.getRuleScore(), score.getMlScore(),
+                score.getFinalScore(), reasonRenderer.render(score.getReasons()), score.getCreatedAt());
+    }
+
+    private List<RiskScore> rendered(List<RiskScore> scores) {
+        return scores.stream().map(this::rendered).toList();
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(MAX_LIMIT, limit));
+    }
+}
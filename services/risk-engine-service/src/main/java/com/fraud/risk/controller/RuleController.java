@@ -0,0 +1,77 @@
+package com.fraud.risk.controller;
+
+import com.fraud.risk.rules.FraudRule;
+import com.fraud.risk.rules.RuleRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ============================================
+ * RULE CONTROLLER
+ * ============================================
+ * Ne yapar?
+ * - Aktif kural setini listeler
+ * - DSL kurallarını elle yeniden yükletir (periyodik kontrolü beklemeden)
+ *
+ * Endpoint'ler:
+ * - GET  /api/rules
+ * - POST /api/rules/reload
+ */
+@RestController
+@RequestMapping("/api/rules")
+public class RuleController {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleController.class);
+
+    private final RuleRegistry ruleRegistry;
+
+    public RuleController(RuleRegistry ruleRegistry) {
+        this.ruleRegistry = ruleRegistry;
+    }
+
+    /**
+     * Endpoint: GET /api/rules
+     * Response: [{ "name": "velocity", "priority": 9, "type": "VelocityRule" }, ...]
+     */
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getActiveRules() {
+        List<Map<String, Object>> rules = ruleRegistry.current().stream()
+                .map(this::describe)
+                .toList();
+        return ResponseEntity.ok(rules);
+    }
+
+    /**
+     * Endpoint: POST /api/rules/reload
+     * Response:
+     * - 200 OK + aktif kural sayısı
+     * - 400 BAD REQUEST (tanım hatalı, eski set aktif kaldı)
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<Map<String, Object>> reload() {
+        try {
+            int count = ruleRegistry.reload();
+            return ResponseEntity.ok(Map.of("activeRules", count));
+        } catch (IllegalArgumentException e) {
+            logger.error("Rule reload rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private Map<String, Object> describe(FraudRule rule) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("name", rule.getRuleName());
+        view.put("priority", rule.getPriority());
+        view.put("type", rule.getClass().getSimpleName());
+        return view;
+    }
+}
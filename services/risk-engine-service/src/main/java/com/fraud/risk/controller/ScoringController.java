@@ -0,0 +1,126 @@
+package com.fraud.risk.controller;
+
+import com.fraud.risk.model.RiskScore;
+import com.fraud.risk.model.Transaction;
+import com.fraud.risk.rules.ReasonRenderer;
+import com.fraud.risk.service.RiskEngineService;
+import com.fraud.risk.service.RiskScorer;
+import com.fraud.risk.service.SyncScoringService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * ============================================
+ * SCORING CONTROLLER (SENKRON SKORLAMA)
+ * ============================================
+ * Endpoint'ler:
+ * - POST /api/risk/score        → Transaction'ı hemen skorlar, skor + reason'lar döner
+ * - GET  /api/risk/score/stats  → Bulkhead kuyruğu, red / timeout sayıları, asenkron kayıt durumu
+ *
+ * Cevap kodları:
+ * - 200: skorlandı (alert = true ise threshold aşıldı)
+ * - 400: transactionId / customerId / amount eksik
+ * - 503: skorlama kuyruğu dolu veya endpoint kapalı → authorization kendi fallback'ini uygular
+ * - 504: fraud.scoring.sync.timeout-ms aşıldı
+ *
+ * Cevap: mlScored = false ise ML atlandı (mlFallback = sebep, örn. "deadline"), finalScore sadece
+ * profil + kurallardan; bu skor kaydedilmez, kalıcı skor Kafka yolunun ML'li skorudur.
+ * Varsayılan fraud.scoring.sync.budget-ms (8) ML dilimine yetmez → her zaman rules-only
+ *
+ * HTTP thread'i beklemez: cevap skorlama executor'ı bitirince yazılır (async request)
+ */
+@RestController
+@RequestMapping("/api/risk")
+public class ScoringController {
+
+    private final SyncScoringService syncScoringService;
+    private final ReasonRenderer reasonRenderer;
+
+    public ScoringController(SyncScoringService syncScoringService, ReasonRenderer reasonRenderer) {
+        this.syncScoringService = syncScoringService;
+        this.reasonRenderer = reasonRenderer;
+    }
+
+    @PostMapping("/score")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> score(@RequestBody Transaction transaction) {
+        if (!syncScoringService.isEnabled()) {
+            return CompletableFuture.completedFuture(error(HttpStatus.SERVICE_UNAVAILABLE, "Sync scoring disabled"));
+        }
+        String invalid = validate(transaction);
+        if (invalid != null) {
+            return CompletableFuture.completedFuture(error(HttpStatus.BAD_REQUEST, invalid));
+        }
+        if (transaction.getTimestamp() == null) {
+            transaction.setTimestamp(LocalDateTime.now());
+        }
+
+        return syncScoringService.score(transaction)
+                .thenApply(evaluation -> ResponseEntity.ok(toResponse(evaluation)))
+                .exceptionally(ScoringController::failure);
+    }
+
+    @GetMapping("/score/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(syncScoringService.getStats());
+    }
+
+    private Map<String, Object> toResponse(RiskEngineService.Evaluation evaluation) {
+        RiskScore riskScore = evaluation.getRiskScore();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("transactionId", riskScore.getTransactionId());
+        response.put("finalScore", riskScore.getFinalScore());
+        response.put("ruleScore", riskScore.getRuleScore());
+        response.put("mlScore", riskScore.getMlScore());
+        response.put("mlScored", riskScore.getMlScore() != null);
+        if (riskScore.getMlScore() == null) {
+            response.put("mlFallback", riskScore.getReasons().get(RiskScorer.ML_FALLBACK_REASON));
+        }
+        response.put("alert", evaluation.getAlert() != null);
+        response.put("reasons", reasonRenderer.render(riskScore.getReasons()));
+        return response;
+    }
+
+    private static String validate(Transaction transaction) {
+        if (transaction.getTransactionId() == null || transaction.getTransactionId().isBlank()) {
+            return "Transaction ID cannot be blank";
+        }
+        if (transaction.getCustomerId() == null || transaction.getCustomerId().isBlank()) {
+            return "Customer ID cannot be blank";
+        }
+        if (transaction.getAmount() == null || transaction.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            return "Amount must be greater than 0";
+        }
+        return null;
+    }
+
+    private static ResponseEntity<Map<String, Object>> failure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RejectedExecutionException) {
+            return error(HttpStatus.SERVICE_UNAVAILABLE, "Scoring queue full");
+        }
+        if (cause instanceof TimeoutException) {
+            return error(HttpStatus.GATEWAY_TIMEOUT, "Scoring timed out");
+        }
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, String.valueOf(cause.getMessage()));
+    }
+
+    private static ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("error", message);
+        return ResponseEntity.status(status).body(body);
+    }
+}
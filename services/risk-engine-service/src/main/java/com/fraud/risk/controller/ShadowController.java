@@ -0,0 +1,34 @@
+package com.fraud.risk.controller;
+
+import com.fraud.risk.shadow.ShadowScoringService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * ============================================
+ * SHADOW CONTROLLER
+ * ============================================
+ * Endpoint: GET /api/shadow/stats
+ *
+ * Response: örneklenen / düşürülen iş sayısı, alert uyuşma matrisi, ortalama skor farkı
+ * Detaylı karşılaştırma için fraud-shadow-scores-topic kullanılır
+ */
+@RestController
+@RequestMapping("/api/shadow")
+public class ShadowController {
+
+    private final ShadowScoringService shadowScoringService;
+
+    public ShadowController(ShadowScoringService shadowScoringService) {
+        this.shadowScoringService = shadowScoringService;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(shadowScoringService.getStats());
+    }
+}
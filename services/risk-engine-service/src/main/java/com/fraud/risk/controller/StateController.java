@@ -0,0 +1,36 @@
+package com.fraud.risk.controller;
+
+import com.fraud.risk.state.StateRestorer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * ============================================
+ * STATE CONTROLLER
+ * ============================================
+ * Endpoint: GET /api/state/stats
+ *
+ * Response: changelog yazım / uygulama sayaçları, son restore süresi, standby durumu
+ * Changelog kapalıysa {"active": false}
+ */
+@RestController
+@RequestMapping("/api/state")
+public class StateController {
+
+    private final ObjectProvider<StateRestorer> stateRestorer;
+
+    public StateController(ObjectProvider<StateRestorer> stateRestorer) {
+        this.stateRestorer = stateRestorer;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        StateRestorer restorer = stateRestorer.getIfAvailable();
+        return ResponseEntity.ok(restorer != null ? restorer.getStats() : Map.of("active", false));
+    }
+}
@@ -0,0 +1,289 @@
+package com.fraud.risk.flow;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ============================================
+ * ADAPTIVE FLOW CONTROLLER (BACKPRESSURE)
+ * ============================================
+ * Ne yapar?
+ * - TransactionConsumer'daki her işlemin downstream süresini (PostgreSQL, ML) ve hata durumunu ölçer
+ * - In-flight işlem sayısını AIMD limitiyle ayarlar (AimdLimit)
+ * - Latency veya hata oranı eşiği aşarsa listener container'ı pause eder,
+ *   bekleme süresi dolunca resume eder (limit minimumdan tekrar büyür)
+ *
+ * Neden?
+ * - PostgreSQL / ML yavaşladığında consumer poll etmeye devam ediyor, her kayıt timeout'a düşüyor,
+ *   max.poll.interval aşılıyor → rebalance → aynı kayıtlar tekrar → consumer group çöküyor
+ * - Pause edilmiş consumer poll etmeye (heartbeat) devam eder ama kayıt almaz:
+ *   partition'lar grupta kalır, rebalance olmaz, throughput kontrollü düşer
+ *
+ * Sinyaller (EWMA, kayıt başına güncellenir):
+ * - latency > pause-latency-ms veya hata oranı > pause-error-rate → pause
+ * - Pause süresi: pause-ms, art arda her pause'da ikiye katlanır (max-pause-ms'e kadar)
+ * - Resume sonrası max-pause-ms boyunca sağlıklı kalırsa pause süresi sıfırlanır
+ *
+ * Geçici hatalar (DB bağlantısı, timeout) kaydı atlamaz: listener nack ile geri bırakır,
+ * kayıt backoff sonrası tekrar gelir. Kalıcı hatalar eskisi gibi log'lanıp geçilir.
+ */
+@Component
+public class AdaptiveFlowController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveFlowController.class);
+
+    public static final String LISTENER_ID = "transactions-listener";
+
+    // EWMA ağırlığı: son ~20 kayıt baskın
+    private static final double ALPHA = 0.05;
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final AimdLimit limit;
+
+    @Value("${fraud.flow.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fraud.flow.acquire-timeout-ms:2000}")
+    private long acquireTimeoutMs;
+
+    @Value("${fraud.flow.pause-latency-ms:2000}")
+    private double pauseLatencyMs;
+
+    @Value("${fraud.flow.pause-error-rate:0.5}")
+    private double pauseErrorRate;
+
+    @Value("${fraud.flow.min-samples:20}")
+    private long minSamples;
+
+    @Value("${fraud.flow.pause-ms:1000}")
+    private long pauseMs;
+
+    @Value("${fraud.flow.max-pause-ms:30000}")
+    private long maxPauseMs;
+
+    // EWMA'lar: kayıt thread'leri yazar, scheduler okur
+    private double latencyMs;
+    private double errorRate;
+    private long samples;
+
+    // Pause durumu sadece scheduler thread'inde değişir
+    private volatile boolean paused;
+    private long pausedUntilMillis;
+    private long resumedAtMillis;
+    private volatile int consecutivePauses;
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+    private final LongAdder pauses = new LongAdder();
+
+    public AdaptiveFlowController(KafkaListenerEndpointRegistry registry,
+                                  @Value("${fraud.kafka.listener.concurrency:1}") int concurrency,
+                                  @Value("${fraud.flow.min-concurrency:1}") int minConcurrency,
+                                  @Value("${fraud.flow.target-latency-ms:200}") long targetLatencyMs,
+                                  @Value("${fraud.flow.backoff-ratio:0.7}") double backoffRatio) {
+        this.registry = registry;
+        this.limit = new AimdLimit(minConcurrency, concurrency,
+                TimeUnit.MILLISECONDS.toNanos(targetLatencyMs), backoffRatio);
+    }
+
+    // ============================================
+    // LISTENER TARAFI
+    // ============================================
+
+    /**
+     * İşlemeden önce çağrılır
+     * @return false → limit dolu, kayıt nack ile geri bırakılmalı (getRetryBackoff)
+     */
+    public boolean tryAcquire() {
+        if (!enabled) {
+            return true;
+        }
+        try {
+            if (limit.acquire(TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMs))) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        deferred.increment();
+        return false;
+    }
+
+    /**
+     * tryAcquire true döndüyse işlem sonunda (başarılı / hatalı) çağrılır
+     */
+    public void release(long startNanos, boolean success) {
+        if (success) {
+            processed.increment();
+        } else {
+            failed.increment();
+        }
+        if (!enabled) {
+            return;
+        }
+        long latencyNanos = System.nanoTime() - startNanos;
+        limit.release(latencyNanos, success);
+        sample(latencyNanos, success);
+    }
+
+    /**
+     * Batch listener (exactly-once modu): izin almadan sadece ölçüm
+     * Latency kayıt başına ortalama olarak hesaba katılır, pause / resume aynı şekilde çalışır
+     */
+    public void recordBatch(long startNanos, int records, boolean success) {
+        if (success) {
+            processed.add(records);
+        } else {
+            failed.add(records);
+        }
+        if (!enabled || records == 0) {
+            return;
+        }
+        sample((System.nanoTime() - startNanos) / records, success);
+    }
+
+    private void sample(long latencyNanos, boolean success) {
+        synchronized (this) {
+            double sampleMs = latencyNanos / 1_000_000.0;
+            if (samples++ == 0) {
+                latencyMs = sampleMs;
+            } else {
+                latencyMs += ALPHA * (sampleMs - latencyMs);
+            }
+            errorRate += ALPHA * ((success ? 0.0 : 1.0) - errorRate);
+        }
+    }
+
+    /**
+     * Geri bırakılan kaydın tekrar gelmeden önce bekleme süresi
+     * (max.poll.interval'dan kısa olmalı; nack bu süre boyunca consumer'ı pause eder)
+     */
+    public Duration getRetryBackoff() {
+        return Duration.ofMillis(Math.min(maxPauseMs, pauseMs << Math.min(consecutivePauses, 10)));
+    }
+
+    /**
+     * Geçici downstream hatası mı? (tekrar denenirse düzelebilir)
+     */
+    public boolean isTransient(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof TransientDataAccessException
+                    || t instanceof RecoverableDataAccessException
+                    || t instanceof DataAccessResourceFailureException
+                    || t instanceof TimeoutException
+                    || t instanceof SocketTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ============================================
+    // PAUSE / RESUME (scheduler thread)
+    // ============================================
+
+    @Scheduled(fixedDelayString = "${fraud.flow.check-interval-ms:500}")
+    public void evaluate() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+
+        if (paused) {
+            if (now >= pausedUntilMillis) {
+                resume(now);
+            }
+            return;
+        }
+
+        double currentLatency;
+        double currentErrorRate;
+        long currentSamples;
+        synchronized (this) {
+            currentLatency = latencyMs;
+            currentErrorRate = errorRate;
+            currentSamples = samples;
+        }
+
+        boolean overloaded = currentSamples >= minSamples
+                && (currentLatency > pauseLatencyMs || currentErrorRate > pauseErrorRate);
+        if (overloaded) {
+            pause(now, currentLatency, currentErrorRate);
+        } else if (consecutivePauses > 0 && now - resumedAtMillis > maxPauseMs) {
+            consecutivePauses = 0;
+        }
+    }
+
+    private void pause(long now, double currentLatency, double currentErrorRate) {
+        MessageListenerContainer container = registry.getListenerContainer(LISTENER_ID);
+        if (container == null || !container.isRunning()) {
+            return;
+        }
+        long duration = Math.min(maxPauseMs, pauseMs << Math.min(consecutivePauses, 10));
+        container.pause();
+        paused = true;
+        pausedUntilMillis = now + duration;
+        consecutivePauses++;
+        pauses.increment();
+        logger.warn("Downstream overloaded (latency={} ms, errorRate={}), pausing {} partitions for {} ms",
+                Math.round(currentLatency), round(currentErrorRate),
+                container.getAssignedPartitions() != null ? container.getAssignedPartitions().size() : 0,
+                duration);
+    }
+
+    private void resume(long now) {
+        MessageListenerContainer container = registry.getListenerContainer(LISTENER_ID);
+        synchronized (this) {
+            // Pause öncesi ölçümler yeni duruma taşınmasın
+            latencyMs = 0;
+            errorRate = 0;
+            samples = 0;
+        }
+        limit.reset();
+        paused = false;
+        resumedAtMillis = now;
+        if (container != null) {
+            container.resume();
+        }
+        logger.info("Resuming transaction consumption with concurrency limit {}", limit.getLimit());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("paused", paused);
+        stats.put("concurrencyLimit", limit.getLimit());
+        stats.put("inFlight", limit.getInFlight());
+        synchronized (this) {
+            stats.put("latencyMs", round(latencyMs));
+            stats.put("errorRate", round(errorRate));
+        }
+        stats.put("processed", processed.sum());
+        stats.put("failed", failed.sum());
+        stats.put("deferred", deferred.sum());
+        stats.put("pauses", pauses.sum());
+        stats.put("consecutivePauses", consecutivePauses);
+        return stats;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+}
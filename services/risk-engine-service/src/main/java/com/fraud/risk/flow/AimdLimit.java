@@ -0,0 +1,81 @@
+package com.fraud.risk.flow;
+
+/**
+ * ============================================
+ * AIMD CONCURRENCY LIMIT
+ * ============================================
+ * Ne yapar?
+ * - Aynı anda işlenen (in-flight) transaction sayısına dinamik bir üst sınır koyar
+ * - Additive increase: hedef latency altında her başarılı işlemde limit += 1 / limit
+ *   (yani her "tam tur"da +1)
+ * - Multiplicative decrease: hata veya hedef üstü latency'de limit *= backoff-ratio
+ *   En fazla bir latency süresinde bir kez düşer (aynı yavaşlığı gören eşzamanlı
+ *   işlemler limiti art arda çökertmesin)
+ *
+ * TCP congestion control'deki mantık: downstream kapasitesi bilinmiyor, ölçerek bulunur.
+ */
+final class AimdLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+    private long lastDecreaseNanos;
+
+    AimdLimit(int minLimit, int maxLimit, long targetLatencyNanos, double backoffRatio) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = this.maxLimit;
+    }
+
+    /**
+     * Limit doluysa en fazla timeoutNanos bekler
+     * @return false → izin alınamadı (çağıran geri çekilmeli)
+     */
+    synchronized boolean acquire(long timeoutNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (inFlight >= (int) limit) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(Math.max(1, remaining / 1_000_000));
+        }
+        inFlight++;
+        return true;
+    }
+
+    synchronized void release(long latencyNanos, boolean success) {
+        inFlight--;
+        long now = System.nanoTime();
+
+        if (success && latencyNanos <= targetLatencyNanos) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        } else if (now - lastDecreaseNanos > latencyNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            lastDecreaseNanos = now;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Pause sonrası "slow start": minimum limitten başla, sağlıklı oldukça büyü
+     */
+    synchronized void reset() {
+        limit = minLimit;
+        notifyAll();
+    }
+
+    synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+}
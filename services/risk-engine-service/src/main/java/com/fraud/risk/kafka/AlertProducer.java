@@ -1,15 +1,43 @@
 package com.fraud.risk.kafka;
 
 import com.fraud.risk.model.Alert;
+import com.fraud.risk.rules.RuleReasons;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
- * Alert Kafka Producer
+ * ============================================
+ * ALERT KAFKA PRODUCER
+ * ============================================
  * Yüksek riskli transaction'lar için alert gönderir
+ *
+ * Windowed aggregation (fraud.alerts.aggregation.enabled):
+ * - Saldırı sırasında tek müşteri saniyeler içinde yüzlerce alert üretebilir
+ * - Aynı müşterinin alert'leri kısa bir pencerede (window-ms) birleştirilir:
+ *   transaction id listesi + en yüksek skor + birleştirilmiş sebepler → TEK Kafka kaydı
+ * - Pencere ilk alert ile açılır, şu durumlarda gönderilir:
+ *   - Süre dolunca (flush-interval-ms aralıkla kontrol edilir)
+ *   - max-transactions'a ulaşınca (hemen)
+ *   - Açık pencere sayısı max-open-windows'u aşarsa (bellek sınırı, hemen)
+ * - Record key = customerId → aynı müşterinin alert'leri aynı partition'da, sıralı
+ *
+ * Producer batching: spring.kafka.producer.batch-size / linger.ms (application.yml)
+ *
+ * Kapalıysa eski davranış: her alert ayrı kayıt, key = transactionId
  */
 @Component
 public class AlertProducer {
@@ -20,19 +48,106 @@ public class AlertProducer {
     @Value("${fraud.kafka.topic.alerts}")
     private String alertsTopic;
 
+    @Value("${fraud.alerts.aggregation.enabled:true}")
+    private boolean aggregationEnabled;
+
+    @Value("${fraud.alerts.aggregation.window-ms:5000}")
+    private long windowMillis;
+
+    @Value("${fraud.alerts.aggregation.max-transactions:50}")
+    private int maxTransactions;
+
+    @Value("${fraud.alerts.aggregation.max-open-windows:10000}")
+    private int maxOpenWindows;
+
+    // customerId → açık pencere
+    private final Map<String, AlertWindow> windows = new ConcurrentHashMap<>();
+
     public AlertProducer(KafkaTemplate<String, Alert> kafkaTemplate) {
         this.kafkaTemplate = kafkaTemplate;
     }
 
     public void sendAlert(Alert alert) {
+        if (!aggregationEnabled) {
+            send(alert.getTransactionId(), alert);
+            return;
+        }
+
+        // compute müşteri bazında atomik: sweeper ile yarışta alert kaybolmaz
+        AlertWindow[] full = new AlertWindow[1];
+        windows.compute(alert.getCustomerId(), (customerId, window) -> {
+            if (window == null) {
+                window = new AlertWindow(System.currentTimeMillis());
+            }
+            window.add(alert);
+            if (window.size() >= maxTransactions) {
+                full[0] = window;
+                return null;
+            }
+            return window;
+        });
+
+        if (full[0] != null) {
+            send(alert.getCustomerId(), full[0].toAlert(alert.getCustomerId()));
+        } else if (windows.size() > maxOpenWindows) {
+            // Çok sayıda farklı müşteri: pencereyi beklemeden gönder
+            AlertWindow window = windows.remove(alert.getCustomerId());
+            if (window != null) {
+                send(alert.getCustomerId(), window.toAlert(alert.getCustomerId()));
+            }
+        }
+
+        logger.debug("Alert queued for aggregation: Transaction={}, Customer={}, Score={}",
+                alert.getTransactionId(), alert.getCustomerId(), alert.getRiskScore());
+    }
+
+    /**
+     * Süresi dolan pencereleri gönderir
+     */
+    @Scheduled(fixedDelayString = "${fraud.alerts.aggregation.flush-interval-ms:1000}")
+    public void flushExpired() {
+        long cutoff = System.currentTimeMillis() - windowMillis;
+        windows.forEach((customerId, window) -> {
+            if (window.openedAt <= cutoff && windows.remove(customerId, window)) {
+                send(customerId, window.toAlert(customerId));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        windows.forEach((customerId, window) -> {
+            if (windows.remove(customerId, window)) {
+                send(customerId, window.toAlert(customerId));
+            }
+        });
+        kafkaTemplate.flush();
+    }
+
+    /**
+     * Bir batch'teki alert'leri müşteri bazında birleştirir (pencere = batch)
+     * Exactly-once modunda kullanılır: zaman pencereleri Kafka transaction'ı dışına taşardı
+     */
+    static List<Alert> coalesce(List<Alert> alerts) {
+        Map<String, AlertWindow> byCustomer = new LinkedHashMap<>();
+        long now = System.currentTimeMillis();
+        for (Alert alert : alerts) {
+            byCustomer.computeIfAbsent(alert.getCustomerId(), customerId -> new AlertWindow(now)).add(alert);
+        }
+        List<Alert> coalesced = new ArrayList<>(byCustomer.size());
+        byCustomer.forEach((customerId, window) -> coalesced.add(window.toAlert(customerId)));
+        return coalesced;
+    }
+
+    private void send(String key, Alert alert) {
         try {
-            logger.info("Sending alert to Kafka: Transaction={}, Score={}",
-                    alert.getTransactionId(), alert.getRiskScore());
+            logger.info("Sending alert to Kafka: Customer={}, Transactions={}, MaxScore={}",
+                    alert.getCustomerId(), alert.getAlertCount(), alert.getRiskScore());
 
-            kafkaTemplate.send(alertsTopic, alert.getTransactionId(), alert)
+            kafkaTemplate.send(alertsTopic, key, alert)
                     .whenComplete((result, exception) -> {
                         if (exception == null) {
-                            logger.info("Alert sent successfully: {}", alert.getTransactionId());
+                            logger.debug("Alert sent successfully: {}", alert.getTransactionIds());
                         } else {
                             logger.error("Failed to send alert: {}", exception.getMessage(), exception);
                         }
@@ -41,4 +156,71 @@ public class AlertProducer {
             logger.error("Exception sending alert: {}", e.getMessage(), e);
         }
     }
+
+    // ============================================
+    // ALERT WINDOW (sadece windows.compute içinde değişir)
+    // ============================================
+    private static final class AlertWindow {
+
+        private final long openedAt;
+        private final List<String> transactionIds = new ArrayList<>();
+        private final Map<String, Object> reasons = new HashMap<>();
+        private Alert top;
+        private BigDecimal totalAmount = BigDecimal.ZERO;
+        private LocalDateTime first;
+        private LocalDateTime last;
+
+        private AlertWindow(long openedAt) {
+            this.openedAt = openedAt;
+        }
+
+        private void add(Alert alert) {
+            transactionIds.add(alert.getTransactionId());
+            if (alert.getAmount() != null) {
+                totalAmount = totalAmount.add(alert.getAmount());
+            }
+            if (first == null) {
+                first = alert.getTimestamp();
+            }
+            last = alert.getTimestamp();
+
+            // Aynı kural birden fazla kez tetiklendiyse en yüksek skorlu alert'in sebebi kalır
+            boolean higher = top == null || alert.getRiskScore().compareTo(top.getRiskScore()) > 0;
+            if (alert.getReasons() != null) {
+                // Kompakt form kopyalanır: birleştirme reason metni render etmez
+                Map<String, Object> source = alert.getReasons() instanceof RuleReasons ruleReasons
+                        ? ruleReasons.toCompactMap()
+                        : alert.getReasons();
+                source.forEach((rule, reason) -> {
+                    if (higher) {
+                        reasons.put(rule, reason);
+                    } else {
+                        reasons.putIfAbsent(rule, reason);
+                    }
+                });
+            }
+            if (higher) {
+                top = alert;
+            }
+        }
+
+        private int size() {
+            return transactionIds.size();
+        }
+
+        private Alert toAlert(String customerId) {
+            return new Alert(
+                    top.getTransactionId(),
+                    customerId,
+                    top.getAmount(),
+                    top.getRiskScore(),
+                    reasons,
+                    LocalDateTime.now(),
+                    transactionIds,
+                    transactionIds.size(),
+                    totalAmount,
+                    first,
+                    last);
+        }
+    }
 }
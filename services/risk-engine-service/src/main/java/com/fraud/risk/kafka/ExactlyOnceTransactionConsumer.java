@@ -0,0 +1,135 @@
+package com.fraud.risk.kafka;
+
+import com.fraud.risk.config.ExactlyOnceConfig;
+import com.fraud.risk.flow.AdaptiveFlowController;
+import com.fraud.risk.model.Alert;
+import com.fraud.risk.model.RiskScore;
+import com.fraud.risk.model.Transaction;
+import com.fraud.risk.service.RiskEngineService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ============================================
+ * EXACTLY-ONCE TRANSACTION CONSUMER
+ * ============================================
+ * Aktifleştirme: fraud.kafka.exactly-once.enabled=true (TransactionConsumer'ın yerine geçer)
+ *
+ * Ne yapar?
+ * - Poll edilen batch'i skorlar (RiskEngineService.evaluate, DB'ye yazmaz)
+ * - Skorları risk-scores topic'ine, alert'leri alerts topic'ine container'ın açtığı
+ *   Kafka transaction'ı içinde gönderir; consumer offset'leri aynı transaction'da commit edilir
+ * - risk_scores / alerts tablolarına yazım ve RiskScoreCache RiskScoreSink'in işi (read_committed,
+ *   DB commit'inden sonra). Burada cache'e yazılmaz: KafkaTransactionManager SYNCHRONIZATION_NEVER
+ *   ile çalışır, afterCommit yoktur → put hemen uygulanır, abort edilen batch'in skoru cache'te kalırdı
+ *
+ * Neden?
+ * - Manual-ack modunda DB kaydı ile Kafka alert'i ayrı sistemler: alert gönderilip DB commit'i
+ *   başarısız olabilir (tekrar işlemede risk_scores satırı unique index ile tekilleşir, alert tekrarı
+ *   engellenir ama ilk alert geri alınamaz)
+ * - Burada batch ya tamamen görünür olur ya hiç: tekrar işlenen batch'in önceki çıktısı abort edilmiştir
+ *
+ * Hatalar:
+ * - Geçici (DB / timeout): exception fırlar → rollback → batch backoff sonrası tekrar
+ * - Kalıcı (tek kayda özgü): eski davranış gibi log'lanır, kayıt atlanır
+ *
+ * Sınır (Kafka transaction'ına dahil OLMAYANLAR):
+ * - Kuralların bellek içi state'i (LastSeenTable, AmountAggregates, CustomerSketches, GlobalHotspots)
+ *   ve StateChangelog yazımları evaluate sırasında hemen uygulanır, rollback'te geri alınmaz
+ * - Tekrar gelen batch'te store'lar transaction id hash'i ile tekrarı ayıklar: müşteri başına son
+ *   (LastSeenTable) / son iki (AmountAggregates, CustomerSketches) işlem, GlobalHotspots'ta yakın
+ *   geçmiş halkası. Aynı müşterinin batch'te bundan fazla işlemi varsa erken olanlar ikinci kez
+ *   sayılır (rolling toplam / sketch şişer, ImpossibleTravel yanlış "önceki lokasyon" görebilir)
+ * - Changelog at-least-once: restore edilen state de bu tekrarları içerir
+ * → Skor / alert çıktısı exactly-once, kural state'i at-least-once (yaklaşık)
+ *
+ * Alert aggregation: pencere = batch (zaman pencereleri transaction sınırını aşardı)
+ */
+@Component
+@ConditionalOnProperty(name = "fraud.kafka.exactly-once.enabled", havingValue = "true")
+public class ExactlyOnceTransactionConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExactlyOnceTransactionConsumer.class);
+
+    private final RiskEngineService riskEngineService;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final AdaptiveFlowController flowController;
+
+    @Value("${fraud.kafka.topic.risk-scores}")
+    private String scoresTopic;
+
+    @Value("${fraud.kafka.topic.alerts}")
+    private String alertsTopic;
+
+    @Value("${fraud.alerts.aggregation.enabled:true}")
+    private boolean aggregationEnabled;
+
+    public ExactlyOnceTransactionConsumer(RiskEngineService riskEngineService,
+                                          ExactlyOnceConfig exactlyOnceConfig,
+                                          AdaptiveFlowController flowController) {
+        this.riskEngineService = riskEngineService;
+        this.kafkaTemplate = exactlyOnceConfig.getTransactionalTemplate();
+        this.flowController = flowController;
+    }
+
+    @KafkaListener(
+            id = AdaptiveFlowController.LISTENER_ID,
+            topics = "${fraud.kafka.topic.transactions}",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "exactlyOnceListenerContainerFactory"
+    )
+    public void consumeBatch(List<Transaction> transactions) {
+        long startNanos = System.nanoTime();
+        boolean success = false;
+        try {
+            List<Alert> alerts = new ArrayList<>();
+
+            for (Transaction transaction : transactions) {
+                RiskEngineService.Evaluation evaluation;
+                try {
+                    evaluation = riskEngineService.evaluate(transaction);
+                } catch (RuntimeException e) {
+                    if (flowController.isTransient(e)) {
+                        throw e;  // Tüm batch rollback, tekrar denenecek
+                    }
+                    logger.error("Error processing transaction: ID={}, Error: {}",
+                            transaction.getTransactionId(), e.getMessage(), e);
+                    continue;
+                }
+
+                RiskScore riskScore = evaluation.getRiskScore();
+                riskScore.setCreatedAt(LocalDateTime.now());
+                kafkaTemplate.send(scoresTopic, transaction.getTransactionId(), riskScore);
+
+                if (evaluation.getAlert() != null) {
+                    alerts.add(evaluation.getAlert());
+                }
+            }
+
+            if (aggregationEnabled) {
+                for (Alert alert : AlertProducer.coalesce(alerts)) {
+                    kafkaTemplate.send(alertsTopic, alert.getCustomerId(), alert);
+                }
+            } else {
+                for (Alert alert : alerts) {
+                    kafkaTemplate.send(alertsTopic, alert.getTransactionId(), alert);
+                }
+            }
+
+            success = true;
+            logger.debug("Batch scored in transaction: {} transactions, {} alerts",
+                    transactions.size(), alerts.size());
+        } finally {
+            flowController.recordBatch(startNanos, transactions.size(), success);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.fraud.risk.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraud.risk.model.RiskScore;
+import com.fraud.risk.service.RiskScoreCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ============================================
+ * RISK SCORE SINK (EXACTLY-ONCE MODU)
+ * ============================================
+ * Ne yapar?
+ * - risk-scores topic'ini read_committed okur (abort edilen batch'ler hiç görülmez)
+ * - Batch'i tek DB transaction'ında risk_scores'a, threshold üstündekileri alerts'e yazar
+ * - Offset DB commit'inden sonra commit edilir
+ *
+ * Idempotent insert (UNIQUE idx_risk_scores_transaction_id_unique + ON CONFLICT DO NOTHING):
+ * - DB commit ile offset commit arasında crash → batch tekrar gelir → satırlar zaten var, atlanır
+ * - Senkron skorlama API'si (SyncScoringService) aynı transaction'ı önce yazdıysa da atlanır
+ * - Alert sadece skor satırını bu batch yazdıysa eklenir (alert'i skoru yazan yol üretir)
+ *
+ * RiskScoreCache: bu batch'in yazdığı skorlar DB commit'inden SONRA eklenir
+ * (exactly-once consumer cache'e yazmaz: Kafka transaction'ı abort olabilir)
+ */
+@Component
+@ConditionalOnProperty(name = {"fraud.kafka.exactly-once.enabled", "fraud.kafka.exactly-once.sink.enabled"},
+        havingValue = "true")
+public class RiskScoreSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiskScoreSink.class);
+
+    private static final String INSERT_SCORE =
+            "INSERT INTO risk_scores (transaction_id, rule_score, ml_score, final_score, reasons, created_at) " +
+            "VALUES (?, ?, ?, ?, CAST(? AS jsonb), ?) " +
+            "ON CONFLICT (transaction_id) DO NOTHING";
+
+    private static final String INSERT_ALERT =
+            "INSERT INTO alerts (transaction_id, risk_score, status, created_at) " +
+            "SELECT ?, ?, 'NEW', ? " +
+            "WHERE NOT EXISTS (SELECT 1 FROM alerts WHERE transaction_id = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final RiskScoreCache riskScoreCache;
+
+    @Value("${fraud.detection.alert-threshold:70}")
+    private double alertThreshold;
+
+    public RiskScoreSink(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         RiskScoreCache riskScoreCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.riskScoreCache = riskScoreCache;
+    }
+
+    @KafkaListener(
+            id = "risk-score-sink",
+            topics = "${fraud.kafka.topic.risk-scores}",
+            groupId = "${fraud.kafka.exactly-once.sink.group-id:risk-score-sink}",
+            containerFactory = "riskScoreSinkContainerFactory"
+    )
+    public void persist(List<RiskScore> scores) {
+        int[] alertCount = {0};
+        List<RiskScore> written = new ArrayList<>(scores.size());
+        transactionTemplate.executeWithoutResult(status -> {
+            int[][] inserted = jdbcTemplate.batchUpdate(INSERT_SCORE, scores, scores.size(), (ps, score) -> {
+                ps.setString(1, score.getTransactionId());
+                ps.setObject(2, score.getRuleScore(), Types.INTEGER);
+                ps.setBigDecimal(3, score.getMlScore());
+                ps.setBigDecimal(4, score.getFinalScore());
+                ps.setString(5, toJson(score));
+                ps.setTimestamp(6, Timestamp.valueOf(createdAt(score)));
+            });
+
+            // Update count 0 = ON CONFLICT: skor başka yoldan yazılmış, alert'i de o yol üretti
+            List<RiskScore> alerts = new ArrayList<>();
+            for (int i = 0; i < scores.size(); i++) {
+                RiskScore score = scores.get(i);
+                if (inserted[0][i] == 0) {
+                    continue;
+                }
+                written.add(score);
+                if (score.getFinalScore() != null && score.getFinalScore().doubleValue() > alertThreshold) {
+                    alerts.add(score);
+                }
+            }
+
+            if (!alerts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_ALERT, alerts, alerts.size(), (ps, score) -> {
+                    ps.setString(1, score.getTransactionId());
+                    ps.setBigDecimal(2, score.getFinalScore());
+                    ps.setTimestamp(3, Timestamp.valueOf(createdAt(score)));
+                    ps.setString(4, score.getTransactionId());
+                });
+            }
+            alertCount[0] = alerts.size();
+        });
+
+        // executeWithoutResult döndü → DB commit edildi
+        for (RiskScore score : written) {
+            riskScoreCache.put(score);
+        }
+
+        logger.debug("Persisted {} risk scores, {} alerts", scores.size(), alertCount[0]);
+    }
+
+    private String toJson(RiskScore score) {
+        try {
+            return objectMapper.writeValueAsString(score.getReasons());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize reasons of " + score.getTransactionId(), e);
+        }
+    }
+
+    private static LocalDateTime createdAt(RiskScore score) {
+        return score.getCreatedAt() != null ? score.getCreatedAt() : LocalDateTime.now();
+    }
+}
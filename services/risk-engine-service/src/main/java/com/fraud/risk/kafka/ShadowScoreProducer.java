@@ -0,0 +1,41 @@
+package com.fraud.risk.kafka;
+
+import com.fraud.risk.model.ShadowScore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Shadow Score Kafka Producer
+ * Challenger skorlarını canlı alert'lerden ayrı bir topic'e gönderir
+ * (karşılaştırma / offline analiz için, case management'a gitmez)
+ */
+@Component
+public class ShadowScoreProducer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShadowScoreProducer.class);
+    private final KafkaTemplate<String, ShadowScore> kafkaTemplate;
+
+    @Value("${fraud.kafka.topic.shadow-scores:fraud-shadow-scores-topic}")
+    private String shadowScoresTopic;
+
+    public ShadowScoreProducer(KafkaTemplate<String, ShadowScore> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    public void sendShadowScore(ShadowScore shadowScore) {
+        try {
+            kafkaTemplate.send(shadowScoresTopic, shadowScore.getTransactionId(), shadowScore)
+                    .whenComplete((result, exception) -> {
+                        if (exception != null) {
+                            logger.warn("Failed to send shadow score: {} - {}",
+                                    shadowScore.getTransactionId(), exception.getMessage());
+                        }
+                    });
+        } catch (Exception e) {
+            logger.warn("Exception sending shadow score: {}", e.getMessage());
+        }
+    }
+}
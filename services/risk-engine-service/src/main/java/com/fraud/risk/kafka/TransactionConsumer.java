@@ -1,9 +1,11 @@
 package com.fraud.risk.kafka;
 
+import com.fraud.risk.flow.AdaptiveFlowController;
 import com.fraud.risk.model.Transaction;
 import com.fraud.risk.service.RiskEngineService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
@@ -16,15 +18,21 @@ import org.springframework.stereotype.Component;
  * - Kafka'dan transaction'ları dinler
  * - Risk Engine Service'e gönderir
  * - Manual commit (güvenli)
+ * - Backpressure: AdaptiveFlowController in-flight sınırını ve pause / resume'u yönetir
+ *
+ * Exactly-once modunda (fraud.kafka.exactly-once.enabled) yerini ExactlyOnceTransactionConsumer alır
  */
 @Component
+@ConditionalOnProperty(name = "fraud.kafka.exactly-once.enabled", havingValue = "false", matchIfMissing = true)
 public class TransactionConsumer {
 
     private static final Logger logger = LoggerFactory.getLogger(TransactionConsumer.class);
     private final RiskEngineService riskEngineService;
+    private final AdaptiveFlowController flowController;
 
-    public TransactionConsumer(RiskEngineService riskEngineService) {
+    public TransactionConsumer(RiskEngineService riskEngineService, AdaptiveFlowController flowController) {
         this.riskEngineService = riskEngineService;
+        this.flowController = flowController;
     }
 
     /**
@@ -32,11 +40,20 @@ public class TransactionConsumer {
      * @KafkaListener: Bu metod Kafka consumer
      */
     @KafkaListener(
+            id = AdaptiveFlowController.LISTENER_ID,
             topics = "${fraud.kafka.topic.transactions}",
             groupId = "${spring.kafka.consumer.group-id}",
             containerFactory = "kafkaListenerContainerFactory"
     )
     public void consumeTransaction(Transaction transaction, Acknowledgment acknowledgment) {
+        // Limit dolu: downstream yetişemiyor, kaydı geri bırak (backoff sonrası tekrar gelir)
+        if (!flowController.tryAcquire()) {
+            acknowledgment.nack(flowController.getRetryBackoff());
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        boolean success = false;
         try {
             logger.info("Received transaction from Kafka: ID={}, Customer={}, Amount={}",
                     transaction.getTransactionId(),
@@ -48,14 +65,24 @@ public class TransactionConsumer {
 
             // Manuel commit (başarılı işlendi)
             acknowledgment.acknowledge();
+            success = true;
 
             logger.info("Transaction processed successfully: ID={}", transaction.getTransactionId());
 
         } catch (Exception e) {
-            logger.error("Error processing transaction: ID={}, Error: {}",
-                    transaction != null ? transaction.getTransactionId() : "null",
-                    e.getMessage(), e);
-            // Not: Hata olursa commit yapma (retry edilsin)
+            if (flowController.isTransient(e)) {
+                // DB / timeout: kayıt atlanmasın, backoff sonrası tekrar denensin
+                logger.warn("Transient error processing transaction: ID={}, retrying later: {}",
+                        transaction.getTransactionId(), e.getMessage());
+                acknowledgment.nack(flowController.getRetryBackoff());
+            } else {
+                logger.error("Error processing transaction: ID={}, Error: {}",
+                        transaction != null ? transaction.getTransactionId() : "null",
+                        e.getMessage(), e);
+                // Not: Hata olursa commit yapma (retry edilsin)
+            }
+        } finally {
+            flowController.release(startNanos, success);
         }
     }
 }
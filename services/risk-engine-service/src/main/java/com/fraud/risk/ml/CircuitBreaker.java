@@ -0,0 +1,128 @@
+package com.fraud.risk.ml;
+
+/**
+ * ============================================
+ * CIRCUIT BREAKER (COUNT-BASED)
+ * ============================================
+ * Ne yapar?
+ * - Son window-size çağrının sonucunu halka tamponda tutar
+ * - Hata oranı (timeout dahil) eşiği geçince OPEN: çağrı hiç yapılmaz
+ * - open-ms sonra HALF_OPEN: birkaç deneme çağrısına izin verir
+ *   Hepsi başarılıysa CLOSED, biri bile hatalıysa tekrar OPEN
+ *
+ * Neden?
+ * - Yavaş ML servisine her transaction'da timeout kadar beklemek
+ *   pipeline'ı durdurur; açık devre anında fallback'e geçer
+ */
+final class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final boolean[] window;
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final long openMillis;
+    private final int halfOpenCalls;
+
+    private State state = State.CLOSED;
+    private int position;
+    private int calls;
+    private int failures;
+    private long openUntilMillis;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+    private long openedCount;
+
+    CircuitBreaker(int windowSize, int minCalls, double failureRateThreshold, long openMillis, int halfOpenCalls) {
+        this.window = new boolean[Math.max(1, windowSize)];
+        this.minCalls = Math.max(1, Math.min(minCalls, window.length));
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMillis = openMillis;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+    }
+
+    /**
+     * @return false → devre açık, çağrı yapılmamalı
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() < openUntilMillis) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        record(false);
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        if (state == State.OPEN) {
+            return;  // Açılmadan önce başlamış çağrı
+        }
+        record(true);
+        if (calls >= minCalls && (double) failures / calls >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    private void record(boolean failure) {
+        if (calls == window.length) {
+            if (window[position]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        window[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntilMillis = System.currentTimeMillis() + openMillis;
+        openedCount++;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        position = 0;
+        calls = 0;
+        failures = 0;
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    synchronized double getFailureRate() {
+        return calls == 0 ? 0.0 : (double) failures / calls;
+    }
+
+    synchronized long getOpenedCount() {
+        return openedCount;
+    }
+}
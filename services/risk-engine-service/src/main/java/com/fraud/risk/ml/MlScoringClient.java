@@ -0,0 +1,224 @@
+package com.fraud.risk.ml;
+
+import com.fraud.risk.aggregate.AmountAggregates;
+import com.fraud.risk.model.CustomerProfile;
+import com.fraud.risk.model.MlPredictionRequest;
+import com.fraud.risk.model.MlPredictionResponse;
+import com.fraud.risk.model.Transaction;
+import com.fraud.risk.service.ScoringDeadline;
+import io.netty.channel.ChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ============================================
+ * ML SCORING CLIENT
+ * ============================================
+ * Ne yapar?
+ * - ML Service'e POST /predict çağrısı yapar, fraud probability döner
+ * - Çağrı süresi transaction'ın kalan latency bütçesiyle sınırlı (ScoringDeadline)
+ * - Circuit breaker: ML yavaş / hatalıysa çağrı hiç yapılmaz
+ *
+ * Fallback (skor yerine sebep döner, RiskScorer rules-only skora geçer):
+ * - circuit_open : devre açık
+ * - deadline     : bütçede ML için min-ml-budget-ms kalmadı
+ * - timeout      : ML dilimi içinde cevap gelmedi
+ * - error        : HTTP / parse hatası
+ *
+ * ml.service.enabled=false → eski davranış (sabit ml.service.default-score, çağrı yok)
+ */
+@Component
+public class MlScoringClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(MlScoringClient.class);
+
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final AmountAggregates aggregates;
+    private final ThreadLocal<double[]> aggregateBuffer = ThreadLocal.withInitial(() -> new double[AmountAggregates.FIELDS]);
+
+    @Value("${ml.service.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ml.service.default-score:0.5}")
+    private BigDecimal defaultScore;
+
+    @Value("${ml.service.timeout:5000}")
+    private long timeoutMs;
+
+    @Value("${fraud.scoring.ml-budget-ms:150}")
+    private long mlBudgetMs;
+
+    @Value("${fraud.scoring.min-ml-budget-ms:10}")
+    private long minMlBudgetMs;
+
+    @Value("${fraud.scoring.reserve-ms:50}")
+    private long reserveMs;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder circuitOpen = new LongAdder();
+    private final LongAdder deadlineSkips = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public MlScoringClient(WebClient.Builder webClientBuilder,
+                           AmountAggregates aggregates,
+                           @Value("${ml.service.url:http://localhost:8000}") String url,
+                           @Value("${ml.service.timeout:5000}") int connectTimeoutMs,
+                           @Value("${fraud.scoring.circuit-breaker.window-size:50}") int windowSize,
+                           @Value("${fraud.scoring.circuit-breaker.min-calls:10}") int minCalls,
+                           @Value("${fraud.scoring.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                           @Value("${fraud.scoring.circuit-breaker.open-ms:10000}") long openMs,
+                           @Value("${fraud.scoring.circuit-breaker.half-open-calls:5}") int halfOpenCalls) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs);
+        this.webClient = webClientBuilder
+                .baseUrl(url)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+        this.circuitBreaker = new CircuitBreaker(windowSize, minCalls, failureRateThreshold, openMs, halfOpenCalls);
+        this.aggregates = aggregates;
+    }
+
+    /**
+     * @return ML skoru veya fallback sebebi (asla exception fırlatmaz)
+     */
+    public Result predict(Transaction transaction, CustomerProfile profile, ScoringDeadline deadline) {
+        if (!enabled) {
+            return new Result(defaultScore, null);
+        }
+
+        long sliceMs = Math.min(timeoutMs, deadline.sliceMillis(mlBudgetMs, reserveMs));
+        if (sliceMs < minMlBudgetMs) {
+            deadlineSkips.increment();
+            return new Result(null, "deadline");
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            circuitOpen.increment();
+            return new Result(null, "circuit_open");
+        }
+
+        calls.increment();
+        try {
+            MlPredictionResponse response = webClient.post()
+                    .uri("/predict")
+                    .bodyValue(toRequest(transaction, profile))
+                    .retrieve()
+                    .bodyToMono(MlPredictionResponse.class)
+                    .timeout(Duration.ofMillis(sliceMs))
+                    .block();
+
+            if (response == null || response.getFraudProbability() == null) {
+                throw new IllegalStateException("Empty ML response");
+            }
+            circuitBreaker.onSuccess();
+            successes.increment();
+            return new Result(response.getFraudProbability(), null);
+
+        } catch (Exception e) {
+            circuitBreaker.onFailure();
+            if (isTimeout(e)) {
+                timeouts.increment();
+                logger.debug("ML call timed out after {} ms: {}", sliceMs, transaction.getTransactionId());
+                return new Result(null, "timeout");
+            }
+            errors.increment();
+            logger.warn("ML call failed: {} - {}", transaction.getTransactionId(), e.getMessage());
+            return new Result(null, "error");
+        }
+    }
+
+    /**
+     * Kayan tutar özetleri: ML kurallardan önce çağrılır → güncel işlem henüz eklenmemiş
+     * Müşterinin hiç kaydı yoksa (veya aggregate kapalıysa) alanlar null
+     */
+    private MlPredictionRequest toRequest(Transaction transaction, CustomerProfile profile) {
+        MlPredictionRequest request = new MlPredictionRequest();
+        request.setTransactionId(transaction.getTransactionId());
+        request.setCustomerId(transaction.getCustomerId());
+        request.setAmount(transaction.getAmount());
+        request.setMerchantCategory(transaction.getMerchantCategory());
+        request.setLocation(transaction.getLocation());
+        request.setAvgAmount(profile != null ? profile.getAvgAmount() : null);
+        request.setTransactionCount(profile != null ? profile.getTransactionCount() : null);
+
+        double[] totals = aggregateBuffer.get();
+        if (aggregates.query(transaction.getCustomerId(), transaction.getTimestamp(), totals)) {
+            request.setAmountSum1h(totals[AmountAggregates.SUM_1H]);
+            request.setAmountMax1h(totals[AmountAggregates.MAX_1H]);
+            request.setAmountSum24h(totals[AmountAggregates.SUM_24H]);
+            request.setAmountMax24h(totals[AmountAggregates.MAX_24H]);
+            request.setAmountSum7d(totals[AmountAggregates.SUM_7D]);
+            request.setAmountMax7d(totals[AmountAggregates.MAX_7D]);
+        }
+        return request;
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("circuitState", circuitBreaker.getState().name());
+        stats.put("failureRate", Math.round(circuitBreaker.getFailureRate() * 1000) / 1000.0);
+        stats.put("circuitOpened", circuitBreaker.getOpenedCount());
+        stats.put("calls", calls.sum());
+        stats.put("successes", successes.sum());
+        Map<String, Long> fallbacks = new LinkedHashMap<>();
+        fallbacks.put("circuit_open", circuitOpen.sum());
+        fallbacks.put("deadline", deadlineSkips.sum());
+        fallbacks.put("timeout", timeouts.sum());
+        fallbacks.put("error", errors.sum());
+        stats.put("fallbacks", fallbacks);
+        return stats;
+    }
+
+    // ============================================
+    // RESULT
+    // ============================================
+    public static final class Result {
+
+        private final BigDecimal score;
+        private final String fallbackReason;
+
+        private Result(BigDecimal score, String fallbackReason) {
+            this.score = score;
+            this.fallbackReason = fallbackReason;
+        }
+
+        /**
+         * @return 0-1 fraud probability, fallback ise null
+         */
+        public BigDecimal getScore() {
+            return score;
+        }
+
+        public String getFallbackReason() {
+            return fallbackReason;
+        }
+
+        public boolean isFallback() {
+            return score == null;
+        }
+    }
+}
@@ -6,10 +6,17 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Alert DTO - Kafka'ya gönderilecek mesaj
+ *
+ * Aggregation açıksa bir alert, aynı müşterinin pencere içindeki tüm yüksek riskli
+ * transaction'larını taşır:
+ * - transactionId / amount / riskScore: En yüksek skorlu transaction
+ * - transactionIds: Penceredeki tüm transaction'lar (geliş sırasıyla)
+ * - reasons: Birleştirilmiş kural sebepleri
  */
 @Data
 @NoArgsConstructor
@@ -21,4 +28,20 @@ public class Alert {
     private BigDecimal riskScore;
     private Map<String, Object> reasons;
     private LocalDateTime timestamp;
+
+    // ========== AGGREGATION ==========
+    private List<String> transactionIds;
+    private int alertCount;
+    private BigDecimal totalAmount;
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+
+    /**
+     * Tek transaction'lık alert (RiskEngineService bunu üretir)
+     */
+    public Alert(String transactionId, String customerId, BigDecimal amount,
+                 BigDecimal riskScore, Map<String, Object> reasons, LocalDateTime timestamp) {
+        this(transactionId, customerId, amount, riskScore, reasons, timestamp,
+                List.of(transactionId), 1, amount, timestamp, timestamp);
+    }
 }
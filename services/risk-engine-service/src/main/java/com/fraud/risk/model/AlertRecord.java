@@ -0,0 +1,25 @@
+package com.fraud.risk.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * alerts tablosundaki bir satır (review kuyruğu görünümü)
+ * customerId / amount transactions tablosundan join ile gelir
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertRecord {
+    private long id;
+    private String transactionId;
+    private String customerId;
+    private BigDecimal amount;
+    private BigDecimal riskScore;
+    private String status;
+    private LocalDateTime createdAt;
+}
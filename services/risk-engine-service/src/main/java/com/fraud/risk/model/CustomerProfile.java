@@ -110,6 +110,13 @@ public class CustomerProfile implements Serializable {
         return frequentLocations != null && frequentLocations.contains(location);
     }
 
+    /**
+     * Merchant kategorisi profilde var mı?
+     */
+    public boolean hasMerchantCategory(String category) {
+        return merchantCategories != null && merchantCategories.containsKey(category);
+    }
+
     /**
      * Tutar normal aralıkta mı?
      * Normal: avg ± (3 * std)
@@ -0,0 +1,56 @@
+package com.fraud.risk.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * ML Service POST /predict request'i (ml-service/app/schemas.py PredictionRequest)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MlPredictionRequest {
+
+    @JsonProperty("transaction_id")
+    private String transactionId;
+
+    @JsonProperty("customer_id")
+    private String customerId;
+
+    private BigDecimal amount;
+
+    @JsonProperty("merchant_category")
+    private String merchantCategory;
+
+    private String location;
+
+    // Profil (opsiyonel, daha iyi tahmin için)
+    @JsonProperty("avg_amount")
+    private BigDecimal avgAmount;
+
+    @JsonProperty("transaction_count")
+    private Integer transactionCount;
+
+    // Kayan tutar özetleri (AmountAggregates, güncel işlem hariç geçmiş)
+    @JsonProperty("amount_sum_1h")
+    private Double amountSum1h;
+
+    @JsonProperty("amount_max_1h")
+    private Double amountMax1h;
+
+    @JsonProperty("amount_sum_24h")
+    private Double amountSum24h;
+
+    @JsonProperty("amount_max_24h")
+    private Double amountMax24h;
+
+    @JsonProperty("amount_sum_7d")
+    private Double amountSum7d;
+
+    @JsonProperty("amount_max_7d")
+    private Double amountMax7d;
+}
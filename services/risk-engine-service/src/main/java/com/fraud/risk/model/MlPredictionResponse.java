@@ -0,0 +1,27 @@
+package com.fraud.risk.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * ML Service POST /predict response'u (ml-service/app/schemas.py PredictionResponse)
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MlPredictionResponse {
+
+    @JsonProperty("transaction_id")
+    private String transactionId;
+
+    // 0-1 arası fraud probability
+    @JsonProperty("fraud_probability")
+    private BigDecimal fraudProbability;
+
+    @JsonProperty("model_version")
+    private String modelVersion;
+}
@@ -0,0 +1,59 @@
+package com.fraud.risk.model;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ============================================
+ * REASONS JSON CONVERTER
+ * ============================================
+ * Ne yapar?
+ * - risk_scores.reasons JSONB kolonu ↔ Map<String, Object>
+ *
+ * Neden @JdbcTypeCode(JSON) değil?
+ * - Hibernate JSON tipi Map'i deklare tipiyle (Map) serileştirir → RuleReasons'ın kompakt
+ *   serializer'ı atlanır ve her kural için metin render edilir
+ * - Burada runtime tipiyle yazılır: RuleReasons → {"kural":[parametreler...]}
+ *
+ * Okuma: düz LinkedHashMap (eski kayıtlardaki metin değerleri aynen gelir),
+ * görüntülemek için ReasonRenderer
+ */
+@Converter
+public class ReasonsJsonConverter implements AttributeConverter<Map<String, Object>, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectWriter WRITER = MAPPER.writer();
+    private static final ObjectReader READER = MAPPER.readerFor(new TypeReference<LinkedHashMap<String, Object>>() {});
+
+    @Override
+    public String convertToDatabaseColumn(Map<String, Object> reasons) {
+        if (reasons == null) {
+            return null;
+        }
+        try {
+            return WRITER.writeValueAsString(reasons);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize reasons", e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> convertToEntityAttribute(String json) {
+        if (json == null || json.isBlank()) {
+            return new LinkedHashMap<>();
+        }
+        try {
+            return READER.readValue(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid reasons JSON", e);
+        }
+    }
+}
@@ -4,8 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
+import org.hibernate.annotations.ColumnTransformer;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -21,11 +20,11 @@ import java.util.Map;
  * - Rule score + ML score + Final score
  * - Hangi kuralların tetiklendiğini JSONB'de saklar
  *
- * Örnek reasons:
+ * Örnek reasons (kompakt: kural → reason parametreleri, metin ReasonRenderer'da üretilir):
  * {
- *   "high_amount": 30,
- *   "velocity": 40,
- *   "location_anomaly": 25
+ *   "high_amount": [1500.0, 5.2, 288.0],
+ *   "location_anomaly": ["Antalya"],
+ *   "ml_fallback": "timeout"
  * }
  */
 @Entity
@@ -61,9 +60,10 @@ public class RiskScore {
     // ============================================
     // REASONS (JSONB)
     // ============================================
-    // Hangi kurallar tetiklendi ve ne kadar skor ekledi?
-    // PostgreSQL JSONB kolonu
-    @JdbcTypeCode(SqlTypes.JSON)
+    // Hangi kurallar tetiklendi ve hangi parametrelerle?
+    // PostgreSQL JSONB kolonu (canlı skorlamada RuleReasons, DB'den okunurken düz Map)
+    @Convert(converter = ReasonsJsonConverter.class)
+    @ColumnTransformer(write = "?::jsonb")
     @Column(name = "reasons", columnDefinition = "jsonb")
     private Map<String, Object> reasons = new HashMap<>();
 
@@ -97,4 +97,15 @@ public class RiskScore {
             this.finalScore = BigDecimal.valueOf(rulePart + mlPart);
         }
     }
+
+    /**
+     * ML skoru yokken (timeout / devre açık) final score
+     * Formula: rule_score * ruleWeight (cap 100)
+     * ruleWeight = 1.0 → ML'in 40'lık payı kurallara dağıtılır (0.6 / 0.6), skala 0-100 kalır
+     */
+    public void calculateRulesOnlyScore(double ruleWeight) {
+        if (ruleScore != null) {
+            this.finalScore = BigDecimal.valueOf(Math.min(100.0, ruleScore * ruleWeight));
+        }
+    }
 }
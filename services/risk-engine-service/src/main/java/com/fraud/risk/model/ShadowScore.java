@@ -0,0 +1,36 @@
+package com.fraud.risk.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * ShadowScore DTO - Champion/challenger karşılaştırması (Kafka'ya gönderilir)
+ * Aynı transaction için canlı skor ve challenger kural setinin skoru yan yana
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShadowScore {
+    private String transactionId;
+    private String customerId;
+
+    // Canlı (champion) sonuç
+    private Integer liveRuleScore;
+    private BigDecimal liveFinalScore;
+    private boolean liveAlert;
+
+    // Shadow (challenger) sonuç
+    private Integer shadowRuleScore;
+    private BigDecimal shadowFinalScore;
+    private boolean shadowAlert;
+    private Map<String, Object> shadowReasons;
+
+    // Challenger kural setinin sürümü (dosya mtime)
+    private String challengerVersion;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,80 @@
+package com.fraud.risk.profile;
+
+import com.fraud.risk.model.CustomerProfile;
+import com.fraud.risk.repository.CustomerProfileQueryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ============================================
+ * CUSTOMER PROFILE PROVIDER
+ * ============================================
+ * Ne yapar?
+ * - Skorlama yolunun profil kaynağı: önce ProfileStore (bellek), yoksa PostgreSQL
+ *   (JDBC projection, JSONB alanları ilk erişimde parse edilir - Hibernate yok)
+ * - DB'den gelen profil depoya eklenir (bir sonraki işlem bellekten okunur)
+ *
+ * Preload tamamlandıktan sonra miss'ler sadece preload'dan sonra oluşan profiller
+ * veya profili hiç olmayan müşterilerdir. fraud.profiles.db-fallback=false ile
+ * bu durumda DB'ye gidilmez (profil yok kabul edilir, periyodik refresh yakalar).
+ */
+@Component
+public class CustomerProfileProvider {
+
+    private final ProfileStore profileStore;
+    private final CustomerProfileQueryRepository profileQueryRepository;
+
+    @Value("${fraud.profiles.db-fallback:true}")
+    private boolean dbFallback;
+
+    private volatile boolean preloaded;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder dbLookups = new LongAdder();
+
+    public CustomerProfileProvider(ProfileStore profileStore,
+                                   CustomerProfileQueryRepository profileQueryRepository) {
+        this.profileStore = profileStore;
+        this.profileQueryRepository = profileQueryRepository;
+    }
+
+    public CustomerProfile findProfile(String customerId) {
+        CustomerProfile profile = profileStore.get(customerId);
+        if (profile != null) {
+            hits.increment();
+            return profile;
+        }
+        if (preloaded && !dbFallback) {
+            return null;
+        }
+
+        dbLookups.increment();
+        profile = profileQueryRepository.findById(customerId);
+        if (profile != null) {
+            profileStore.put(profile);
+        }
+        return profile;
+    }
+
+    void markPreloaded() {
+        this.preloaded = true;
+    }
+
+    public boolean isPreloaded() {
+        return preloaded;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("store", profileStore.describe());
+        stats.put("profiles", profileStore.size());
+        stats.put("preloaded", preloaded);
+        stats.put("hits", hits.sum());
+        stats.put("dbLookups", dbLookups.sum());
+        return stats;
+    }
+}
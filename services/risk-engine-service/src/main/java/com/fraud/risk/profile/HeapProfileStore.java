@@ -0,0 +1,55 @@
+package com.fraud.risk.profile;
+
+import com.fraud.risk.model.CustomerProfile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Heap üzerinde profil deposu (ConcurrentHashMap)
+ * Birkaç milyon müşteriye kadar yeterli; okuma kilitsiz
+ */
+@Component
+@ConditionalOnProperty(name = "fraud.profiles.store", havingValue = "heap", matchIfMissing = true)
+public class HeapProfileStore implements ProfileStore {
+
+    private final Map<String, CustomerProfile> profiles;
+
+    public HeapProfileStore(@Value("${fraud.profiles.expected-customers:100000}") int expectedCustomers) {
+        this.profiles = new ConcurrentHashMap<>(Math.max(16, expectedCustomers * 4 / 3 + 1));
+    }
+
+    @Override
+    public CustomerProfile get(String customerId) {
+        return profiles.get(customerId);
+    }
+
+    @Override
+    public void put(CustomerProfile profile) {
+        profiles.put(profile.getCustomerId(), profile);
+    }
+
+    @Override
+    public void remove(String customerId) {
+        profiles.remove(customerId);
+    }
+
+    @Override
+    public int size() {
+        return profiles.size();
+    }
+
+    @Override
+    public void forEach(Consumer<CustomerProfile> action) {
+        profiles.values().forEach(action);
+    }
+
+    @Override
+    public String describe() {
+        return "heap";
+    }
+}
@@ -0,0 +1,156 @@
+package com.fraud.risk.profile;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraud.risk.model.CustomerProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ============================================
+ * LAZY JSONB PROFILE
+ * ============================================
+ * Ne yapar?
+ * - JDBC projection'dan gelen profil: skaler kolonlar hemen set edilir,
+ *   JSONB kolonları ham metin olarak tutulur ve İLK erişimde parse edilir
+ *
+ * Neden?
+ * - Aktif kurallar çoğu işlemde JSONB alanlarının bir kısmına hiç bakmaz
+ *   (time_distribution hiçbir kuralda yok, merchant_categories sadece DSL kurallarında)
+ * - Hibernate entity yükleme + üç kolonun eager decode'u profilde belirgin CPU maliyeti
+ *
+ * Thread-safety:
+ * - Profil ProfileStore üzerinden birden fazla thread'e paylaşılır
+ * - Decode synchronized, ham metin volatile: null görüldüyse decode edilmiş değer de görünür
+ *
+ * Parse hatası: alan null kabul edilir (profil düşmez), warn log
+ */
+public class LazyJsonbProfile extends CustomerProfile {
+
+    private static final long serialVersionUID = 1L;
+    private static final Logger logger = LoggerFactory.getLogger(LazyJsonbProfile.class);
+
+    private static final TypeReference<List<String>> LOCATIONS = new TypeReference<>() {};
+    private static final TypeReference<Map<String, Double>> DISTRIBUTION = new TypeReference<>() {};
+
+    private final transient ObjectMapper objectMapper;
+
+    // null = decode edildi (veya kolon boştu)
+    private volatile String locationsJson;
+    private volatile String merchantsJson;
+    private volatile String timesJson;
+
+    public LazyJsonbProfile(ObjectMapper objectMapper, String locationsJson, String merchantsJson, String timesJson) {
+        this.objectMapper = objectMapper;
+        this.locationsJson = locationsJson;
+        this.merchantsJson = merchantsJson;
+        this.timesJson = timesJson;
+    }
+
+    // ============================================
+    // LAZY GETTERS
+    // ============================================
+    @Override
+    public List<String> getFrequentLocations() {
+        if (locationsJson != null) {
+            decodeLocations();
+        }
+        return super.getFrequentLocations();
+    }
+
+    @Override
+    public Map<String, Double> getMerchantCategories() {
+        if (merchantsJson != null) {
+            decodeMerchants();
+        }
+        return super.getMerchantCategories();
+    }
+
+    @Override
+    public Map<String, Double> getTimeDistribution() {
+        if (timesJson != null) {
+            decodeTimes();
+        }
+        return super.getTimeDistribution();
+    }
+
+    // Üst sınıf helper'ları alanlara doğrudan erişir → getter üzerinden gitmeli
+    @Override
+    public boolean isLocationFrequent(String location) {
+        List<String> locations = getFrequentLocations();
+        return locations != null && locations.contains(location);
+    }
+
+    @Override
+    public boolean hasMerchantCategory(String category) {
+        Map<String, Double> merchants = getMerchantCategories();
+        return merchants != null && merchants.containsKey(category);
+    }
+
+    // ============================================
+    // SETTERS (bekleyen ham değeri iptal eder)
+    // ============================================
+    @Override
+    public synchronized void setFrequentLocations(List<String> frequentLocations) {
+        super.setFrequentLocations(frequentLocations);
+        locationsJson = null;
+    }
+
+    @Override
+    public synchronized void setMerchantCategories(Map<String, Double> merchantCategories) {
+        super.setMerchantCategories(merchantCategories);
+        merchantsJson = null;
+    }
+
+    @Override
+    public synchronized void setTimeDistribution(Map<String, Double> timeDistribution) {
+        super.setTimeDistribution(timeDistribution);
+        timesJson = null;
+    }
+
+    // ============================================
+    // DECODE
+    // ============================================
+    private synchronized void decodeLocations() {
+        if (locationsJson != null) {
+            super.setFrequentLocations(read(locationsJson, LOCATIONS, "frequent_locations"));
+            locationsJson = null;
+        }
+    }
+
+    private synchronized void decodeMerchants() {
+        if (merchantsJson != null) {
+            super.setMerchantCategories(read(merchantsJson, DISTRIBUTION, "merchant_categories"));
+            merchantsJson = null;
+        }
+    }
+
+    private synchronized void decodeTimes() {
+        if (timesJson != null) {
+            super.setTimeDistribution(read(timesJson, DISTRIBUTION, "time_distribution"));
+            timesJson = null;
+        }
+    }
+
+    private <T> T read(String json, TypeReference<T> type, String column) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (Exception e) {
+            logger.warn("Invalid {} for customer {}: {}", column, getCustomerId(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Java serialization öncesi tüm alanlar decode edilir (ObjectMapper transient)
+     */
+    private Object writeReplace() {
+        getFrequentLocations();
+        getMerchantCategories();
+        getTimeDistribution();
+        return this;
+    }
+}
@@ -0,0 +1,447 @@
+package com.fraud.risk.profile;
+
+import com.fraud.risk.model.CustomerProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * ============================================
+ * OFF-HEAP PROFILE STORE (MEMORY-MAPPED)
+ * ============================================
+ * Ne yapar?
+ * - Profilleri heap dışında, memory-mapped dosyada sabit boyutlu kayıtlar olarak tutar
+ * - Müşteri id → kayıt index'i: open addressing hash index (o da mapped dosyada)
+ * - get() kopya üretmez: OffHeapProfileView kayda doğrudan bakan flyweight'tir
+ *
+ * Neden?
+ * - On-milyonlarca müşteride CustomerProfile entity'leri (boxed map'ler, List<String>,
+ *   LocalDate'ler) heap'te GB'larca yer kaplar, full GC duraklamaları uzar
+ * - Burada heap'te müşteri başına hiçbir nesne yok: heap ve GC süresi müşteri sayısından bağımsız
+ *
+ * Dosyalar (fraud.profiles.offheap.directory, her açılışta sıfırdan oluşturulur):
+ * - profiles.idx: capacity × long  → [hash: 32 bit][kayıt index + 1: 32 bit], 0 = boş
+ * - profiles.dat: maxCustomers × RECORD_SIZE
+ * Kalıcılık snapshot dosyasının işidir (ProfileSnapshot), bu dosyalar geçici
+ *
+ * Kayıt düzeni (RECORD_SIZE = 248 byte):
+ *   0 seq | 4 flags | 8 transactionCount | 16 avg | 24 median | 32 std (kuruş, long)
+ *   40 firstDate | 44 lastDate (epochDay) | 48 lastUpdated sn | 56 nano
+ *   60 lokasyon sayısı | 61 merchant sayısı | 62 zaman sayısı | 63 id uzunluğu
+ *   64 lokasyon id[8] | 96 merchant (id, float)[8] | 160 zaman (id, float)[4] | 192 customer id (≤ 56 byte)
+ * Lokasyon / merchant / zaman anahtarları StringDictionary id'leri olarak saklanır.
+ * Sınırlar aşılırsa ilk 8 lokasyon, en yüksek ağırlıklı 8 merchant / 4 zaman dilimi tutulur.
+ *
+ * Eşzamanlılık: tek yazar, çok okuyucu
+ * - put() kilit altında (preload worker'ları, miss yolu, refresh sırayla yazar)
+ * - Yeni kayıt: önce veri yazılır, sonra index slot'u release ile yayınlanır
+ * - Güncelleme: kayıt başına seqlock (seq tek = yazılıyor); okuyucu seq değiştiyse tekrar okur
+ * - Kayıtlar asla taşınmaz → view hep aynı müşteriye bakar
+ * - remove(): kayıt DELETED bayrağıyla gizlenir, index slot'u kalır (probe zinciri bozulmaz);
+ *   aynı müşteri tekrar gelirse kayıt yeniden kullanılır, başka müşteriye verilmez
+ */
+@Component
+@ConditionalOnProperty(name = "fraud.profiles.store", havingValue = "offheap")
+public class OffHeapProfileStore implements ProfileStore, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapProfileStore.class);
+
+    static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    // ============================================
+    // RECORD LAYOUT
+    // ============================================
+    static final int RECORD_SIZE = 248;
+    static final int OFF_SEQ = 0;
+    static final int OFF_FLAGS = 4;
+    static final int OFF_COUNT = 8;
+    static final int OFF_AVG = 16;
+    static final int OFF_MEDIAN = 24;
+    static final int OFF_STD = 32;
+    static final int OFF_FIRST_DATE = 40;
+    static final int OFF_LAST_DATE = 44;
+    static final int OFF_UPDATED_SECONDS = 48;
+    static final int OFF_UPDATED_NANOS = 56;
+    static final int OFF_LOCATION_COUNT = 60;
+    static final int OFF_MERCHANT_COUNT = 61;
+    static final int OFF_TIME_COUNT = 62;
+    static final int OFF_ID_LENGTH = 63;
+    static final int OFF_LOCATIONS = 64;
+    static final int OFF_MERCHANTS = 96;
+    static final int OFF_TIMES = 160;
+    static final int OFF_ID = 192;
+
+    static final int MAX_LOCATIONS = 8;
+    static final int MAX_MERCHANTS = 8;
+    static final int MAX_TIMES = 4;
+    static final int MAX_ID_BYTES = RECORD_SIZE - OFF_ID;
+
+    static final int HAS_AVG = 1;
+    static final int HAS_MEDIAN = 1 << 1;
+    static final int HAS_STD = 1 << 2;
+    static final int HAS_LOCATIONS = 1 << 3;
+    static final int HAS_MERCHANTS = 1 << 4;
+    static final int HAS_TIMES = 1 << 5;
+    static final int HAS_COUNT = 1 << 6;
+    static final int HAS_FIRST_DATE = 1 << 7;
+    static final int HAS_LAST_DATE = 1 << 8;
+    static final int HAS_LAST_UPDATED = 1 << 9;
+    static final int DELETED = 1 << 10;
+
+    // 1 GB map parçaları (MappedByteBuffer 2 GB sınırı)
+    private static final int CHUNK_BYTES = 1 << 30;
+    private static final int SLOTS_PER_CHUNK_BITS = 27;  // 2^27 × 8 byte = 1 GB
+    private static final int RECORDS_PER_CHUNK = CHUNK_BYTES / RECORD_SIZE;
+
+    private final Path directory;
+    private final FileChannel indexChannel;
+    private final FileChannel recordChannel;
+    private final ByteBuffer[] indexChunks;
+    private final ByteBuffer[] recordChunks;
+    private final int indexMask;
+    private final int recordCapacity;
+    private final StringDictionary dictionary = new StringDictionary();
+
+    // Sadece yazar değiştirir
+    private int nextRecord;
+    private int deleted;
+    private volatile int records;
+    private volatile int size;
+    private boolean fullWarned;
+
+    public OffHeapProfileStore(@Value("${fraud.profiles.offheap.directory:${java.io.tmpdir}/risk-engine-profiles}") String directory,
+                               @Value("${fraud.profiles.offheap.max-customers:1000000}") int maxCustomers) {
+        this.directory = Path.of(directory);
+        this.recordCapacity = Math.max(1024, maxCustomers);
+        // Doluluk ≤ %50 → kısa probe zincirleri
+        int indexCapacity = Integer.highestOneBit(Math.max(2048, recordCapacity) * 2 - 1) << 1;
+        this.indexMask = indexCapacity - 1;
+
+        try {
+            Files.createDirectories(this.directory);
+            this.indexChannel = open(this.directory.resolve("profiles.idx"));
+            this.recordChannel = open(this.directory.resolve("profiles.dat"));
+            this.indexChunks = map(indexChannel, (long) indexCapacity * Long.BYTES, CHUNK_BYTES);
+            this.recordChunks = map(recordChannel, (long) recordCapacity * RECORD_SIZE,
+                    (long) RECORDS_PER_CHUNK * RECORD_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create off-heap profile store in " + directory, e);
+        }
+
+        logger.info("Off-heap profile store: {} max customers, {} index slots, {} MB records in {}",
+                recordCapacity, indexCapacity, ((long) recordCapacity * RECORD_SIZE) >> 20, this.directory);
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static ByteBuffer[] map(FileChannel channel, long totalBytes, long chunkBytes) throws IOException {
+        int chunks = (int) ((totalBytes + chunkBytes - 1) / chunkBytes);
+        ByteBuffer[] buffers = new ByteBuffer[chunks];
+        for (int i = 0; i < chunks; i++) {
+            long position = i * chunkBytes;
+            long length = Math.min(chunkBytes, totalBytes - position);
+            buffers[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, length).order(ByteOrder.nativeOrder());
+        }
+        return buffers;
+    }
+
+    // ============================================
+    // READ (kilitsiz)
+    // ============================================
+
+    @Override
+    public CustomerProfile get(String customerId) {
+        int record = find(customerId, spread(customerId.hashCode()));
+        return record < 0 || isDeleted(record) ? null : view(record);
+    }
+
+    private boolean isDeleted(int record) {
+        return ((int) INTS.getAcquire(recordChunk(record), recordBase(record) + OFF_FLAGS) & DELETED) != 0;
+    }
+
+    private int find(String customerId, int hash) {
+        int slot = hash & indexMask;
+        while (true) {
+            long entry = (long) LONGS.getAcquire(indexChunk(slot), indexOffset(slot));
+            if (entry == 0) {
+                return -1;
+            }
+            if ((int) (entry >>> 32) == hash) {
+                int record = (int) entry - 1;
+                if (idMatches(record, customerId)) {
+                    return record;
+                }
+            }
+            slot = (slot + 1) & indexMask;
+        }
+    }
+
+    private boolean idMatches(int record, String customerId) {
+        ByteBuffer chunk = recordChunk(record);
+        int base = recordBase(record);
+        int length = chunk.get(base + OFF_ID_LENGTH) & 0xFF;
+
+        // ASCII id'ler (tipik durum) için allocation'sız karşılaştırma
+        if (length == customerId.length()) {
+            boolean ascii = true;
+            for (int i = 0; i < length; i++) {
+                char c = customerId.charAt(i);
+                if (c >= 0x80) {
+                    ascii = false;
+                    break;
+                }
+                if (chunk.get(base + OFF_ID + i) != (byte) c) {
+                    return false;
+                }
+            }
+            if (ascii) {
+                return true;
+            }
+        }
+        byte[] bytes = customerId.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (chunk.get(base + OFF_ID + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private OffHeapProfileView view(int record) {
+        return new OffHeapProfileView(recordChunk(record), recordBase(record), dictionary);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void forEach(Consumer<CustomerProfile> action) {
+        int count = records;
+        for (int record = 0; record < count; record++) {
+            if (!isDeleted(record)) {
+                action.accept(view(record));
+            }
+        }
+    }
+
+    @Override
+    public String describe() {
+        return "offheap:" + directory;
+    }
+
+    // ============================================
+    // WRITE (tek yazar)
+    // ============================================
+
+    @Override
+    public synchronized void put(CustomerProfile profile) {
+        String customerId = profile.getCustomerId();
+        byte[] id = customerId.getBytes(StandardCharsets.UTF_8);
+        if (id.length > MAX_ID_BYTES) {
+            logger.warn("Customer id too long for off-heap store ({} bytes): {}", id.length, customerId);
+            return;
+        }
+
+        int hash = spread(customerId.hashCode());
+        int existing = find(customerId, hash);
+        if (existing >= 0) {
+            if (isDeleted(existing)) {
+                deleted--;  // writeFields bayrakları baştan yazar → DELETED kalkar
+            }
+            update(existing, profile);
+            size = nextRecord - deleted;
+            return;
+        }
+
+        if (nextRecord == recordCapacity) {
+            if (!fullWarned) {
+                fullWarned = true;
+                logger.warn("Off-heap profile store full ({} customers), new profiles will not be cached",
+                        recordCapacity);
+            }
+            return;
+        }
+
+        int record = nextRecord++;
+        ByteBuffer chunk = recordChunk(record);
+        int base = recordBase(record);
+        chunk.put(base + OFF_ID_LENGTH, (byte) id.length);
+        chunk.put(base + OFF_ID, id);
+        writeFields(chunk, base, profile);
+
+        // Yayınla: okuyucu index'te kaydı görürse verisini de görür
+        int slot = hash & indexMask;
+        while ((long) LONGS.getAcquire(indexChunk(slot), indexOffset(slot)) != 0) {
+            slot = (slot + 1) & indexMask;
+        }
+        LONGS.setRelease(indexChunk(slot), indexOffset(slot), ((long) hash << 32) | (record + 1L));
+        records = nextRecord;
+        size = nextRecord - deleted;
+    }
+
+    @Override
+    public synchronized void remove(String customerId) {
+        int record = find(customerId, spread(customerId.hashCode()));
+        if (record < 0 || isDeleted(record)) {
+            return;
+        }
+        ByteBuffer chunk = recordChunk(record);
+        int base = recordBase(record);
+        int seq = (int) INTS.getOpaque(chunk, base + OFF_SEQ);
+        INTS.setOpaque(chunk, base + OFF_SEQ, seq + 1);
+        VarHandle.storeStoreFence();
+        INTS.setRelease(chunk, base + OFF_FLAGS, chunk.getInt(base + OFF_FLAGS) | DELETED);
+        INTS.setRelease(chunk, base + OFF_SEQ, seq + 2);
+        deleted++;
+        size = nextRecord - deleted;
+    }
+
+    private void update(int record, CustomerProfile profile) {
+        ByteBuffer chunk = recordChunk(record);
+        int base = recordBase(record);
+        int seq = (int) INTS.getOpaque(chunk, base + OFF_SEQ);
+        INTS.setOpaque(chunk, base + OFF_SEQ, seq + 1);  // tek → yazılıyor
+        VarHandle.storeStoreFence();
+        writeFields(chunk, base, profile);
+        INTS.setRelease(chunk, base + OFF_SEQ, seq + 2);
+    }
+
+    private void writeFields(ByteBuffer chunk, int base, CustomerProfile profile) {
+        int flags = 0;
+        flags |= writeDecimal(chunk, base + OFF_AVG, profile.getAvgAmount(), HAS_AVG);
+        flags |= writeDecimal(chunk, base + OFF_MEDIAN, profile.getMedianAmount(), HAS_MEDIAN);
+        flags |= writeDecimal(chunk, base + OFF_STD, profile.getStdAmount(), HAS_STD);
+
+        if (profile.getTransactionCount() != null) {
+            chunk.putInt(base + OFF_COUNT, profile.getTransactionCount());
+            flags |= HAS_COUNT;
+        }
+        if (profile.getFirstTransactionDate() != null) {
+            chunk.putInt(base + OFF_FIRST_DATE, (int) profile.getFirstTransactionDate().toEpochDay());
+            flags |= HAS_FIRST_DATE;
+        }
+        if (profile.getLastTransactionDate() != null) {
+            chunk.putInt(base + OFF_LAST_DATE, (int) profile.getLastTransactionDate().toEpochDay());
+            flags |= HAS_LAST_DATE;
+        }
+        if (profile.getLastUpdated() != null) {
+            chunk.putLong(base + OFF_UPDATED_SECONDS, profile.getLastUpdated().toEpochSecond(ZoneOffset.UTC));
+            chunk.putInt(base + OFF_UPDATED_NANOS, profile.getLastUpdated().getNano());
+            flags |= HAS_LAST_UPDATED;
+        }
+
+        List<String> locations = profile.getFrequentLocations();
+        if (locations != null) {
+            int count = Math.min(MAX_LOCATIONS, locations.size());
+            for (int i = 0; i < count; i++) {
+                chunk.putInt(base + OFF_LOCATIONS + i * 4, dictionary.intern(locations.get(i)));
+            }
+            chunk.put(base + OFF_LOCATION_COUNT, (byte) count);
+            flags |= HAS_LOCATIONS;
+        }
+        if (profile.getMerchantCategories() != null) {
+            int count = writeDistribution(chunk, base + OFF_MERCHANTS, profile.getMerchantCategories(), MAX_MERCHANTS);
+            chunk.put(base + OFF_MERCHANT_COUNT, (byte) count);
+            flags |= HAS_MERCHANTS;
+        }
+        if (profile.getTimeDistribution() != null) {
+            int count = writeDistribution(chunk, base + OFF_TIMES, profile.getTimeDistribution(), MAX_TIMES);
+            chunk.put(base + OFF_TIME_COUNT, (byte) count);
+            flags |= HAS_TIMES;
+        }
+
+        chunk.putInt(base + OFF_FLAGS, flags);
+    }
+
+    private static int writeDecimal(ByteBuffer chunk, int offset, BigDecimal value, int flag) {
+        if (value == null) {
+            return 0;
+        }
+        // DECIMAL(10, 2) → kuruş cinsinden long
+        chunk.putLong(offset, value.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue());
+        return flag;
+    }
+
+    private int writeDistribution(ByteBuffer chunk, int offset, Map<String, Double> distribution, int max) {
+        List<Map.Entry<String, Double>> entries = new ArrayList<>(distribution.entrySet());
+        if (entries.size() > max) {
+            entries.sort(Comparator.comparing((Map.Entry<String, Double> e) ->
+                    e.getValue() != null ? e.getValue() : 0.0).reversed());
+        }
+        int count = Math.min(max, entries.size());
+        for (int i = 0; i < count; i++) {
+            Map.Entry<String, Double> entry = entries.get(i);
+            chunk.putInt(offset + i * 8, dictionary.intern(entry.getKey()));
+            chunk.putFloat(offset + i * 8 + 4, entry.getValue() != null ? entry.getValue().floatValue() : 0f);
+        }
+        return count;
+    }
+
+    // ============================================
+    // ADDRESSING
+    // ============================================
+
+    private ByteBuffer indexChunk(int slot) {
+        return indexChunks[slot >>> SLOTS_PER_CHUNK_BITS];
+    }
+
+    private static int indexOffset(int slot) {
+        return (slot & ((1 << SLOTS_PER_CHUNK_BITS) - 1)) << 3;
+    }
+
+    private ByteBuffer recordChunk(int record) {
+        return recordChunks[record / RECORDS_PER_CHUNK];
+    }
+
+    private static int recordBase(int record) {
+        return (record % RECORDS_PER_CHUNK) * RECORD_SIZE;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        // 0 hash + 0 index = boş slot ile karışmasın diye index +1 saklanır, hash serbest
+        return hash;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        indexChannel.close();
+        recordChannel.close();
+        Files.deleteIfExists(directory.resolve("profiles.idx"));
+        Files.deleteIfExists(directory.resolve("profiles.dat"));
+    }
+}
@@ -0,0 +1,328 @@
+package com.fraud.risk.profile;
+
+import com.fraud.risk.model.CustomerProfile;
+
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.fraud.risk.profile.OffHeapProfileStore.*;
+
+/**
+ * ============================================
+ * OFF-HEAP PROFILE VIEW (FLYWEIGHT)
+ * ============================================
+ * Ne yapar?
+ * - OffHeapProfileStore'daki tek bir kayda bakan salt okunur CustomerProfile
+ * - Alan kopyalamaz; her getter değeri mapped buffer'dan o an okur
+ * - Kurallar / RiskScorer / snapshot yazımı normal CustomerProfile gibi kullanır
+ *
+ * Sıcak yol (kurallar) için allocation'sız override'lar:
+ * - isLocationFrequent, hasMerchantCategory, isAmountNormal, getAmountMultiplier
+ *
+ * Tutarlılık: her getter kendi içinde tutarlıdır (kayıt seqlock'u, yazım sırasında tekrar okur).
+ * Farklı getter'lar arasında refresh olursa eski ve yeni değerler karışabilir;
+ * profil yavaş değişen bir istatistik olduğu için kabul edilir.
+ *
+ * Setter'lar UnsupportedOperationException fırlatır: güncelleme ProfileStore.put ile yapılır.
+ */
+final class OffHeapProfileView extends CustomerProfile {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient ByteBuffer chunk;
+    private final transient int base;
+    private final transient StringDictionary dictionary;
+
+    OffHeapProfileView(ByteBuffer chunk, int base, StringDictionary dictionary) {
+        this.chunk = chunk;
+        this.base = base;
+        this.dictionary = dictionary;
+    }
+
+    // ============================================
+    // SEQLOCK
+    // ============================================
+
+    private int beginRead() {
+        while (true) {
+            int seq = (int) INTS.getAcquire(chunk, base + OFF_SEQ);
+            if ((seq & 1) == 0) {
+                return seq;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private boolean validate(int seq) {
+        VarHandle.loadLoadFence();
+        return (int) INTS.getOpaque(chunk, base + OFF_SEQ) == seq;
+    }
+
+    /**
+     * flag yoksa Long.MIN_VALUE
+     */
+    private long readLong(int offset, int flag) {
+        while (true) {
+            int seq = beginRead();
+            long value = (chunk.getInt(base + OFF_FLAGS) & flag) != 0 ? chunk.getLong(base + offset) : Long.MIN_VALUE;
+            if (validate(seq)) {
+                return value;
+            }
+        }
+    }
+
+    private long readInt(int offset, int flag) {
+        while (true) {
+            int seq = beginRead();
+            long value = (chunk.getInt(base + OFF_FLAGS) & flag) != 0 ? chunk.getInt(base + offset) : Long.MIN_VALUE;
+            if (validate(seq)) {
+                return value;
+            }
+        }
+    }
+
+    private BigDecimal readDecimal(int offset, int flag) {
+        long cents = readLong(offset, flag);
+        return cents == Long.MIN_VALUE ? null : BigDecimal.valueOf(cents, 2);
+    }
+
+    // ============================================
+    // GETTERS
+    // ============================================
+
+    @Override
+    public String getCustomerId() {
+        // Id yayından sonra hiç değişmez, seqlock gerekmez
+        int length = chunk.get(base + OFF_ID_LENGTH) & 0xFF;
+        byte[] bytes = new byte[length];
+        chunk.get(base + OFF_ID, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public BigDecimal getAvgAmount() {
+        return readDecimal(OFF_AVG, HAS_AVG);
+    }
+
+    @Override
+    public BigDecimal getMedianAmount() {
+        return readDecimal(OFF_MEDIAN, HAS_MEDIAN);
+    }
+
+    @Override
+    public BigDecimal getStdAmount() {
+        return readDecimal(OFF_STD, HAS_STD);
+    }
+
+    @Override
+    public Integer getTransactionCount() {
+        long count = readInt(OFF_COUNT, HAS_COUNT);
+        return count == Long.MIN_VALUE ? null : (int) count;
+    }
+
+    @Override
+    public LocalDate getFirstTransactionDate() {
+        long epochDay = readInt(OFF_FIRST_DATE, HAS_FIRST_DATE);
+        return epochDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    @Override
+    public LocalDate getLastTransactionDate() {
+        long epochDay = readInt(OFF_LAST_DATE, HAS_LAST_DATE);
+        return epochDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    @Override
+    public LocalDateTime getLastUpdated() {
+        while (true) {
+            int seq = beginRead();
+            boolean present = (chunk.getInt(base + OFF_FLAGS) & HAS_LAST_UPDATED) != 0;
+            long seconds = chunk.getLong(base + OFF_UPDATED_SECONDS);
+            int nanos = chunk.getInt(base + OFF_UPDATED_NANOS);
+            if (validate(seq)) {
+                return present ? LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC) : null;
+            }
+        }
+    }
+
+    @Override
+    public List<String> getFrequentLocations() {
+        while (true) {
+            int seq = beginRead();
+            boolean present = (chunk.getInt(base + OFF_FLAGS) & HAS_LOCATIONS) != 0;
+            int count = Math.min(MAX_LOCATIONS, chunk.get(base + OFF_LOCATION_COUNT));
+            List<String> locations = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                locations.add(dictionary.name(chunk.getInt(base + OFF_LOCATIONS + i * 4)));
+            }
+            if (validate(seq)) {
+                return present ? locations : null;
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Double> getMerchantCategories() {
+        return readDistribution(OFF_MERCHANTS, OFF_MERCHANT_COUNT, MAX_MERCHANTS, HAS_MERCHANTS);
+    }
+
+    @Override
+    public Map<String, Double> getTimeDistribution() {
+        return readDistribution(OFF_TIMES, OFF_TIME_COUNT, MAX_TIMES, HAS_TIMES);
+    }
+
+    private Map<String, Double> readDistribution(int offset, int countOffset, int max, int flag) {
+        while (true) {
+            int seq = beginRead();
+            boolean present = (chunk.getInt(base + OFF_FLAGS) & flag) != 0;
+            int count = Math.min(max, chunk.get(base + countOffset));
+            Map<String, Double> distribution = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                distribution.put(dictionary.name(chunk.getInt(base + offset + i * 8)),
+                        (double) chunk.getFloat(base + offset + i * 8 + 4));
+            }
+            if (validate(seq)) {
+                return present ? distribution : null;
+            }
+        }
+    }
+
+    // ============================================
+    // HELPER METHODS (allocation'sız)
+    // ============================================
+
+    @Override
+    public boolean isLocationFrequent(String location) {
+        int id = dictionary.idOf(location);
+        if (id == StringDictionary.UNKNOWN) {
+            return false;  // Hiçbir profilde geçmeyen lokasyon
+        }
+        return containsId(OFF_LOCATIONS, OFF_LOCATION_COUNT, MAX_LOCATIONS, 4, id);
+    }
+
+    @Override
+    public boolean hasMerchantCategory(String category) {
+        int id = dictionary.idOf(category);
+        if (id == StringDictionary.UNKNOWN) {
+            return false;
+        }
+        return containsId(OFF_MERCHANTS, OFF_MERCHANT_COUNT, MAX_MERCHANTS, 8, id);
+    }
+
+    private boolean containsId(int offset, int countOffset, int max, int stride, int id) {
+        while (true) {
+            int seq = beginRead();
+            int count = Math.min(max, chunk.get(base + countOffset));
+            boolean found = false;
+            for (int i = 0; i < count && !found; i++) {
+                found = chunk.getInt(base + offset + i * stride) == id;
+            }
+            if (validate(seq)) {
+                return found;
+            }
+        }
+    }
+
+    @Override
+    public boolean isAmountNormal(BigDecimal amount) {
+        long avg;
+        long std;
+        while (true) {
+            int seq = beginRead();
+            int flags = chunk.getInt(base + OFF_FLAGS);
+            avg = (flags & HAS_AVG) != 0 ? chunk.getLong(base + OFF_AVG) : Long.MIN_VALUE;
+            std = (flags & HAS_STD) != 0 ? chunk.getLong(base + OFF_STD) : Long.MIN_VALUE;
+            if (validate(seq)) {
+                break;
+            }
+        }
+        if (avg == Long.MIN_VALUE || std == Long.MIN_VALUE) {
+            return true;  // Profile yoksa normal kabul et
+        }
+        // Kuruş cinsinden: avg ± (3 * std)
+        BigDecimal cents = amount.movePointRight(2);
+        return cents.compareTo(BigDecimal.valueOf(avg - 3 * std)) >= 0
+                && cents.compareTo(BigDecimal.valueOf(avg + 3 * std)) <= 0;
+    }
+
+    @Override
+    public double getAmountMultiplier(BigDecimal amount) {
+        long avg = readLong(OFF_AVG, HAS_AVG);
+        if (avg == Long.MIN_VALUE || avg == 0) {
+            return 1.0;
+        }
+        return Math.round(amount.doubleValue() * 100.0 / avg * 100.0) / 100.0;
+    }
+
+    // ============================================
+    // READ-ONLY
+    // ============================================
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Off-heap profile view is read-only, use ProfileStore.put");
+    }
+
+    @Override
+    public void setCustomerId(String customerId) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setAvgAmount(BigDecimal avgAmount) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setMedianAmount(BigDecimal medianAmount) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setStdAmount(BigDecimal stdAmount) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setFrequentLocations(List<String> frequentLocations) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setMerchantCategories(Map<String, Double> merchantCategories) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setTimeDistribution(Map<String, Double> timeDistribution) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setTransactionCount(Integer transactionCount) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setFirstTransactionDate(LocalDate firstTransactionDate) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setLastTransactionDate(LocalDate lastTransactionDate) {
+        throw readOnly();
+    }
+
+    @Override
+    public void setLastUpdated(LocalDateTime lastUpdated) {
+        throw readOnly();
+    }
+}
@@ -0,0 +1,419 @@
+package com.fraud.risk.profile;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraud.risk.model.CustomerProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ============================================
+ * PROFILE PRELOADER (WARM-UP)
+ * ============================================
+ * Ne yapar?
+ * - Açılışta tüm customer_profiles'ı ProfileStore'a yükler
+ * - Kafka listener'ları ve web server'dan ÖNCE çalışır (SmartLifecycle phase)
+ *   → ilk transaction geldiğinde profiller zaten bellekte, readiness preload bitince UP
+ *
+ * Kaynak sırası:
+ * 1. Snapshot dosyası (fraud.profiles.snapshot.path) varsa ve max-age'den yeniyse:
+ *    memory-mapped, bloklar paralel decode edilir; sonra sadece snapshot'tan sonra
+ *    değişen profiller DB'den çekilir (delta)
+ * 2. Yoksa PostgreSQL: tek server-side cursor, satırlar chunk'lar halinde
+ *    worker'lara dağıtılır (JSONB parse paralel)
+ *
+ * Sonrası:
+ * - DB'den tam yüklemeden sonra snapshot yazılır (bir sonraki deploy hızlı açılsın)
+ * - Kapanışta snapshot tekrar yazılır (lazy yüklenen profiller dahil)
+ * - refresh-interval-ms aralıkla delta refresh (batch job'un güncellediği profiller)
+ * - ProfileRecomputeJob tabloyu swap ettiyse (customer_profiles OID'i değişti) delta yerine tam
+ *   yükleme: job satırları başlangıç zamanıyla damgalar, job refresh aralığından uzun sürerse
+ *   yeni satırlar last_updated delta'sına hiç girmez (diğer instance'lar dahil). Yeni tabloda
+ *   olmayan müşteriler (keep-inactive=false) depodan çıkarılır: anahtar kümeleri karşılaştırılır
+ *
+ * Hata: preload başarısız olursa servis lazy modda devam eder (her miss DB'ye gider)
+ *
+ * Not: Preload sırasında HTTP portu henüz açık değil → k8s'te startupProbe
+ * süresi preload süresini kapsamalı
+ */
+@Component
+public class ProfilePreloader implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfilePreloader.class);
+
+    private static final String SELECT = """
+            SELECT customer_id, avg_amount, median_amount, std_amount,
+                   frequent_locations::text, merchant_categories::text, time_distribution::text,
+                   transaction_count, first_transaction_date, last_transaction_date, last_updated
+            FROM customer_profiles
+            """;
+
+    private static final TypeReference<List<String>> LOCATIONS = new TypeReference<>() {};
+    private static final TypeReference<Map<String, Double>> DISTRIBUTION = new TypeReference<>() {};
+
+    private final ProfileStore profileStore;
+    private final CustomerProfileProvider profileProvider;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    @Value("${fraud.profiles.preload.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fraud.profiles.preload.fetch-size:10000}")
+    private int fetchSize;
+
+    @Value("${fraud.profiles.preload.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${fraud.profiles.preload.threads:0}")
+    private int threads;
+
+    @Value("${fraud.profiles.snapshot.path:}")
+    private String snapshotPath;
+
+    @Value("${fraud.profiles.snapshot.max-age-minutes:120}")
+    private long snapshotMaxAgeMinutes;
+
+    @Value("${fraud.profiles.snapshot.write-on-shutdown:true}")
+    private boolean writeOnShutdown;
+
+    private volatile boolean running;
+    private volatile LocalDateTime lastRefresh;
+    private volatile long tableOid;
+
+    public ProfilePreloader(ProfileStore profileStore,
+                            CustomerProfileProvider profileProvider,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper) {
+        this.profileStore = profileStore;
+        this.profileProvider = profileProvider;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // ============================================
+    // LIFECYCLE
+    // ============================================
+
+    /**
+     * Kafka listener container'larından (MAX - 100) ve web server'dan önce
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 200;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!enabled) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        try {
+            // Preload sırasında swap olursa ilk refresh tam yükleme yapar
+            tableOid = currentTableOid();
+            String source = preload();
+            profileProvider.markPreloaded();
+            logger.info("Profile preload finished: {} profiles from {} in {} ms (store={})",
+                    profileStore.size(), source,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), profileStore.describe());
+        } catch (Exception e) {
+            logger.error("Profile preload failed, continuing with lazy profile loading: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (enabled && writeOnShutdown && profileProvider.isPreloaded() && snapshot() != null) {
+            writeSnapshot();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private String preload() throws Exception {
+        Path snapshot = snapshot();
+        if (snapshot != null && Files.exists(snapshot)) {
+            Duration age = Duration.ofMillis(System.currentTimeMillis() - Files.getLastModifiedTime(snapshot).toMillis());
+            if (age.toMinutes() <= snapshotMaxAgeMinutes) {
+                try {
+                    ProfileSnapshot.Header header = loadSnapshot(snapshot);
+                    // Snapshot yazılırken güncellenen satırları kaçırmamak için 1 dk geriden başla
+                    // (last_updated JVM / DB yerel saatiyle yazılır → systemDefault)
+                    LocalDateTime since = LocalDateTime.ofInstant(
+                            Instant.ofEpochMilli(header.createdAtMillis), ZoneId.systemDefault()).minusMinutes(1);
+                    long delta = streamFromDatabase(since);
+                    return "snapshot " + snapshot + " (" + header.records + " records) + " + delta + " updated rows";
+                } catch (Exception e) {
+                    logger.warn("Profile snapshot {} unreadable, falling back to database: {}", snapshot, e.getMessage());
+                }
+            } else {
+                logger.info("Profile snapshot {} is {} minutes old, ignoring", snapshot, age.toMinutes());
+            }
+        }
+
+        long rows = streamFromDatabase(null);
+        if (snapshot != null) {
+            writeSnapshot();
+        }
+        return "customer_profiles (" + rows + " rows)";
+    }
+
+    // ============================================
+    // PERIODIC DELTA REFRESH
+    // ============================================
+    @Scheduled(initialDelayString = "${fraud.profiles.refresh-interval-ms:600000}",
+            fixedDelayString = "${fraud.profiles.refresh-interval-ms:600000}")
+    public void refresh() {
+        refreshNow();
+    }
+
+    /**
+     * ProfileRecomputeJob swap'tan hemen sonra da çağırır (scheduled refresh ile aynı anda çalışmaz)
+     *
+     * @return false: preload yok / kapalı ya da refresh başarısız
+     */
+    synchronized boolean refreshNow() {
+        if (!enabled || !profileProvider.isPreloaded() || lastRefresh == null) {
+            return false;
+        }
+        try {
+            long oid = currentTableOid();
+            boolean swapped = oid != tableOid;
+            Set<String> loaded = swapped ? new HashSet<>(Math.max(16, profileStore.size() * 4 / 3 + 1)) : null;
+            long rows = streamFromDatabase(swapped ? null : lastRefresh.minusMinutes(1), loaded);
+            tableOid = oid;
+            if (swapped) {
+                int removed = removeMissing(loaded);
+                logger.info("Profile refresh: customer_profiles was rebuilt, reloaded {} profiles, removed {}",
+                        rows, removed);
+            } else if (rows > 0) {
+                logger.info("Profile refresh: {} updated profiles", rows);
+            }
+            return true;
+        } catch (Exception e) {
+            logger.warn("Profile refresh failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Yeni tabloda satırı olmayan müşterileri depodan çıkarır
+     */
+    private int removeMissing(Set<String> loaded) {
+        List<String> missing = new ArrayList<>();
+        profileStore.forEach(profile -> {
+            if (!loaded.contains(profile.getCustomerId())) {
+                missing.add(profile.getCustomerId());
+            }
+        });
+        missing.forEach(profileStore::remove);
+        return missing.size();
+    }
+
+    /**
+     * Swap (DROP + RENAME) sonrası aynı isim farklı OID → tablo yeniden oluşturulmuş
+     */
+    private long currentTableOid() {
+        Long oid = jdbcTemplate.queryForObject("SELECT 'customer_profiles'::regclass::oid", Long.class);
+        return oid != null ? oid : 0;
+    }
+
+    // ============================================
+    // DATABASE (server-side cursor + paralel decode)
+    // ============================================
+
+    private long streamFromDatabase(LocalDateTime since) throws InterruptedException {
+        return streamFromDatabase(since, null);
+    }
+
+    /**
+     * @param since  null → tüm tablo, değilse sadece last_updated > since
+     * @param loaded null değilse okunan customer_id'ler eklenir (cursor thread'i, tek yazar)
+     */
+    private long streamFromDatabase(LocalDateTime since, Set<String> loaded) throws InterruptedException {
+        LocalDateTime startedAt = LocalDateTime.now();
+        ThreadPoolExecutor workers = newWorkers("profile-preload");
+        LongAdder decoded = new LongAdder();
+        long[] rows = {0};
+
+        try {
+            List<List<RawProfile>> chunk = new ArrayList<>(1);
+            chunk.add(new ArrayList<>(chunkSize));
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                    connection -> {
+                        PreparedStatement ps = connection.prepareStatement(
+                                since == null ? SELECT : SELECT + " WHERE last_updated > ?",
+                                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                        ps.setFetchSize(fetchSize);
+                        if (since != null) {
+                            ps.setTimestamp(1, Timestamp.valueOf(since));
+                        }
+                        return ps;
+                    },
+                    rs -> {
+                        RawProfile raw = readRow(rs);
+                        if (loaded != null) {
+                            loaded.add(raw.profile.getCustomerId());
+                        }
+                        chunk.get(0).add(raw);
+                        rows[0]++;
+                        if (chunk.get(0).size() == chunkSize) {
+                            List<RawProfile> full = chunk.set(0, new ArrayList<>(chunkSize));
+                            workers.execute(() -> decode(full, decoded));
+                        }
+                    }));
+            if (!chunk.get(0).isEmpty()) {
+                List<RawProfile> last = chunk.get(0);
+                workers.execute(() -> decode(last, decoded));
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(1, TimeUnit.HOURS);
+        }
+
+        lastRefresh = startedAt;
+        return rows[0];
+    }
+
+    private RawProfile readRow(ResultSet rs) throws SQLException {
+        CustomerProfile profile = new CustomerProfile();
+        profile.setCustomerId(rs.getString(1));
+        profile.setAvgAmount(rs.getBigDecimal(2));
+        profile.setMedianAmount(rs.getBigDecimal(3));
+        profile.setStdAmount(rs.getBigDecimal(4));
+        int count = rs.getInt(8);
+        profile.setTransactionCount(rs.wasNull() ? null : count);
+        Date first = rs.getDate(9);
+        profile.setFirstTransactionDate(first != null ? first.toLocalDate() : null);
+        Date last = rs.getDate(10);
+        profile.setLastTransactionDate(last != null ? last.toLocalDate() : null);
+        Timestamp updated = rs.getTimestamp(11);
+        profile.setLastUpdated(updated != null ? updated.toLocalDateTime() : null);
+
+        // JSONB kolonları worker thread'lerde parse edilir (asıl CPU maliyeti burada)
+        return new RawProfile(profile, rs.getString(5), rs.getString(6), rs.getString(7));
+    }
+
+    private void decode(List<RawProfile> chunk, LongAdder loaded) {
+        for (RawProfile raw : chunk) {
+            try {
+                CustomerProfile profile = raw.profile;
+                if (raw.locations != null) {
+                    profile.setFrequentLocations(objectMapper.readValue(raw.locations, LOCATIONS));
+                }
+                if (raw.merchants != null) {
+                    profile.setMerchantCategories(objectMapper.readValue(raw.merchants, DISTRIBUTION));
+                }
+                if (raw.times != null) {
+                    profile.setTimeDistribution(objectMapper.readValue(raw.times, DISTRIBUTION));
+                }
+                profileStore.put(profile);
+                loaded.increment();
+            } catch (Exception e) {
+                logger.warn("Skipping profile {}: {}", raw.profile.getCustomerId(), e.getMessage());
+            }
+        }
+    }
+
+    // ============================================
+    // SNAPSHOT
+    // ============================================
+
+    private ProfileSnapshot.Header loadSnapshot(Path snapshot) throws Exception {
+        ThreadPoolExecutor workers = newWorkers("profile-snapshot");
+        try {
+            ProfileSnapshot.Header header = ProfileSnapshot.read(snapshot, profileStore::put, workers);
+            logger.info("Loaded {} profiles from snapshot {}", header.records, snapshot);
+            return header;
+        } finally {
+            workers.shutdown();
+        }
+    }
+
+    private void writeSnapshot() {
+        Path snapshot = snapshot();
+        try {
+            long startNanos = System.nanoTime();
+            long written = ProfileSnapshot.write(snapshot, profileStore, System.currentTimeMillis());
+            logger.info("Profile snapshot written: {} profiles to {} in {} ms", written, snapshot,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        } catch (Exception e) {
+            logger.warn("Could not write profile snapshot {}: {}", snapshot, e.getMessage());
+        }
+    }
+
+    private Path snapshot() {
+        return snapshotPath == null || snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+    }
+
+    /**
+     * Sınırlı kuyruk + CallerRuns: worker'lar yetişemezse cursor okuyucu da decode eder
+     * (bellekte en fazla birkaç chunk bekler)
+     */
+    private ThreadPoolExecutor newWorkers(String name) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(size * 2),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private static final class RawProfile {
+        private final CustomerProfile profile;
+        private final String locations;
+        private final String merchants;
+        private final String times;
+
+        private RawProfile(CustomerProfile profile, String locations, String merchants, String times) {
+            this.profile = profile;
+            this.locations = locations;
+            this.merchants = merchants;
+            this.times = times;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.fraud.risk.profile;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ============================================
+ * PROFILE RECOMPUTE CHUNK (KOLON BAZLI SATIR TAMPONU)
+ * ============================================
+ * Ne yapar?
+ * - Cursor'dan customer_id sırasıyla gelen işlemleri müşteri sınırında biten chunk'larda toplar
+ * - Her müşterinin profilini hesaplar ve COPY text formatında satıra çevirir
+ *
+ * Bellek:
+ * - Satırlar nesne değil paralel diziler (long tutar, String kategori / lokasyon, byte gün dilimi)
+ * - Müşteri başına en fazla maxRowsPerCustomer satır tutulur; fazlası reservoir sampling ile
+ *   örneklenir (medyan ve dağılımlar örnekten). Adet, ortalama, sapma, ilk / son tarih her zaman
+ *   TÜM satırlardan (okuma sırasında Welford ile) hesaplanır
+ *
+ * Gün dilimleri: night 00-06, morning 06-12, afternoon 12-18, evening 18-24
+ */
+final class ProfileRecomputeChunk {
+
+    static final String[] DAY_PARTS = {"night", "morning", "afternoon", "evening"};
+
+    private final int maxRowsPerCustomer;
+
+    // Müşteri bazlı (tam, örneklenmemiş)
+    private String[] customerIds = new String[64];
+    private int[] starts = new int[65];
+    private long[] counts = new long[64];
+    private double[] means = new double[64];
+    private double[] m2s = new double[64];
+    private int[] firstDays = new int[64];
+    private int[] lastDays = new int[64];
+    private int customers;
+
+    // Satır bazlı (müşteri başına en fazla maxRowsPerCustomer)
+    private long[] amounts;
+    private String[] categories;
+    private String[] locations;
+    private byte[] dayParts;
+    private int rows;
+
+    ProfileRecomputeChunk(int expectedRows, int maxRowsPerCustomer) {
+        this.maxRowsPerCustomer = Math.max(1, maxRowsPerCustomer);
+        int capacity = Math.max(16, expectedRows);
+        amounts = new long[capacity];
+        categories = new String[capacity];
+        locations = new String[capacity];
+        dayParts = new byte[capacity];
+    }
+
+    int customers() {
+        return customers;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    String customerId(int customer) {
+        return customerIds[customer];
+    }
+
+    /**
+     * Yeni müşteri başlatır (cursor customer_id değiştiğinde)
+     */
+    void begin(String customerId) {
+        if (customers == customerIds.length) {
+            int capacity = customers * 2;
+            customerIds = Arrays.copyOf(customerIds, capacity);
+            starts = Arrays.copyOf(starts, capacity + 1);
+            counts = Arrays.copyOf(counts, capacity);
+            means = Arrays.copyOf(means, capacity);
+            m2s = Arrays.copyOf(m2s, capacity);
+            firstDays = Arrays.copyOf(firstDays, capacity);
+            lastDays = Arrays.copyOf(lastDays, capacity);
+        }
+        customerIds[customers] = customerId;
+        starts[customers] = rows;
+        counts[customers] = 0;
+        means[customers] = 0;
+        m2s[customers] = 0;
+        firstDays[customers] = Integer.MAX_VALUE;
+        lastDays[customers] = Integer.MIN_VALUE;
+        customers++;
+        starts[customers] = rows;
+    }
+
+    /**
+     * Son başlatılan müşteriye satır ekler
+     *
+     * @param amountCents tutar (kuruş)
+     * @param epochDay    işlem günü (LocalDate.toEpochDay)
+     * @param hour        işlem saati (0-23)
+     */
+    void add(long amountCents, String category, String location, int epochDay, int hour) {
+        int customer = customers - 1;
+        long n = ++counts[customer];
+
+        // Welford: tek geçişte sayısal olarak kararlı ortalama / varyans
+        double delta = amountCents - means[customer];
+        means[customer] += delta / n;
+        m2s[customer] += delta * (amountCents - means[customer]);
+        firstDays[customer] = Math.min(firstDays[customer], epochDay);
+        lastDays[customer] = Math.max(lastDays[customer], epochDay);
+
+        int start = starts[customer];
+        int slot;
+        if (n <= maxRowsPerCustomer) {
+            if (rows == amounts.length) {
+                grow();
+            }
+            slot = rows++;
+            starts[customers] = rows;
+        } else {
+            // Reservoir: n. satır maxRowsPerCustomer / n olasılıkla örneğe girer
+            long j = ThreadLocalRandom.current().nextLong(n);
+            if (j >= maxRowsPerCustomer) {
+                return;
+            }
+            slot = start + (int) j;
+        }
+        amounts[slot] = amountCents;
+        categories[slot] = category;
+        locations[slot] = location;
+        dayParts[slot] = (byte) (hour / 6);
+    }
+
+    private void grow() {
+        int capacity = amounts.length * 2;
+        amounts = Arrays.copyOf(amounts, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        locations = Arrays.copyOf(locations, capacity);
+        dayParts = Arrays.copyOf(dayParts, capacity);
+    }
+
+    /**
+     * Müşterinin customer_profiles satırını COPY text formatında ekler (tab ayraçlı, satır sonu \n)
+     * Kolon sırası: ProfileRecomputeJob.COLUMNS
+     *
+     * Not: Satır aralığındaki tutarları sıralar (medyan) → müşteri başına bir kez çağrılmalı
+     */
+    void appendCopyRow(int customer, int maxLocations, String lastUpdated,
+                       ObjectMapper objectMapper, StringBuilder out) throws JsonProcessingException {
+        int from = starts[customer];
+        int to = starts[customer + 1];
+        int sampled = to - from;
+        long count = counts[customer];
+
+        Map<String, int[]> locationCounts = new HashMap<>();
+        Map<String, int[]> categoryCounts = new HashMap<>();
+        int[] dayPartCounts = new int[DAY_PARTS.length];
+        for (int i = from; i < to; i++) {
+            if (locations[i] != null) {
+                locationCounts.computeIfAbsent(locations[i], key -> new int[1])[0]++;
+            }
+            if (categories[i] != null) {
+                categoryCounts.computeIfAbsent(categories[i], key -> new int[1])[0]++;
+            }
+            dayPartCounts[dayParts[i]]++;
+        }
+
+        List<String> frequentLocations = new ArrayList<>(maxLocations);
+        for (Map.Entry<String, int[]> entry : byCountDescending(locationCounts)) {
+            if (frequentLocations.size() == maxLocations) {
+                break;
+            }
+            frequentLocations.add(entry.getKey());
+        }
+
+        Map<String, Double> merchantCategories = new LinkedHashMap<>();
+        for (Map.Entry<String, int[]> entry : byCountDescending(categoryCounts)) {
+            merchantCategories.put(entry.getKey(), share(entry.getValue()[0], sampled));
+        }
+
+        Map<String, Double> timeDistribution = new LinkedHashMap<>();
+        for (int part = 0; part < DAY_PARTS.length; part++) {
+            if (dayPartCounts[part] > 0) {
+                timeDistribution.put(DAY_PARTS[part], share(dayPartCounts[part], sampled));
+            }
+        }
+
+        Arrays.sort(amounts, from, to);
+        int middle = from + sampled / 2;
+        long median = sampled % 2 == 1 ? amounts[middle] : (amounts[middle - 1] + amounts[middle] + 1) / 2;
+
+        appendText(out, customerIds[customer]).append('\t');
+        appendCents(out, Math.round(means[customer])).append('\t');
+        appendCents(out, median).append('\t');
+        appendCents(out, Math.round(Math.sqrt(m2s[customer] / count))).append('\t');
+        appendText(out, objectMapper.writeValueAsString(frequentLocations)).append('\t');
+        appendText(out, objectMapper.writeValueAsString(merchantCategories)).append('\t');
+        appendText(out, objectMapper.writeValueAsString(timeDistribution)).append('\t');
+        out.append(Math.min(count, Integer.MAX_VALUE)).append('\t');
+        out.append(LocalDate.ofEpochDay(firstDays[customer])).append('\t');
+        out.append(LocalDate.ofEpochDay(lastDays[customer])).append('\t');
+        out.append(lastUpdated).append('\n');
+    }
+
+    private static List<Map.Entry<String, int[]>> byCountDescending(Map<String, int[]> counts) {
+        List<Map.Entry<String, int[]>> entries = new ArrayList<>(counts.entrySet());
+        entries.sort((a, b) -> a.getValue()[0] != b.getValue()[0]
+                ? Integer.compare(b.getValue()[0], a.getValue()[0])
+                : a.getKey().compareTo(b.getKey()));
+        return entries;
+    }
+
+    private static double share(int count, int total) {
+        return Math.round(count * 10_000.0 / total) / 10_000.0;
+    }
+
+    private static StringBuilder appendCents(StringBuilder out, long cents) {
+        if (cents < 0) {
+            out.append('-');
+            cents = -cents;
+        }
+        long fraction = cents % 100;
+        return out.append(cents / 100).append('.').append(fraction < 10 ? "0" : "").append(fraction);
+    }
+
+    /**
+     * COPY text formatı: ters bölü, tab ve satır sonları kaçırılır
+     */
+    private static StringBuilder appendText(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '\t' -> out.append("\\t");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                default -> out.append(c);
+            }
+        }
+        return out;
+    }
+}
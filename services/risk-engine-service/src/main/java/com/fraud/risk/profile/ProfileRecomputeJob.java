@@ -0,0 +1,498 @@
+package com.fraud.risk.profile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraud.risk.streams.ProfileTopicPublisher;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ============================================
+ * PROFILE RECOMPUTE JOB (SAATLİK BATCH)
+ * ============================================
+ * Ne yapar?
+ * - Son window-days günün transactions'ından customer_profiles'ı baştan hesaplar:
+ *   avg / median / std tutar, sık lokasyonlar, merchant kategori ve gün dilimi dağılımları,
+ *   işlem sayısı, ilk / son işlem tarihi
+ * - Sonucu staging tablosuna COPY ile yazar, tek transaction'da customer_profiles ile değiştirir
+ *
+ * Akış:
+ * 1. pg_try_advisory_lock → birden fazla risk-engine instance'ında sadece biri çalışır
+ * 2. customer_profiles_staging oluşturulur (index'siz: COPY hızlı)
+ * 3. Tek server-side cursor, ORDER BY customer_id → satırlar müşteri sınırında biten
+ *    chunk'lara (ProfileRecomputeChunk) toplanır
+ * 4. Chunk'lar ForkJoinPool'da müşteri aralıklarına bölünerek hesaplanır, COPY satırları
+ *    tek COPY stream'ine yazılır
+ * 5. COPY bitince PK + index'ler staging'de kurulur, ANALYZE
+ * 6. Pencerede işlemi olmayan müşterilerin eski profilleri staging'e taşınır (keep-inactive)
+ * 7. Swap: LOCK customer_profiles → DROP → staging RENAME → index adları düzeltilir (atomik)
+ *
+ * Sınırlı bellek:
+ * - Cursor fetch-size kadar satır, en fazla max-in-flight-chunks chunk yolda; dolunca cursor
+ *   okuyucu bekler (backpressure)
+ * - Müşteri başına max-rows-per-customer satır (fazlası reservoir örnek, bkz. ProfileRecomputeChunk)
+ *
+ * Neden tam yeniden hesaplama + swap (UPDATE yerine)?
+ * - Yüz milyonlarca satırda satır satır UPSERT = her satır için WAL + index güncellemesi + bloat
+ * - COPY + index'i sonradan kurmak en hızlı yükleme yolu; okuyucular swap anına kadar eski
+ *   tabloyu, sonra yeni tabloyu görür (yarım güncellenmiş profil yok)
+ *
+ * Sonrası: satırlar job başlangıcıyla damgalanır (last_updated), job uzun sürerse bu zaman
+ * preloader'ın delta penceresinden eskidir → ProfilePreloader tablo OID'inin değiştiğini görür ve
+ * tam yükleme yapar: her instance'ın ProfileStore'u bir refresh aralığı içinde güncellenir.
+ * Job'u çalıştıran instance store'unu hemen yeniler; Streams runtime'da yeni profilleri KTable
+ * topic'ine basar (ProfileTopicPublisher) → topic'i swap başına tek instance besler
+ *
+ * Not: Swap sırasında customer_profiles kısa süre ACCESS EXCLUSIVE kilitli (DB fallback
+ * sorguları o an bekler). Staging tabloya GRANT'lar taşınmaz: servisler tablo sahibi kullanıcıyla bağlanır
+ */
+@Component
+public class ProfileRecomputeJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfileRecomputeJob.class);
+
+    static final String COLUMNS = "customer_id, avg_amount, median_amount, std_amount, frequent_locations, "
+            + "merchant_categories, time_distribution, transaction_count, first_transaction_date, "
+            + "last_transaction_date, last_updated";
+
+    private static final String STAGING = "customer_profiles_staging";
+
+    // Tutar kuruş (bigint), gün / saat DB'de hesaplanır → satır başına BigDecimal / Timestamp nesnesi yok
+    private static final String SELECT = """
+            SELECT customer_id, (amount * 100)::bigint, merchant_category, location,
+                   timestamp::date - DATE '1970-01-01', EXTRACT(HOUR FROM timestamp)::int
+            FROM transactions
+            WHERE timestamp >= ?
+            ORDER BY customer_id
+            """;
+
+    // Swap sonrası index'ler init.sql'deki adlarını alır
+    private static final String[][] INDEXES = {
+            {"idx_customer_profiles_staging_last_updated", "idx_customer_profiles_last_updated",
+                    "(last_updated DESC)"},
+            {"idx_customer_profiles_staging_locations", "idx_customer_profiles_locations",
+                    "USING GIN (frequent_locations)"},
+            {"idx_customer_profiles_staging_merchants", "idx_customer_profiles_merchants",
+                    "USING GIN (merchant_categories)"},
+    };
+
+    private static final DateTimeFormatter COPY_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final ProfilePreloader profilePreloader;
+    private final ObjectProvider<ProfileTopicPublisher> profileTopicPublisher;
+
+    @Value("${fraud.profiles.recompute.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fraud.profiles.recompute.window-days:30}")
+    private int windowDays;
+
+    @Value("${fraud.profiles.recompute.fetch-size:10000}")
+    private int fetchSize;
+
+    @Value("${fraud.profiles.recompute.chunk-rows:50000}")
+    private int chunkRows;
+
+    @Value("${fraud.profiles.recompute.max-in-flight-chunks:0}")
+    private int maxInFlightChunks;
+
+    @Value("${fraud.profiles.recompute.parallelism:0}")
+    private int parallelism;
+
+    @Value("${fraud.profiles.recompute.max-rows-per-customer:100000}")
+    private int maxRowsPerCustomer;
+
+    @Value("${fraud.profiles.recompute.frequent-locations:5}")
+    private int frequentLocations;
+
+    @Value("${fraud.profiles.recompute.keep-inactive:true}")
+    private boolean keepInactive;
+
+    @Value("${fraud.profiles.recompute.lock-id:727001}")
+    private long lockId;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile LocalDateTime lastStartedAt;
+    private volatile long lastDurationMs;
+    private volatile long lastRows;
+    private volatile long lastProfiles;
+    private volatile long lastKeptInactive;
+    private volatile String lastError;
+
+    public ProfileRecomputeJob(DataSource dataSource,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper,
+                               ProfilePreloader profilePreloader,
+                               ObjectProvider<ProfileTopicPublisher> profileTopicPublisher) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.profilePreloader = profilePreloader;
+        this.profileTopicPublisher = profileTopicPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Scheduler thread'i tutulmaz (saatler sürebilir; hotspot / refresh gibi diğer @Scheduled işler beklemesin)
+     */
+    @Scheduled(cron = "${fraud.profiles.recompute.cron:0 5 * * * *}")
+    public void scheduledRun() {
+        if (enabled) {
+            trigger();
+        }
+    }
+
+    /**
+     * Manuel tetikleme (POST /api/profiles/recompute): ayrı daemon thread'de
+     *
+     * @return false: job zaten çalışıyor
+     */
+    public boolean trigger() {
+        if (running.get()) {
+            return false;
+        }
+        Thread thread = new Thread(this::run, "profile-recompute-trigger");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    /**
+     * Senkron çalıştırır; aynı anda ikinci çağrı (bu instance'ta) hemen döner
+     */
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            logger.info("Profile recompute already running, skipping");
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        long startNanos = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            if (!tryLock(connection)) {
+                logger.info("Profile recompute is running on another instance, skipping");
+                return;
+            }
+            try {
+                recompute(connection, startedAt);
+                runs.increment();
+                lastStartedAt = startedAt;
+                lastDurationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                lastError = null;
+                logger.info("Profile recompute finished: {} transactions → {} profiles (+{} inactive kept) in {} ms",
+                        lastRows, lastProfiles, lastKeptInactive, lastDurationMs);
+                publishSwapped();
+            } finally {
+                unlock(connection);
+            }
+        } catch (Exception e) {
+            failures.increment();
+            lastError = e.getMessage();
+            logger.error("Profile recompute failed: {}", e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void recompute(Connection connection, LocalDateTime startedAt) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + STAGING);
+            statement.execute("CREATE TABLE " + STAGING
+                    + " (LIKE customer_profiles INCLUDING DEFAULTS INCLUDING COMMENTS)");
+        }
+
+        boolean swapped = false;
+        try {
+            CopyIn copy = connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn("COPY " + STAGING + " (" + COLUMNS + ") FROM STDIN");
+            try {
+                streamAndCompute(copy, startedAt);
+            } catch (Exception e) {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+                throw e;
+            }
+            lastProfiles = copy.endCopy();
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ALTER TABLE " + STAGING + " ADD CONSTRAINT " + STAGING
+                        + "_pkey PRIMARY KEY (customer_id)");
+                for (String[] index : INDEXES) {
+                    statement.execute("CREATE INDEX " + index[0] + " ON " + STAGING + " " + index[2]);
+                }
+                // Kilit dışında: pencerede işlemi olmayan müşterilerin profilleri kaybolmasın
+                lastKeptInactive = keepInactive
+                        ? statement.executeUpdate("INSERT INTO " + STAGING + " SELECT * FROM customer_profiles p "
+                                + "WHERE NOT EXISTS (SELECT 1 FROM " + STAGING + " s WHERE s.customer_id = p.customer_id)")
+                        : 0;
+                statement.execute("ANALYZE " + STAGING);
+            }
+
+            swap(connection);
+            swapped = true;
+        } finally {
+            if (!swapped) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("DROP TABLE IF EXISTS " + STAGING);
+                } catch (SQLException e) {
+                    logger.warn("Could not drop {}: {}", STAGING, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Tek transaction: okuyucular ya eski ya yeni tabloyu görür
+     */
+    private void swap(Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LOCK TABLE customer_profiles IN ACCESS EXCLUSIVE MODE");
+            statement.execute("DROP TABLE customer_profiles");
+            statement.execute("ALTER TABLE " + STAGING + " RENAME TO customer_profiles");
+            statement.execute("ALTER TABLE customer_profiles RENAME CONSTRAINT " + STAGING
+                    + "_pkey TO customer_profiles_pkey");
+            for (String[] index : INDEXES) {
+                statement.execute("ALTER INDEX " + index[0] + " RENAME TO " + index[1]);
+            }
+            statement.execute("COMMENT ON TABLE customer_profiles IS "
+                    + "'Her müşterinin davranış profili - batch job tarafından güncellenir'");
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Lock hâlâ tutulurken: başka instance yeni bir swap yapıp eski profilleri üstüne basamaz
+     */
+    private void publishSwapped() {
+        boolean refreshed = profilePreloader.refreshNow();
+        ProfileTopicPublisher publisher = profileTopicPublisher.getIfAvailable();
+        if (publisher == null) {
+            return;
+        }
+        if (refreshed) {
+            publisher.publishAll("recompute");
+        } else {
+            logger.warn("Profile store not refreshed after recompute, customer profiles topic not updated");
+        }
+    }
+
+    // ============================================
+    // CURSOR → CHUNK → FORK-JOIN → COPY
+    // ============================================
+
+    private void streamAndCompute(CopyIn copy, LocalDateTime startedAt) throws Exception {
+        // Varsayılan çekirdeklerin yarısı: job canlı skorlamayla aynı JVM'de çalışır
+        int threads = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        Semaphore inFlight = new Semaphore(maxInFlightChunks > 0 ? maxInFlightChunks : threads * 2);
+        int permits = inFlight.availablePermits();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        String lastUpdated = startedAt.format(COPY_TIMESTAMP);
+
+        AtomicInteger counter = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool(threads, forkJoinPool -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("profile-recompute-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+
+        long[] rows = {0};
+        try {
+            ProfileRecomputeChunk[] chunk = {new ProfileRecomputeChunk(chunkRows, maxRowsPerCustomer)};
+            String[] currentCustomer = {null};
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                    connection -> {
+                        PreparedStatement ps = connection.prepareStatement(SELECT,
+                                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                        ps.setFetchSize(fetchSize);
+                        ps.setTimestamp(1, Timestamp.valueOf(startedAt.minusDays(windowDays)));
+                        return ps;
+                    },
+                    rs -> {
+                        String customerId = rs.getString(1);
+                        if (!customerId.equals(currentCustomer[0])) {
+                            if (chunk[0].rows() >= chunkRows) {
+                                submit(pool, inFlight, failure, chunk[0], copy, lastUpdated);
+                                chunk[0] = new ProfileRecomputeChunk(chunkRows, maxRowsPerCustomer);
+                            }
+                            chunk[0].begin(customerId);
+                            currentCustomer[0] = customerId;
+                        }
+                        chunk[0].add(rs.getLong(2), rs.getString(3), rs.getString(4), rs.getInt(5), rs.getInt(6));
+                        rows[0]++;
+                    }));
+            if (chunk[0].customers() > 0) {
+                submit(pool, inFlight, failure, chunk[0], copy, lastUpdated);
+            }
+        } finally {
+            // Tüm permit'ler geri gelince yolda chunk kalmamıştır (hata yolunda da: COPY iptal
+            // edilmeden önce hiçbir worker yazmıyor olmalı)
+            inFlight.acquireUninterruptibly(permits);
+            pool.shutdown();
+        }
+
+        lastRows = rows[0];
+        Throwable error = failure.get();
+        if (error != null) {
+            throw new IllegalStateException("Profile computation failed: " + error.getMessage(), error);
+        }
+    }
+
+    /**
+     * Yolda max-in-flight chunk varsa cursor okuyucu burada bekler (backpressure)
+     */
+    private void submit(ForkJoinPool pool, Semaphore inFlight, AtomicReference<Throwable> failure,
+                        ProfileRecomputeChunk chunk, CopyIn copy, String lastUpdated) {
+        Throwable error = failure.get();
+        if (error != null) {
+            throw new IllegalStateException("Profile computation failed: " + error.getMessage(), error);
+        }
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for profile workers", e);
+        }
+        pool.execute(() -> {
+            try {
+                new CustomerRange(chunk, 0, chunk.customers(), copy, lastUpdated).invoke();
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * Chunk'ın müşteri aralığını ikiye bölerek paralel hesaplar; yaprak kendi COPY satırlarını
+     * tek seferde yazar (CopyIn thread-safe değil → kısa synchronized blok)
+     */
+    private final class CustomerRange extends RecursiveAction {
+
+        private static final int LEAF_CUSTOMERS = 256;
+
+        private final ProfileRecomputeChunk chunk;
+        private final int from;
+        private final int to;
+        private final CopyIn copy;
+        private final String lastUpdated;
+
+        private CustomerRange(ProfileRecomputeChunk chunk, int from, int to, CopyIn copy, String lastUpdated) {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+            this.copy = copy;
+            this.lastUpdated = lastUpdated;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_CUSTOMERS) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new CustomerRange(chunk, from, middle, copy, lastUpdated),
+                        new CustomerRange(chunk, middle, to, copy, lastUpdated));
+                return;
+            }
+
+            StringBuilder out = new StringBuilder((to - from) * 256);
+            for (int customer = from; customer < to; customer++) {
+                try {
+                    chunk.appendCopyRow(customer, frequentLocations, lastUpdated, objectMapper, out);
+                } catch (Exception e) {
+                    throw new IllegalStateException("Cannot build profile of " + chunk.customerId(customer), e);
+                }
+            }
+            byte[] bytes = out.toString().getBytes(StandardCharsets.UTF_8);
+            try {
+                synchronized (copy) {
+                    copy.writeToCopy(bytes, 0, bytes.length);
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("COPY into " + STAGING + " failed", e);
+            }
+        }
+    }
+
+    // ============================================
+    // ADVISORY LOCK (instance'lar arası tek çalıştırma)
+    // ============================================
+
+    private boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            ps.setLong(1, lockId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private void unlock(Connection connection) {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            ps.setLong(1, lockId);
+            ps.execute();
+        } catch (SQLException e) {
+            logger.warn("Could not release profile recompute lock: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("running", running.get());
+        stats.put("windowDays", windowDays);
+        stats.put("runs", runs.sum());
+        stats.put("failures", failures.sum());
+        stats.put("lastStartedAt", lastStartedAt);
+        stats.put("lastDurationMs", lastDurationMs);
+        stats.put("lastTransactions", lastRows);
+        stats.put("lastProfiles", lastProfiles);
+        stats.put("lastKeptInactive", lastKeptInactive);
+        stats.put("lastError", lastError);
+        return stats;
+    }
+}
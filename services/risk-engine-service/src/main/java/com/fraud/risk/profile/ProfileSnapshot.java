@@ -0,0 +1,312 @@
+package com.fraud.risk.profile;
+
+import com.fraud.risk.model.CustomerProfile;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * ============================================
+ * PROFILE SNAPSHOT (BINARY DOSYA)
+ * ============================================
+ * Ne yapar?
+ * - ProfileStore içeriğini lokal dosyaya yazar
+ * - Sonraki açılışta dosyayı memory-map edip paralel okur (DB'ye gitmeden)
+ *
+ * Format:
+ *   [magic "FRPS"][version][createdAt epoch millis]
+ *   [block length][record count][records...]   ← blok ≤ ~32 MB
+ *   ...
+ *   [0]                                        ← son
+ *
+ * Neden bloklar?
+ * - Her blok ayrı map edilir → 2 GB MappedByteBuffer sınırı sorun olmaz
+ * - Bloklar bağımsız decode edilir → çekirdek sayısı kadar paralel okuma
+ *
+ * Kayıt: presence bitmask + alanlar (BigDecimal = unscaled + scale, String = uzunluk + UTF-8)
+ * Yazma atomik: önce .tmp dosyası, sonra rename (yarım snapshot asla okunmaz)
+ */
+final class ProfileSnapshot {
+
+    private static final int MAGIC = 0x46525053;  // "FRPS"
+    private static final int VERSION = 1;
+    private static final int BLOCK_TARGET_BYTES = 32 * 1024 * 1024;
+
+    private static final int HAS_AVG = 1;
+    private static final int HAS_MEDIAN = 1 << 1;
+    private static final int HAS_STD = 1 << 2;
+    private static final int HAS_LOCATIONS = 1 << 3;
+    private static final int HAS_MERCHANTS = 1 << 4;
+    private static final int HAS_TIMES = 1 << 5;
+    private static final int HAS_COUNT = 1 << 6;
+    private static final int HAS_FIRST_DATE = 1 << 7;
+    private static final int HAS_LAST_DATE = 1 << 8;
+    private static final int HAS_LAST_UPDATED = 1 << 9;
+
+    private ProfileSnapshot() {
+    }
+
+    /**
+     * Snapshot header bilgisi
+     */
+    static final class Header {
+        final long createdAtMillis;
+        final long records;
+
+        Header(long createdAtMillis, long records) {
+            this.createdAtMillis = createdAtMillis;
+            this.records = records;
+        }
+    }
+
+    // ============================================
+    // WRITE
+    // ============================================
+
+    static long write(Path path, ProfileStore store, long createdAtMillis) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        long[] written = {0};
+        try (DataOutputStream file = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temp), 1 << 20))) {
+            file.writeInt(MAGIC);
+            file.writeInt(VERSION);
+            file.writeLong(createdAtMillis);
+
+            ByteArrayOutputStream blockBytes = new ByteArrayOutputStream(BLOCK_TARGET_BYTES + (1 << 16));
+            DataOutputStream block = new DataOutputStream(blockBytes);
+            int[] blockRecords = {0};
+
+            IOException[] failure = {null};
+            store.forEach(profile -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    writeRecord(block, profile);
+                    blockRecords[0]++;
+                    written[0]++;
+                    if (blockBytes.size() >= BLOCK_TARGET_BYTES) {
+                        flushBlock(file, blockBytes, blockRecords[0]);
+                        blockRecords[0] = 0;
+                    }
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            if (blockRecords[0] > 0) {
+                flushBlock(file, blockBytes, blockRecords[0]);
+            }
+            file.writeInt(0);
+        }
+
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return written[0];
+    }
+
+    private static void flushBlock(DataOutputStream file, ByteArrayOutputStream blockBytes, int records)
+            throws IOException {
+        file.writeInt(blockBytes.size());
+        file.writeInt(records);
+        blockBytes.writeTo(file);
+        blockBytes.reset();
+    }
+
+    private static void writeRecord(DataOutputStream out, CustomerProfile profile) throws IOException {
+        int flags = 0;
+        if (profile.getAvgAmount() != null) flags |= HAS_AVG;
+        if (profile.getMedianAmount() != null) flags |= HAS_MEDIAN;
+        if (profile.getStdAmount() != null) flags |= HAS_STD;
+        if (profile.getFrequentLocations() != null) flags |= HAS_LOCATIONS;
+        if (profile.getMerchantCategories() != null) flags |= HAS_MERCHANTS;
+        if (profile.getTimeDistribution() != null) flags |= HAS_TIMES;
+        if (profile.getTransactionCount() != null) flags |= HAS_COUNT;
+        if (profile.getFirstTransactionDate() != null) flags |= HAS_FIRST_DATE;
+        if (profile.getLastTransactionDate() != null) flags |= HAS_LAST_DATE;
+        if (profile.getLastUpdated() != null) flags |= HAS_LAST_UPDATED;
+
+        writeString(out, profile.getCustomerId());
+        out.writeShort(flags);
+        if ((flags & HAS_AVG) != 0) writeDecimal(out, profile.getAvgAmount());
+        if ((flags & HAS_MEDIAN) != 0) writeDecimal(out, profile.getMedianAmount());
+        if ((flags & HAS_STD) != 0) writeDecimal(out, profile.getStdAmount());
+        if ((flags & HAS_LOCATIONS) != 0) {
+            out.writeShort(profile.getFrequentLocations().size());
+            for (String location : profile.getFrequentLocations()) {
+                writeString(out, location);
+            }
+        }
+        if ((flags & HAS_MERCHANTS) != 0) writeDistribution(out, profile.getMerchantCategories());
+        if ((flags & HAS_TIMES) != 0) writeDistribution(out, profile.getTimeDistribution());
+        if ((flags & HAS_COUNT) != 0) out.writeInt(profile.getTransactionCount());
+        if ((flags & HAS_FIRST_DATE) != 0) out.writeLong(profile.getFirstTransactionDate().toEpochDay());
+        if ((flags & HAS_LAST_DATE) != 0) out.writeLong(profile.getLastTransactionDate().toEpochDay());
+        if ((flags & HAS_LAST_UPDATED) != 0) {
+            out.writeLong(profile.getLastUpdated().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(profile.getLastUpdated().getNano());
+        }
+    }
+
+    private static void writeDistribution(DataOutputStream out, Map<String, Double> distribution) throws IOException {
+        out.writeShort(distribution.size());
+        for (Map.Entry<String, Double> entry : distribution.entrySet()) {
+            writeString(out, entry.getKey());
+            out.writeDouble(entry.getValue() != null ? entry.getValue() : 0.0);
+        }
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        // DECIMAL(10, 2) → unscaled değer long'a sığar
+        out.writeLong(value.unscaledValue().longValueExact());
+        out.writeByte(value.scale());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    // ============================================
+    // READ (memory-mapped, paralel)
+    // ============================================
+
+    static Header read(Path path, Consumer<CustomerProfile> sink, ExecutorService executor) throws Exception {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(16);
+            readFully(channel, header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a profile snapshot: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported profile snapshot version " + version + ": " + path);
+            }
+            long createdAt = header.getLong();
+
+            List<Future<Integer>> blocks = new ArrayList<>();
+            long position = 16;
+            ByteBuffer intBuffer = ByteBuffer.allocate(4);
+            while (true) {
+                int length = readInt(channel, intBuffer, position);
+                if (length == 0) {
+                    break;
+                }
+                int records = readInt(channel, intBuffer, position + 4);
+                MappedByteBuffer block = channel.map(FileChannel.MapMode.READ_ONLY, position + 8, length);
+                blocks.add(executor.submit(decodeBlock(block, records, sink)));
+                position += 8L + length;
+            }
+
+            long total = 0;
+            for (Future<Integer> block : blocks) {
+                total += block.get();
+            }
+            return new Header(createdAt, total);
+        }
+    }
+
+    private static Callable<Integer> decodeBlock(ByteBuffer block, int records, Consumer<CustomerProfile> sink) {
+        return () -> {
+            for (int i = 0; i < records; i++) {
+                sink.accept(readRecord(block));
+            }
+            return records;
+        };
+    }
+
+    private static CustomerProfile readRecord(ByteBuffer in) {
+        CustomerProfile profile = new CustomerProfile();
+        profile.setCustomerId(readString(in));
+        int flags = in.getShort() & 0xFFFF;
+        if ((flags & HAS_AVG) != 0) profile.setAvgAmount(readDecimal(in));
+        if ((flags & HAS_MEDIAN) != 0) profile.setMedianAmount(readDecimal(in));
+        if ((flags & HAS_STD) != 0) profile.setStdAmount(readDecimal(in));
+        if ((flags & HAS_LOCATIONS) != 0) {
+            int count = in.getShort() & 0xFFFF;
+            List<String> locations = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                locations.add(readString(in));
+            }
+            profile.setFrequentLocations(locations);
+        }
+        if ((flags & HAS_MERCHANTS) != 0) profile.setMerchantCategories(readDistribution(in));
+        if ((flags & HAS_TIMES) != 0) profile.setTimeDistribution(readDistribution(in));
+        if ((flags & HAS_COUNT) != 0) profile.setTransactionCount(in.getInt());
+        if ((flags & HAS_FIRST_DATE) != 0) profile.setFirstTransactionDate(LocalDate.ofEpochDay(in.getLong()));
+        if ((flags & HAS_LAST_DATE) != 0) profile.setLastTransactionDate(LocalDate.ofEpochDay(in.getLong()));
+        if ((flags & HAS_LAST_UPDATED) != 0) {
+            long seconds = in.getLong();
+            int nanos = in.getInt();
+            profile.setLastUpdated(LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC));
+        }
+        return profile;
+    }
+
+    private static Map<String, Double> readDistribution(ByteBuffer in) {
+        int count = in.getShort() & 0xFFFF;
+        Map<String, Double> distribution = new HashMap<>(Math.max(4, count * 4 / 3 + 1));
+        for (int i = 0; i < count; i++) {
+            distribution.put(readString(in), in.getDouble());
+        }
+        return distribution;
+    }
+
+    private static BigDecimal readDecimal(ByteBuffer in) {
+        long unscaled = in.getLong();
+        int scale = in.get();
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readInt(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.clear();
+        readFully(channel, buffer, position);
+        return buffer.flip().getInt();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Truncated profile snapshot");
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.fraud.risk.profile;
+
+import com.fraud.risk.model.CustomerProfile;
+
+import java.util.function.Consumer;
+
+/**
+ * ============================================
+ * PROFILE STORE
+ * ============================================
+ * Ne yapar?
+ * - Risk engine'in bellek içi müşteri profili deposu
+ * - Preload (DB / snapshot) ile doldurulur, skorlama sırasında sadece okunur
+ *
+ * Thread-safety: get() birden fazla thread'den, put() preload worker'larından
+ * ve lookup miss yolundan aynı anda çağrılabilir
+ */
+public interface ProfileStore {
+
+    /**
+     * @return profil veya null (depoda yoksa)
+     */
+    CustomerProfile get(String customerId);
+
+    void put(CustomerProfile profile);
+
+    /**
+     * Profil tablosundan kalkmış müşteriyi depodan çıkarır (recompute swap'ı sonrası tam yükleme)
+     */
+    void remove(String customerId);
+
+    int size();
+
+    /**
+     * Snapshot yazımı için tüm profilleri gezer (tutarlı anlık görüntü garantisi yok)
+     */
+    void forEach(Consumer<CustomerProfile> action);
+
+    String describe();
+}
@@ -0,0 +1,53 @@
+package com.fraud.risk.profile;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Düşük kardinaliteli string'ler (lokasyon, merchant kategorisi, zaman dilimi) için
+ * intern tablosu: string → int id, id → string
+ *
+ * Off-heap kayıtlar string yerine bu id'leri tutar.
+ * Tek yazar (OffHeapProfileStore kilidi altında), okuyucular kilitsiz.
+ */
+final class StringDictionary {
+
+    static final int UNKNOWN = -1;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[64];
+    private int size;
+
+    /**
+     * Sadece yazar thread'i çağırır
+     */
+    int intern(String value) {
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        String[] current = names;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[size] = value;
+        // Önce dizi yayınlanır, sonra id: id'yi gören okuyucu ismi de görür
+        names = current;
+        ids.put(value, size);
+        return size++;
+    }
+
+    int idOf(String value) {
+        Integer id = value == null ? null : ids.get(value);
+        return id != null ? id : UNKNOWN;
+    }
+
+    String name(int id) {
+        return names[id];
+    }
+
+    int size() {
+        return ids.size();
+    }
+}
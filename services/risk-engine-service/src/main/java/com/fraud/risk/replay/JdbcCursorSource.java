@@ -0,0 +1,80 @@
+package com.fraud.risk.replay;
+
+import com.fraud.risk.model.Transaction;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * ============================================
+ * JDBC CURSOR SOURCE
+ * ============================================
+ * Ne yapar?
+ * - transactions tablosunu server-side cursor ile akıtır (fetchSize kadar satır/round-trip)
+ * - Tüm tablo belleğe alınmaz
+ *
+ * Neden TransactionTemplate?
+ * - PostgreSQL JDBC driver cursor'u sadece autoCommit=false iken kullanır,
+ *   aksi halde tüm sonucu tek seferde belleğe çeker
+ */
+class JdbcCursorSource implements TransactionSource {
+
+    private static final String SQL = """
+            SELECT transaction_id, customer_id, amount, merchant_category, location, timestamp
+            FROM transactions
+            WHERE timestamp >= ? AND timestamp < ?
+            ORDER BY timestamp, transaction_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final int fetchSize;
+
+    JdbcCursorSource(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                     LocalDateTime from, LocalDateTime to, int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.from = from;
+        this.to = to;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public long forEach(Consumer<Transaction> sink) {
+        long[] count = {0};
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement ps = connection.prepareStatement(SQL,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(fetchSize);
+                    ps.setTimestamp(1, Timestamp.valueOf(from));
+                    ps.setTimestamp(2, Timestamp.valueOf(to));
+                    return ps;
+                },
+                rs -> {
+                    Timestamp timestamp = rs.getTimestamp(6);
+                    sink.accept(new Transaction(
+                            rs.getString(1),
+                            rs.getString(2),
+                            rs.getBigDecimal(3),
+                            rs.getString(4),
+                            rs.getString(5),
+                            timestamp != null ? timestamp.toLocalDateTime() : null
+                    ));
+                    count[0]++;
+                }));
+        return count[0];
+    }
+
+    @Override
+    public String describe() {
+        return "postgres:transactions[" + from + ", " + to + ")";
+    }
+}
@@ -0,0 +1,63 @@
+package com.fraud.risk.replay;
+
+import com.fraud.risk.model.Transaction;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * CSV kaynağı: transactions tablosunun export'u
+ * Kolonlar: transaction_id,customer_id,amount,merchant_category,location,timestamp
+ * Örnek export: \copy (SELECT ... FROM transactions ORDER BY timestamp) TO 'tx.csv' CSV HEADER
+ *
+ * Not: Tırnaklı / virgül içeren alanlar desteklenmez (lokasyon ve kategori değerleri sade).
+ */
+class MappedCsvSource implements TransactionSource {
+
+    private final Path path;
+
+    MappedCsvSource(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public long forEach(Consumer<Transaction> sink) throws Exception {
+        long[] skipped = {0};
+        long lines = new MappedLineReader(path).readLines((buffer, length) -> {
+            String row = new String(buffer, 0, length, StandardCharsets.UTF_8);
+            if (row.startsWith("transaction_id")) {
+                skipped[0]++;  // Header
+                return;
+            }
+            sink.accept(parse(row));
+        });
+        return lines - skipped[0];
+    }
+
+    static Transaction parse(String row) {
+        String[] columns = row.split(",", -1);
+        if (columns.length < 6) {
+            throw new IllegalArgumentException("Expected 6 CSV columns: " + row);
+        }
+        return new Transaction(
+                columns[0],
+                columns[1],
+                new BigDecimal(columns[2]),
+                emptyToNull(columns[3]),
+                emptyToNull(columns[4]),
+                columns[5].isEmpty() ? null : LocalDateTime.parse(columns[5].replace(' ', 'T'))
+        );
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    @Override
+    public String describe() {
+        return "csv:" + path;
+    }
+}
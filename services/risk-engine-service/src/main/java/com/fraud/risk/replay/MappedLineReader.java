@@ -0,0 +1,92 @@
+package com.fraud.risk.replay;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * ============================================
+ * MAPPED LINE READER
+ * ============================================
+ * Ne yapar?
+ * - Büyük dosyaları memory-mapped pencereler halinde satır satır okur
+ * - Dosya > 2GB olabilir: her pencere en fazla WINDOW_SIZE byte
+ * - Pencere sınırında kalan yarım satır bir sonraki pencerenin başına kayar
+ *
+ * Neden mmap?
+ * - Kernel page cache'ten doğrudan okur, read() kopyası ve heap buffer yok
+ * - Sıralı erişimde OS read-ahead işini yapar
+ */
+class MappedLineReader {
+
+    private static final long WINDOW_SIZE = 256L * 1024 * 1024;
+
+    @FunctionalInterface
+    interface LineHandler {
+        void onLine(byte[] buffer, int length) throws Exception;
+    }
+
+    private final Path path;
+    private byte[] line = new byte[4096];
+
+    MappedLineReader(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * @return Okunan satır sayısı (boş satırlar hariç)
+     */
+    long readLines(LineHandler handler) throws Exception {
+        long lines = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+
+            while (position < size) {
+                long length = Math.min(WINDOW_SIZE, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int limit = (int) length;
+                int lineStart = 0;
+
+                for (int i = 0; i < limit; i++) {
+                    if (window.get(i) == '\n') {
+                        lines += emit(window, lineStart, i, handler);
+                        lineStart = i + 1;
+                    }
+                }
+
+                boolean lastWindow = position + length == size;
+                if (lastWindow) {
+                    if (lineStart < limit) {
+                        lines += emit(window, lineStart, limit, handler);
+                    }
+                    position = size;
+                } else {
+                    if (lineStart == 0) {
+                        throw new IOException("Line longer than mapping window at offset " + position);
+                    }
+                    position += lineStart;  // Yarım satır bir sonraki pencerede
+                }
+            }
+        }
+        return lines;
+    }
+
+    private int emit(MappedByteBuffer window, int start, int end, LineHandler handler) throws Exception {
+        if (end > start && window.get(end - 1) == '\r') {
+            end--;
+        }
+        int length = end - start;
+        if (length == 0) {
+            return 0;
+        }
+        if (line.length < length) {
+            line = new byte[Math.max(length, line.length * 2)];
+        }
+        window.get(start, line, 0, length);
+        handler.onLine(line, length);
+        return 1;
+    }
+}
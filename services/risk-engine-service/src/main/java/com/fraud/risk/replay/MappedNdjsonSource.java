@@ -0,0 +1,34 @@
+package com.fraud.risk.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fraud.risk.model.Transaction;
+
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * NDJSON kaynağı: her satır bir Transaction JSON'u (Kafka mesajıyla aynı format)
+ * Örnek: {"transactionId":"T1","customerId":"C101","amount":150.0,"location":"Istanbul","timestamp":"2025-01-07T10:30:00"}
+ */
+class MappedNdjsonSource implements TransactionSource {
+
+    private final Path path;
+    private final ObjectReader reader;
+
+    MappedNdjsonSource(Path path, ObjectMapper objectMapper) {
+        this.path = path;
+        this.reader = objectMapper.readerFor(Transaction.class);
+    }
+
+    @Override
+    public long forEach(Consumer<Transaction> sink) throws Exception {
+        return new MappedLineReader(path).readLines((buffer, length) ->
+                sink.accept(reader.readValue(buffer, 0, length)));
+    }
+
+    @Override
+    public String describe() {
+        return "ndjson:" + path;
+    }
+}
@@ -0,0 +1,229 @@
+package com.fraud.risk.replay;
+
+import com.fraud.risk.model.CustomerProfile;
+import com.fraud.risk.model.RiskScore;
+import com.fraud.risk.model.Transaction;
+import com.fraud.risk.rules.FraudRule;
+import com.fraud.risk.service.RiskScorer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * ============================================
+ * REPLAY ENGINE
+ * ============================================
+ * Ne yapar?
+ * - Kaynaktan okunan transaction'ları N lane'e dağıtır (N = çekirdek sayısı)
+ * - Her lane kendi thread'inde RiskScorer ile skorlar (canlı akışla aynı kod)
+ * - Sonuçları lane başına ayrı dosyaya yazar (risk_scores'a yazmaz, kilit yok)
+ *
+ * Müşteri bazlı sıra:
+ * - customerId hash'i → lane. Aynı müşteri hep aynı lane'de, lane FIFO
+ * - Böylece state tutan kurallar (velocity vb.) gerçek sırayı görür
+ *
+ * Okuyucu thread lane'lere batch halinde (BATCH_SIZE) iş verir, kuyruklar sınırlı:
+ * lane'ler yavaşsa okuyucu bekler (bellek sabit kalır).
+ */
+class ReplayEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayEngine.class);
+    private static final int BATCH_SIZE = 512;
+    private static final Transaction[] END = new Transaction[0];
+
+    private final RiskScorer riskScorer;
+    private final List<FraudRule> rules;
+    private final Function<String, CustomerProfile> profileLoader;
+    private final BigDecimal mlScore;
+    private final double alertThreshold;
+    private final Map<String, Boolean> labels;
+    private final int profileCacheSize;
+
+    ReplayEngine(RiskScorer riskScorer,
+                 List<FraudRule> rules,
+                 Function<String, CustomerProfile> profileLoader,
+                 BigDecimal mlScore,
+                 double alertThreshold,
+                 Map<String, Boolean> labels,
+                 int profileCacheSize) {
+        this.riskScorer = riskScorer;
+        this.rules = rules;
+        this.profileLoader = profileLoader;
+        this.mlScore = mlScore;
+        this.alertThreshold = alertThreshold;
+        this.labels = labels;
+        this.profileCacheSize = profileCacheSize;
+    }
+
+    ReplayReport run(TransactionSource source, Path outputDir, int laneCount) throws Exception {
+        Files.createDirectories(outputDir);
+
+        List<Lane> lanes = new ArrayList<>(laneCount);
+        List<Thread> threads = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            Lane lane = new Lane(outputDir.resolve(String.format("scores-part-%03d.csv", i)));
+            Thread thread = new Thread(lane, "replay-lane-" + i);
+            lanes.add(lane);
+            threads.add(thread);
+            thread.start();
+        }
+
+        logger.info("Replay started: source={}, lanes={}, output={}", source.describe(), laneCount, outputDir);
+        long startNanos = System.nanoTime();
+
+        try {
+            source.forEach(transaction -> {
+                int index = Math.floorMod(transaction.getCustomerId().hashCode(), laneCount);
+                lanes.get(index).offer(transaction);
+            });
+        } finally {
+            for (Lane lane : lanes) {
+                lane.finish();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        ReplayReport report = new ReplayReport(source.describe(), laneCount, elapsedNanos, labels != null);
+        for (Lane lane : lanes) {
+            if (lane.failure != null) {
+                throw new IllegalStateException("Replay lane failed", lane.failure);
+            }
+            report.merge(lane.stats);
+        }
+        return report;
+    }
+
+    // ============================================
+    // LANE (tek thread, tek dosya, kendi istatistikleri)
+    // ============================================
+    private final class Lane implements Runnable {
+
+        private final BlockingQueue<Transaction[]> queue = new ArrayBlockingQueue<>(64);
+        private final Path output;
+        private final ReplayReport.Stats stats = new ReplayReport.Stats();
+        private final Map<String, Optional<CustomerProfile>> profiles;
+
+        // Sadece okuyucu thread erişir
+        private Transaction[] pending = new Transaction[BATCH_SIZE];
+        private int pendingSize;
+
+        private volatile Throwable failure;
+
+        private Lane(Path output) {
+            this.output = output;
+            this.profiles = new LinkedHashMap<>(1024, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Optional<CustomerProfile>> eldest) {
+                    return size() > profileCacheSize;
+                }
+            };
+        }
+
+        void offer(Transaction transaction) {
+            pending[pendingSize++] = transaction;
+            if (pendingSize == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void finish() throws InterruptedException {
+            if (pendingSize > 0) {
+                Transaction[] last = new Transaction[pendingSize];
+                System.arraycopy(pending, 0, last, 0, pendingSize);
+                pendingSize = 0;
+                put(last);
+            }
+            put(END);
+        }
+
+        private void flush() {
+            Transaction[] batch = pending;
+            pending = new Transaction[BATCH_SIZE];
+            pendingSize = 0;
+            try {
+                put(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Replay interrupted", e);
+            }
+        }
+
+        private void put(Transaction[] batch) throws InterruptedException {
+            // Lane hata verdiyse okuyucu sonsuza kadar beklemesin
+            while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+                if (failure != null) {
+                    if (batch == END) {
+                        return;
+                    }
+                    throw new IllegalStateException("Replay lane failed", failure);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+                writer.write("transaction_id,customer_id,rule_score,ml_score,final_score,alert,triggered_rules\n");
+                while (true) {
+                    Transaction[] batch = queue.take();
+                    if (batch == END) {
+                        break;
+                    }
+                    for (Transaction transaction : batch) {
+                        score(transaction, writer);
+                    }
+                }
+            } catch (Throwable t) {
+                failure = t;
+                logger.error("Replay lane failed: {}", t.getMessage(), t);
+            }
+        }
+
+        private void score(Transaction transaction, BufferedWriter writer) throws IOException {
+            CustomerProfile profile = profiles
+                    .computeIfAbsent(transaction.getCustomerId(), id -> Optional.ofNullable(profileLoader.apply(id)))
+                    .orElse(null);
+
+            RiskScore riskScore = riskScorer.score(transaction, profile, rules, mlScore);
+            double finalScore = riskScore.getFinalScore().doubleValue();
+            boolean alert = finalScore > alertThreshold;
+
+            Boolean isFraud = labels != null ? labels.get(transaction.getTransactionId()) : null;
+            stats.record(riskScore.getReasons().keySet(), finalScore, alert, isFraud);
+
+            writer.write(transaction.getTransactionId());
+            writer.write(',');
+            writer.write(transaction.getCustomerId());
+            writer.write(',');
+            writer.write(Integer.toString(riskScore.getRuleScore()));
+            writer.write(',');
+            writer.write(mlScore.toPlainString());
+            writer.write(',');
+            writer.write(riskScore.getFinalScore().toPlainString());
+            writer.write(',');
+            writer.write(alert ? "true" : "false");
+            writer.write(',');
+            writer.write(String.join(";", riskScore.getReasons().keySet()));
+            writer.write('\n');
+        }
+    }
+}
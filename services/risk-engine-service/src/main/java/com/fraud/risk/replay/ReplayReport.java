@@ -0,0 +1,164 @@
+package com.fraud.risk.replay;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ============================================
+ * REPLAY REPORT
+ * ============================================
+ * Ne yapar?
+ * - Lane istatistiklerini birleştirir
+ * - summary.json içeriğini üretir:
+ *   throughput, kural tetiklenme oranları, skor dağılımı, precision / recall
+ *
+ * Precision / Recall (fraud_labels ile):
+ * - Tahmin: final_score > alert threshold
+ * - Sadece etiketi olan transaction'lar hesaba katılır
+ */
+class ReplayReport {
+
+    private final String source;
+    private final int lanes;
+    private final long elapsedNanos;
+    private final boolean labelled;
+    private final Stats total = new Stats();
+
+    ReplayReport(String source, int lanes, long elapsedNanos, boolean labelled) {
+        this.source = source;
+        this.lanes = lanes;
+        this.elapsedNanos = elapsedNanos;
+        this.labelled = labelled;
+    }
+
+    void merge(Stats stats) {
+        total.scored += stats.scored;
+        total.alerts += stats.alerts;
+        total.truePositive += stats.truePositive;
+        total.falsePositive += stats.falsePositive;
+        total.falseNegative += stats.falseNegative;
+        total.trueNegative += stats.trueNegative;
+        for (int i = 0; i < total.histogram.length; i++) {
+            total.histogram[i] += stats.histogram[i];
+        }
+        stats.ruleTriggers.forEach((rule, count) ->
+                total.ruleTriggers.computeIfAbsent(rule, r -> new long[1])[0] += count[0]);
+    }
+
+    long getScored() {
+        return total.scored;
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        double seconds = elapsedNanos / 1_000_000_000.0;
+
+        summary.put("source", source);
+        summary.put("lanes", lanes);
+        summary.put("transactions", total.scored);
+        summary.put("elapsedSeconds", round(seconds));
+        summary.put("throughputPerSecond", seconds > 0 ? Math.round(total.scored / seconds) : 0);
+        summary.put("alerts", total.alerts);
+        summary.put("alertRate", rate(total.alerts, total.scored));
+
+        // Kural bazlı tetiklenme
+        Map<String, Object> rules = new TreeMap<>();
+        total.ruleTriggers.forEach((rule, count) -> {
+            Map<String, Object> trigger = new LinkedHashMap<>();
+            trigger.put("count", count[0]);
+            trigger.put("rate", rate(count[0], total.scored));
+            rules.put(rule, trigger);
+        });
+        summary.put("ruleTriggers", rules);
+
+        // Skor dağılımı (10'luk bucket'lar) + yüzdelikler
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int bucket = 0; bucket < 10; bucket++) {
+            long count = 0;
+            for (int score = bucket * 10; score < bucket * 10 + 10; score++) {
+                count += total.histogram[score];
+            }
+            if (bucket == 9) {
+                count += total.histogram[100];
+            }
+            buckets.put(bucket * 10 + "-" + (bucket == 9 ? 100 : bucket * 10 + 9), count);
+        }
+        summary.put("scoreHistogram", buckets);
+        Map<String, Integer> percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", percentile(0.50));
+        percentiles.put("p90", percentile(0.90));
+        percentiles.put("p99", percentile(0.99));
+        summary.put("scorePercentiles", percentiles);
+
+        if (labelled) {
+            long tp = total.truePositive;
+            long fp = total.falsePositive;
+            long fn = total.falseNegative;
+            Map<String, Object> labels = new LinkedHashMap<>();
+            labels.put("labelled", tp + fp + fn + total.trueNegative);
+            labels.put("truePositive", tp);
+            labels.put("falsePositive", fp);
+            labels.put("falseNegative", fn);
+            labels.put("trueNegative", total.trueNegative);
+            labels.put("precision", rate(tp, tp + fp));
+            labels.put("recall", rate(tp, tp + fn));
+            summary.put("labels", labels);
+        }
+        return summary;
+    }
+
+    private int percentile(double quantile) {
+        long target = (long) Math.ceil(total.scored * quantile);
+        long seen = 0;
+        for (int score = 0; score < total.histogram.length; score++) {
+            seen += total.histogram[score];
+            if (seen >= target && target > 0) {
+                return score;
+            }
+        }
+        return 0;
+    }
+
+    private static double rate(long part, long whole) {
+        return whole == 0 ? 0.0 : round((double) part / whole);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10_000) / 10_000.0;
+    }
+
+    // ============================================
+    // LANE STATS (tek thread'e ait, senkronizasyon yok)
+    // ============================================
+    static final class Stats {
+        long scored;
+        long alerts;
+        long truePositive;
+        long falsePositive;
+        long falseNegative;
+        long trueNegative;
+        final long[] histogram = new long[101];
+        final Map<String, long[]> ruleTriggers = new HashMap<>();
+
+        void record(Collection<String> triggeredRules, double finalScore, boolean alert, Boolean isFraud) {
+            scored++;
+            if (alert) {
+                alerts++;
+            }
+            histogram[(int) Math.max(0, Math.min(100, finalScore))]++;
+            for (String rule : triggeredRules) {
+                ruleTriggers.computeIfAbsent(rule, r -> new long[1])[0]++;
+            }
+            if (isFraud != null) {
+                if (isFraud) {
+                    if (alert) truePositive++; else falseNegative++;
+                } else {
+                    if (alert) falsePositive++; else trueNegative++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.fraud.risk.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fraud.risk.repository.CustomerProfileQueryRepository;
+import com.fraud.risk.rules.RuleRegistry;
+import com.fraud.risk.service.RiskScorer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ============================================
+ * REPLAY RUNNER (OFFLINE BACKTEST)
+ * ============================================
+ * Ne yapar?
+ * - Geçmiş transaction'ları Kafka'ya basmadan canlı kural / skor koduyla tekrar skorlar
+ * - Sonuç dosyaları + summary.json yazar, sonra uygulamayı kapatır
+ *
+ * Çalıştırma:
+ *   java -jar risk-engine-service.jar --spring.profiles.active=replay \
+ *        --fraud.replay.source=ndjson --fraud.replay.input=/data/transactions-2025-01.ndjson \
+ *        --fraud.replay.output-dir=/data/replay-2025-01 --fraud.replay.labels=database
+ *
+ * Kaynaklar (fraud.replay.source):
+ * - ndjson   : memory-mapped NDJSON dosyası
+ * - csv      : memory-mapped CSV dosyası (transactions export'u)
+ * - database : transactions tablosu, server-side cursor (from / to aralığı)
+ *
+ * Etiketler (fraud.replay.labels):
+ * - none | database (fraud_labels tablosu) | dosya yolu (CSV: transaction_id,is_fraud)
+ *
+ * Not: ML servisi çağrılmaz (saniyede yüz binlerce HTTP çağrısı anlamsız),
+ * yerine sabit fraud.replay.ml-score kullanılır. Canlı akıştaki placeholder ile aynı varsayılan.
+ */
+@Component
+@ConditionalOnProperty(name = "fraud.replay.enabled", havingValue = "true")
+public class ReplayRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayRunner.class);
+
+    private final RuleRegistry ruleRegistry;
+    private final RiskScorer riskScorer;
+    private final CustomerProfileQueryRepository profileQueryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${fraud.replay.source:ndjson}")
+    private String sourceType;
+
+    @Value("${fraud.replay.input:}")
+    private String input;
+
+    @Value("${fraud.replay.from:1970-01-01T00:00:00}")
+    private String from;
+
+    @Value("${fraud.replay.to:2999-01-01T00:00:00}")
+    private String to;
+
+    @Value("${fraud.replay.fetch-size:10000}")
+    private int fetchSize;
+
+    @Value("${fraud.replay.output-dir:replay-output}")
+    private String outputDir;
+
+    @Value("${fraud.replay.threads:0}")
+    private int threads;
+
+    @Value("${fraud.replay.labels:none}")
+    private String labelsSource;
+
+    @Value("${fraud.replay.ml-score:0.5}")
+    private BigDecimal mlScore;
+
+    @Value("${fraud.replay.profile-cache-size:100000}")
+    private int profileCacheSize;
+
+    @Value("${fraud.replay.exit-on-finish:true}")
+    private boolean exitOnFinish;
+
+    @Value("${fraud.detection.alert-threshold:70}")
+    private double alertThreshold;
+
+    public ReplayRunner(RuleRegistry ruleRegistry,
+                        RiskScorer riskScorer,
+                        CustomerProfileQueryRepository profileQueryRepository,
+                        JdbcTemplate jdbcTemplate,
+                        PlatformTransactionManager transactionManager,
+                        ObjectMapper objectMapper,
+                        ConfigurableApplicationContext context) {
+        this.ruleRegistry = ruleRegistry;
+        this.riskScorer = riskScorer;
+        this.profileQueryRepository = profileQueryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionManager = transactionManager;
+        this.objectMapper = objectMapper;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        int laneCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        Path output = Path.of(outputDir);
+
+        TransactionSource source = createSource();
+        Map<String, Boolean> labels = loadLabels();
+
+        ReplayEngine engine = new ReplayEngine(
+                riskScorer,
+                ruleRegistry.current(),
+                profileQueryRepository::findById,
+                mlScore,
+                alertThreshold,
+                labels,
+                profileCacheSize);
+
+        ReplayReport report = engine.run(source, output, laneCount);
+        Map<String, Object> summary = report.toMap();
+
+        objectMapper.copy()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(output.resolve("summary.json").toFile(), summary);
+
+        logger.info("Replay finished: {} transactions, {} tx/s, summary={}",
+                report.getScored(), summary.get("throughputPerSecond"), output.resolve("summary.json"));
+
+        if (exitOnFinish) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    private TransactionSource createSource() {
+        return switch (sourceType) {
+            case "ndjson" -> new MappedNdjsonSource(requireInput(), objectMapper);
+            case "csv" -> new MappedCsvSource(requireInput());
+            case "database" -> {
+                TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+                readOnly.setReadOnly(true);
+                yield new JdbcCursorSource(jdbcTemplate, readOnly,
+                        LocalDateTime.parse(from), LocalDateTime.parse(to), fetchSize);
+            }
+            default -> throw new IllegalArgumentException("Unknown replay source: " + sourceType);
+        };
+    }
+
+    private Path requireInput() {
+        if (input == null || input.isBlank()) {
+            throw new IllegalArgumentException("fraud.replay.input is required for source " + sourceType);
+        }
+        Path path = Path.of(input);
+        if (!Files.isReadable(path)) {
+            throw new IllegalArgumentException("Replay input not readable: " + path);
+        }
+        return path;
+    }
+
+    /**
+     * fraud_labels → transaction_id: is_fraud
+     */
+    private Map<String, Boolean> loadLabels() throws Exception {
+        if ("none".equals(labelsSource)) {
+            return null;
+        }
+
+        Map<String, Boolean> labels = new HashMap<>();
+        if ("database".equals(labelsSource)) {
+            jdbcTemplate.query("SELECT transaction_id, is_fraud FROM fraud_labels",
+                    rs -> {
+                        labels.put(rs.getString(1), rs.getBoolean(2));
+                    });
+        } else {
+            new MappedLineReader(Path.of(labelsSource)).readLines((buffer, length) -> {
+                String row = new String(buffer, 0, length, StandardCharsets.UTF_8);
+                int comma = row.indexOf(',');
+                if (comma > 0 && !row.startsWith("transaction_id")) {
+                    // psql export'u boolean'ı "t" / "f" olarak yazar
+                    String value = row.substring(comma + 1).trim();
+                    labels.put(row.substring(0, comma), value.equalsIgnoreCase("true") || value.equals("t"));
+                }
+            });
+        }
+
+        logger.info("Loaded {} fraud labels from {}", labels.size(), labelsSource);
+        return labels;
+    }
+}
@@ -0,0 +1,27 @@
+package com.fraud.risk.replay;
+
+import com.fraud.risk.model.Transaction;
+
+import java.util.function.Consumer;
+
+/**
+ * ============================================
+ * TRANSACTION SOURCE (REPLAY)
+ * ============================================
+ * Ne yapar?
+ * - Geçmiş transaction'ları sırayla okur ve consumer'a verir
+ * - Implementasyonlar: MappedNdjsonSource, MappedCsvSource, JdbcCursorSource
+ *
+ * Sıra garantisi: kaynak sırası korunur (zaman sıralı olması beklenir),
+ * ReplayEngine aynı müşteriyi hep aynı lane'e gönderdiği için müşteri bazlı sıra bozulmaz.
+ */
+public interface TransactionSource {
+
+    /**
+     * @param sink Her transaction için çağrılır (tek thread'den)
+     * @return Okunan kayıt sayısı
+     */
+    long forEach(Consumer<Transaction> sink) throws Exception;
+
+    String describe();
+}
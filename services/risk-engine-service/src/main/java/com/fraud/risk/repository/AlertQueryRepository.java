@@ -0,0 +1,70 @@
+package com.fraud.risk.repository;
+
+import com.fraud.risk.model.AlertRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ============================================
+ * ALERT QUERY REPOSITORY
+ * ============================================
+ * Ne yapar?
+ * - NEW alert'leri en yeniden eskiye sayfalı okur (analist review kuyruğu)
+ *
+ * Neden keyset (OFFSET değil)?
+ * - OFFSET 10000 → Postgres 10000 satırı okuyup atar, derin sayfalar yavaşlar
+ * - Keyset: "son gördüğüm (created_at, id)'den eski olanlar" → her sayfa aynı hızda
+ * - WHERE status = 'NEW' + ORDER BY created_at DESC → idx_alerts_new_desc partial index
+ *   (sadece NEW satırları içerir, review edilen alert'ler index'i şişirmez)
+ */
+@Repository
+public class AlertQueryRepository {
+
+    private static final String SELECT =
+            "SELECT a.id, a.transaction_id, t.customer_id, t.amount, a.risk_score, a.status, a.created_at "
+                    + "FROM alerts a LEFT JOIN transactions t ON t.transaction_id = a.transaction_id "
+                    + "WHERE a.status = 'NEW' ";
+
+    private static final RowMapper<AlertRecord> MAPPER = (rs, rowNum) -> new AlertRecord(
+            rs.getLong("id"),
+            rs.getString("transaction_id"),
+            rs.getString("customer_id"),
+            rs.getBigDecimal("amount"),
+            rs.getBigDecimal("risk_score"),
+            rs.getString("status"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AlertQueryRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * İlk sayfa
+     */
+    public List<AlertRecord> findNewAlerts(int limit) {
+        return jdbcTemplate.query(SELECT + "ORDER BY a.created_at DESC, a.id DESC LIMIT ?", MAPPER, limit);
+    }
+
+    /**
+     * Sonraki sayfa: (beforeCreatedAt, beforeId) bir önceki sayfanın son satırı
+     */
+    public List<AlertRecord> findNewAlertsBefore(LocalDateTime beforeCreatedAt, long beforeId, int limit) {
+        return jdbcTemplate.query(
+                SELECT + "AND a.created_at <= ? AND (a.created_at < ? OR a.id < ?) "
+                        + "ORDER BY a.created_at DESC, a.id DESC LIMIT ?",
+                MAPPER,
+                Timestamp.valueOf(beforeCreatedAt), Timestamp.valueOf(beforeCreatedAt), beforeId, limit);
+    }
+
+    public long countNewAlerts() {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM alerts WHERE status = 'NEW'", Long.class);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,70 @@
+package com.fraud.risk.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraud.risk.model.CustomerProfile;
+import com.fraud.risk.profile.LazyJsonbProfile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * ============================================
+ * CUSTOMER PROFILE QUERY REPOSITORY (SKORLAMA READ MODEL)
+ * ============================================
+ * Ne yapar?
+ * - Skorlama yolunun profil lookup'ı: düz JDBC, sadece profil kolonları
+ * - JSONB kolonları ::text olarak okunur, LazyJsonbProfile ilk erişimde parse eder
+ *
+ * Neden CustomerProfileRepository.findById değil?
+ * - Hibernate: entity hydration + persistence context kaydı + dirty-checking snapshot'ı
+ *   + üç JSONB kolonunun eager decode'u; skorlama profili sadece okur
+ *
+ * CustomerProfileRepository (JPA) yazma / yönetim tarafı için kalır
+ */
+@Repository
+public class CustomerProfileQueryRepository {
+
+    private static final String SELECT_BY_ID = """
+            SELECT customer_id, avg_amount, median_amount, std_amount,
+                   frequent_locations::text, merchant_categories::text, time_distribution::text,
+                   transaction_count, first_transaction_date, last_transaction_date, last_updated
+            FROM customer_profiles
+            WHERE customer_id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RowMapper<CustomerProfile> mapper;
+
+    public CustomerProfileQueryRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mapper = (rs, rowNum) -> {
+            LazyJsonbProfile profile = new LazyJsonbProfile(objectMapper,
+                    rs.getString(5), rs.getString(6), rs.getString(7));
+            profile.setCustomerId(rs.getString(1));
+            profile.setAvgAmount(rs.getBigDecimal(2));
+            profile.setMedianAmount(rs.getBigDecimal(3));
+            profile.setStdAmount(rs.getBigDecimal(4));
+            int count = rs.getInt(8);
+            profile.setTransactionCount(rs.wasNull() ? null : count);
+            Date first = rs.getDate(9);
+            profile.setFirstTransactionDate(first != null ? first.toLocalDate() : null);
+            Date last = rs.getDate(10);
+            profile.setLastTransactionDate(last != null ? last.toLocalDate() : null);
+            Timestamp updated = rs.getTimestamp(11);
+            profile.setLastUpdated(updated != null ? updated.toLocalDateTime() : null);
+            return profile;
+        };
+    }
+
+    /**
+     * @return profil veya null
+     */
+    public CustomerProfile findById(String customerId) {
+        List<CustomerProfile> rows = jdbcTemplate.query(SELECT_BY_ID, mapper, customerId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+}
@@ -1,14 +1,49 @@
 package com.fraud.risk.repository;
 
 import com.fraud.risk.model.RiskScore;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Risk score sorguları
+ *
+ * Yüksek skor sorguları her zaman sınırlıdır (Pageable ile LIMIT) ve
+ * ORDER BY final_score DESC → idx_risk_scores_final_score index'i sırayla okunur,
+ * LIMIT dolunca durur (tüm tabloyu sıralamaz)
+ */
 @Repository
 public interface RiskScoreRepository extends JpaRepository<RiskScore, Long> {
     Optional<RiskScore> findByTransactionId(String transactionId);
-    List<RiskScore> findByFinalScoreGreaterThan(java.math.BigDecimal threshold);
+
+    /**
+     * Top-N: en yüksek skorlu N kayıt
+     */
+    @Query("SELECT r FROM RiskScore r ORDER BY r.finalScore DESC, r.id DESC")
+    List<RiskScore> findTopScores(Pageable pageable);
+
+    /**
+     * Threshold üstü skorlar - ilk sayfa
+     */
+    @Query("SELECT r FROM RiskScore r WHERE r.finalScore > :threshold "
+            + "ORDER BY r.finalScore DESC, r.id DESC")
+    List<RiskScore> findAboveThreshold(@Param("threshold") BigDecimal threshold, Pageable pageable);
+
+    /**
+     * Threshold üstü skorlar - sonraki sayfa (keyset)
+     * (lastScore, lastId) bir önceki sayfanın son satırı; OFFSET kullanılmaz
+     */
+    @Query("SELECT r FROM RiskScore r WHERE r.finalScore > :threshold AND r.finalScore <= :lastScore "
+            + "AND (r.finalScore < :lastScore OR r.id < :lastId) "
+            + "ORDER BY r.finalScore DESC, r.id DESC")
+    List<RiskScore> findAboveThresholdAfter(@Param("threshold") BigDecimal threshold,
+                                            @Param("lastScore") BigDecimal lastScore,
+                                            @Param("lastId") Long lastId,
+                                            Pageable pageable);
 }
@@ -0,0 +1,87 @@
+package com.fraud.risk.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * ============================================
+ * RISK SCORE SCHEMA MIGRATION (UNIQUE transaction_id)
+ * ============================================
+ * Ne yapar?
+ * - risk_scores.transaction_id üzerinde UNIQUE index'i (idx_risk_scores_transaction_id_unique) kurar
+ * - Önce mevcut duplicate'leri siler (transaction başına en eski satır kalır), sonra eski
+ *   unique olmayan idx_risk_scores_transaction_id'yi kaldırır
+ *
+ * Neden?
+ * - RiskScoreWriteRepository ve RiskScoreSink "ON CONFLICT (transaction_id)" kullanır: eşleşen
+ *   unique index yoksa her insert hata verir
+ * - init.sql sadece boş volume'da çalışır; mevcut veritabanları bu adımla güncellenir
+ *
+ * Nasıl?
+ * - Index zaten varsa hiçbir şey yapılmaz (her açılışta tek katalog sorgusu)
+ * - Yoksa tek transaction: tablo yazmalara kilitlenir (SHARE ROW EXCLUSIVE) → silme ile index
+ *   arasında yeni duplicate giremez; aynı anda açılan diğer instance kilidi bekler, sonra no-op
+ * - @PostConstruct: Kafka listener'ları (SmartLifecycle) başlamadan önce biter
+ */
+@Component
+public class RiskScoreSchemaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiskScoreSchemaMigration.class);
+
+    static final String UNIQUE_INDEX = "idx_risk_scores_transaction_id_unique";
+
+    private static final String DELETE_DUPLICATES = """
+            DELETE FROM risk_scores newer
+            USING risk_scores older
+            WHERE newer.transaction_id = older.transaction_id
+              AND newer.id > older.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RiskScoreSchemaMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        if (uniqueIndexExists()) {
+            return;
+        }
+
+        int removed = jdbcTemplate.execute((Connection connection) -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("LOCK TABLE risk_scores IN SHARE ROW EXCLUSIVE MODE");
+                int deleted = statement.executeUpdate(DELETE_DUPLICATES);
+                statement.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + UNIQUE_INDEX
+                        + " ON risk_scores(transaction_id)");
+                statement.execute("DROP INDEX IF EXISTS idx_risk_scores_transaction_id");
+                connection.commit();
+                return deleted;
+            } catch (Exception e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        });
+
+        logger.info("risk_scores migrated to unique transaction_id index {} ({} duplicate rows removed)",
+                UNIQUE_INDEX, removed);
+    }
+
+    private boolean uniqueIndexExists() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_indexes WHERE tablename = 'risk_scores' AND indexname = ?",
+                Integer.class, UNIQUE_INDEX);
+        return count != null && count > 0;
+    }
+}
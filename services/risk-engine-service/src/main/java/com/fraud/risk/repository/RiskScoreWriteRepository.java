@@ -0,0 +1,72 @@
+package com.fraud.risk.repository;
+
+import com.fraud.risk.model.ReasonsJsonConverter;
+import com.fraud.risk.model.RiskScore;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ============================================
+ * RISK SCORE WRITE REPOSITORY (IDEMPOTENT INSERT)
+ * ============================================
+ * Ne yapar?
+ * - risk_scores'a transaction başına en fazla bir satır yazar
+ *   (UNIQUE idx_risk_scores_transaction_id_unique + ON CONFLICT DO NOTHING)
+ *
+ * Neden?
+ * - Aynı transaction birden fazla yoldan skorlanabilir: senkron API (SyncScoringService),
+ *   Kafka consumer, manual-ack redelivery; farklı instance'larda ve aynı anda
+ * - Kontrol DB'de: "önce var mı bak, sonra yaz" iki yol arasında yarışır, unique index yarışmaz
+ *
+ * Çağıran transaction içindeyse (analyzeTransaction) JdbcTemplate aynı bağlantıyı kullanır
+ */
+@Repository
+public class RiskScoreWriteRepository {
+
+    private static final String INSERT = """
+            INSERT INTO risk_scores (transaction_id, rule_score, ml_score, final_score, reasons, created_at)
+            VALUES (?, ?, ?, ?, CAST(? AS jsonb), ?)
+            ON CONFLICT (transaction_id) DO NOTHING
+            RETURNING id
+            """;
+
+    private static final int[] ARG_TYPES = {
+            Types.VARCHAR, Types.INTEGER, Types.NUMERIC, Types.NUMERIC, Types.VARCHAR, Types.TIMESTAMP
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReasonsJsonConverter reasonsConverter = new ReasonsJsonConverter();
+
+    public RiskScoreWriteRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return true: satır yazıldı (id ve createdAt skora set edilir),
+     *         false: bu transaction'ın skoru zaten var (başka yol / instance yazdı)
+     */
+    public boolean insertIfAbsent(RiskScore score) {
+        if (score.getCreatedAt() == null) {
+            score.setCreatedAt(LocalDateTime.now());
+        }
+        Object[] args = {
+                score.getTransactionId(),
+                score.getRuleScore(),
+                score.getMlScore(),
+                score.getFinalScore(),
+                reasonsConverter.convertToDatabaseColumn(score.getReasons()),
+                Timestamp.valueOf(score.getCreatedAt())
+        };
+        List<Long> ids = jdbcTemplate.query(INSERT, args, ARG_TYPES, (rs, rowNum) -> rs.getLong(1));
+        if (ids.isEmpty()) {
+            return false;
+        }
+        score.setId(ids.get(0));
+        return true;
+    }
+}
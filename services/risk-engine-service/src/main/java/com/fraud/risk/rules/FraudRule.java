@@ -25,6 +25,13 @@ import java.time.LocalDateTime;
  * - VelocityRule: Çok hızlı işlem varsa
  * - LocationAnomalyRule: Farklı şehirden işlemse
  * - MerchantRiskRule: Riskli merchant kategorisiyse
+ *
+ * Eşzamanlılık:
+ * - Her kural tek instance'tır, tüm skorlama thread'leri paylaşır (listener consumer'ları,
+ *   senkron API, shadow executor, Streams thread'leri)
+ * - evaluate → captureReason arası taşınan sonuç (reason parametreleri, sorgu buffer'ları)
+ *   instance alanında tutulamaz: kurallar bunu ThreadLocal scratch'te tutar. captureReason
+ *   evaluate'ten hemen sonra aynı thread'de çağrılır (RuleReasons)
  */
 public interface FraudRule {
 
@@ -72,6 +79,43 @@ public interface FraudRule {
      */
     String getReason();
 
+    /**
+     * ============================================
+     * CAPTURE REASON (HOT PATH)
+     * ============================================
+     * Ne yapar?
+     * - Tetiklenen kuralın reason parametrelerini yazar (evaluate'ten hemen sonra, aynı thread)
+     * - Metin üretmez: sayılar + mevcut String referansları (RuleReasons'ta saklanır)
+     *
+     * Varsayılan: getReason() metni tek parametre (format maliyeti kuralda kalır)
+     */
+    default void captureReason(ReasonParams params) {
+        params.addText(getReason());
+    }
+
+    /**
+     * ============================================
+     * RENDER REASON
+     * ============================================
+     * captureReason'ın yazdığı parametrelerden okunabilir metin
+     * Sadece reason görüntülenirken / export edilirken çağrılır (kaydedilmiş kayıtlar için de)
+     */
+    default String renderReason(ReasonParams params) {
+        return params.getText(0);
+    }
+
+    /**
+     * ============================================
+     * GET REASON NUMBER COUNT
+     * ============================================
+     * captureReason'ın yazdığı sayı parametresi adedi (kalanlar metin)
+     * Kaydedilmiş reason [sayılar..., metinler...] düzenindedir; null değerin sayı mı (NaN) metin mi
+     * olduğu JSON'dan anlaşılmaz → ReasonRenderer listeyi bu sayıya göre böler
+     */
+    default int getReasonNumberCount() {
+        return 0;
+    }
+
     /**
      * ============================================
      * GET PRIORITY
@@ -89,4 +133,20 @@ public interface FraudRule {
     default int getPriority() {
         return 5;  // Varsayılan orta öncelik
     }
+
+    /**
+     * ============================================
+     * IS STATEFUL
+     * ============================================
+     * Ne yapar?
+     * - evaluate bellek içi müşteri / global state'i güncelliyorsa true
+     *   (son görülme, rolling toplamlar, sketch'ler, hotspot sayaçları)
+     *
+     * Neden?
+     * - Aynı transaction'ı ikinci kez değerlendirmek (shadow) state'i canlı yol güncelledikten
+     *   sonra görür → farklı sonuç. Shadow bu kuralları tekrar çalıştırmaz, canlı sonucu kullanır
+     */
+    default boolean isStateful() {
+        return false;
+    }
 }
@@ -0,0 +1,130 @@
+package com.fraud.risk.rules;
+
+import com.fraud.risk.aggregate.GlobalHotspots;
+import com.fraud.risk.aggregate.HeavyHitterSketch;
+import com.fraud.risk.model.CustomerProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * ============================================
+ * GLOBAL HOTSPOT RULE
+ * ============================================
+ * Ne yapar?
+ * - İşlemin merchant kategorisi veya lokasyonu tüm trafikte şu an sıçrama yapıyorsa → şüpheli
+ *
+ * Örnek:
+ * - gift_cards normalde dakikada ~40 işlem, son dakikada 400 → o kategorideki her işlem 20 puan
+ * - Bir şehirde tüm müşterilerde ani artış (toplu kart verisi sızıntısı, skimmer) → 20 puan
+ *
+ * Neden?
+ * - Müşteri bazlı kurallar tek müşterinin normal davranışına bakar; saldırı müşteri başına
+ *   tek işlemse sadece global toplamda görünür
+ *
+ * Not: Global sayaçları bu kural günceller (kural kapalıyken de → endpoint / snapshot güncel kalır)
+ * Not: Spike değerlendirmesi scheduler'da (GlobalHotspots.evaluate); burada sadece snapshot lookup
+ */
+@Component
+public class GlobalHotspotRule implements FraudRule {
+
+    private static final Logger logger = LoggerFactory.getLogger(GlobalHotspotRule.class);
+
+    private final GlobalHotspots hotspots;
+
+    // Reason: sayılar [sayı, baseline ortalama, z] + metin [boyut, değer]
+    private final ThreadLocal<ReasonParams> reason = ThreadLocal.withInitial(ReasonParams::new);
+
+    @Value("${fraud.rules.global-hotspot.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fraud.rules.global-hotspot.score:20}")
+    private int score;
+
+    public GlobalHotspotRule(GlobalHotspots hotspots) {
+        this.hotspots = hotspots;
+    }
+
+    @Override
+    public int evaluate(
+            String transactionId,
+            String customerId,
+            BigDecimal amount,
+            String merchantCategory,
+            String location,
+            LocalDateTime timestamp,
+            CustomerProfile customerProfile) {
+
+        hotspots.record(transactionId, merchantCategory, location, timestamp);
+
+        if (!enabled) {
+            return 0;
+        }
+
+        String dimension = GlobalHotspots.MERCHANT_CATEGORY;
+        String key = merchantCategory;
+        HeavyHitterSketch.Hitter spike = hotspots.getSpike(dimension, key);
+        if (spike == null) {
+            dimension = GlobalHotspots.LOCATION;
+            key = location;
+            spike = hotspots.getSpike(dimension, key);
+        }
+        if (spike == null) {
+            return 0;
+        }
+
+        ReasonParams params = reason.get();
+        params.clear();
+        params.add(Math.max(spike.getCurrentCount(), spike.getPreviousCount()))
+                .add(spike.getBaselineMean())
+                .add(spike.getZScore())
+                .addText(dimension)
+                .addText(key);
+
+        logger.info("GLOBAL HOTSPOT RULE TRIGGERED - Transaction: {}, {}: {}",
+                transactionId, dimension, key);
+
+        return score;
+    }
+
+    // Global hotspot sayaçlarına işlemi ekler → shadow tekrar çalıştırmaz
+    @Override
+    public boolean isStateful() {
+        return true;
+    }
+
+    @Override
+    public String getRuleName() {
+        return "global_hotspot";
+    }
+
+    @Override
+    public String getReason() {
+        return renderReason(reason.get());
+    }
+
+    @Override
+    public void captureReason(ReasonParams params) {
+        params.addAll(reason.get());
+    }
+
+    @Override
+    public int getReasonNumberCount() {
+        return 3;
+    }
+
+    @Override
+    public String renderReason(ReasonParams params) {
+        return String.format("Global spike in %s %s: %.0f transactions per bucket vs %.1f baseline (z=%.1f)",
+                params.getText(0), params.getText(1), params.getNumber(0), params.getNumber(1), params.getNumber(2));
+    }
+
+    @Override
+    public int getPriority() {
+        return 6;
+    }
+}
@@ -35,7 +35,8 @@ public class HighAmountRule implements FraudRule {
     @Value("${fraud.detection.high-amount-multiplier:3}")
     private double multiplier;
 
-    private String reason;
+    // Metin değil ham parametreler: [amount, multiplier, avg] → metin sadece render'da
+    private final ThreadLocal<ReasonParams> reason = ThreadLocal.withInitial(ReasonParams::new);
 
     @Override
     public int evaluate(
@@ -63,11 +64,12 @@ public class HighAmountRule implements FraudRule {
         if (amount.compareTo(threshold) > 0) {
             double actualMultiplier = amount.divide(avgAmount, 2, java.math.RoundingMode.HALF_UP).doubleValue();
 
-            this.reason = String.format("Amount (%.2f) is %.1fx customer average (%.2f)",
-                    amount.doubleValue(), actualMultiplier, avgAmount.doubleValue());
+            ReasonParams params = this.reason.get();
+            params.clear();
+            params.add(amount.doubleValue()).add(actualMultiplier).add(avgAmount.doubleValue());
 
-            logger.info("HIGH AMOUNT RULE TRIGGERED - Transaction: {}, Reason: {}",
-                    transactionId, this.reason);
+            logger.info("HIGH AMOUNT RULE TRIGGERED - Transaction: {}, Amount: {}, Multiplier: {}, Avg: {}",
+                    transactionId, amount, actualMultiplier, avgAmount);
 
             return 30;  // 30 puan ekle
         }
@@ -82,7 +84,23 @@ public class HighAmountRule implements FraudRule {
 
     @Override
     public String getReason() {
-        return this.reason;
+        return renderReason(this.reason.get());
+    }
+
+    @Override
+    public void captureReason(ReasonParams params) {
+        params.addAll(this.reason.get());
+    }
+
+    @Override
+    public int getReasonNumberCount() {
+        return 3;
+    }
+
+    @Override
+    public String renderReason(ReasonParams params) {
+        return String.format("Amount (%.2f) is %.1fx customer average (%.2f)",
+                params.getNumber(0), params.getNumber(1), params.getNumber(2));
     }
 
     @Override
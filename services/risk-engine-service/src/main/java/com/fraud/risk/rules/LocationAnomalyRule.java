@@ -27,7 +27,8 @@ import java.time.LocalDateTime;
 public class LocationAnomalyRule implements FraudRule {
 
     private static final Logger logger = LoggerFactory.getLogger(LocationAnomalyRule.class);
-    private String reason;
+    // Metin değil location referansı → metin sadece render'da
+    private final ThreadLocal<String> reason = new ThreadLocal<>();
 
     @Override
     public int evaluate(
@@ -51,10 +52,10 @@ public class LocationAnomalyRule implements FraudRule {
                 customerId, location, isFrequent);
 
         if (!isFrequent) {
-            this.reason = String.format("Unusual location: %s (not in frequent locations)", location);
+            this.reason.set(location);
 
-            logger.info("LOCATION ANOMALY RULE TRIGGERED - Transaction: {}, Reason: {}",
-                    transactionId, this.reason);
+            logger.info("LOCATION ANOMALY RULE TRIGGERED - Transaction: {}, Location: {}",
+                    transactionId, location);
 
             return 25;  // 25 puan ekle
         }
@@ -69,7 +70,17 @@ public class LocationAnomalyRule implements FraudRule {
 
     @Override
     public String getReason() {
-        return this.reason;
+        return String.format("Unusual location: %s (not in frequent locations)", this.reason.get());
+    }
+
+    @Override
+    public void captureReason(ReasonParams params) {
+        params.addText(this.reason.get());
+    }
+
+    @Override
+    public String renderReason(ReasonParams params) {
+        return String.format("Unusual location: %s (not in frequent locations)", params.getText(0));
     }
 
     @Override
@@ -0,0 +1,133 @@
+package com.fraud.risk.rules;
+
+import com.fraud.risk.aggregate.CustomerSketches;
+import com.fraud.risk.model.CustomerProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * ============================================
+ * NOVELTY RULE
+ * ============================================
+ * Ne yapar?
+ * - Yeterli geçmişi olan müşteride hem lokasyon hem merchant kategorisi
+ *   daha önce HİÇ görülmemişse → şüpheli
+ *
+ * Örnek:
+ * - 40 işlemlik müşteri hep Istanbul'da grocery / restaurant
+ * - Aniden Trabzon'da jewelry → 15 puan
+ *
+ * LocationAnomalyRule'dan farkı:
+ * - O kural profildeki "sık" lokasyonlara bakar (nadir ama bilinen lokasyon da tetikler)
+ * - Bu kural müşteri geçmişinin tamamına (count-min, yavaşça unutulur) ve iki boyuta birden
+ *
+ * Not: Count-min sadece fazla sayar → "hiç görülmedi" kararı yanlış alarm üretmez
+ * (çakışma yüzünden yeni bir değeri kaçırabilir)
+ */
+@Component
+public class NoveltyRule implements FraudRule {
+
+    private static final Logger logger = LoggerFactory.getLogger(NoveltyRule.class);
+
+    private final CustomerSketches sketches;
+
+    // Reason: sayılar [önceki işlem sayısı] + metin [lokasyon, kategori]
+    private final ThreadLocal<double[]> observation = ThreadLocal.withInitial(() -> new double[CustomerSketches.FIELDS]);
+    private final ThreadLocal<ReasonParams> reason = ThreadLocal.withInitial(ReasonParams::new);
+
+    @Value("${fraud.rules.novelty.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fraud.rules.novelty.min-history:10}")
+    private int minHistory;
+
+    @Value("${fraud.rules.novelty.score:15}")
+    private int score;
+
+    public NoveltyRule(CustomerSketches sketches) {
+        this.sketches = sketches;
+    }
+
+    @Override
+    public int evaluate(
+            String transactionId,
+            String customerId,
+            BigDecimal amount,
+            String merchantCategory,
+            String location,
+            LocalDateTime timestamp,
+            CustomerProfile customerProfile) {
+
+        if (location == null || merchantCategory == null) {
+            return 0;
+        }
+
+        // SprayingRule aynı işlemi zaten eklediyse tekrar eklenmez, aynı "önceki" değerler döner
+        double[] result = observation.get();
+        if (!sketches.observe(customerId, transactionId, location, merchantCategory, timestamp, result) || !enabled) {
+            return 0;
+        }
+
+        double history = result[CustomerSketches.HISTORY];
+        boolean newLocation = result[CustomerSketches.LOCATION_SEEN] == 0;
+        boolean newCategory = result[CustomerSketches.CATEGORY_SEEN] == 0;
+
+        logger.debug("Novelty Rule - Customer: {}, History: {}, New Location: {}, New Category: {}",
+                customerId, history, newLocation, newCategory);
+
+        if (history < minHistory || !newLocation || !newCategory) {
+            return 0;
+        }
+
+        ReasonParams params = reason.get();
+        params.clear();
+        params.add(history).addText(location).addText(merchantCategory);
+
+        logger.info("NOVELTY RULE TRIGGERED - Transaction: {}, Location: {}, Merchant Category: {}",
+                transactionId, location, merchantCategory);
+
+        return score;
+    }
+
+    // Müşteri sketch'ine işlemi ekler → shadow tekrar çalıştırmaz
+    @Override
+    public boolean isStateful() {
+        return true;
+    }
+
+    @Override
+    public String getRuleName() {
+        return "novelty";
+    }
+
+    @Override
+    public String getReason() {
+        return renderReason(reason.get());
+    }
+
+    @Override
+    public void captureReason(ReasonParams params) {
+        params.addAll(reason.get());
+    }
+
+    @Override
+    public int getReasonNumberCount() {
+        return 1;
+    }
+
+    @Override
+    public String renderReason(ReasonParams params) {
+        return String.format("First-seen location (%s) and merchant category (%s) after %.0f transactions",
+                params.getText(0), params.getText(1), params.getNumber(0));
+    }
+
+    @Override
+    public int getPriority() {
+        return 5;
+    }
+}
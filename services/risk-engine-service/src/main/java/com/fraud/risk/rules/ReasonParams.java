@@ -0,0 +1,141 @@
+package com.fraud.risk.rules;
+
+import java.util.Arrays;
+
+/**
+ * ============================================
+ * REASON PARAMS
+ * ============================================
+ * Ne yapar?
+ * - Tetiklenen kuralın reason'ı için ham parametreler: double dizisi + metin referansları
+ * - Yazma (captureReason): kural sayıları / mevcut String referanslarını ekler, format yok
+ * - Okuma (renderReason): aynı sırayla okunur, metin sadece görüntülenirken üretilir
+ *
+ * Kural başına parametre düzeni o kuralın sözleşmesidir: kaydedilmiş (risk_scores JSONB,
+ * alert payload'ı) reason'lar sonradan aynı düzenle render edilir → değiştirilirse isim de değişmeli
+ */
+public final class ReasonParams {
+
+    private static final double[] NO_NUMBERS = new double[0];
+    private static final String[] NO_TEXTS = new String[0];
+
+    private double[] numbers;
+    private String[] texts;
+    private final int numberOffset;
+    private final int textOffset;
+    private int numberCount;
+    private int textCount;
+    private final boolean readOnly;
+
+    public ReasonParams() {
+        this(NO_NUMBERS, 0, 0, NO_TEXTS, 0, 0, false);
+    }
+
+    private ReasonParams(double[] numbers, int numberOffset, int numberCount,
+                         String[] texts, int textOffset, int textCount, boolean readOnly) {
+        this.numbers = numbers;
+        this.numberOffset = numberOffset;
+        this.numberCount = numberCount;
+        this.texts = texts;
+        this.textOffset = textOffset;
+        this.textCount = textCount;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Kaydedilmiş parametrelerden (JSONB / Kafka) render için
+     */
+    public static ReasonParams of(double[] numbers, String[] texts) {
+        return new ReasonParams(numbers, 0, numbers.length, texts, 0, texts.length, true);
+    }
+
+    // ============================================
+    // WRITE
+    // ============================================
+    public ReasonParams add(double value) {
+        checkWritable();
+        if (numberCount == numbers.length) {
+            numbers = Arrays.copyOf(numbers, Math.max(4, numberCount * 2));
+        }
+        numbers[numberCount++] = value;
+        return this;
+    }
+
+    public ReasonParams addText(String value) {
+        checkWritable();
+        if (textCount == texts.length) {
+            texts = Arrays.copyOf(texts, Math.max(2, textCount * 2));
+        }
+        texts[textCount++] = value;
+        return this;
+    }
+
+    /**
+     * Başka bir params'ın içeriğini ekler (kuralın thread-local scratch'inden kopya)
+     */
+    public ReasonParams addAll(ReasonParams other) {
+        for (int i = 0; i < other.numberCount; i++) {
+            add(other.getNumber(i));
+        }
+        for (int i = 0; i < other.textCount; i++) {
+            addText(other.getText(i));
+        }
+        return this;
+    }
+
+    /**
+     * Scratch olarak yeniden kullanım (diziler korunur)
+     */
+    public void clear() {
+        checkWritable();
+        numberCount = 0;
+        Arrays.fill(texts, 0, textCount, null);
+        textCount = 0;
+    }
+
+    /**
+     * Yarım kalan capture'ı geri alır
+     */
+    void truncate(int numbers, int texts) {
+        checkWritable();
+        Arrays.fill(this.texts, texts, textCount, null);
+        numberCount = numbers;
+        textCount = texts;
+    }
+
+    // ============================================
+    // READ
+    // ============================================
+    public double getNumber(int index) {
+        if (index >= numberCount) {
+            return Double.NaN;  // Eski / eksik kayıt: render "NaN" yazar, patlamaz
+        }
+        return numbers[numberOffset + index];
+    }
+
+    public String getText(int index) {
+        return index < textCount ? texts[textOffset + index] : null;
+    }
+
+    public int numberCount() {
+        return numberCount;
+    }
+
+    public int textCount() {
+        return textCount;
+    }
+
+    /**
+     * [numberFrom, numberTo) + [textFrom, textTo) aralığını gösteren salt-okunur görünüm
+     */
+    ReasonParams view(int numberFrom, int numberTo, int textFrom, int textTo) {
+        return new ReasonParams(numbers, numberOffset + numberFrom, numberTo - numberFrom,
+                texts, textOffset + textFrom, textTo - textFrom, true);
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Read-only reason params");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.fraud.risk.rules;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ============================================
+ * REASON RENDERER
+ * ============================================
+ * Ne yapar?
+ * - Kaydedilmiş kompakt reason'ları ({"kural":[parametreler...]}) okunabilir metne çevirir
+ * - Kural, aktif setten adıyla bulunur → renderReason(params)
+ *
+ * Kim kullanır?
+ * - RiskScoreController (DB / cache'ten dönen skorlar)
+ *
+ * Parametre türü değerin JSON tipinden değil kuralın beyanından (getReasonNumberCount) gelir:
+ * NaN sayı ve null metin ikisi de null kaydedilir; ilk N değer sayı, kalanı metin
+ *
+ * Bilinmeyen kural (silinmiş DSL kuralı) veya eski metin kaydı: değer aynen döner
+ */
+@Component
+public class ReasonRenderer {
+
+    private final RuleRegistry ruleRegistry;
+
+    public ReasonRenderer(RuleRegistry ruleRegistry) {
+        this.ruleRegistry = ruleRegistry;
+    }
+
+    public Map<String, Object> render(Map<String, Object> reasons) {
+        if (reasons == null || reasons.isEmpty()) {
+            return reasons;
+        }
+        if (reasons instanceof RuleReasons) {
+            return new LinkedHashMap<>(reasons);  // Canlı skor: kurallar zaten elinde
+        }
+
+        Map<String, FraudRule> byName = new LinkedHashMap<>();
+        for (FraudRule rule : ruleRegistry.current()) {
+            byName.put(rule.getRuleName(), rule);
+        }
+
+        Map<String, Object> rendered = new LinkedHashMap<>();
+        reasons.forEach((name, value) -> {
+            FraudRule rule = byName.get(name);
+            rendered.put(name, rule != null && value instanceof List<?> values ? render(rule, values) : value);
+        });
+        return rendered;
+    }
+
+    private static Object render(FraudRule rule, List<?> values) {
+        int numberCount = Math.min(Math.max(0, rule.getReasonNumberCount()), values.size());
+        double[] numbers = new double[numberCount];
+        for (int i = 0; i < numberCount; i++) {
+            numbers[i] = values.get(i) instanceof Number number ? number.doubleValue() : Double.NaN;
+        }
+        String[] texts = new String[values.size() - numberCount];
+        for (int i = 0; i < texts.length; i++) {
+            Object value = values.get(numberCount + i);
+            texts[i] = value != null ? value.toString() : null;
+        }
+        try {
+            return rule.renderReason(ReasonParams.of(numbers, texts));
+        } catch (RuntimeException e) {
+            return values;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.fraud.risk.rules;
+
+import com.fraud.risk.aggregate.AmountAggregates;
+import com.fraud.risk.model.CustomerProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * ============================================
+ * ROLLING AMOUNT RULE
+ * ============================================
+ * Ne yapar?
+ * - Müşterinin son 24 saat / 7 gün tutar toplamını ortalama işlem tutarıyla kıyaslar
+ * - Toplam, ortalamanın N katını aşarsa → şüpheli
+ *
+ * Örnek (ortalama 200):
+ * - 24 saatte 15 x 190 = 2850 > 10 x 200 → structuring (eşik altı parçalı harcama), 25 puan
+ * - 7 günde her gün 1000 = 7000 > 30 x 200 → slow-burn, 25 puan
+ *
+ * HighAmountRule'dan farkı: o kural tek işleme bakar, bu kural birikime
+ *
+ * Not: Aggregate'leri bu kural günceller (kural kapalıyken de → ML feature'ları güncel kalır)
+ * Not: Güncel işlem toplama dahildir; tekrar gelen işlem ikinci kez eklenmez (AmountAggregateTable idempotent)
+ */
+@Component
+public class RollingAmountRule implements FraudRule {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollingAmountRule.class);
+
+    private final AmountAggregates aggregates;
+
+    // Sorgu sonucu + reason parametreleri: [pencere saat, toplam, çarpan, limit]
+    private final ThreadLocal<double[]> window = ThreadLocal.withInitial(() -> new double[AmountAggregates.FIELDS]);
+    private final ThreadLocal<ReasonParams> reason = ThreadLocal.withInitial(ReasonParams::new);
+
+    @Value("${fraud.rules.rolling-amount.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fraud.rules.rolling-amount.max-24h-multiplier:10}")
+    private double max24hMultiplier;
+
+    @Value("${fraud.rules.rolling-amount.max-7d-multiplier:30}")
+    private double max7dMultiplier;
+
+    @Value("${fraud.rules.rolling-amount.score:25}")
+    private int score;
+
+    public RollingAmountRule(AmountAggregates aggregates) {
+        this.aggregates = aggregates;
+    }
+
+    @Override
+    public int evaluate(
+            String transactionId,
+            String customerId,
+            BigDecimal amount,
+            String merchantCategory,
+            String location,
+            LocalDateTime timestamp,
+            CustomerProfile customerProfile) {
+
+        aggregates.record(customerId, transactionId, amount, timestamp);
+
+        if (!enabled || customerProfile == null || customerProfile.getAvgAmount() == null
+                || customerProfile.getAvgAmount().signum() <= 0) {
+            return 0;
+        }
+
+        double[] totals = window.get();
+        if (!aggregates.query(customerId, timestamp, totals)) {
+            return 0;
+        }
+
+        double avgAmount = customerProfile.getAvgAmount().doubleValue();
+        double sum24h = totals[AmountAggregates.SUM_24H];
+        double sum7d = totals[AmountAggregates.SUM_7D];
+
+        logger.debug("Rolling Amount Rule - Customer: {}, 1h: {}, 24h: {}, 7d: {}, Avg: {}",
+                customerId, totals[AmountAggregates.SUM_1H], sum24h, sum7d, avgAmount);
+
+        ReasonParams params = reason.get();
+        params.clear();
+        if (sum24h > avgAmount * max24hMultiplier) {
+            params.add(24).add(sum24h).add(max24hMultiplier).add(avgAmount * max24hMultiplier);
+        } else if (sum7d > avgAmount * max7dMultiplier) {
+            params.add(24 * 7).add(sum7d).add(max7dMultiplier).add(avgAmount * max7dMultiplier);
+        } else {
+            return 0;
+        }
+
+        logger.info("ROLLING AMOUNT RULE TRIGGERED - Transaction: {}, Window: {}h, Total: {}",
+                transactionId, (long) params.getNumber(0), params.getNumber(1));
+
+        return score;
+    }
+
+    // Rolling tutar toplamlarına işlemi ekler → shadow tekrar çalıştırmaz
+    @Override
+    public boolean isStateful() {
+        return true;
+    }
+
+    @Override
+    public String getRuleName() {
+        return "rolling_amount";
+    }
+
+    @Override
+    public String getReason() {
+        return renderReason(reason.get());
+    }
+
+    @Override
+    public void captureReason(ReasonParams params) {
+        params.addAll(reason.get());
+    }
+
+    @Override
+    public int getReasonNumberCount() {
+        return 4;
+    }
+
+    @Override
+    public String renderReason(ReasonParams params) {
+        return String.format("%.0fh amount total (%.2f) exceeds %.1fx customer average (limit %.2f)",
+                params.getNumber(0), params.getNumber(1), params.getNumber(2), params.getNumber(3));
+    }
+
+    @Override
+    public int getPriority() {
+        return 7;  // HighAmountRule ile aynı seviye
+    }
+}
@@ -0,0 +1,275 @@
+package com.fraud.risk.rules;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ============================================
+ * RULE REASONS (KOMPAKT, LAZY RENDER)
+ * ============================================
+ * Ne yapar?
+ * - Bir skorlamanın reason'ları: tetiklenen kuralların bitmask'i (aktif setteki sıra) +
+ *   kural başına ReasonParams dilimi ve puan + opsiyonel ML fallback sebebi
+ * - Map<String, Object> olarak görünür (RiskScore / Alert API'si değişmez):
+ *   keySet / containsKey / size sadece mask'i okur, get / entrySet metni o anda render eder
+ *
+ * Neden?
+ * - Eskiden her tetiklenen kural String.format + her skor için yeni HashMap
+ * - Şimdi hot path: bir long + küçük primitive diziler; metin sadece görüntüleme / export'ta
+ *
+ * Serileştirme (JSONB, Kafka): kompakt form, metin yok
+ *   {"high_amount":[1500.0,5.2,288.0],"location_anomaly":["Antalya"],"ml_fallback":"timeout"}
+ *   (kural başına önce sayılar, sonra metinler). ReasonRenderer kompakt formu tekrar metne çevirir.
+ *
+ * Thread-safety: skorlayan thread yazar, sonra sadece okunur (render cache'i volatile)
+ */
+@JsonSerialize(using = RuleReasons.CompactSerializer.class)
+public final class RuleReasons extends AbstractMap<String, Object> {
+
+    public static final int MAX_RULES = Long.SIZE;
+
+    private final List<FraudRule> rules;
+    private long mask;
+    private ReasonParams params;
+    private int[] numberEnds;
+    private int[] textEnds;
+    private int[] scores;
+    private String fallbackKey;
+    private String fallbackValue;
+    private volatile Map<String, Object> rendered;
+
+    public RuleReasons(List<FraudRule> rules) {
+        if (rules.size() > MAX_RULES) {
+            throw new IllegalArgumentException("At most " + MAX_RULES + " rules supported, got " + rules.size());
+        }
+        this.rules = rules;
+    }
+
+    // ============================================
+    // CAPTURE (HOT PATH)
+    // ============================================
+
+    /**
+     * Kural tetiklendi: bit'ini set eder, puanını ve parametrelerini kopyalar
+     * Kurallar artan index sırasıyla çağrılmalı (applyRules döngüsü)
+     */
+    public void capture(int index, FraudRule rule, int score) {
+        if (params == null) {
+            params = new ReasonParams();
+            numberEnds = new int[4];
+            textEnds = new int[4];
+            scores = new int[4];
+        }
+        int ordinal = Long.bitCount(mask);
+        if (ordinal == numberEnds.length) {
+            numberEnds = Arrays.copyOf(numberEnds, ordinal * 2);
+            textEnds = Arrays.copyOf(textEnds, ordinal * 2);
+            scores = Arrays.copyOf(scores, ordinal * 2);
+        }
+        scores[ordinal] = score;
+        int numbers = params.numberCount();
+        int texts = params.textCount();
+        try {
+            rule.captureReason(params);
+        } catch (RuntimeException e) {
+            params.truncate(numbers, texts);  // Render "Rule x triggered" olur, skor etkilenmez
+        }
+        numberEnds[ordinal] = params.numberCount();
+        textEnds[ordinal] = params.textCount();
+        mask |= 1L << index;
+    }
+
+    public void setFallback(String key, String value) {
+        this.fallbackKey = key;
+        this.fallbackValue = value;
+        this.rendered = null;
+    }
+
+    public long getMask() {
+        return mask;
+    }
+
+    /**
+     * Bu skorlamada kuralın (aynı instance) ürettiği sonuç; shadow stateful kuralları tekrar
+     * çalıştırmak yerine bunu kullanır
+     *
+     * @param out Kural tetiklendiyse reason parametreleri eklenir
+     * @return Kuralın puanı, tetiklenmediyse / sette yoksa 0
+     */
+    public int copyResult(FraudRule rule, ReasonParams out) {
+        int ordinal = 0;
+        for (long bits = mask; bits != 0; bits &= bits - 1, ordinal++) {
+            if (rules.get(Long.numberOfTrailingZeros(bits)) == rule) {
+                out.addAll(slice(ordinal));
+                return scores[ordinal];
+            }
+        }
+        return 0;
+    }
+
+    // ============================================
+    // MAP VIEW
+    // ============================================
+    @Override
+    public int size() {
+        return Long.bitCount(mask) + (fallbackKey != null ? 1 : 0);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return mask == 0 && fallbackKey == null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0 || (fallbackKey != null && fallbackKey.equals(key));
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (fallbackKey != null && fallbackKey.equals(key)) {
+            return fallbackValue;
+        }
+        int index = indexOf(key);
+        return index >= 0 ? render(index) : null;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        Set<String> keys = new LinkedHashSet<>();
+        for (long bits = mask; bits != 0; bits &= bits - 1) {
+            keys.add(rules.get(Long.numberOfTrailingZeros(bits)).getRuleName());
+        }
+        if (fallbackKey != null) {
+            keys.add(fallbackKey);
+        }
+        return Collections.unmodifiableSet(keys);
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        Map<String, Object> text = rendered;
+        if (text == null) {
+            text = new LinkedHashMap<>();
+            for (long bits = mask; bits != 0; bits &= bits - 1) {
+                int index = Long.numberOfTrailingZeros(bits);
+                text.put(rules.get(index).getRuleName(), render(index));
+            }
+            if (fallbackKey != null) {
+                text.put(fallbackKey, fallbackValue);
+            }
+            text = Collections.unmodifiableMap(text);
+            rendered = text;
+        }
+        return text.entrySet();
+    }
+
+    /**
+     * Kompakt form: kural → [sayılar..., metinler...], fallback → sebep
+     * Alert birleştirme gibi Map kopyası gereken yerler için (metin üretmez)
+     */
+    public Map<String, Object> toCompactMap() {
+        Map<String, Object> compact = new LinkedHashMap<>();
+        int ordinal = 0;
+        for (long bits = mask; bits != 0; bits &= bits - 1, ordinal++) {
+            int index = Long.numberOfTrailingZeros(bits);
+            ReasonParams slice = slice(ordinal);
+            List<Object> values = new ArrayList<>(slice.numberCount() + slice.textCount());
+            for (int i = 0; i < slice.numberCount(); i++) {
+                values.add(slice.getNumber(i));
+            }
+            for (int i = 0; i < slice.textCount(); i++) {
+                values.add(slice.getText(i));
+            }
+            compact.put(rules.get(index).getRuleName(), values);
+        }
+        if (fallbackKey != null) {
+            compact.put(fallbackKey, fallbackValue);
+        }
+        return compact;
+    }
+
+    // ============================================
+    // INTERNAL
+    // ============================================
+    private String render(int index) {
+        FraudRule rule = rules.get(index);
+        int ordinal = Long.bitCount(mask & ((1L << index) - 1));
+        try {
+            return rule.renderReason(slice(ordinal));
+        } catch (RuntimeException e) {
+            return "Rule " + rule.getRuleName() + " triggered";
+        }
+    }
+
+    private ReasonParams slice(int ordinal) {
+        int numberFrom = ordinal == 0 ? 0 : numberEnds[ordinal - 1];
+        int textFrom = ordinal == 0 ? 0 : textEnds[ordinal - 1];
+        return params.view(numberFrom, numberEnds[ordinal], textFrom, textEnds[ordinal]);
+    }
+
+    private int indexOf(Object key) {
+        for (long bits = mask; bits != 0; bits &= bits - 1) {
+            int index = Long.numberOfTrailingZeros(bits);
+            if (rules.get(index).getRuleName().equals(key)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    // ============================================
+    // COMPACT JSON WRITER (ara Map / metin üretmeden)
+    // ============================================
+    public static final class CompactSerializer extends StdSerializer<RuleReasons> {
+
+        public CompactSerializer() {
+            super(RuleReasons.class);
+        }
+
+        @Override
+        public void serialize(RuleReasons reasons, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            int ordinal = 0;
+            for (long bits = reasons.mask; bits != 0; bits &= bits - 1, ordinal++) {
+                int index = Long.numberOfTrailingZeros(bits);
+                ReasonParams slice = reasons.slice(ordinal);
+                gen.writeArrayFieldStart(reasons.rules.get(index).getRuleName());
+                for (int i = 0; i < slice.numberCount(); i++) {
+                    double number = slice.getNumber(i);
+                    if (Double.isFinite(number)) {
+                        gen.writeNumber(number);
+                    } else {
+                        gen.writeNull();  // JSONB NaN / Infinity kabul etmez
+                    }
+                }
+                for (int i = 0; i < slice.textCount(); i++) {
+                    gen.writeString(slice.getText(i));
+                }
+                gen.writeEndArray();
+            }
+            if (reasons.fallbackKey != null) {
+                gen.writeStringField(reasons.fallbackKey, reasons.fallbackValue);
+            }
+            gen.writeEndObject();
+        }
+
+        @Override
+        public boolean isEmpty(SerializerProvider provider, RuleReasons value) {
+            return value.isEmpty();
+        }
+    }
+}
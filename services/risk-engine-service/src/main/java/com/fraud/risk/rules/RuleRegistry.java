@@ -0,0 +1,164 @@
+package com.fraud.risk.rules;
+
+import com.fraud.risk.rules.dsl.RuleCompiler;
+import com.fraud.risk.rules.dsl.RuleDefinition;
+import com.fraud.risk.rules.dsl.RuleDefinitionSource;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ============================================
+ * RULE REGISTRY
+ * ============================================
+ * Ne yapar?
+ * - Aktif kural setini tutar: Spring @Component kuralları + derlenmiş DSL kuralları
+ * - Aynı isimli DSL kuralı, @Component kuralını ezer (örn: high_amount puanı deploy'suz değişir)
+ * - Set öncelik sırasına göre bir kez sıralanır (event başına sort yok)
+ *
+ * Hot reload nasıl çalışır?
+ * 1. Kaynağın version() değeri periyodik kontrol edilir
+ * 2. Değiştiyse tüm tanımlar yeni bir listeye derlenir
+ * 3. Derleme başarılıysa AtomicReference tek hamlede swap edilir
+ * 4. Hata varsa eski set aktif kalır (yarım yüklenmiş set asla görünmez)
+ *
+ * Okuyucular kilit almaz: current() sadece volatile okuma.
+ */
+@Component
+public class RuleRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleRegistry.class);
+
+    private final List<FraudRule> componentRules;
+    private final RuleCompiler compiler;
+    private final RuleDefinitionSource source;
+
+    private final AtomicReference<List<FraudRule>> active = new AtomicReference<>(List.of());
+    private volatile String loadedVersion;
+
+    @Value("${fraud.rules.dsl.enabled:true}")
+    private boolean dslEnabled;
+
+    public RuleRegistry(List<FraudRule> componentRules,
+                        RuleCompiler compiler,
+                        ObjectProvider<RuleDefinitionSource> source) {
+        this.componentRules = List.copyOf(componentRules);
+        this.compiler = compiler;
+        this.source = source.getIfAvailable();
+    }
+
+    @PostConstruct
+    public void init() {
+        active.set(build(List.of()));
+        if (dslEnabled && source != null) {
+            try {
+                reload();
+            } catch (Exception e) {
+                // Başlangıçta hatalı DSL → sadece @Component kuralları ile devam et
+                logger.error("Initial rule load failed ({}), using component rules only: {}",
+                        source.describe(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Aktif kural seti (öncelik sırasına göre, değiştirilemez liste)
+     */
+    public List<FraudRule> current() {
+        return active.get();
+    }
+
+    /**
+     * ============================================
+     * POLL FOR CHANGES
+     * ============================================
+     * Kaynağın sürümü değiştiyse yeniden yükle
+     */
+    @Scheduled(fixedDelayString = "${fraud.rules.dsl.reload-interval-ms:30000}",
+            initialDelayString = "${fraud.rules.dsl.reload-interval-ms:30000}")
+    public void pollForChanges() {
+        if (!dslEnabled || source == null) {
+            return;
+        }
+        try {
+            String version = source.version();
+            if (!version.equals(loadedVersion)) {
+                reload();
+            }
+        } catch (IllegalArgumentException e) {
+            logger.error("Rule reload rejected, keeping previous rule set: {}", e.getMessage());
+        } catch (Exception e) {
+            logger.error("Rule source check failed ({}): {}", source.describe(), e.getMessage());
+        }
+    }
+
+    /**
+     * ============================================
+     * RELOAD (ATOMIC SWAP)
+     * ============================================
+     * @return Aktif kural sayısı
+     * @throws IllegalArgumentException Tanımlardan biri derlenemezse (eski set korunur)
+     */
+    public synchronized int reload() {
+        if (source == null) {
+            throw new IllegalStateException("No rule definition source configured");
+        }
+
+        String version = source.version();
+        List<FraudRule> compiled = new ArrayList<>();
+        for (RuleDefinition definition : source.load()) {
+            if (definition.isEnabled()) {
+                compiled.add(compiler.compile(definition));
+            }
+        }
+
+        List<FraudRule> next = build(compiled);
+        active.set(next);
+        loadedVersion = version;
+
+        logger.info("Rule set loaded from {} (version {}): {} DSL rules, {} active rules",
+                source.describe(), version, compiled.size(), next.size());
+        return next.size();
+    }
+
+    /**
+     * @Component kuralları + verilen DSL kuralları ile (aktif seti değiştirmeden) yeni bir set kurar
+     * Shadow (challenger) kural seti bunu kullanır
+     */
+    public List<FraudRule> withOverrides(List<FraudRule> dslRules) {
+        return build(dslRules);
+    }
+
+    private List<FraudRule> build(List<FraudRule> dslRules) {
+        Map<String, FraudRule> byName = new LinkedHashMap<>();
+        for (FraudRule rule : componentRules) {
+            byName.put(rule.getRuleName(), rule);
+        }
+        for (FraudRule rule : dslRules) {
+            FraudRule replaced = byName.put(rule.getRuleName(), rule);
+            if (replaced != null) {
+                logger.debug("DSL rule overrides component rule: {}", rule.getRuleName());
+            }
+        }
+
+        // Tetiklenen kurallar skor başına bir long bitmask'te tutulur (RuleReasons)
+        if (byName.size() > RuleReasons.MAX_RULES) {
+            throw new IllegalArgumentException("Too many rules: " + byName.size() + " (max " + RuleReasons.MAX_RULES + ")");
+        }
+
+        List<FraudRule> sorted = new ArrayList<>(byName.values());
+        sorted.sort(Comparator.comparingInt(FraudRule::getPriority).reversed());
+        return List.copyOf(sorted);
+    }
+}
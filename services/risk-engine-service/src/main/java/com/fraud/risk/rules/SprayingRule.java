@@ -0,0 +1,134 @@
+package com.fraud.risk.rules;
+
+import com.fraud.risk.aggregate.CustomerSketches;
+import com.fraud.risk.model.CustomerProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * ============================================
+ * SPRAYING RULE
+ * ============================================
+ * Ne yapar?
+ * - Müşterinin kayan penceredeki farklı lokasyon / merchant kategorisi sayısına bakar
+ * - Kısa sürede çok sayıda farklı yer / kategori → şüpheli
+ *
+ * Örnek (pencere 24 saat):
+ * - Istanbul, Izmir, Bursa, Antalya, Trabzon'dan işlem → 5 farklı lokasyon > 4, 20 puan
+ * - Aynı gün 7 farklı kategori (electronics, jewelry, gift_cards...) → 20 puan
+ *
+ * Neden?
+ * - Çalıntı kart bilgisi genelde hızlıca "dağıtılır": çok sayıda merchant / şehirde küçük denemeler
+ * - LocationAnomalyRule tek lokasyona bakar, bu kural dağılıma
+ *
+ * Not: Sayılar HyperLogLog tahmini (küçük sayılarda neredeyse kesin)
+ */
+@Component
+public class SprayingRule implements FraudRule {
+
+    private static final Logger logger = LoggerFactory.getLogger(SprayingRule.class);
+
+    private final CustomerSketches sketches;
+
+    // Reason: sayılar [farklı sayısı, limit, pencere saat] + metin [boyut]
+    private final ThreadLocal<double[]> observation = ThreadLocal.withInitial(() -> new double[CustomerSketches.FIELDS]);
+    private final ThreadLocal<ReasonParams> reason = ThreadLocal.withInitial(ReasonParams::new);
+
+    @Value("${fraud.rules.spraying.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fraud.rules.spraying.max-locations:4}")
+    private int maxLocations;
+
+    @Value("${fraud.rules.spraying.max-merchant-categories:6}")
+    private int maxMerchantCategories;
+
+    @Value("${fraud.rules.spraying.score:20}")
+    private int score;
+
+    public SprayingRule(CustomerSketches sketches) {
+        this.sketches = sketches;
+    }
+
+    @Override
+    public int evaluate(
+            String transactionId,
+            String customerId,
+            BigDecimal amount,
+            String merchantCategory,
+            String location,
+            LocalDateTime timestamp,
+            CustomerProfile customerProfile) {
+
+        // Kapalıyken de eklenir → NoveltyRule ve sketch'ler güncel kalır
+        double[] result = observation.get();
+        if (!sketches.observe(customerId, transactionId, location, merchantCategory, timestamp, result) || !enabled) {
+            return 0;
+        }
+
+        // HLL tahmini kesirli: en yakın tam sayıya yuvarlanır
+        long locations = Math.round(result[CustomerSketches.DISTINCT_LOCATIONS]);
+        long categories = Math.round(result[CustomerSketches.DISTINCT_CATEGORIES]);
+
+        logger.debug("Spraying Rule - Customer: {}, Distinct Locations: {}, Distinct Categories: {}",
+                customerId, locations, categories);
+
+        ReasonParams params = reason.get();
+        params.clear();
+        double windowHours = sketches.getWindowMinutes() / 60.0;
+        if (locations > maxLocations) {
+            params.add(locations).add(maxLocations).add(windowHours).addText("locations");
+        } else if (categories > maxMerchantCategories) {
+            params.add(categories).add(maxMerchantCategories).add(windowHours).addText("merchant categories");
+        } else {
+            return 0;
+        }
+
+        logger.info("SPRAYING RULE TRIGGERED - Transaction: {}, Distinct {}: {}",
+                transactionId, params.getText(0), (long) params.getNumber(0));
+
+        return score;
+    }
+
+    // Müşteri sketch'ine işlemi ekler → shadow tekrar çalıştırmaz
+    @Override
+    public boolean isStateful() {
+        return true;
+    }
+
+    @Override
+    public String getRuleName() {
+        return "spraying";
+    }
+
+    @Override
+    public String getReason() {
+        return renderReason(reason.get());
+    }
+
+    @Override
+    public void captureReason(ReasonParams params) {
+        params.addAll(reason.get());
+    }
+
+    @Override
+    public int getReasonNumberCount() {
+        return 3;
+    }
+
+    @Override
+    public String renderReason(ReasonParams params) {
+        return String.format("%.0f distinct %s within ~%.0fh (max %.0f)",
+                params.getNumber(0), params.getText(0), params.getNumber(2), params.getNumber(1));
+    }
+
+    @Override
+    public int getPriority() {
+        return 6;  // LocationAnomalyRule ile aynı seviye
+    }
+}
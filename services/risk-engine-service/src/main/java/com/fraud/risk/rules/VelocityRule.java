@@ -29,7 +29,7 @@ import java.time.LocalDateTime;
 public class VelocityRule implements FraudRule {
 
     private static final Logger logger = LoggerFactory.getLogger(VelocityRule.class);
-    private String reason;
+    private final ThreadLocal<String> reason = new ThreadLocal<>();
 
     // Not: Gerçek implementasyon için TransactionRepository inject edilmeli
     // Bu basit versiyonda sadece örnek gösteriyoruz
@@ -62,7 +62,8 @@ public class VelocityRule implements FraudRule {
 
     @Override
     public String getReason() {
-        return this.reason != null ? this.reason : "Velocity check passed";
+        String current = this.reason.get();
+        return current != null ? current : "Velocity check passed";
     }
 
     @Override
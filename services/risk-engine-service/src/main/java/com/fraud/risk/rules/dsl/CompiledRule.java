@@ -0,0 +1,129 @@
+package com.fraud.risk.rules.dsl;
+
+import com.fraud.risk.model.CustomerProfile;
+import com.fraud.risk.rules.FraudRule;
+import com.fraud.risk.rules.ReasonParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * ============================================
+ * COMPILED RULE
+ * ============================================
+ * Ne yapar?
+ * - RuleDefinition'dan derlenmiş, çalışmaya hazır kural
+ * - FraudRule contract'ını aynen uygular (RiskEngineService farkı bilmez)
+ *
+ * Neden hızlı?
+ * - Koşul yükleme anında lambda zincirine çevrildi (RuleCompiler)
+ * - Event başına JSON / string parse yok, sadece field okuma + karşılaştırma
+ * - Tetiklenince sadece placeholder değerleri yakalanır, reason metni render'da üretilir
+ *
+ * Not: Reason parametreleri ThreadLocal'da tutulur, çünkü aynı CompiledRule birden fazla
+ * listener thread'i tarafından aynı anda çalıştırılabilir.
+ */
+public class CompiledRule implements FraudRule {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompiledRule.class);
+
+    private final String name;
+    private final int priority;
+    private final int score;
+    private final RuleCondition condition;
+    private final ReasonTemplate reasonTemplate;
+    private final ThreadLocal<ReasonParams> reason = ThreadLocal.withInitial(ReasonParams::new);
+
+    public CompiledRule(String name, int priority, int score,
+                        RuleCondition condition, ReasonTemplate reasonTemplate) {
+        this.name = name;
+        this.priority = priority;
+        this.score = score;
+        this.condition = condition;
+        this.reasonTemplate = reasonTemplate;
+    }
+
+    @Override
+    public int evaluate(
+            String transactionId,
+            String customerId,
+            BigDecimal amount,
+            String merchantCategory,
+            String location,
+            LocalDateTime timestamp,
+            CustomerProfile customerProfile) {
+
+        if (!condition.test(customerId, amount, merchantCategory, location, timestamp, customerProfile)) {
+            return 0;
+        }
+
+        ReasonParams params = this.reason.get();
+        params.clear();
+        reasonTemplate.capture(params, customerId, amount, merchantCategory, location, timestamp, customerProfile);
+
+        // Reason burada render edilmez (com.fraud.risk DEBUG'da bile): metin sadece okunduğunda üretilir
+        logger.debug("DSL RULE TRIGGERED ({}) - Transaction: {}", name, transactionId);
+
+        return score;
+    }
+
+    @Override
+    public String getRuleName() {
+        return name;
+    }
+
+    @Override
+    public String getReason() {
+        return reasonTemplate.render(reason.get());
+    }
+
+    @Override
+    public void captureReason(ReasonParams params) {
+        params.addAll(reason.get());
+    }
+
+    @Override
+    public String renderReason(ReasonParams params) {
+        return reasonTemplate.render(params);
+    }
+
+    @Override
+    public int getReasonNumberCount() {
+        return reasonTemplate.numberCount();
+    }
+
+    @Override
+    public int getPriority() {
+        return priority;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Derlenmiş reason şablonu
+     * - capture: kural tetiklendiğinde placeholder değerlerini yazar (sayılar + metinler, şablon sırasıyla)
+     * - render: aynı parametrelerden metin (kaydedilmiş reason'lar için de)
+     */
+    public interface ReasonTemplate {
+        void capture(
+                ReasonParams params,
+                String customerId,
+                BigDecimal amount,
+                String merchantCategory,
+                String location,
+                LocalDateTime timestamp,
+                CustomerProfile profile
+        );
+
+        String render(ReasonParams params);
+
+        /**
+         * Şablondaki sayı placeholder'larının adedi (metin placeholder'ları bunlardan sonra saklanır)
+         */
+        int numberCount();
+    }
+}
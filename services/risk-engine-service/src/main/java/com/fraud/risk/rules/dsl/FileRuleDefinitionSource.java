@@ -0,0 +1,75 @@
+package com.fraud.risk.rules.dsl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * ============================================
+ * FILE RULE DEFINITION SOURCE
+ * ============================================
+ * Ne yapar?
+ * - Kural tanımlarını JSON dosyasından okur (JSON array)
+ * - Konum: fraud.rules.dsl.location (örn: file:/etc/fraud/rules.json)
+ * - Sürüm: dosyanın lastModified değeri
+ *
+ * Not: classpath içindeki (jar) dosyalar değişmez, sadece başlangıçta yüklenir.
+ */
+@Component
+@ConditionalOnProperty(name = "fraud.rules.dsl.source", havingValue = "file", matchIfMissing = true)
+public class FileRuleDefinitionSource implements RuleDefinitionSource {
+
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+    private final String location;
+
+    /**
+     * @param location Spring resource konumu; shadow (challenger) seti için de ayrı instance oluşturulur
+     */
+    public FileRuleDefinitionSource(ResourceLoader resourceLoader, ObjectMapper objectMapper,
+                                    @Value("${fraud.rules.dsl.location:classpath:rules/fraud-rules.json}") String location) {
+        this.resourceLoader = resourceLoader;
+        this.objectMapper = objectMapper;
+        this.location = location;
+    }
+
+    @Override
+    public String version() {
+        Resource resource = resourceLoader.getResource(location);
+        if (!resource.exists()) {
+            return "missing";
+        }
+        try {
+            return Long.toString(resource.lastModified());
+        } catch (IOException e) {
+            return "static";  // Jar içi kaynaklarda mtime yok
+        }
+    }
+
+    @Override
+    public List<RuleDefinition> load() {
+        Resource resource = resourceLoader.getResource(location);
+        if (!resource.exists()) {
+            return List.of();
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return objectMapper.readValue(in, new TypeReference<List<RuleDefinition>>() {});
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read rule definitions from " + location, e);
+        }
+    }
+
+    @Override
+    public String describe() {
+        return location;
+    }
+}
@@ -0,0 +1,63 @@
+package com.fraud.risk.rules.dsl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * ============================================
+ * JDBC RULE DEFINITION SOURCE
+ * ============================================
+ * Ne yapar?
+ * - Kural tanımlarını rule_definitions tablosundan okur
+ * - Her satırın definition kolonu bir RuleDefinition JSON'u
+ * - Sürüm: COUNT(*) + MAX(updated_at) → satır eklenince/güncellenince değişir
+ *
+ * Neden JdbcTemplate (JPA değil)?
+ * - Sadece okuma, entity yönetimine gerek yok
+ */
+@Component
+@ConditionalOnProperty(name = "fraud.rules.dsl.source", havingValue = "database")
+public class JdbcRuleDefinitionSource implements RuleDefinitionSource {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public JdbcRuleDefinitionSource(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String version() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) || ':' || COALESCE(MAX(updated_at)::text, '') FROM rule_definitions",
+                String.class);
+    }
+
+    @Override
+    public List<RuleDefinition> load() {
+        return jdbcTemplate.query(
+                "SELECT rule_name, definition::text AS definition, enabled FROM rule_definitions",
+                (rs, rowNum) -> {
+                    try {
+                        RuleDefinition definition = objectMapper.readValue(rs.getString("definition"), RuleDefinition.class);
+                        definition.setName(rs.getString("rule_name"));
+                        definition.setEnabled(rs.getBoolean("enabled"));
+                        return definition;
+                    } catch (JsonProcessingException e) {
+                        throw new IllegalArgumentException(
+                                "Invalid definition for rule '" + rs.getString("rule_name") + "'", e);
+                    }
+                });
+    }
+
+    @Override
+    public String describe() {
+        return "table rule_definitions";
+    }
+}
@@ -0,0 +1,418 @@
+package com.fraud.risk.rules.dsl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fraud.risk.model.CustomerProfile;
+import com.fraud.risk.rules.ReasonParams;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * ============================================
+ * RULE COMPILER
+ * ============================================
+ * Ne yapar?
+ * - RuleDefinition (JSON) → CompiledRule (lambda zinciri)
+ * - Tüm field isimleri, operatörler ve sabitler burada çözülür
+ * - Hatalı tanım → IllegalArgumentException (reload reddedilir, eski set kalır)
+ *
+ * Desteklenen koşullar:
+ * - { "all": [ ... ] }, { "any": [ ... ] }, { "not": { ... } }
+ * - Sayısal: { "field": "amount", "op": "gt|gte|lt|lte|eq", "value": 1000 }
+ *            { "field": "amount", "op": "gt", "ref": "profile.avgAmount", "factor": 3 }
+ *            { "field": "hour", "op": "between", "values": [0, 5] }
+ * - Metin:   { "field": "merchantCategory", "op": "in|notIn", "values": ["jewelry"] }
+ *            { "field": "location", "op": "notIn", "ref": "profile.frequentLocations" }
+ * - Varlık:  { "field": "profile.avgAmount", "op": "exists|missing" }
+ *
+ * Field'lar:
+ * - Sayısal: amount, hour, dayOfWeek, profile.avgAmount, profile.medianAmount,
+ *            profile.stdAmount, profile.transactionCount
+ * - Metin:   customerId, merchantCategory, location
+ * - Küme:    profile.frequentLocations, profile.merchantCategories
+ *
+ * Not: Eksik sayısal değer NaN olarak okunur, NaN ile her karşılaştırma false döner.
+ * Yani profil yoksa profile.* koşulları tetiklenmez (mevcut kurallarla aynı davranış).
+ */
+@Component
+public class RuleCompiler {
+
+    public CompiledRule compile(RuleDefinition definition) {
+        String name = definition.getName();
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Rule name is required");
+        }
+        if (definition.getWhen() == null) {
+            throw new IllegalArgumentException("Rule '" + name + "' has no 'when' condition");
+        }
+        if (definition.getScore() <= 0 || definition.getScore() > 100) {
+            throw new IllegalArgumentException("Rule '" + name + "' score must be between 1 and 100");
+        }
+
+        RuleCondition condition = compileCondition(name, definition.getWhen());
+        CompiledRule.ReasonTemplate reason = compileReason(name, definition.getReason());
+
+        return new CompiledRule(name, definition.getPriority(), definition.getScore(), condition, reason);
+    }
+
+    // ============================================
+    // CONDITIONS
+    // ============================================
+    private RuleCondition compileCondition(String rule, JsonNode node) {
+        if (node.has("all")) {
+            RuleCondition[] parts = compileAll(rule, node.get("all"));
+            return (c, a, m, l, t, p) -> {
+                for (RuleCondition part : parts) {
+                    if (!part.test(c, a, m, l, t, p)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+        if (node.has("any")) {
+            RuleCondition[] parts = compileAll(rule, node.get("any"));
+            return (c, a, m, l, t, p) -> {
+                for (RuleCondition part : parts) {
+                    if (part.test(c, a, m, l, t, p)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+        if (node.has("not")) {
+            RuleCondition inner = compileCondition(rule, node.get("not"));
+            return (c, a, m, l, t, p) -> !inner.test(c, a, m, l, t, p);
+        }
+
+        String field = requireText(rule, node, "field");
+        String op = requireText(rule, node, "op");
+
+        if (op.equals("exists") || op.equals("missing")) {
+            return compileExists(rule, field, op.equals("exists"));
+        }
+        if (op.equals("in") || op.equals("notIn")) {
+            return compileMembership(rule, node, field, op.equals("in"));
+        }
+        return compileComparison(rule, node, field, op);
+    }
+
+    private RuleCondition[] compileAll(String rule, JsonNode array) {
+        if (!array.isArray() || array.isEmpty()) {
+            throw new IllegalArgumentException("Rule '" + rule + "': all/any needs a non-empty array");
+        }
+        List<RuleCondition> parts = new ArrayList<>();
+        for (JsonNode child : array) {
+            parts.add(compileCondition(rule, child));
+        }
+        return parts.toArray(new RuleCondition[0]);
+    }
+
+    private RuleCondition compileComparison(String rule, JsonNode node, String field, String op) {
+        NumericField left = numericField(rule, field);
+
+        if (op.equals("between")) {
+            JsonNode values = node.get("values");
+            if (values == null || !values.isArray() || values.size() != 2) {
+                throw new IllegalArgumentException("Rule '" + rule + "': between needs values [min, max]");
+            }
+            double min = values.get(0).asDouble();
+            double max = values.get(1).asDouble();
+            return (c, a, m, l, t, p) -> {
+                double v = left.get(c, a, m, l, t, p);
+                return v >= min && v <= max;
+            };
+        }
+
+        // Sağ taraf: sabit değer veya başka bir field (opsiyonel çarpan ile)
+        if (node.has("ref")) {
+            NumericField right = numericField(rule, node.get("ref").asText());
+            double factor = node.has("factor") ? node.get("factor").asDouble() : 1.0;
+            return switch (op) {
+                case "gt" -> (c, a, m, l, t, p) -> left.get(c, a, m, l, t, p) > right.get(c, a, m, l, t, p) * factor;
+                case "gte" -> (c, a, m, l, t, p) -> left.get(c, a, m, l, t, p) >= right.get(c, a, m, l, t, p) * factor;
+                case "lt" -> (c, a, m, l, t, p) -> left.get(c, a, m, l, t, p) < right.get(c, a, m, l, t, p) * factor;
+                case "lte" -> (c, a, m, l, t, p) -> left.get(c, a, m, l, t, p) <= right.get(c, a, m, l, t, p) * factor;
+                case "eq" -> (c, a, m, l, t, p) -> left.get(c, a, m, l, t, p) == right.get(c, a, m, l, t, p) * factor;
+                default -> throw new IllegalArgumentException("Rule '" + rule + "': unknown operator " + op);
+            };
+        }
+
+        if (!node.has("value") || !node.get("value").isNumber()) {
+            throw new IllegalArgumentException("Rule '" + rule + "': " + op + " needs a numeric 'value' or a 'ref'");
+        }
+        double value = node.get("value").asDouble();
+        return switch (op) {
+            case "gt" -> (c, a, m, l, t, p) -> left.get(c, a, m, l, t, p) > value;
+            case "gte" -> (c, a, m, l, t, p) -> left.get(c, a, m, l, t, p) >= value;
+            case "lt" -> (c, a, m, l, t, p) -> left.get(c, a, m, l, t, p) < value;
+            case "lte" -> (c, a, m, l, t, p) -> left.get(c, a, m, l, t, p) <= value;
+            case "eq" -> (c, a, m, l, t, p) -> left.get(c, a, m, l, t, p) == value;
+            default -> throw new IllegalArgumentException("Rule '" + rule + "': unknown operator " + op);
+        };
+    }
+
+    private RuleCondition compileMembership(String rule, JsonNode node, String field, boolean in) {
+        TextField text = textField(rule, field);
+
+        if (node.has("ref")) {
+            SetField set = setField(rule, node.get("ref").asText());
+            // Profil yoksa (veya metin yoksa) kural tetiklenmez
+            return (c, a, m, l, t, p) -> {
+                String v = text.get(c, a, m, l, t, p);
+                if (v == null || p == null) {
+                    return false;
+                }
+                return set.contains(p, v) == in;
+            };
+        }
+
+        JsonNode values = node.get("values");
+        if (values == null || !values.isArray()) {
+            throw new IllegalArgumentException("Rule '" + rule + "': " + (in ? "in" : "notIn") + " needs 'values' or 'ref'");
+        }
+        Set<String> constants = new HashSet<>();
+        values.forEach(v -> constants.add(v.asText()));
+        return (c, a, m, l, t, p) -> {
+            String v = text.get(c, a, m, l, t, p);
+            return v != null && constants.contains(v) == in;
+        };
+    }
+
+    private RuleCondition compileExists(String rule, String field, boolean exists) {
+        if (isNumericField(field)) {
+            NumericField numeric = numericField(rule, field);
+            return (c, a, m, l, t, p) -> Double.isNaN(numeric.get(c, a, m, l, t, p)) != exists;
+        }
+        TextField text = textField(rule, field);
+        return (c, a, m, l, t, p) -> (text.get(c, a, m, l, t, p) != null) == exists;
+    }
+
+    // ============================================
+    // FIELDS
+    // ============================================
+    private boolean isNumericField(String field) {
+        return switch (field) {
+            case "amount", "hour", "dayOfWeek", "profile.avgAmount", "profile.medianAmount",
+                 "profile.stdAmount", "profile.transactionCount" -> true;
+            default -> false;
+        };
+    }
+
+    private NumericField numericField(String rule, String field) {
+        return switch (field) {
+            case "amount" -> (c, a, m, l, t, p) -> a == null ? Double.NaN : a.doubleValue();
+            case "hour" -> (c, a, m, l, t, p) -> t == null ? Double.NaN : t.getHour();
+            case "dayOfWeek" -> (c, a, m, l, t, p) -> t == null ? Double.NaN : t.getDayOfWeek().getValue();
+            case "profile.avgAmount" -> (c, a, m, l, t, p) -> p == null ? Double.NaN : decimal(p.getAvgAmount());
+            case "profile.medianAmount" -> (c, a, m, l, t, p) -> p == null ? Double.NaN : decimal(p.getMedianAmount());
+            case "profile.stdAmount" -> (c, a, m, l, t, p) -> p == null ? Double.NaN : decimal(p.getStdAmount());
+            case "profile.transactionCount" -> (c, a, m, l, t, p) ->
+                    p == null || p.getTransactionCount() == null ? Double.NaN : p.getTransactionCount();
+            default -> throw new IllegalArgumentException("Rule '" + rule + "': unknown numeric field " + field);
+        };
+    }
+
+    private TextField textField(String rule, String field) {
+        return switch (field) {
+            case "customerId" -> (c, a, m, l, t, p) -> c;
+            case "merchantCategory" -> (c, a, m, l, t, p) -> m;
+            case "location" -> (c, a, m, l, t, p) -> l;
+            default -> throw new IllegalArgumentException("Rule '" + rule + "': unknown text field " + field);
+        };
+    }
+
+    private SetField setField(String rule, String field) {
+        return switch (field) {
+            // Helper'lar üzerinden: off-heap profil view'ı liste / map üretmeden cevaplar
+            case "profile.frequentLocations" -> CustomerProfile::isLocationFrequent;
+            case "profile.merchantCategories" -> CustomerProfile::hasMerchantCategory;
+            default -> throw new IllegalArgumentException("Rule '" + rule + "': unknown set field " + field);
+        };
+    }
+
+    private static double decimal(BigDecimal value) {
+        return value == null ? Double.NaN : value.doubleValue();
+    }
+
+    // ============================================
+    // REASON TEMPLATE
+    // ============================================
+    /**
+     * "Amount ({amount}) is {amount/profile.avgAmount:%.1f}x average" gibi şablonları
+     * parça listesine çevirir. Sayılar varsayılan olarak %.2f ile yazılır.
+     */
+    private CompiledRule.ReasonTemplate compileReason(String rule, String template) {
+        if (template == null || template.isBlank()) {
+            return new PartsTemplate(new ReasonPart[]{literal("Rule " + rule + " triggered")}, 0, 0);
+        }
+
+        List<ReasonPart> parts = new ArrayList<>();
+        int[] counters = new int[2];  // [sayı index'i, metin index'i] → placeholder'ın params'taki yeri
+        int pos = 0;
+        while (pos < template.length()) {
+            int open = template.indexOf('{', pos);
+            if (open < 0) {
+                parts.add(literal(template.substring(pos)));
+                break;
+            }
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Rule '" + rule + "': unclosed placeholder in reason");
+            }
+            if (open > pos) {
+                parts.add(literal(template.substring(pos, open)));
+            }
+            parts.add(compilePlaceholder(rule, template.substring(open + 1, close), counters));
+            pos = close + 1;
+        }
+
+        return new PartsTemplate(parts.toArray(new ReasonPart[0]), template.length(), counters[0]);
+    }
+
+    private ReasonPart compilePlaceholder(String rule, String placeholder, int[] counters) {
+        String expression = placeholder;
+        String format = "%.2f";
+        int colon = placeholder.indexOf(':');
+        if (colon >= 0) {
+            expression = placeholder.substring(0, colon);
+            format = placeholder.substring(colon + 1);
+        }
+
+        int slash = expression.indexOf('/');
+        if (slash >= 0) {
+            NumericField top = numericField(rule, expression.substring(0, slash).trim());
+            NumericField bottom = numericField(rule, expression.substring(slash + 1).trim());
+            return number(counters[0]++, format,
+                    (c, a, m, l, t, p) -> top.get(c, a, m, l, t, p) / bottom.get(c, a, m, l, t, p));
+        }
+        if (isNumericField(expression)) {
+            return number(counters[0]++, format, numericField(rule, expression));
+        }
+        return text(counters[1]++, textField(rule, expression));
+    }
+
+    private static ReasonPart literal(String literal) {
+        return new ReasonPart() {
+            @Override
+            public void capture(ReasonParams params, String c, BigDecimal a, String m, String l,
+                                LocalDateTime t, CustomerProfile p) {
+                // Sabit metin parametre taşımaz
+            }
+
+            @Override
+            public void render(StringBuilder sb, ReasonParams params) {
+                sb.append(literal);
+            }
+        };
+    }
+
+    private static ReasonPart number(int index, String format, NumericField field) {
+        return new ReasonPart() {
+            @Override
+            public void capture(ReasonParams params, String c, BigDecimal a, String m, String l,
+                                LocalDateTime t, CustomerProfile p) {
+                params.add(field.get(c, a, m, l, t, p));
+            }
+
+            @Override
+            public void render(StringBuilder sb, ReasonParams params) {
+                sb.append(String.format(format, params.getNumber(index)));
+            }
+        };
+    }
+
+    private static ReasonPart text(int index, TextField field) {
+        return new ReasonPart() {
+            @Override
+            public void capture(ReasonParams params, String c, BigDecimal a, String m, String l,
+                                LocalDateTime t, CustomerProfile p) {
+                params.addText(field.get(c, a, m, l, t, p));
+            }
+
+            @Override
+            public void render(StringBuilder sb, ReasonParams params) {
+                sb.append(params.getText(index));
+            }
+        };
+    }
+
+    /**
+     * Parça listesinden derlenmiş şablon: capture sırayla değerleri yazar, render sırayla okur
+     */
+    private static final class PartsTemplate implements CompiledRule.ReasonTemplate {
+
+        private final ReasonPart[] parts;
+        private final int sizeHint;
+        private final int numberCount;
+
+        PartsTemplate(ReasonPart[] parts, int sizeHint, int numberCount) {
+            this.parts = parts;
+            this.sizeHint = sizeHint;
+            this.numberCount = numberCount;
+        }
+
+        @Override
+        public void capture(ReasonParams params, String customerId, BigDecimal amount, String merchantCategory,
+                            String location, LocalDateTime timestamp, CustomerProfile profile) {
+            for (ReasonPart part : parts) {
+                part.capture(params, customerId, amount, merchantCategory, location, timestamp, profile);
+            }
+        }
+
+        @Override
+        public String render(ReasonParams params) {
+            StringBuilder sb = new StringBuilder(sizeHint + 32);
+            for (ReasonPart part : parts) {
+                part.render(sb, params);
+            }
+            return sb.toString();
+        }
+
+        @Override
+        public int numberCount() {
+            return numberCount;
+        }
+    }
+
+    // ============================================
+    // INTERNAL FUNCTIONAL TYPES
+    // ============================================
+    @FunctionalInterface
+    interface NumericField {
+        double get(String customerId, BigDecimal amount, String merchantCategory, String location,
+                   LocalDateTime timestamp, CustomerProfile profile);
+    }
+
+    @FunctionalInterface
+    interface TextField {
+        String get(String customerId, BigDecimal amount, String merchantCategory, String location,
+                   LocalDateTime timestamp, CustomerProfile profile);
+    }
+
+    @FunctionalInterface
+    interface SetField {
+        boolean contains(CustomerProfile profile, String value);
+    }
+
+    interface ReasonPart {
+        void capture(ReasonParams params, String customerId, BigDecimal amount, String merchantCategory,
+                     String location, LocalDateTime timestamp, CustomerProfile profile);
+
+        void render(StringBuilder sb, ReasonParams params);
+    }
+
+    private static String requireText(String rule, JsonNode node, String key) {
+        JsonNode value = node.get(key);
+        if (value == null || !value.isTextual()) {
+            throw new IllegalArgumentException("Rule '" + rule + "': missing '" + key + "' in " + node);
+        }
+        return value.asText();
+    }
+}
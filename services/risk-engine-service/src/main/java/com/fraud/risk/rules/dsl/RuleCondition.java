@@ -0,0 +1,31 @@
+package com.fraud.risk.rules.dsl;
+
+import com.fraud.risk.model.CustomerProfile;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * ============================================
+ * RULE CONDITION
+ * ============================================
+ * Ne yapar?
+ * - Derlenmiş bir DSL koşulu (lambda)
+ * - FraudRule.evaluate() parametrelerini doğrudan alır
+ *
+ * Neden ayrı bir wrapper nesnesi yok?
+ * - Her event için context objesi oluşturmamak için (allocation yok)
+ * - JIT küçük lambda zincirlerini kolayca inline eder
+ */
+@FunctionalInterface
+public interface RuleCondition {
+
+    boolean test(
+            String customerId,
+            BigDecimal amount,
+            String merchantCategory,
+            String location,
+            LocalDateTime timestamp,
+            CustomerProfile profile
+    );
+}
@@ -0,0 +1,52 @@
+package com.fraud.risk.rules.dsl;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ============================================
+ * RULE DEFINITION (DSL)
+ * ============================================
+ * Ne yapar?
+ * - Bir fraud kuralının deklaratif tanımı (JSON)
+ * - Dosyadan veya rule_definitions tablosundan okunur
+ * - RuleCompiler bunu FraudRule'a derler (lambda zinciri)
+ *
+ * Örnek:
+ * {
+ *   "name": "high_amount",
+ *   "priority": 7,
+ *   "score": 30,
+ *   "when": { "field": "amount", "op": "gt", "ref": "profile.avgAmount", "factor": 3 },
+ *   "reason": "Amount ({amount}) is {amount/profile.avgAmount}x customer average ({profile.avgAmount})"
+ * }
+ *
+ * Not: "when" ağacı JsonNode olarak tutulur, sadece yükleme anında yorumlanır.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RuleDefinition {
+
+    // Kural adı (reasons map'inde key olarak kullanılır)
+    private String name;
+
+    // Öncelik (1-10), FraudRule.getPriority() ile aynı anlam
+    private int priority = 5;
+
+    // Tetiklenince eklenecek puan
+    private int score;
+
+    // Koşul ağacı (all / any / not / field karşılaştırması)
+    private JsonNode when;
+
+    // Reason şablonu: {field} veya {a/b} placeholder'ları
+    private String reason;
+
+    // false ise yüklenmez
+    private boolean enabled = true;
+}
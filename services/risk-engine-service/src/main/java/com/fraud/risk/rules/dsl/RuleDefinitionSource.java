@@ -0,0 +1,33 @@
+package com.fraud.risk.rules.dsl;
+
+import java.util.List;
+
+/**
+ * ============================================
+ * RULE DEFINITION SOURCE
+ * ============================================
+ * Ne yapar?
+ * - DSL kural tanımlarının nereden geldiğini soyutlar
+ * - FileRuleDefinitionSource: JSON dosyası (classpath: veya file:)
+ * - JdbcRuleDefinitionSource: rule_definitions tablosu
+ *
+ * version() ucuz olmalı: RuleRegistry bunu periyodik olarak çağırır,
+ * değişmediyse load() hiç çalışmaz.
+ */
+public interface RuleDefinitionSource {
+
+    /**
+     * @return Kaynağın sürüm işareti (dosya için mtime, DB için max(updated_at))
+     */
+    String version();
+
+    /**
+     * @return Tüm kural tanımları (disabled olanlar dahil)
+     */
+    List<RuleDefinition> load();
+
+    /**
+     * @return Log'larda gösterilecek açıklama
+     */
+    String describe();
+}
@@ -0,0 +1,171 @@
+package com.fraud.risk.rules.geo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ============================================
+ * GEO TABLE (PRECOMPUTED)
+ * ============================================
+ * Ne yapar?
+ * - Lokasyon adlarını (Istanbul, İzmir, Izmit...) int id'ye çevirir
+ * - Tüm lokasyon çiftleri arası mesafe açılışta bir kez hesaplanır (float[n * n], km)
+ *
+ * Neden?
+ * - Skorlama sırasında I/O yok, trigonometri yok: distanceKm = tek dizi okuması
+ * - ~100 lokasyon → 10K float = 40 KB, L2 cache'e sığar
+ *
+ * Kaynak: fraud.rules.impossible-travel.geo-table (CSV: name,lat,lon,aliases)
+ *
+ * Ad çözümleme:
+ * - Önce ham string ile (gelen veri genelde aynı yazım → normalize maliyeti yok)
+ * - Yoksa normalize edilmiş hali ile (küçük harf, Türkçe karakter katlama, "Istanbul, TR" → "istanbul")
+ * - Sonuç ham string için hatırlanır (bilinmeyenler dahil, sınırlı sayıda)
+ */
+@Component
+public class GeoTable {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeoTable.class);
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final int MAX_RAW_ENTRIES = 10_000;
+    public static final int UNKNOWN = -1;
+
+    private final String[] names;
+    private final float[] distanceKm;
+    private final int size;
+
+    // normalize edilmiş ad / alias → id
+    private final Map<String, Integer> normalizedIndex;
+    // ham string → id (UNKNOWN dahil)
+    private final Map<String, Integer> rawIndex = new ConcurrentHashMap<>();
+
+    public GeoTable(ResourceLoader resourceLoader,
+                    @Value("${fraud.rules.impossible-travel.geo-table:classpath:geo/locations.csv}") String location) {
+        List<String> loadedNames = new ArrayList<>();
+        List<double[]> coordinates = new ArrayList<>();
+        Map<String, Integer> index = new HashMap<>();
+
+        Resource resource = resourceLoader.getResource(location);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split(",", -1);
+                if (columns.length < 3) {
+                    throw new IllegalArgumentException("Invalid geo table row: " + line);
+                }
+                int id = loadedNames.size();
+                loadedNames.add(columns[0].trim());
+                coordinates.add(new double[]{
+                        Math.toRadians(Double.parseDouble(columns[1].trim())),
+                        Math.toRadians(Double.parseDouble(columns[2].trim()))});
+
+                index.putIfAbsent(normalize(columns[0]), id);
+                if (columns.length > 3 && !columns[3].isBlank()) {
+                    for (String alias : columns[3].split("\\|")) {
+                        index.putIfAbsent(normalize(alias), id);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load geo table from " + location, e);
+        }
+
+        this.size = loadedNames.size();
+        this.names = loadedNames.toArray(new String[0]);
+        this.normalizedIndex = index;
+        this.distanceKm = new float[size * size];
+        for (int from = 0; from < size; from++) {
+            for (int to = from + 1; to < size; to++) {
+                float km = (float) haversine(coordinates.get(from), coordinates.get(to));
+                distanceKm[from * size + to] = km;
+                distanceKm[to * size + from] = km;
+            }
+        }
+
+        logger.info("Geo table loaded: {} locations, {} names/aliases from {}", size, index.size(), location);
+    }
+
+    /**
+     * @return lokasyon id'si veya UNKNOWN
+     */
+    public int resolve(String location) {
+        if (location == null) {
+            return UNKNOWN;
+        }
+        Integer id = rawIndex.get(location);
+        if (id != null) {
+            return id;
+        }
+        int resolved = normalizedIndex.getOrDefault(normalize(location), UNKNOWN);
+        // Serbest metin lokasyonlar belleği şişirmesin
+        if (rawIndex.size() < MAX_RAW_ENTRIES) {
+            rawIndex.put(location, resolved);
+        }
+        return resolved;
+    }
+
+    public float distanceKm(int from, int to) {
+        return distanceKm[from * size + to];
+    }
+
+    public String name(int id) {
+        return names[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    static String normalize(String value) {
+        int comma = value.indexOf(',');
+        String head = comma >= 0 ? value.substring(0, comma) : value;
+        StringBuilder normalized = new StringBuilder(head.length());
+        for (char c : head.toLowerCase(Locale.ROOT).toCharArray()) {
+            switch (c) {
+                // "İ".toLowerCase(ROOT) = "i" + birleşik nokta (U+0307); nokta harf değil, default atar
+                case 'ı' -> normalized.append('i');
+                case 'ş' -> normalized.append('s');
+                case 'ğ' -> normalized.append('g');
+                case 'ü' -> normalized.append('u');
+                case 'ö' -> normalized.append('o');
+                case 'ç' -> normalized.append('c');
+                case 'â' -> normalized.append('a');
+                default -> {
+                    if (Character.isLetter(c)) {
+                        normalized.append(c);
+                    }
+                }
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static double haversine(double[] from, double[] to) {
+        double dLat = to[0] - from[0];
+        double dLon = to[1] - from[1];
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(from[0]) * Math.cos(to[0]) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
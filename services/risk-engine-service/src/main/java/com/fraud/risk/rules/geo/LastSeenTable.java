@@ -0,0 +1,228 @@
+package com.fraud.risk.rules.geo;
+
+/**
+ * ============================================
+ * LAST SEEN TABLE (MÜŞTERİ → SON LOKASYON + ZAMAN)
+ * ============================================
+ * Ne yapar?
+ * - Her müşterinin son görülen lokasyon id'sini ve zamanını tutar
+ * - Değer tek long'a paketlenir: [locationId: 24 bit][epochSecond: 40 bit]
+ *
+ * Neden HashMap<String, Object> değil?
+ * - Müşteri başına entry + boxed değer + nesne başlıkları yerine:
+ *   String[] keys + long[] values (open addressing, linear probing)
+ * - Müşteri başına ~24 byte tablo yükü (key referansı + 2 long + int), allocation yok
+ *
+ * Eşzamanlılık:
+ * - Listener, senkron skorlama ve replay lane'leri aynı kural instance'ını kullanır
+ * - Tablo SEGMENTS parçaya bölünmüştür, her parça kendi kilidi (kısa, çekişmesiz)
+ *
+ * Idempotent: aynı transaction tekrar değerlendirilirse (Kafka redelivery)
+ * kendi yazdığı değer değil, ondan önceki değer döner.
+ * Bunun için slot başına önceki değer + son transaction id hash'i de tutulur.
+ *
+ * Changelog: setChangeListener ile her gerçek değişiklik (idempotent tekrar değil) segment
+ * kilidi altında bildirilir → aynı müşterinin değişiklikleri changelog'a bellekteki sırayla yazılır.
+ * restore() ile gelen değerler bildirilmez.
+ *
+ * Sınır:
+ * - Bir segment maxPerSegment'e ulaşırsa temizlenir (o segmentteki müşterilerin
+ *   bir sonraki işlemi "ilk görülme" sayılır - tespit kaçabilir ama bellek sınırlı kalır)
+ */
+public class LastSeenTable {
+
+    public static final long NONE = -1L;
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+    private static final long SECONDS_MASK = (1L << 40) - 1;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final int maxPerSegment;
+    private volatile ChangeListener changeListener;
+
+    public LastSeenTable(int maxCustomers) {
+        this.maxPerSegment = Math.max(16, maxCustomers / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Müşterinin önceki kaydını döner ve yenisini yazar
+     * Gelen kayıt öncekinden eskiyse (geç gelen / tekrar skorlanan event) yazılmaz
+     *
+     * @return önceki paketlenmiş değer veya NONE
+     */
+    public long getAndUpdate(String customerId, String transactionId, int locationId, long epochSecond) {
+        int hash = spread(customerId.hashCode());
+        int transactionHash = transactionId != null ? transactionId.hashCode() : 0;
+        return segments[hash & (SEGMENTS - 1)]
+                .getAndUpdate(customerId, hash >>> SEGMENT_BITS, transactionHash, pack(locationId, epochSecond));
+    }
+
+    /**
+     * Changelog'dan gelen değeri yazar (listener çağrılmaz)
+     * Mevcut değer daha yeniyse dokunmaz
+     */
+    public void restore(String customerId, long value) {
+        int hash = spread(customerId.hashCode());
+        segments[hash & (SEGMENTS - 1)].restore(customerId, hash >>> SEGMENT_BITS, value);
+    }
+
+    public void setChangeListener(ChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size;
+            }
+        }
+        return size;
+    }
+
+    public static long pack(int locationId, long epochSecond) {
+        return ((long) locationId << 40) | (epochSecond & SECONDS_MASK);
+    }
+
+    public static int locationId(long packed) {
+        return (int) (packed >>> 40);
+    }
+
+    public static long epochSecond(long packed) {
+        return packed & SECONDS_MASK;
+    }
+
+    private static int spread(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+
+    /**
+     * Segment kilidi altında çağrılır: kısa ve bloklamayan olmalı
+     */
+    @FunctionalInterface
+    public interface ChangeListener {
+        void onChange(String customerId, long value);
+    }
+
+    // ============================================
+    // SEGMENT (open addressing, linear probing)
+    // ============================================
+    private final class Segment {
+
+        private String[] keys;
+        private long[] values;
+        private long[] previousValues;
+        private int[] transactionHashes;
+        private int size;
+
+        Segment() {
+            allocate(64);
+        }
+
+        synchronized long getAndUpdate(String key, int hash, int transactionHash, long value) {
+            int mask = keys.length - 1;
+            int slot = hash & mask;
+            while (keys[slot] != null) {
+                if (keys[slot].equals(key)) {
+                    if (transactionHashes[slot] == transactionHash && values[slot] == value) {
+                        // Aynı transaction ikinci kez → ilk değerlendirmedeki cevap
+                        return previousValues[slot];
+                    }
+                    long previous = values[slot];
+                    if (epochSecond(value) >= epochSecond(previous)) {
+                        previousValues[slot] = previous;
+                        values[slot] = value;
+                        transactionHashes[slot] = transactionHash;
+                        notifyChange(key, value);
+                    }
+                    return previous;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            insert(key, hash, value, NONE, transactionHash);
+            notifyChange(key, value);
+            return NONE;
+        }
+
+        synchronized void restore(String key, int hash, long value) {
+            int mask = keys.length - 1;
+            int slot = hash & mask;
+            while (keys[slot] != null) {
+                if (keys[slot].equals(key)) {
+                    // Kendi yazdığımız değerin changelog'dan geri gelmesi → idempotency bilgisi korunur
+                    if (values[slot] != value && epochSecond(value) >= epochSecond(values[slot])) {
+                        previousValues[slot] = NONE;
+                        values[slot] = value;
+                        transactionHashes[slot] = 0;
+                    }
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            insert(key, hash, value, NONE, 0);
+        }
+
+        private void insert(String key, int hash, long value, long previousValue, int transactionHash) {
+            if (size >= maxPerSegment) {
+                allocate(64);
+            }
+            int mask = keys.length - 1;
+            int slot = hash & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            previousValues[slot] = previousValue;
+            transactionHashes[slot] = transactionHash;
+            if (++size > keys.length * 3 / 4) {
+                resize();
+            }
+        }
+
+        private void notifyChange(String key, long value) {
+            ChangeListener listener = changeListener;
+            if (listener != null) {
+                listener.onChange(key, value);
+            }
+        }
+
+        private void resize() {
+            String[] oldKeys = keys;
+            long[] oldValues = values;
+            long[] oldPrevious = previousValues;
+            int[] oldHashes = transactionHashes;
+            allocate(oldKeys.length * 2);
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == null) {
+                    continue;
+                }
+                int slot = (spread(oldKeys[i].hashCode()) >>> SEGMENT_BITS) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                previousValues[slot] = oldPrevious[i];
+                transactionHashes[slot] = oldHashes[i];
+                size++;
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new String[capacity];
+            values = new long[capacity];
+            previousValues = new long[capacity];
+            transactionHashes = new int[capacity];
+            size = 0;
+        }
+    }
+}
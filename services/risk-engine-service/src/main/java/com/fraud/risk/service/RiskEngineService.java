@@ -1,10 +1,14 @@
 package com.fraud.risk.service;
 
+import com.fraud.risk.alert.AlertBatchWriter;
 import com.fraud.risk.kafka.AlertProducer;
+import com.fraud.risk.ml.MlScoringClient;
 import com.fraud.risk.model.*;
-import com.fraud.risk.repository.CustomerProfileRepository;
-import com.fraud.risk.repository.RiskScoreRepository;
+import com.fraud.risk.profile.CustomerProfileProvider;
+import com.fraud.risk.repository.RiskScoreWriteRepository;
 import com.fraud.risk.rules.FraudRule;
+import com.fraud.risk.rules.RuleRegistry;
+import com.fraud.risk.shadow.ShadowScoringService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,7 +17,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -25,118 +28,156 @@ import java.util.Map;
  *
  * İş Akışı:
  * 1. Transaction al (Kafka'dan)
- * 2. Customer profile getir (Redis/PostgreSQL)
+ * 2. Customer profile getir (bellek içi ProfileStore, miss → PostgreSQL)
  * 3. Tüm fraud kurallarını çalıştır
- * 4. ML servisini çağır (fraud probability)
+ * 4. ML servisini çağır (fraud probability, kalan latency bütçesiyle sınırlı, circuit breaker)
  * 5. Hybrid skor hesapla: (rule_score * 0.6) + (ml_score * 40)
+ *    ML yoksa rules-only skor, reasons'ta "ml_fallback"
  * 6. Risk score kaydet (PostgreSQL)
- * 7. Eğer skor > threshold ise Alert gönder (Kafka)
+ * 7. Eğer skor > threshold ise Alert gönder (Kafka, müşteri bazlı pencerede birleştirilir)
+ *    ve review kuyruğuna yaz (alerts tablosu, asenkron batch)
+ * 8. Örneklenmişse challenger kural setiyle shadow skorla (ayrı executor)
  */
 @Service
 public class RiskEngineService {
 
     private static final Logger logger = LoggerFactory.getLogger(RiskEngineService.class);
 
-    private final List<FraudRule> fraudRules;
-    private final CustomerProfileRepository customerProfileRepository;
-    private final RiskScoreRepository riskScoreRepository;
+    private final RuleRegistry ruleRegistry;
+    private final CustomerProfileProvider customerProfileProvider;
+    private final RiskScoreWriteRepository riskScoreWriteRepository;
     private final AlertProducer alertProducer;
+    private final RiskScorer riskScorer;
+    private final ShadowScoringService shadowScoringService;
+    private final AlertBatchWriter alertBatchWriter;
+    private final RiskScoreCache riskScoreCache;
+    private final MlScoringClient mlScoringClient;
 
     @Value("${fraud.detection.alert-threshold:70}")
     private double alertThreshold;
 
+    // Transaction başına toplam skorlama bütçesi (profil + ML + kurallar + kayıt)
+    @Value("${fraud.scoring.budget-ms:300}")
+    private long budgetMs;
+
     public RiskEngineService(
-            List<FraudRule> fraudRules,
-            CustomerProfileRepository customerProfileRepository,
-            RiskScoreRepository riskScoreRepository,
-            AlertProducer alertProducer) {
-        this.fraudRules = fraudRules;
-        this.customerProfileRepository = customerProfileRepository;
-        this.riskScoreRepository = riskScoreRepository;
+            RuleRegistry ruleRegistry,
+            CustomerProfileProvider customerProfileProvider,
+            RiskScoreWriteRepository riskScoreWriteRepository,
+            AlertProducer alertProducer,
+            RiskScorer riskScorer,
+            ShadowScoringService shadowScoringService,
+            AlertBatchWriter alertBatchWriter,
+            RiskScoreCache riskScoreCache,
+            MlScoringClient mlScoringClient) {
+        this.ruleRegistry = ruleRegistry;
+        this.customerProfileProvider = customerProfileProvider;
+        this.riskScoreWriteRepository = riskScoreWriteRepository;
         this.alertProducer = alertProducer;
+        this.riskScorer = riskScorer;
+        this.shadowScoringService = shadowScoringService;
+        this.alertBatchWriter = alertBatchWriter;
+        this.riskScoreCache = riskScoreCache;
+        this.mlScoringClient = mlScoringClient;
     }
 
     /**
      * ============================================
      * ANALYZE TRANSACTION (MAIN LOGIC)
      * ============================================
+     * Skorla → PostgreSQL'e kaydet → alert gönder (manual-ack consumer yolu)
      */
     @Transactional
     public void analyzeTransaction(Transaction transaction) {
+        Evaluation evaluation = evaluate(transaction);
+        RiskScore riskScore = evaluation.getRiskScore();
+
+        // ========== 5. SAVE RISK SCORE ==========
+        // Transaction başına tek satır (unique index): senkron API başka bir instance'ta da olsa,
+        // redelivery de olsa skoru zaten yazılmışsa ikinci satır / ikinci alert yok
+        if (!riskScoreWriteRepository.insertIfAbsent(riskScore)) {
+            logger.debug("Transaction already scored, skipping persistence: {}", transaction.getTransactionId());
+            return;
+        }
+
+        // Lookup API için son skorlar cache'i (commit sonrası görünür olur)
+        riskScoreCache.put(riskScore);
+
+        // ========== 6. SEND ALERT IF HIGH RISK ==========
+        Alert alert = evaluation.getAlert();
+        if (alert != null) {
+            // AlertProducer aynı müşterinin alert'lerini pencere içinde birleştirir
+            alertProducer.sendAlert(alert);
+
+            // Review kuyruğu (alerts tablosu) - asenkron batch INSERT, burada beklenmez
+            alertBatchWriter.enqueue(alert);
+
+            logger.debug("High risk alert queued - Transaction: {}, Score: {}",
+                    transaction.getTransactionId(), riskScore.getFinalScore());
+        }
+    }
+
+    /**
+     * ============================================
+     * EVALUATE (SKORLAMA, KAYIT / ALERT GÖNDERİMİ YOK)
+     * ============================================
+     * Adım 1-4 + shadow submit. Çıktının nereye yazılacağına çağıran karar verir:
+     * - analyzeTransaction: PostgreSQL + AlertProducer
+     * - ExactlyOnceTransactionConsumer: Kafka transaction içinde topic'lere
+     * - SyncScoringService: HTTP cevabından sonra asenkron
+     */
+    public Evaluation evaluate(Transaction transaction) {
+        return evaluate(transaction, budgetMs);
+    }
+
+    /**
+     * @param budgetMillis bu çağrının skorlama bütçesi (senkron API fraud.scoring.budget-ms'ten çok daha
+     *                     dar çalışır; kalan süre ML dilimine yetmezse ML atlanır, rules-only skor)
+     */
+    public Evaluation evaluate(Transaction transaction, long budgetMillis) {
         logger.info("Analyzing transaction: ID={}, Customer={}, Amount={}",
                 transaction.getTransactionId(),
                 transaction.getCustomerId(),
                 transaction.getAmount());
 
+        ScoringDeadline deadline = ScoringDeadline.start(budgetMillis);
+
         // ========== 1. GET CUSTOMER PROFILE ==========
-        CustomerProfile profile = customerProfileRepository
-                .findById(transaction.getCustomerId())
-                .orElse(null);
+        // Preload sonrası bellekten gelir, miss olursa PostgreSQL
+        CustomerProfile profile = customerProfileProvider.findProfile(transaction.getCustomerId());
 
         if (profile == null) {
             logger.warn("Customer profile not found: {}", transaction.getCustomerId());
         }
 
         // ========== 2. RUN FRAUD RULES ==========
-        int totalRuleScore = 0;
-        Map<String, Object> reasons = new HashMap<>();
-
-        // Kuralları öncelik sırasına göre çalıştır
-        fraudRules.sort((r1, r2) -> Integer.compare(r2.getPriority(), r1.getPriority()));
-
-        for (FraudRule rule : fraudRules) {
-            try {
-                int score = rule.evaluate(
-                        transaction.getTransactionId(),
-                        transaction.getCustomerId(),
-                        transaction.getAmount(),
-                        transaction.getMerchantCategory(),
-                        transaction.getLocation(),
-                        transaction.getTimestamp(),
-                        profile
-                );
-
-                if (score > 0) {
-                    totalRuleScore += score;
-                    reasons.put(rule.getRuleName(), rule.getReason());
-
-                    logger.info("Rule triggered: {} - Score: {} - Reason: {}",
-                            rule.getRuleName(), score, rule.getReason());
-                }
-            } catch (Exception e) {
-                logger.error("Error executing rule: {} - Error: {}",
-                        rule.getRuleName(), e.getMessage(), e);
-            }
-        }
-
-        // Rule score cap (max 100)
-        totalRuleScore = Math.min(totalRuleScore, 100);
-
-        logger.info("Total Rule Score: {}", totalRuleScore);
+        // RuleRegistry seti önceden sıralı tutar; reload olsa bile bu transaction tek bir set görür
+        List<FraudRule> fraudRules = ruleRegistry.current();
 
         // ========== 3. CALL ML SERVICE ==========
-        // TODO: Implement ML Service client
-        // For now, use placeholder
-        BigDecimal mlScore = BigDecimal.valueOf(0.5);  // Placeholder: 0.5 (50% fraud probability)
-
-        logger.info("ML Score (placeholder): {}", mlScore);
+        // Dilim: min(ml-budget-ms, kalan bütçe - reserve). Profil yüklemesi bütçeyi yediyse ML atlanır
+        MlScoringClient.Result ml = mlScoringClient.predict(transaction, profile, deadline);
+        BigDecimal mlScore = ml.getScore();
+
+        if (ml.isFallback()) {
+            logger.info("ML unavailable ({}), rules-only score. Elapsed: {} ms",
+                    ml.getFallbackReason(), deadline.elapsedMillis());
+        } else {
+            logger.info("ML Score: {}", mlScore);
+        }
 
         // ========== 4. CALCULATE FINAL SCORE ==========
-        RiskScore riskScore = new RiskScore();
-        riskScore.setTransactionId(transaction.getTransactionId());
-        riskScore.setRuleScore(totalRuleScore);
-        riskScore.setMlScore(mlScore);
-        riskScore.setReasons(reasons);
-        riskScore.calculateFinalScore();  // (rule * 0.6) + (ml * 40)
+        RiskScore riskScore = riskScorer.score(transaction, profile, fraudRules, mlScore, ml.getFallbackReason());
+        Map<String, Object> reasons = riskScore.getReasons();
 
+        if (logger.isDebugEnabled()) {
+            logger.debug("Rule Score: {}, Triggered: {}", riskScore.getRuleScore(), reasons.keySet());
+        }
         logger.info("Final Risk Score: {}", riskScore.getFinalScore());
 
-        // ========== 5. SAVE RISK SCORE ==========
-        riskScoreRepository.save(riskScore);
-
-        // ========== 6. SEND ALERT IF HIGH RISK ==========
+        Alert alert = null;
         if (riskScore.getFinalScore().doubleValue() > alertThreshold) {
-            Alert alert = new Alert(
+            alert = new Alert(
                     transaction.getTransactionId(),
                     transaction.getCustomerId(),
                     transaction.getAmount(),
@@ -144,13 +185,43 @@ public class RiskEngineService {
                     reasons,
                     LocalDateTime.now()
             );
+        }
 
-            alertProducer.sendAlert(alert);
+        // ========== 7. SHADOW (CHALLENGER) SCORING ==========
+        // Örneklenmiş transaction'lar ayrı executor'a bırakılır, canlı akış beklemez
+        shadowScoringService.submit(transaction, profile, mlScore, riskScore, alertThreshold);
 
-            logger.warn("HIGH RISK ALERT SENT - Transaction: {}, Score: {}",
-                    transaction.getTransactionId(), riskScore.getFinalScore());
+        logger.info("Transaction analysis completed: ID={}, Elapsed: {} ms",
+                transaction.getTransactionId(), deadline.elapsedMillis());
+        return new Evaluation(riskScore, alert);
+    }
+
+    public double getAlertThreshold() {
+        return alertThreshold;
+    }
+
+    // ============================================
+    // EVALUATION (skor + threshold aşıldıysa alert)
+    // ============================================
+    public static final class Evaluation {
+
+        private final RiskScore riskScore;
+        private final Alert alert;
+
+        private Evaluation(RiskScore riskScore, Alert alert) {
+            this.riskScore = riskScore;
+            this.alert = alert;
         }
 
-        logger.info("Transaction analysis completed: ID={}", transaction.getTransactionId());
+        public RiskScore getRiskScore() {
+            return riskScore;
+        }
+
+        /**
+         * @return alert veya null (skor threshold altında)
+         */
+        public Alert getAlert() {
+            return alert;
+        }
     }
 }
@@ -0,0 +1,98 @@
+package com.fraud.risk.service;
+
+import com.fraud.risk.model.RiskScore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ============================================
+ * RISK SCORE CACHE (SON SKORLAR)
+ * ============================================
+ * Ne yapar?
+ * - Son skorlanan N transaction'ın risk skorunu bellekte tutar
+ * - Skorlama anında doldurulur (RiskEngineService), lookup API önce buraya bakar
+ *
+ * Neden?
+ * - Destek araçları ingest'ten hemen sonra skoru yoğun şekilde poll eder
+ * - Bu sorguların neredeyse hepsi son birkaç dakikadaki transaction'lar için → cache'te
+ *
+ * Eviction: FIFO halka (capacity slot)
+ * - Yeni skor sıradaki slota yazılır, slottaki eski transaction map'ten silinir
+ * - Lock yok, erişim sırası takibi yok (LRU'ya gerek yok: poll edilen hep en yeniler)
+ *
+ * Transaction içinde çağrılırsa commit sonrası eklenir (rollback olan skor görünmez)
+ */
+@Component
+public class RiskScoreCache {
+
+    private final int capacity;
+    private final Map<String, RiskScore> scores;
+    private final AtomicReferenceArray<String> ring;
+    private final AtomicLong cursor = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public RiskScoreCache(@Value("${fraud.scores.cache.capacity:100000}") int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.scores = new ConcurrentHashMap<>(this.capacity * 4 / 3 + 1);
+        this.ring = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    public void put(RiskScore riskScore) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    store(riskScore);
+                }
+            });
+        } else {
+            store(riskScore);
+        }
+    }
+
+    private void store(RiskScore riskScore) {
+        String transactionId = riskScore.getTransactionId();
+        if (scores.put(transactionId, riskScore) != null) {
+            // Zaten halkada (DB'den tekrar yüklendi) - ikinci slot açma
+            return;
+        }
+        int slot = (int) (cursor.getAndIncrement() % capacity);
+        String evicted = ring.getAndSet(slot, transactionId);
+        if (evicted != null && !evicted.equals(transactionId)) {
+            scores.remove(evicted);
+        }
+    }
+
+    public RiskScore get(String transactionId) {
+        RiskScore riskScore = scores.get(transactionId);
+        if (riskScore != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return riskScore;
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("capacity", capacity);
+        stats.put("size", scores.size());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        return stats;
+    }
+}
@@ -0,0 +1,123 @@
+package com.fraud.risk.service;
+
+import com.fraud.risk.model.CustomerProfile;
+import com.fraud.risk.model.RiskScore;
+import com.fraud.risk.model.Transaction;
+import com.fraud.risk.rules.FraudRule;
+import com.fraud.risk.rules.RuleReasons;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * ============================================
+ * RISK SCORER
+ * ============================================
+ * Ne yapar?
+ * - Kuralları çalıştırır ve hybrid skoru hesaplar (side-effect yok)
+ * - DB'ye yazmaz, Kafka'ya göndermez
+ *
+ * Kim kullanır?
+ * - RiskEngineService (canlı akış)
+ * - ShadowScoringService (challenger kural seti)
+ *
+ * Neden ayrı?
+ * - Canlı ve shadow skorlar birebir aynı koddan çıkmalı,
+ *   aksi halde karşılaştırma anlamsız olur
+ */
+@Component
+public class RiskScorer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiskScorer.class);
+
+    // reasons'a yazılan fallback işareti (değer: fallback sebebi)
+    public static final String ML_FALLBACK_REASON = "ml_fallback";
+
+    // ML yokken rule score ağırlığı (canlı formülde 0.6)
+    @Value("${fraud.scoring.fallback-rule-weight:1.0}")
+    private double fallbackRuleWeight = 1.0;
+
+    /**
+     * ============================================
+     * SCORE
+     * ============================================
+     * @param transaction Transaction
+     * @param profile Müşteri profili (nullable)
+     * @param rules Öncelik sırasına göre kural seti
+     * @param mlScore ML fraud probability (0-1), null → rules-only
+     * @return Final skoru hesaplanmış (kaydedilmemiş) RiskScore
+     */
+    public RiskScore score(Transaction transaction, CustomerProfile profile,
+                           List<FraudRule> rules, BigDecimal mlScore) {
+        return score(transaction, profile, rules, mlScore, mlScore == null ? "unavailable" : null);
+    }
+
+    /**
+     * @param fallbackReason mlScore null ise reasons'a "ml_fallback" olarak yazılır
+     */
+    public RiskScore score(Transaction transaction, CustomerProfile profile,
+                           List<FraudRule> rules, BigDecimal mlScore, String fallbackReason) {
+        RuleReasons reasons = new RuleReasons(rules);
+        int ruleScore = applyRules(transaction, profile, rules, reasons);
+
+        RiskScore riskScore = new RiskScore();
+        riskScore.setTransactionId(transaction.getTransactionId());
+        riskScore.setRuleScore(ruleScore);
+        riskScore.setMlScore(mlScore);
+        riskScore.setReasons(reasons);
+        if (mlScore != null) {
+            riskScore.calculateFinalScore();  // (rule * 0.6) + (ml * 40)
+        } else {
+            // ML yavaş / devre açık: pipeline beklemez, kurallarla karar verir
+            riskScore.calculateRulesOnlyScore(fallbackRuleWeight);
+            reasons.setFallback(ML_FALLBACK_REASON, fallbackReason);
+        }
+        return riskScore;
+    }
+
+    /**
+     * ============================================
+     * APPLY RULES
+     * ============================================
+     * Tüm kuralları çalıştırır, tetiklenenlerin reason parametrelerini yakalar
+     * (metin üretilmez: RuleReasons render'ı okunduğunda yapar)
+     *
+     * @return Toplam rule score (max 100)
+     */
+    public int applyRules(Transaction transaction, CustomerProfile profile,
+                          List<FraudRule> rules, RuleReasons reasons) {
+        int totalRuleScore = 0;
+
+        for (int i = 0; i < rules.size(); i++) {
+            FraudRule rule = rules.get(i);
+            try {
+                int score = rule.evaluate(
+                        transaction.getTransactionId(),
+                        transaction.getCustomerId(),
+                        transaction.getAmount(),
+                        transaction.getMerchantCategory(),
+                        transaction.getLocation(),
+                        transaction.getTimestamp(),
+                        profile
+                );
+
+                if (score > 0) {
+                    totalRuleScore += score;
+                    reasons.capture(i, rule, score);
+
+                    logger.debug("Rule triggered: {} - Score: {}", rule.getRuleName(), score);
+                }
+            } catch (Exception e) {
+                logger.error("Error executing rule: {} - Error: {}",
+                        rule.getRuleName(), e.getMessage(), e);
+            }
+        }
+
+        // Rule score cap (max 100)
+        return Math.min(totalRuleScore, 100);
+    }
+}
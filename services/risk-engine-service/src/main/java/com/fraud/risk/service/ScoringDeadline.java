@@ -0,0 +1,45 @@
+package com.fraud.risk.service;
+
+/**
+ * ============================================
+ * SCORING DEADLINE
+ * ============================================
+ * Ne yapar?
+ * - Bir transaction'ın skorlama latency bütçesini taşır (fraud.scoring.budget-ms)
+ * - Aşamalar (profil, ML, kurallar + kayıt) kalan süreye göre kendi dilimini alır
+ *
+ * Örnek: budget 300 ms, profil 20 ms sürdü → ML dilimi min(ml-budget-ms, 280 - reserve-ms)
+ */
+public final class ScoringDeadline {
+
+    private final long startNanos;
+    private final long deadlineNanos;
+
+    private ScoringDeadline(long startNanos, long budgetMillis) {
+        this.startNanos = startNanos;
+        this.deadlineNanos = startNanos + budgetMillis * 1_000_000L;
+    }
+
+    public static ScoringDeadline start(long budgetMillis) {
+        return new ScoringDeadline(System.nanoTime(), budgetMillis);
+    }
+
+    public long remainingMillis() {
+        return Math.max(0, (deadlineNanos - System.nanoTime()) / 1_000_000L);
+    }
+
+    public long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+
+    /**
+     * Aşamanın dilimi: kendi üst sınırı ile (kalan - sonraki aşamalara ayrılan) arasından küçüğü
+     */
+    public long sliceMillis(long stageBudgetMillis, long reserveMillis) {
+        return Math.max(0, Math.min(stageBudgetMillis, remainingMillis() - reserveMillis));
+    }
+
+    public boolean isExpired() {
+        return System.nanoTime() >= deadlineNanos;
+    }
+}
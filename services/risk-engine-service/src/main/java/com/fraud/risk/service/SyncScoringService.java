@@ -0,0 +1,279 @@
+package com.fraud.risk.service;
+
+import com.fraud.risk.alert.AlertBatchWriter;
+import com.fraud.risk.kafka.AlertProducer;
+import com.fraud.risk.model.Alert;
+import com.fraud.risk.model.RiskScore;
+import com.fraud.risk.model.Transaction;
+import com.fraud.risk.repository.RiskScoreWriteRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ============================================
+ * SYNC SCORING SERVICE (IN-LINE AUTHORIZATION)
+ * ============================================
+ * Ne yapar?
+ * - Authorization sistemi onaydan önce skoru ister (POST /api/risk/score)
+ * - Kafka yoluyla aynı pipeline: profil + kurallar + ML (RiskEngineService.evaluate), dar bütçeyle
+ * - Skor cevap olarak döner; kayıt (risk_scores, alert) cevaptan SONRA ayrı thread'de
+ *
+ * Bulkhead:
+ * - Kendi sabit boyutlu executor'ı (sync-scorer-N) → Kafka listener backlog'u bu thread'leri yiyemez
+ * - Sınırlı kuyruk: dolarsa istek hemen reddedilir (503), authorization kendi fallback'ine geçer
+ * - timeout-ms dolunca future tamamlanır; kuyrukta bekleyen iş artık hiç çalışmaz (çağıran vazgeçti)
+ *
+ * Bütçe:
+ * - fraud.scoring.sync.budget-ms (tek haneli ms) → kalan süre ML dilimine (min-ml-budget-ms +
+ *   reserve-ms) yetmezse ML atlanır, rules-only skor ("ml_fallback": deadline)
+ * - Varsayılan 8 ms ile ML HİÇ çağrılmaz: cevap profil + kurallardır, "mlScored": false ile belirtilir
+ *
+ * Asenkron kayıt (best-effort):
+ * - Sadece ML'li skorlar kaydedilir. Rules-only skor kaydedilmez (persistSkippedRulesOnly):
+ *   önce yazılsaydı unique index yüzünden Kafka yolunun tam hybrid skoru duplicate sayılıp atılırdı
+ * - Tek daemon thread, sınırlı kuyruk; dolarsa kayıt düşürülür (persistDropped)
+ * - Transaction henüz transactions tablosunda yoksa (authorization kayıttan önce) FK ihlali →
+ *   kayıt ertelenir (persistDeferred), skor cache'e girmez
+ * - Her iki durumda da transaction Kafka'dan geldiğinde normal yoldan skorlanıp kaydedilir
+ * - Tekilleştirme DB'de (RiskScoreWriteRepository, unique transaction_id): hangi yol önce
+ *   yazarsa satır ve alert onundur, diğeri yazmaz (instance / cache'ten bağımsız)
+ * - Exactly-once modunda Kafka alert'i gönderilmez (sadece alerts tablosu): o modda consumer
+ *   alert'i DB'yi görmeden Kafka transaction'ında zaten gönderir → burada da gönderilirse iki mesaj
+ */
+@Service
+public class SyncScoringService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncScoringService.class);
+
+    private final RiskEngineService riskEngineService;
+    private final RiskScoreWriteRepository riskScoreWriteRepository;
+    private final RiskScoreCache riskScoreCache;
+    private final AlertProducer alertProducer;
+    private final AlertBatchWriter alertBatchWriter;
+
+    @Value("${fraud.scoring.sync.enabled:true}")
+    private boolean enabled;
+
+    @Value("${fraud.scoring.sync.threads:8}")
+    private int threads;
+
+    @Value("${fraud.scoring.sync.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${fraud.scoring.sync.budget-ms:8}")
+    private long budgetMs;
+
+    // Kuyruk bekleme + skorlama; aşılırsa 504
+    @Value("${fraud.scoring.sync.timeout-ms:20}")
+    private long timeoutMs;
+
+    @Value("${fraud.scoring.sync.persist-queue-capacity:10000}")
+    private int persistQueueCapacity;
+
+    // true → alerts topic'ine ExactlyOnceTransactionConsumer yazar
+    @Value("${fraud.kafka.exactly-once.enabled:false}")
+    private boolean exactlyOnce;
+
+    private ThreadPoolExecutor executor;
+    private ThreadPoolExecutor persister;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder scored = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder alerts = new LongAdder();
+    private final LongAdder scoringMicrosSum = new LongAdder();
+    private final LongAdder persisted = new LongAdder();
+    private final LongAdder persistSkipped = new LongAdder();
+    private final LongAdder persistSkippedRulesOnly = new LongAdder();
+    private final LongAdder persistDeferred = new LongAdder();
+    private final LongAdder persistDropped = new LongAdder();
+    private final LongAdder persistFailed = new LongAdder();
+
+    public SyncScoringService(RiskEngineService riskEngineService,
+                              RiskScoreWriteRepository riskScoreWriteRepository,
+                              RiskScoreCache riskScoreCache,
+                              AlertProducer alertProducer,
+                              AlertBatchWriter alertBatchWriter) {
+        this.riskEngineService = riskEngineService;
+        this.riskScoreWriteRepository = riskScoreWriteRepository;
+        this.riskScoreCache = riskScoreCache;
+        this.alertProducer = alertProducer;
+        this.alertBatchWriter = alertBatchWriter;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sync-scorer-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // Çekirdek thread'ler baştan hazır: ilk isteklerde thread oluşturma gecikmesi olmaz
+        executor.prestartAllCoreThreads();
+
+        persister = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, persistQueueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "sync-score-persister");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Kuyruk dolu → kayıt düşürülür, Kafka yolu kaydeder
+                (runnable, pool) -> persistDropped.increment());
+
+        logger.info("Sync scoring started: threads={}, queueCapacity={}, budgetMs={}, timeoutMs={}",
+                threads, queueCapacity, budgetMs, timeoutMs);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        persister.shutdown();
+        // Kuyrukta bekleyen kayıtlar yazılsın
+        persister.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Skorlama bulkhead executor'ında; çağıran (HTTP thread'i) bloklanmaz
+     *
+     * @return tamamlanan future veya hata: RejectedExecutionException (kuyruk dolu),
+     *         TimeoutException (timeout-ms aşıldı)
+     */
+    public CompletableFuture<RiskEngineService.Evaluation> score(Transaction transaction) {
+        requests.increment();
+        long submittedAt = System.nanoTime();
+        CompletableFuture<RiskEngineService.Evaluation> result;
+        try {
+            result = CompletableFuture.supplyAsync(() -> evaluate(transaction, submittedAt), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+        // orTimeout aynı future'ı tamamlar → henüz başlamamış supplyAsync işi atlanır
+        return result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((evaluation, error) -> {
+                    if (error instanceof TimeoutException) {
+                        timedOut.increment();
+                    }
+                });
+    }
+
+    private RiskEngineService.Evaluation evaluate(Transaction transaction, long submittedAt) {
+        // Kuyrukta geçen süre bütçeden düşülür
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - submittedAt);
+        long start = System.nanoTime();
+        RiskEngineService.Evaluation evaluation;
+        try {
+            evaluation = riskEngineService.evaluate(transaction, Math.max(1, budgetMs - waitedMillis));
+        } catch (RuntimeException e) {
+            failed.increment();
+            throw e;
+        }
+        scoringMicrosSum.add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        scored.increment();
+        if (evaluation.getAlert() != null) {
+            alerts.increment();
+        }
+
+        persister.execute(() -> persist(evaluation));
+        return evaluation;
+    }
+
+    /**
+     * Cevaptan sonra, persister thread'inde
+     */
+    private void persist(RiskEngineService.Evaluation evaluation) {
+        RiskScore riskScore = evaluation.getRiskScore();
+        String transactionId = riskScore.getTransactionId();
+        if (riskScore.getMlScore() == null) {
+            // Rules-only: kalıcı skor ve alert Kafka yolunun (ML'li) skorundan gelir
+            persistSkippedRulesOnly.increment();
+            return;
+        }
+        try {
+            if (!riskScoreWriteRepository.insertIfAbsent(riskScore)) {
+                // Kafka yolu (bu veya başka instance) önce yazdı
+                persistSkipped.increment();
+                return;
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Transaction henüz yok (FK) → Kafka'dan geldiğinde normal yoldan kaydedilir
+            persistDeferred.increment();
+            logger.debug("Deferred sync score persistence for {}: {}", transactionId, e.getMessage());
+            return;
+        } catch (RuntimeException e) {
+            persistFailed.increment();
+            logger.error("Failed to persist sync score for {}: {}", transactionId, e.getMessage());
+            return;
+        }
+        persisted.increment();
+        riskScoreCache.put(riskScore);
+
+        Alert alert = evaluation.getAlert();
+        if (alert != null) {
+            if (!exactlyOnce) {
+                alertProducer.sendAlert(alert);
+            }
+            alertBatchWriter.enqueue(alert);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long scoredCount = scored.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("threads", threads);
+        stats.put("budgetMs", budgetMs);
+        stats.put("timeoutMs", timeoutMs);
+        stats.put("queued", executor != null ? executor.getQueue().size() : 0);
+        stats.put("active", executor != null ? executor.getActiveCount() : 0);
+        stats.put("requests", requests.sum());
+        stats.put("scored", scoredCount);
+        stats.put("rejected", rejected.sum());
+        stats.put("timedOut", timedOut.sum());
+        stats.put("failed", failed.sum());
+        stats.put("alerts", alerts.sum());
+        stats.put("avgScoringMicros", scoredCount == 0 ? 0 : scoringMicrosSum.sum() / scoredCount);
+        stats.put("persistQueued", persister != null ? persister.getQueue().size() : 0);
+        stats.put("persisted", persisted.sum());
+        stats.put("persistSkipped", persistSkipped.sum());
+        stats.put("persistSkippedRulesOnly", persistSkippedRulesOnly.sum());
+        stats.put("persistDeferred", persistDeferred.sum());
+        stats.put("persistDropped", persistDropped.sum());
+        stats.put("persistFailed", persistFailed.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,76 @@
+package com.fraud.risk.shadow;
+
+import com.fraud.risk.model.CustomerProfile;
+import com.fraud.risk.rules.FraudRule;
+import com.fraud.risk.rules.ReasonParams;
+import com.fraud.risk.rules.RuleReasons;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * ============================================
+ * REPLAYED RULE (SHADOW)
+ * ============================================
+ * Ne yapar?
+ * - Stateful bir kuralın canlı skorlamadaki sonucunu (puan + reason parametreleri) tekrar oynatır
+ * - evaluate state'e dokunmaz; isim, öncelik ve render asıl kurala devredilir
+ *
+ * Neden?
+ * - Stateful kuralı shadow'da tekrar çalıştırmak state'i canlı yol güncelledikten sonra görür
+ *   (son görülme = bu işlem, rolling toplamda bu işlem ve sonrakiler) → delta challenger'dan değil
+ *   zamanlamadan gelir. Bu kurallar her iki tarafta aynı katkıyı yapar, fark challenger'ın kendisi
+ */
+final class ReplayedRule implements FraudRule {
+
+    private final FraudRule rule;
+    private final ReasonParams params = new ReasonParams();
+    private final int score;
+
+    ReplayedRule(FraudRule rule, RuleReasons liveReasons) {
+        this.rule = rule;
+        this.score = liveReasons.copyResult(rule, params);
+    }
+
+    @Override
+    public int evaluate(
+            String transactionId,
+            String customerId,
+            BigDecimal amount,
+            String merchantCategory,
+            String location,
+            LocalDateTime timestamp,
+            CustomerProfile customerProfile) {
+        return score;
+    }
+
+    @Override
+    public String getRuleName() {
+        return rule.getRuleName();
+    }
+
+    @Override
+    public String getReason() {
+        return rule.renderReason(params);
+    }
+
+    @Override
+    public void captureReason(ReasonParams params) {
+        params.addAll(this.params);
+    }
+
+    @Override
+    public String renderReason(ReasonParams params) {
+        return rule.renderReason(params);
+    }
+
+    @Override
+    public int getReasonNumberCount() {
+        return rule.getReasonNumberCount();
+    }
+
+    @Override
+    public int getPriority() {
+        return rule.getPriority();
+    }
+}
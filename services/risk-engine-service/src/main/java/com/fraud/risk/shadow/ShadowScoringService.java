@@ -0,0 +1,306 @@
+package com.fraud.risk.shadow;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraud.risk.kafka.ShadowScoreProducer;
+import com.fraud.risk.model.CustomerProfile;
+import com.fraud.risk.model.RiskScore;
+import com.fraud.risk.model.ShadowScore;
+import com.fraud.risk.model.Transaction;
+import com.fraud.risk.rules.FraudRule;
+import com.fraud.risk.rules.RuleReasons;
+import com.fraud.risk.rules.RuleRegistry;
+import com.fraud.risk.rules.dsl.FileRuleDefinitionSource;
+import com.fraud.risk.rules.dsl.RuleCompiler;
+import com.fraud.risk.rules.dsl.RuleDefinition;
+import com.fraud.risk.service.RiskScorer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ============================================
+ * SHADOW (CHAMPION / CHALLENGER) SCORING SERVICE
+ * ============================================
+ * Ne yapar?
+ * - Canlı trafiğin bir örneğini challenger kural seti / threshold ile tekrar skorlar
+ * - Sonucu canlı skorla birlikte ayrı bir topic'e yazar (fraud-shadow-scores-topic)
+ * - Canlı akışı asla etkilemez: DB'ye yazmaz, alert göndermez
+ *
+ * Canlı p99 nasıl korunur?
+ * - Ayrı, sabit boyutlu executor (fraud.shadow.threads) → kendi CPU bütçesi
+ * - Sınırlı kuyruk: dolarsa iş sessizce düşürülür (dropped sayacı), listener hiç bloklanmaz
+ * - Düşük öncelikli daemon thread'ler
+ * - Profil ve ML skoru canlı akıştan yeniden kullanılır (ekstra DB / HTTP çağrısı yok)
+ *
+ * Stateful kurallar (FraudRule.isStateful: ImpossibleTravel, Novelty, Spraying, RollingAmount,
+ * GlobalHotspot) tekrar çalıştırılmaz:
+ * - Canlı yol state'i zaten güncelledi; ikinci değerlendirme farklı state görür ve deltayı saptırır
+ * - Canlı sonuçları (puan + reason) ReplayedRule ile challenger setine aynen konur
+ *   → karşılaştırma sadece stateless kurallar, DSL kuralları ve threshold farkını ölçer
+ *
+ * Örnekleme:
+ * - transactionId hash'i ile deterministik (aynı transaction hep aynı karar)
+ *
+ * Challenger kural seti:
+ * - @Component kuralları + fraud.shadow.rules-location dosyasındaki DSL kuralları
+ * - Dosya boşsa sadece threshold denenir (canlı kural seti ile)
+ */
+@Service
+public class ShadowScoringService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShadowScoringService.class);
+    private static final int SAMPLE_BUCKETS = 10_000;
+
+    private final RuleRegistry ruleRegistry;
+    private final RuleCompiler ruleCompiler;
+    private final RiskScorer riskScorer;
+    private final ShadowScoreProducer shadowScoreProducer;
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+
+    @Value("${fraud.shadow.enabled:false}")
+    private boolean enabled;
+
+    @Value("${fraud.shadow.sample-rate:0.1}")
+    private double sampleRate;
+
+    @Value("${fraud.shadow.threads:1}")
+    private int threads;
+
+    @Value("${fraud.shadow.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${fraud.shadow.rules-location:}")
+    private String rulesLocation;
+
+    // Negatifse canlı threshold kullanılır
+    @Value("${fraud.shadow.alert-threshold:-1}")
+    private double shadowAlertThreshold;
+
+    private ThreadPoolExecutor executor;
+    private FileRuleDefinitionSource challengerSource;
+    private volatile List<FraudRule> challengerRules;
+    private volatile String challengerVersion = "live";
+    private int sampleCutoff;
+
+    // ============================================
+    // COMPARISON STATS
+    // ============================================
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder bothAlert = new LongAdder();
+    private final LongAdder liveOnlyAlert = new LongAdder();
+    private final LongAdder shadowOnlyAlert = new LongAdder();
+    private final LongAdder scoreDeltaCentiSum = new LongAdder();
+
+    public ShadowScoringService(RuleRegistry ruleRegistry,
+                                RuleCompiler ruleCompiler,
+                                RiskScorer riskScorer,
+                                ShadowScoreProducer shadowScoreProducer,
+                                ResourceLoader resourceLoader,
+                                ObjectMapper objectMapper) {
+        this.ruleRegistry = ruleRegistry;
+        this.ruleCompiler = ruleCompiler;
+        this.riskScorer = riskScorer;
+        this.shadowScoreProducer = shadowScoreProducer;
+        this.resourceLoader = resourceLoader;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+
+        sampleCutoff = (int) Math.round(Math.max(0, Math.min(1, sampleRate)) * SAMPLE_BUCKETS);
+
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "shadow-scorer-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                // Kuyruk dolu → iş düşürülür, canlı thread beklemez
+                (runnable, pool) -> dropped.increment());
+
+        if (rulesLocation != null && !rulesLocation.isBlank()) {
+            challengerSource = new FileRuleDefinitionSource(resourceLoader, objectMapper, rulesLocation);
+            loadChallenger();
+        }
+
+        logger.info("Shadow scoring enabled: sampleRate={}, threads={}, queueCapacity={}, rules={}",
+                sampleRate, threads, queueCapacity, rulesLocation.isBlank() ? "live" : rulesLocation);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * ============================================
+     * SUBMIT (canlı thread'den çağrılır)
+     * ============================================
+     * Maliyet: bir hash + (örneklendiyse) bounded queue offer
+     */
+    public void submit(Transaction transaction, CustomerProfile profile, BigDecimal mlScore,
+                       RiskScore liveScore, double liveThreshold) {
+        if (!enabled || !isSampled(transaction.getTransactionId())
+                || !(liveScore.getReasons() instanceof RuleReasons liveReasons)) {
+            return;
+        }
+        sampled.increment();
+
+        int liveRuleScore = liveScore.getRuleScore();
+        BigDecimal liveFinalScore = liveScore.getFinalScore();
+        boolean liveAlert = liveFinalScore.doubleValue() > liveThreshold;
+        double threshold = shadowAlertThreshold >= 0 ? shadowAlertThreshold : liveThreshold;
+
+        executor.execute(() -> score(transaction, profile, mlScore, liveReasons,
+                liveRuleScore, liveFinalScore, liveAlert, threshold));
+    }
+
+    private void score(Transaction transaction, CustomerProfile profile, BigDecimal mlScore, RuleReasons liveReasons,
+                       int liveRuleScore, BigDecimal liveFinalScore, boolean liveAlert, double threshold) {
+        try {
+            List<FraudRule> rules = withLiveResults(
+                    challengerRules != null ? challengerRules : ruleRegistry.current(), liveReasons);
+            RiskScore shadow = riskScorer.score(transaction, profile, rules, mlScore);
+            boolean shadowAlert = shadow.getFinalScore().doubleValue() > threshold;
+
+            shadowScoreProducer.sendShadowScore(new ShadowScore(
+                    transaction.getTransactionId(),
+                    transaction.getCustomerId(),
+                    liveRuleScore,
+                    liveFinalScore,
+                    liveAlert,
+                    shadow.getRuleScore(),
+                    shadow.getFinalScore(),
+                    shadowAlert,
+                    shadow.getReasons(),
+                    challengerVersion,
+                    LocalDateTime.now()
+            ));
+
+            recordComparison(liveAlert, shadowAlert, liveFinalScore, shadow.getFinalScore());
+            completed.increment();
+        } catch (Exception e) {
+            failed.increment();
+            logger.debug("Shadow scoring failed: {} - {}", transaction.getTransactionId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Stateful kuralların yerine canlı sonuçlarını koyar (RuleReasons canlı skorlamadan sonra salt okunur)
+     */
+    private static List<FraudRule> withLiveResults(List<FraudRule> rules, RuleReasons liveReasons) {
+        List<FraudRule> replayed = new ArrayList<>(rules.size());
+        for (FraudRule rule : rules) {
+            replayed.add(rule.isStateful() ? new ReplayedRule(rule, liveReasons) : rule);
+        }
+        return replayed;
+    }
+
+    private boolean isSampled(String transactionId) {
+        if (sampleCutoff >= SAMPLE_BUCKETS) {
+            return true;
+        }
+        if (transactionId == null || sampleCutoff <= 0) {
+            return false;
+        }
+        // Fibonacci hashing: String.hashCode'un düşük bitleri tek başına iyi dağılmaz
+        int mixed = transactionId.hashCode() * 0x9E3779B9;
+        return Integer.remainderUnsigned(mixed, SAMPLE_BUCKETS) < sampleCutoff;
+    }
+
+    private void recordComparison(boolean liveAlert, boolean shadowAlert,
+                                  BigDecimal liveFinalScore, BigDecimal shadowFinalScore) {
+        if (liveAlert && shadowAlert) {
+            bothAlert.increment();
+        } else if (liveAlert) {
+            liveOnlyAlert.increment();
+        } else if (shadowAlert) {
+            shadowOnlyAlert.increment();
+        }
+        long deltaCenti = Math.round((shadowFinalScore.doubleValue() - liveFinalScore.doubleValue()) * 100);
+        scoreDeltaCentiSum.add(deltaCenti);
+    }
+
+    // ============================================
+    // CHALLENGER RULE SET (hot reload)
+    // ============================================
+    @Scheduled(fixedDelayString = "${fraud.rules.dsl.reload-interval-ms:30000}",
+            initialDelayString = "${fraud.rules.dsl.reload-interval-ms:30000}")
+    public void pollChallenger() {
+        if (challengerSource == null) {
+            return;
+        }
+        try {
+            if (!challengerSource.version().equals(challengerVersion)) {
+                loadChallenger();
+            }
+        } catch (Exception e) {
+            logger.error("Challenger rule reload failed, keeping previous set: {}", e.getMessage());
+        }
+    }
+
+    private void loadChallenger() {
+        String version = challengerSource.version();
+        List<FraudRule> compiled = new ArrayList<>();
+        for (RuleDefinition definition : challengerSource.load()) {
+            if (definition.isEnabled()) {
+                compiled.add(ruleCompiler.compile(definition));
+            }
+        }
+        challengerRules = ruleRegistry.withOverrides(compiled);
+        challengerVersion = version;
+        logger.info("Challenger rule set loaded from {} (version {}): {} rules",
+                rulesLocation, version, challengerRules.size());
+    }
+
+    /**
+     * Karşılaştırma istatistikleri (GET /api/shadow/stats)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("sampleRate", sampleRate);
+        stats.put("challengerVersion", challengerVersion);
+        stats.put("sampled", sampled.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("completed", completed.sum());
+        stats.put("failed", failed.sum());
+        stats.put("queueDepth", executor != null ? executor.getQueue().size() : 0);
+        stats.put("bothAlert", bothAlert.sum());
+        stats.put("liveOnlyAlert", liveOnlyAlert.sum());
+        stats.put("shadowOnlyAlert", shadowOnlyAlert.sum());
+        long done = completed.sum();
+        stats.put("avgScoreDelta", done == 0 ? 0.0 : scoreDeltaCentiSum.sum() / 100.0 / done);
+        return stats;
+    }
+}
@@ -0,0 +1,31 @@
+package com.fraud.risk.state;
+
+/**
+ * ============================================
+ * CUSTOMER STATE STORE
+ * ============================================
+ * Ne yapar?
+ * - Bellekte müşteri bazlı state tutan bileşenlerin (kurallar, pencereler) ortak sözleşmesi
+ * - Her gerçek değişiklik ChangelogWriter'a yazılır, rebalance / restart sonrası restore() ile geri yüklenir
+ *
+ * Sözleşme:
+ * - Değer o müşterinin TAM state'idir (delta değil) → compacted topic'te son kayıt yeterli
+ * - restore() idempotent ve sıradan bağımsız olmalı (standby + restore aynı kaydı iki kez uygulayabilir)
+ * - restore() ile gelen değerler tekrar changelog'a yazılmaz
+ */
+public interface CustomerStateStore {
+
+    /**
+     * Changelog key prefix'i: "storeName|customerId" (benzersiz, '|' içermemeli)
+     */
+    String storeName();
+
+    void restore(String customerId, byte[] value);
+
+    void attachChangelog(ChangelogWriter writer);
+
+    @FunctionalInterface
+    interface ChangelogWriter {
+        void write(String customerId, byte[] value);
+    }
+}
@@ -0,0 +1,220 @@
+package com.fraud.risk.state;
+
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.common.utils.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ============================================
+ * STATE CHANGELOG
+ * ============================================
+ * Ne yapar?
+ * - Bellekteki müşteri state'inin (CustomerStateStore'lar) her değişikliğini compacted topic'e yazar
+ * - Key: "storeName|customerId", value: store'un serileştirdiği tam state
+ * - Gelen changelog kaydını doğru store'a uygular (restore / standby)
+ *
+ * Partition eşlemesi:
+ * - transactions-topic customerId ile key'lenir → müşteri P numaralı partition'da
+ * - Changelog kaydı da AYNI P'ye yazılır (key farklı olduğu için partition açıkça hesaplanır,
+ *   Kafka'nın varsayılan partitioner'ı ile aynı formül: murmur2(customerId) % partitions)
+ * - Böylece transactions-topic partition P'yi alan instance sadece changelog partition P'yi okur
+ *
+ * Neden compacted?
+ * - Müşteri başına sadece son değer kalır → restore süresi trafik geçmişiyle değil müşteri sayısıyla orantılı
+ *
+ * Not: Changelog yazımı asenkron ve at-least-once (exactly-once transaction'ına dahil değil);
+ * store'lar zaman damgası karşılaştırmasıyla eski / tekrar gelen kayıtları yok sayar.
+ */
+@Component
+@ConditionalOnProperty(name = "fraud.state.changelog.enabled", havingValue = "true")
+public class StateChangelog implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(StateChangelog.class);
+    private static final char KEY_SEPARATOR = '|';
+
+    private final Map<String, CustomerStateStore> stores = new HashMap<>();
+    private final KafkaAdmin kafkaAdmin;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder writeFailures = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${fraud.kafka.topic.transactions}")
+    private String transactionsTopic;
+
+    @Value("${fraud.state.changelog.topic:fraud-risk-state-changelog}")
+    private String topic;
+
+    @Value("${fraud.state.changelog.replication-factor:1}")
+    private short replicationFactor;
+
+    // Segment kilidi altında send çağrılır: metadata yoksa uzun süre bloklamasın
+    @Value("${fraud.state.changelog.max-block-ms:500}")
+    private long maxBlockMs;
+
+    private volatile KafkaProducer<String, byte[]> producer;
+    private volatile int partitions;
+    private volatile boolean running;
+
+    public StateChangelog(List<CustomerStateStore> stateStores, KafkaAdmin kafkaAdmin) {
+        this.kafkaAdmin = kafkaAdmin;
+        for (CustomerStateStore store : stateStores) {
+            if (stores.put(store.storeName(), store) != null) {
+                throw new IllegalStateException("Duplicate state store name: " + store.storeName());
+            }
+        }
+    }
+
+    // ============================================
+    // LIFECYCLE (profil preload'dan sonra, Kafka listener'larından önce)
+    // ============================================
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 150;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        try {
+            Map<String, TopicDescription> description = kafkaAdmin.describeTopics(transactionsTopic);
+            partitions = description.get(transactionsTopic).partitions().size();
+            kafkaAdmin.createOrModifyTopics(TopicBuilder.name(topic)
+                    .partitions(partitions)
+                    .replicas(replicationFactor)
+                    .compact()
+                    .build());
+        } catch (Exception e) {
+            // Partition sayısı bilinmeden yazılan kayıt yanlış instance'a restore edilir → changelog kapalı
+            logger.warn("State changelog disabled, cannot resolve partitions of {}: {}", transactionsTopic, e.getMessage());
+            partitions = 0;
+            return;
+        }
+
+        Map<String, Object> config = new HashMap<>();
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.LINGER_MS_CONFIG, 20);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, 65536);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        config.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+        producer = new KafkaProducer<>(config);
+
+        stores.values().forEach(store -> store.attachChangelog(
+                (customerId, value) -> write(store.storeName(), customerId, value)));
+        logger.info("State changelog started: topic={}, partitions={}, stores={}", topic, partitions, stores.keySet());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        stores.values().forEach(store -> store.attachChangelog(null));
+        KafkaProducer<String, byte[]> current = producer;
+        producer = null;
+        if (current != null) {
+            current.close(Duration.ofSeconds(5));  // Bekleyen kayıtlar flush edilir
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // ============================================
+    // WRITE / APPLY
+    // ============================================
+    private void write(String storeName, String customerId, byte[] value) {
+        KafkaProducer<String, byte[]> current = producer;
+        if (current == null) {
+            return;
+        }
+        try {
+            current.send(new ProducerRecord<>(topic, partitionOf(customerId), storeName + KEY_SEPARATOR + customerId, value),
+                    (metadata, exception) -> {
+                        if (exception != null) {
+                            writeFailures.increment();
+                            logger.debug("State changelog write failed for {}: {}", customerId, exception.getMessage());
+                        }
+                    });
+            written.increment();
+        } catch (Exception e) {
+            writeFailures.increment();
+            logger.debug("State changelog write failed for {}: {}", customerId, e.getMessage());
+        }
+    }
+
+    /**
+     * Changelog kaydını ilgili store'a uygular (restore ve standby thread'lerinden)
+     */
+    void apply(String key, byte[] value) {
+        int separator = key != null ? key.indexOf(KEY_SEPARATOR) : -1;
+        CustomerStateStore store = separator > 0 ? stores.get(key.substring(0, separator)) : null;
+        if (store == null || value == null) {
+            skipped.increment();  // Bilinmeyen store (eski sürüm) veya tombstone
+            return;
+        }
+        store.restore(key.substring(separator + 1), value);
+        applied.increment();
+    }
+
+    int partitionOf(String customerId) {
+        return Utils.toPositive(Utils.murmur2(customerId.getBytes(StandardCharsets.UTF_8))) % partitions;
+    }
+
+    boolean isActive() {
+        return producer != null;
+    }
+
+    String getTopic() {
+        return topic;
+    }
+
+    int getPartitions() {
+        return partitions;
+    }
+
+    String getBootstrapServers() {
+        return bootstrapServers;
+    }
+
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("active", isActive());
+        stats.put("topic", topic);
+        stats.put("partitions", partitions);
+        stats.put("stores", stores.keySet());
+        stats.put("written", written.sum());
+        stats.put("writeFailures", writeFailures.sum());
+        stats.put("applied", applied.sum());
+        stats.put("skipped", skipped.sum());
+        return stats;
+    }
+}
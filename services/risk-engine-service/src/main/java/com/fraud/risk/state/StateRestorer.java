@@ -0,0 +1,308 @@
+package com.fraud.risk.state;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ============================================
+ * STATE RESTORER (REBALANCE LISTENER + STANDBY)
+ * ============================================
+ * Ne yapar?
+ * - transactions-topic partition'ları atandığında, o partition'ların changelog'unu
+ *   bellek state'ine geri yükler
+ * - Restore, listener thread'inin onPartitionsAssigned callback'i içinde biter
+ *   → atanan partition'lardan ilk kayıt işlenmeden state hazırdır
+ * - Partition'lar paralel yüklenir (partition başına ayrı consumer, büyük fetch)
+ *
+ * Standby (fraud.state.standby.enabled):
+ * - Arka planda TÜM changelog partition'larını sürekli uygular → başka instance'ların
+ *   müşterileri de bellekte sıcak tutulur
+ * - Failover'da restore sadece standby'ın kaldığı offset'ten sonrasını okur (genelde birkaç kayıt)
+ *
+ * Açılışta tam restore (fraud.state.restore.on-start, Streams runtime):
+ * - Kafka Streams partition atamasını bu listener'a bildirmez → TÜM changelog partition'ları
+ *   açılışta (topology başlamadan) yüklenir, sonra standby kaldığı offset'ten devam eder
+ * - Her instance tüm müşterilerin kural state'ini tutar: hangi partition'ı alırsa alsın state hazır
+ *
+ * Sınır:
+ * - Restore restore-timeout'u aşarsa partition eksik state ile işlenmeye başlar (log + sayaç),
+ *   max.poll.interval aşılıp grup yeniden dengelenmesin diye
+ */
+@Component
+@ConditionalOnProperty(name = "fraud.state.changelog.enabled", havingValue = "true")
+public class StateRestorer implements ConsumerAwareRebalanceListener, SmartLifecycle, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(StateRestorer.class);
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(200);
+
+    private final StateChangelog changelog;
+    private final ExecutorService restoreExecutor;
+
+    private final LongAdder restores = new LongAdder();
+    private final LongAdder restoredRecords = new LongAdder();
+    private final LongAdder restoreTimeouts = new LongAdder();
+    private final LongAdder standbyRecords = new LongAdder();
+    private volatile long lastRestoreMillis;
+
+    @Value("${fraud.state.restore.timeout-ms:120000}")
+    private long restoreTimeoutMs;
+
+    @Value("${fraud.state.restore.max-poll-records:5000}")
+    private int restoreMaxPollRecords;
+
+    @Value("${fraud.state.standby.enabled:false}")
+    private boolean standbyEnabled;
+
+    @Value("${fraud.state.restore.on-start:false}")
+    private boolean restoreOnStart;
+
+    // Standby'ın her partition'da uyguladığı son offset + 1 (-1 = standby yok / başlamadı)
+    private volatile AtomicLongArray standbyPositions = new AtomicLongArray(0);
+    private volatile KafkaConsumer<String, byte[]> standbyConsumer;
+    private volatile Thread standbyThread;
+    private volatile boolean running;
+
+    public StateRestorer(StateChangelog changelog,
+                         @Value("${fraud.state.restore.threads:4}") int threads) {
+        this.changelog = changelog;
+        AtomicInteger counter = new AtomicInteger();
+        this.restoreExecutor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "state-restore-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // ============================================
+    // REBALANCE
+    // ============================================
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        if (!changelog.isActive() || partitions.isEmpty()) {
+            return;
+        }
+        List<Integer> numbers = new ArrayList<>(partitions.size());
+        for (TopicPartition partition : partitions) {
+            numbers.add(partition.partition());
+        }
+        restore(numbers, partitions);
+    }
+
+    /**
+     * Partition'ları paralel restore eder, restore-timeout'a kadar bekler
+     */
+    private void restore(List<Integer> partitions, Object description) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(restoreTimeoutMs);
+
+        List<Future<Long>> futures = new ArrayList<>(partitions.size());
+        for (int partition : partitions) {
+            futures.add(restoreExecutor.submit(() -> restorePartition(partition, deadline)));
+        }
+        long records = 0;
+        for (Future<Long> future : futures) {
+            try {
+                records += future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                restoreTimeouts.increment();
+                logger.warn("State restore incomplete, continuing with partial state: {}", e.toString());
+            }
+        }
+
+        lastRestoreMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        restores.increment();
+        logger.info("Restored {} state records for {} in {} ms", records, description, lastRestoreMillis);
+    }
+
+    /**
+     * Changelog partition'ını restore başlangıcındaki son offset'e kadar okur
+     * Standby açıksa onun kaldığı yerden, değilse baştan başlar
+     */
+    private long restorePartition(int partition, long deadlineNanos) {
+        TopicPartition changelogPartition = new TopicPartition(changelog.getTopic(), partition);
+        long records = 0;
+        try (KafkaConsumer<String, byte[]> consumer = newConsumer(restoreMaxPollRecords)) {
+            consumer.assign(Collections.singletonList(changelogPartition));
+            long end = consumer.endOffsets(Collections.singletonList(changelogPartition)).get(changelogPartition);
+            long from = standbyPosition(partition);
+            if (from >= 0) {
+                consumer.seek(changelogPartition, from);
+            } else {
+                consumer.seekToBeginning(Collections.singletonList(changelogPartition));
+            }
+
+            while (consumer.position(changelogPartition) < end) {
+                if (System.nanoTime() > deadlineNanos) {
+                    throw new IllegalStateException("restore timeout on changelog partition " + partition);
+                }
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(POLL_TIMEOUT)) {
+                    changelog.apply(record.key(), record.value());
+                    records++;
+                }
+            }
+            // Standby bu offset'ten devam eder (açılışta tam restore)
+            AtomicLongArray positions = standbyPositions;
+            if (partition < positions.length()) {
+                positions.accumulateAndGet(partition, end, Math::max);
+            }
+        }
+        restoredRecords.add(records);
+        return records;
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        // State bellekte kalır: partition geri gelirse restore sadece aradaki değişiklikleri yazar,
+        // standby açıksa zaten güncel tutulur
+    }
+
+    // ============================================
+    // STANDBY (changelog'dan sonra, Kafka listener'larından önce başlar)
+    // ============================================
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 140;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!changelog.isActive() || (!standbyEnabled && !restoreOnStart)) {
+            return;
+        }
+        int partitions = changelog.getPartitions();
+        AtomicLongArray positions = new AtomicLongArray(partitions);
+        List<TopicPartition> assignment = new ArrayList<>(partitions);
+        List<Integer> all = new ArrayList<>(partitions);
+        for (int p = 0; p < partitions; p++) {
+            positions.set(p, -1);
+            assignment.add(new TopicPartition(changelog.getTopic(), p));
+            all.add(p);
+        }
+        standbyPositions = positions;
+
+        if (restoreOnStart) {
+            // Streams topology (daha yüksek phase) bu dönmeden başlamaz
+            restore(all, "all " + partitions + " changelog partitions");
+        }
+        if (!standbyEnabled) {
+            return;
+        }
+        standbyConsumer = newConsumer(restoreMaxPollRecords);
+        standbyThread = new Thread(() -> runStandby(standbyConsumer, assignment, positions), "state-standby");
+        standbyThread.setDaemon(true);
+        standbyThread.start();
+        logger.info("State standby started on {} changelog partitions", partitions);
+    }
+
+    private void runStandby(KafkaConsumer<String, byte[]> consumer, List<TopicPartition> assignment,
+                            AtomicLongArray positions) {
+        try {
+            consumer.assign(assignment);
+            for (TopicPartition partition : assignment) {
+                long position = positions.get(partition.partition());
+                if (position >= 0) {
+                    consumer.seek(partition, position);
+                } else {
+                    consumer.seekToBeginning(Collections.singletonList(partition));
+                }
+            }
+            while (running) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(Duration.ofMillis(500));
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    changelog.apply(record.key(), record.value());
+                    positions.accumulateAndGet(record.partition(), record.offset() + 1, Math::max);
+                }
+                standbyRecords.add(records.count());
+            }
+        } catch (WakeupException e) {
+            // stop()
+        } catch (Exception e) {
+            logger.error("State standby stopped: {}", e.getMessage(), e);
+        } finally {
+            consumer.close(Duration.ofSeconds(2));
+        }
+    }
+
+    private long standbyPosition(int partition) {
+        AtomicLongArray positions = standbyPositions;
+        return partition < positions.length() ? positions.get(partition) : -1;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        KafkaConsumer<String, byte[]> consumer = standbyConsumer;
+        if (consumer != null) {
+            consumer.wakeup();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void destroy() {
+        restoreExecutor.shutdownNow();
+    }
+
+    private KafkaConsumer<String, byte[]> newConsumer(int maxPollRecords) {
+        // Grup yok: partition'lar assign ile alınır, offset commit edilmez
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, changelog.getBootstrapServers());
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        config.put(ConsumerConfig.FETCH_MAX_BYTES_CONFIG, 16 * 1024 * 1024);
+        config.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, 4 * 1024 * 1024);
+        return new KafkaConsumer<>(config);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(changelog.getStats());
+        stats.put("restores", restores.sum());
+        stats.put("restoredRecords", restoredRecords.sum());
+        stats.put("restoreTimeouts", restoreTimeouts.sum());
+        stats.put("lastRestoreMs", lastRestoreMillis);
+        stats.put("standby", standbyThread != null && standbyThread.isAlive());
+        stats.put("standbyRecords", standbyRecords.sum());
+        return stats;
+    }
+}
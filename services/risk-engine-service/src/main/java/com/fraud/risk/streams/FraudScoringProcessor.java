@@ -0,0 +1,126 @@
+package com.fraud.risk.streams;
+
+import com.fraud.risk.ml.MlScoringClient;
+import com.fraud.risk.model.RiskScore;
+import com.fraud.risk.model.Transaction;
+import com.fraud.risk.rules.FraudRule;
+import com.fraud.risk.rules.RuleRegistry;
+import com.fraud.risk.service.RiskScorer;
+import com.fraud.risk.service.ScoringDeadline;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.WindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+
+import java.math.BigDecimal;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ============================================
+ * FRAUD SCORING PROCESSOR (STREAMS RUNTIME)
+ * ============================================
+ * Ne yapar?
+ * 1. Velocity: müşterinin bucket sayacını RocksDB window store'unda artırır,
+ *    son velocity penceresindeki bucket'ları toplar
+ * 2. Aktif kural setini (RuleRegistry) çalıştırır; "velocity" kuralı store'dan beslenen
+ *    WindowedVelocityRule ile değiştirilir
+ * 3. ML skoru (kalan bütçeyle sınırlı, circuit breaker) + hybrid skor: RiskScorer, canlı akışla aynı kod
+ *
+ * Neden bucket'lı window store?
+ * - Transaction başına bir kayıt yerine müşteri başına dakika başına tek sayaç
+ *   → pencere sorgusu en fazla window / bucket kadar satır okur
+ *
+ * Profil join'den gelir (KTable), hot path'te PostgreSQL / ProfileStore erişimi yok
+ */
+public class FraudScoringProcessor implements Processor<String, ScoringRecord, String, ScoringRecord> {
+
+    public static final String VELOCITY_STORE = "velocity-store";
+
+    private final RuleRegistry ruleRegistry;
+    private final RiskScorer riskScorer;
+    private final MlScoringClient mlScoringClient;
+    private final WindowedVelocityRule velocityRule;
+    private final long bucketMs;
+    private final long windowMs;
+    private final long budgetMs;
+
+    private ProcessorContext<String, ScoringRecord> context;
+    private WindowStore<String, Long> velocityStore;
+
+    // Registry aynı listeyi reload'a kadar döner → velocity değişimi liste başına bir kez yapılır
+    private List<FraudRule> baseRules;
+    private List<FraudRule> rules;
+
+    public FraudScoringProcessor(RuleRegistry ruleRegistry, RiskScorer riskScorer, MlScoringClient mlScoringClient,
+                                 long maxTransactions, long windowMinutes, int velocityScore,
+                                 long bucketMs, long budgetMs) {
+        this.ruleRegistry = ruleRegistry;
+        this.riskScorer = riskScorer;
+        this.mlScoringClient = mlScoringClient;
+        this.velocityRule = new WindowedVelocityRule(maxTransactions, windowMinutes, velocityScore, 9);
+        this.bucketMs = bucketMs;
+        this.windowMs = windowMinutes * 60_000L;
+        this.budgetMs = budgetMs;
+    }
+
+    @Override
+    public void init(ProcessorContext<String, ScoringRecord> context) {
+        this.context = context;
+        this.velocityStore = context.getStateStore(VELOCITY_STORE);
+    }
+
+    @Override
+    public void process(Record<String, ScoringRecord> record) {
+        ScoringRecord value = record.value();
+        Transaction transaction = value.getTransaction();
+        ScoringDeadline deadline = ScoringDeadline.start(budgetMs);
+
+        // ========== 1. VELOCITY (WINDOW STORE) ==========
+        long eventTime = transaction.getTimestamp() != null
+                ? transaction.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli()
+                : record.timestamp();
+        velocityRule.setCount(incrementAndCount(transaction.getCustomerId(), eventTime));
+
+        // ========== 2. ML ==========
+        MlScoringClient.Result ml = mlScoringClient.predict(transaction, value.getProfile(), deadline);
+        BigDecimal mlScore = ml.getScore();
+
+        // ========== 3. RULES + FINAL SCORE ==========
+        RiskScore riskScore = riskScorer.score(transaction, value.getProfile(), currentRules(),
+                mlScore, ml.getFallbackReason());
+        value.setRiskScore(riskScore);
+
+        context.forward(record);
+    }
+
+    private long incrementAndCount(String customerId, long eventTime) {
+        long bucket = eventTime - Math.floorMod(eventTime, bucketMs);
+        Long current = velocityStore.fetch(customerId, bucket);
+        velocityStore.put(customerId, current == null ? 1L : current + 1, bucket);
+
+        long count = 0;
+        try (WindowStoreIterator<Long> buckets = velocityStore.fetch(customerId, bucket - windowMs + bucketMs, bucket)) {
+            while (buckets.hasNext()) {
+                count += buckets.next().value;
+            }
+        }
+        return count;
+    }
+
+    private List<FraudRule> currentRules() {
+        List<FraudRule> active = ruleRegistry.current();
+        if (active != baseRules) {
+            List<FraudRule> replaced = new ArrayList<>(active.size());
+            for (FraudRule rule : active) {
+                // DSL ile tanımlanmış "velocity" kuralı da store'dan beslenen sayıyla değiştirilir
+                replaced.add(WindowedVelocityRule.RULE_NAME.equals(rule.getRuleName()) ? velocityRule : rule);
+            }
+            rules = List.copyOf(replaced);
+            baseRules = active;
+        }
+        return rules;
+    }
+}
@@ -0,0 +1,154 @@
+package com.fraud.risk.streams;
+
+import com.fraud.risk.model.CustomerProfile;
+import com.fraud.risk.profile.CustomerProfileProvider;
+import com.fraud.risk.profile.ProfileStore;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ============================================
+ * PROFILE TOPIC PUBLISHER (STREAMS RUNTIME)
+ * ============================================
+ * Ne yapar?
+ * - customer_profiles KTable'ının kaynak topic'ini hazırlar: compacted, partition sayısı
+ *   transactions-topic ile aynı (stream-table join co-partitioning ister)
+ * - publish-on-start: topic boşsa preload edilmiş ProfileStore'u topic'e basar (key = customerId)
+ * - ProfileRecomputeJob her swap'tan sonra publishAll çağırır: KTable yeni profilleri görür
+ *
+ * Neden açılışta sadece boş topic?
+ * - Topic compacted ve customer_profiles'ın tek yazarı recompute job'u: dolu topic zaten son
+ *   swap'ın profillerini taşır. Her instance'ın açılışta tüm profilleri yeniden basması gereksiz yük
+ * - Swap sonrası sadece job'u çalıştıran instance basar (advisory lock'u alan tek instance)
+ *
+ * Sıra (SmartLifecycle phase):
+ * - ProfilePreloader (MAX - 200) → bu sınıf (MAX - 180) → Kafka Streams (MAX - 100)
+ */
+@Component
+@ConditionalOnProperty(name = "fraud.runtime", havingValue = "streams")
+public class ProfileTopicPublisher implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfileTopicPublisher.class);
+
+    private final KafkaAdmin kafkaAdmin;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ProfileStore profileStore;
+    private final CustomerProfileProvider profileProvider;
+
+    @Value("${fraud.kafka.topic.transactions}")
+    private String transactionsTopic;
+
+    @Value("${fraud.kafka.topic.customer-profiles}")
+    private String profilesTopic;
+
+    @Value("${fraud.streams.profiles.replication-factor:1}")
+    private short replicationFactor;
+
+    @Value("${fraud.streams.profiles.publish-on-start:true}")
+    private boolean publishOnStart;
+
+    private volatile boolean running;
+    private volatile int partitions;
+
+    public ProfileTopicPublisher(KafkaAdmin kafkaAdmin,
+                                 KafkaTemplate<String, Object> kafkaTemplate,
+                                 ProfileStore profileStore,
+                                 CustomerProfileProvider profileProvider) {
+        this.kafkaAdmin = kafkaAdmin;
+        this.kafkaTemplate = kafkaTemplate;
+        this.profileStore = profileStore;
+        this.profileProvider = profileProvider;
+    }
+
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 180;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Map<String, TopicDescription> description = kafkaAdmin.describeTopics(transactionsTopic);
+        partitions = description.get(transactionsTopic).partitions().size();
+        kafkaAdmin.createOrModifyTopics(TopicBuilder.name(profilesTopic)
+                .partitions(partitions)
+                .replicas(replicationFactor)
+                .compact()
+                .build());
+
+        if (!publishOnStart) {
+            return;
+        }
+        if (!topicIsEmpty()) {
+            logger.info("{} already holds profiles, skipping publish on start", profilesTopic);
+            return;
+        }
+        publishAll("start");
+    }
+
+    /**
+     * ProfileStore'daki tüm profilleri topic'e basar (açılış / recompute swap'ı sonrası)
+     */
+    public void publishAll(String cause) {
+        if (!profileProvider.isPreloaded()) {
+            logger.warn("Profiles not preloaded, not publishing to {} ({})", profilesTopic, cause);
+            return;
+        }
+        long startNanos = System.nanoTime();
+        LongAdder published = new LongAdder();
+        profileStore.forEach((CustomerProfile profile) -> {
+            // Serileştirme send() içinde senkron → off-heap flyweight profil güvenle yeniden kullanılabilir
+            kafkaTemplate.send(profilesTopic, profile.getCustomerId(), profile);
+            published.increment();
+        });
+        kafkaTemplate.flush();
+        logger.info("Published {} profiles to {} ({} partitions, {}) in {} ms", published.sum(), profilesTopic,
+                partitions, cause, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    private boolean topicIsEmpty() {
+        Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+        for (int p = 0; p < partitions; p++) {
+            latest.put(new TopicPartition(profilesTopic, p), OffsetSpec.latest());
+        }
+        try (AdminClient admin = AdminClient.create(kafkaAdmin.getConfigurationProperties())) {
+            for (ListOffsetsResult.ListOffsetsResultInfo info : admin.listOffsets(latest).all()
+                    .get(30, TimeUnit.SECONDS).values()) {
+                if (info.offset() > 0) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            logger.warn("Cannot read offsets of {}, publishing profiles: {}", profilesTopic, e.getMessage());
+            return true;
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,43 @@
+package com.fraud.risk.streams;
+
+import com.fraud.risk.model.CustomerProfile;
+import com.fraud.risk.model.RiskScore;
+import com.fraud.risk.model.Transaction;
+
+/**
+ * ============================================
+ * SCORING RECORD (STREAMS TOPOLOGY İÇİ DEĞER)
+ * ============================================
+ * Transaction + join edilen profil (nullable) + processor'ın hesapladığı skor
+ * Topology içinde kalır, topic'e yazılmaz (serde gerekmez)
+ */
+public final class ScoringRecord {
+
+    private final Transaction transaction;
+    private final CustomerProfile profile;
+    private RiskScore riskScore;
+
+    public ScoringRecord(Transaction transaction, CustomerProfile profile) {
+        this.transaction = transaction;
+        this.profile = profile;
+    }
+
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    /**
+     * @return profil veya null (KTable'da henüz yok)
+     */
+    public CustomerProfile getProfile() {
+        return profile;
+    }
+
+    public RiskScore getRiskScore() {
+        return riskScore;
+    }
+
+    void setRiskScore(RiskScore riskScore) {
+        this.riskScore = riskScore;
+    }
+}
@@ -0,0 +1,85 @@
+package com.fraud.risk.streams;
+
+import com.fraud.risk.model.CustomerProfile;
+import com.fraud.risk.rules.FraudRule;
+import com.fraud.risk.rules.ReasonParams;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * ============================================
+ * WINDOWED VELOCITY RULE (STREAMS RUNTIME)
+ * ============================================
+ * Ne yapar?
+ * - Placeholder VelocityRule'un yerine geçer: sayıyı FraudScoringProcessor velocity
+ *   window store'undan hesaplayıp her kayıttan önce setCount() ile verir
+ *
+ * Thread-safety: processor instance'ı başına bir tane, stream thread'i tek başına kullanır
+ */
+final class WindowedVelocityRule implements FraudRule {
+
+    static final String RULE_NAME = "velocity";
+
+    private final long maxTransactions;
+    private final long windowMinutes;
+    private final int score;
+    private final int priority;
+    private long count;
+
+    WindowedVelocityRule(long maxTransactions, long windowMinutes, int score, int priority) {
+        this.maxTransactions = maxTransactions;
+        this.windowMinutes = windowMinutes;
+        this.score = score;
+        this.priority = priority;
+    }
+
+    void setCount(long count) {
+        this.count = count;
+    }
+
+    @Override
+    public int evaluate(
+            String transactionId,
+            String customerId,
+            BigDecimal amount,
+            String merchantCategory,
+            String location,
+            LocalDateTime timestamp,
+            CustomerProfile customerProfile) {
+        return count > maxTransactions ? score : 0;
+    }
+
+    @Override
+    public String getRuleName() {
+        return RULE_NAME;
+    }
+
+    @Override
+    public String getReason() {
+        return count > maxTransactions
+                ? String.format("%d transactions in last %d minutes (max %d)", count, windowMinutes, maxTransactions)
+                : "Velocity check passed";
+    }
+
+    @Override
+    public void captureReason(ReasonParams params) {
+        params.add(count).add(windowMinutes).add(maxTransactions);
+    }
+
+    @Override
+    public int getReasonNumberCount() {
+        return 3;
+    }
+
+    @Override
+    public String renderReason(ReasonParams params) {
+        return String.format("%.0f transactions in last %.0f minutes (max %.0f)",
+                params.getNumber(0), params.getNumber(1), params.getNumber(2));
+    }
+
+    @Override
+    public int getPriority() {
+        return priority;
+    }
+}
@@ -0,0 +1,150 @@
+package com.fraud.risk.aggregate;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AmountAggregateTableTest {
+
+    // Gün başı: üç seviyenin bucket sınırları hizalı
+    private static final int M0 = 1_440 * 20_458;
+    private static final int HOUR = 60;
+    private static final int DAY = 1_440;
+
+    private static double[] query(AmountAggregateTable table, String customerId, int minute) {
+        double[] out = new double[AmountAggregates.FIELDS];
+        table.query(customerId, minute, out);
+        return out;
+    }
+
+    private static double[] windows(double sum1h, double max1h, double sum24h, double max24h,
+                                    double sum7d, double max7d) {
+        return new double[]{sum1h, max1h, sum24h, max24h, sum7d, max7d};
+    }
+
+    @Test
+    void sumsAndMaxesEveryWindow() {
+        AmountAggregateTable table = new AmountAggregateTable(1_000);
+        table.record("CUST-1", "TX-1", 100, M0);
+        table.record("CUST-1", "TX-2", 50.5, M0 + 10);
+
+        assertArrayEquals(windows(150.5, 100, 150.5, 100, 150.5, 100), query(table, "CUST-1", M0 + 10));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void unknownCustomerClearsOutput() {
+        AmountAggregateTable table = new AmountAggregateTable(1_000);
+        double[] out = {1, 2, 3, 4, 5, 6};
+
+        assertFalse(table.query("CUST-1", M0, out));
+        assertArrayEquals(new double[6], out);
+    }
+
+    @Test
+    void oneHourRingRollsOverWhileLongerWindowsKeepAmount() {
+        AmountAggregateTable table = new AmountAggregateTable(1_000);
+        table.record("CUST-1", "TX-1", 100, M0);
+        table.record("CUST-1", "TX-2", 30, M0 + 70);
+
+        // 5 dakikalık halka 12 bucket: M0 bucket'ı yeniden kullanılmadan düşer
+        assertArrayEquals(windows(30, 30, 130, 100, 130, 100), query(table, "CUST-1", M0 + 70));
+    }
+
+    @Test
+    void queryAfterHeadSlidesWindowsWithoutWriting() {
+        AmountAggregateTable table = new AmountAggregateTable(1_000);
+        table.record("CUST-1", "TX-1", 100, M0);
+
+        assertArrayEquals(windows(100, 100, 100, 100, 100, 100), query(table, "CUST-1", M0 + 55));
+        assertArrayEquals(windows(0, 0, 100, 100, 100, 100), query(table, "CUST-1", M0 + 2 * HOUR));
+        assertArrayEquals(windows(0, 0, 0, 0, 100, 100), query(table, "CUST-1", M0 + DAY + 5 * HOUR));
+        assertArrayEquals(windows(0, 0, 0, 0, 0, 0), query(table, "CUST-1", M0 + 7 * DAY));
+        // Sorgu halkayı değiştirmez
+        assertArrayEquals(windows(100, 100, 100, 100, 100, 100), query(table, "CUST-1", M0));
+    }
+
+    @Test
+    void wrappedSlotIsClearedBeforeReuse() {
+        AmountAggregateTable table = new AmountAggregateTable(1_000);
+        table.record("CUST-1", "TX-1", 100, M0);
+        // Tam bir tur sonrası aynı slotlar: 1 saat, 1 gün ve 7 gün
+        table.record("CUST-1", "TX-2", 10, M0 + HOUR);
+        table.record("CUST-1", "TX-3", 20, M0 + DAY);
+        table.record("CUST-1", "TX-4", 40, M0 + 7 * DAY);
+
+        // M0 günü (100 + 10) halkadan düştü, M0 + DAY hâlâ 7 günün içinde
+        assertArrayEquals(windows(40, 40, 40, 40, 60, 40), query(table, "CUST-1", M0 + 7 * DAY));
+    }
+
+    @Test
+    void lateEventLandsOnlyInLevelsThatStillHoldItsBucket() {
+        AmountAggregateTable table = new AmountAggregateTable(1_000);
+        int head = M0 + 2 * DAY;
+        table.record("CUST-1", "TX-1", 100, head);
+        table.record("CUST-1", "TX-2", 20, head - 30);
+        table.record("CUST-1", "TX-3", 7, M0);
+
+        assertArrayEquals(windows(120, 100, 120, 100, 127, 100), query(table, "CUST-1", head));
+    }
+
+    @Test
+    void redeliveredTransactionIsNotCountedTwice() {
+        AmountAggregateTable table = new AmountAggregateTable(1_000);
+
+        assertTrue(table.record("CUST-1", "TX-1", 100, M0));
+        assertTrue(table.record("CUST-1", "TX-2", 10, M0 + 1));
+        assertFalse(table.record("CUST-1", "TX-1", 100, M0));
+        assertFalse(table.record("CUST-1", "TX-2", 10, M0 + 1));
+
+        assertEquals(110, query(table, "CUST-1", M0 + 1)[AmountAggregates.SUM_1H]);
+    }
+
+    @Test
+    void changelogValueRestoresSameWindows() {
+        AmountAggregateTable source = new AmountAggregateTable(1_000);
+        Map<String, byte[]> changelog = new HashMap<>();
+        source.setChangeListener(changelog::put);
+        source.record("CUST-1", "TX-1", 100, M0);
+        source.record("CUST-1", "TX-2", 30, M0 + 70);
+        source.record("CUST-1", "TX-3", 5, M0 + DAY);
+
+        AmountAggregateTable target = new AmountAggregateTable(1_000);
+        target.restore("CUST-1", changelog.get("CUST-1"));
+
+        assertEquals(AmountAggregateTable.VALUE_BYTES, changelog.get("CUST-1").length);
+        assertArrayEquals(query(source, "CUST-1", M0 + DAY + 30), query(target, "CUST-1", M0 + DAY + 30));
+    }
+
+    @Test
+    void restoreIgnoresOlderHeadAndForeignValue() {
+        AmountAggregateTable source = new AmountAggregateTable(1_000);
+        Map<String, byte[]> changelog = new HashMap<>();
+        source.setChangeListener(changelog::put);
+        source.record("CUST-1", "TX-1", 100, M0);
+
+        AmountAggregateTable target = new AmountAggregateTable(1_000);
+        target.record("CUST-1", "TX-9", 9, M0 + 10);
+        target.restore("CUST-1", changelog.get("CUST-1"));
+        target.restore("CUST-2", new byte[12]);
+
+        assertEquals(9, query(target, "CUST-1", M0 + 10)[AmountAggregates.SUM_1H]);
+        assertEquals(1, target.size());
+    }
+
+    @Test
+    void fullSegmentsAreClearedToBoundMemory() {
+        AmountAggregateTable table = new AmountAggregateTable(1_024);
+        for (int i = 0; i < 20_000; i++) {
+            table.record("CUST-" + i, "TX-" + i, 1, M0);
+        }
+
+        assertTrue(table.size() <= 1_024, "size " + table.size());
+    }
+}
@@ -0,0 +1,183 @@
+package com.fraud.risk.aggregate;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CustomerSketchTableTest {
+
+    private static final int WINDOW = 60;
+    private static final int DECAY_WINDOWS = 24;
+    private static final int M0 = 60 * 500_000;
+
+    // out: [lokasyon farklı, lokasyon önceki], [merchant farklı, merchant önceki], geçmiş
+    private static final int LOCATION_DISTINCT = 0;
+    private static final int LOCATION_SEEN = 1;
+    private static final int MERCHANT_SEEN = 3;
+    private static final int HISTORY = 4;
+
+    private static CustomerSketchTable table() {
+        return new CustomerSketchTable(1_000, WINDOW, DECAY_WINDOWS);
+    }
+
+    private static double[] observe(CustomerSketchTable table, String customerId, String transactionId,
+                                    String location, String merchant, int minute) {
+        double[] out = new double[CustomerSketchTable.DIMENSIONS * 2 + 1];
+        table.observe(customerId, transactionId, new String[]{location, merchant}, minute, out);
+        return out;
+    }
+
+    @Test
+    void reportsStateBeforeThisTransaction() {
+        CustomerSketchTable table = table();
+
+        double[] first = observe(table, "CUST-1", "TX-1", "Istanbul", "grocery", M0);
+        double[] second = observe(table, "CUST-1", "TX-2", "Istanbul", "fuel", M0 + 1);
+
+        assertEquals(0, first[LOCATION_SEEN]);
+        assertEquals(0, first[HISTORY]);
+        assertEquals(1, second[LOCATION_SEEN]);
+        assertEquals(0, second[MERCHANT_SEEN]);
+        assertEquals(1, second[HISTORY]);
+        // Farklı sayısı bu işlem dahil
+        assertEquals(1, first[LOCATION_DISTINCT], 0.05);
+        assertEquals(1, second[LOCATION_DISTINCT], 0.05);
+    }
+
+    @Test
+    void redeliveredTransactionSeesTheSameAnswer() {
+        CustomerSketchTable table = table();
+        observe(table, "CUST-1", "TX-1", "Istanbul", "grocery", M0);
+
+        double[] first = observe(table, "CUST-1", "TX-2", "Istanbul", "grocery", M0 + 1);
+        double[] again = observe(table, "CUST-1", "TX-2", "Istanbul", "grocery", M0 + 1);
+
+        assertArrayEquals(first, again);
+        assertEquals(2, observe(table, "CUST-1", "TX-3", "Istanbul", "grocery", M0 + 2)[LOCATION_SEEN]);
+    }
+
+    @Test
+    void missingValueLeavesDimensionUntouched() {
+        CustomerSketchTable table = table();
+        observe(table, "CUST-1", "TX-1", null, "grocery", M0);
+
+        double[] out = observe(table, "CUST-1", "TX-2", "Istanbul", null, M0 + 1);
+
+        assertEquals(0, out[LOCATION_SEEN]);
+        assertEquals(1, out[LOCATION_DISTINCT], 0.05);
+        assertEquals(0, out[MERCHANT_SEEN]);
+        assertEquals(1, out[HISTORY]);
+    }
+
+    @Test
+    void countMinNeverUndercounts() {
+        CustomerSketchTable table = table();
+        Random random = new Random(42);
+        int[] truth = new int[200];
+
+        // 64 sayaçtan fazla değer: çakışmalar kaçınılmaz, tahmin sadece yukarı sapabilir
+        for (int i = 0; i < 2_000; i++) {
+            int value = random.nextInt(truth.length);
+            double[] out = observe(table, "CUST-1", "TX-" + i, "city-" + value, null, M0);
+            assertTrue(out[LOCATION_SEEN] >= truth[value],
+                    "city-" + value + " estimate " + out[LOCATION_SEEN] + " < " + truth[value]);
+            truth[value]++;
+        }
+    }
+
+    @Test
+    void distinctCountStaysWithinHllErrorBounds() {
+        // m = 64: ~%13 standart hata → tek tahmin 3 sigma (%40) içinde, ortalama hata standart hatanın altında
+        for (int n : new int[]{3, 10, 40, 150, 1_000}) {
+            double errorSum = 0;
+            for (int customer = 0; customer < 50; customer++) {
+                CustomerSketchTable table = table();
+                double[] out = null;
+                for (int i = 0; i < n; i++) {
+                    out = observe(table, "CUST-" + customer, "TX-" + i, "city-" + customer + "-" + i, null, M0);
+                }
+                double error = Math.abs(out[LOCATION_DISTINCT] - n) / n;
+                assertTrue(error <= 0.40, n + " distinct estimated as " + out[LOCATION_DISTINCT]);
+                errorSum += error;
+            }
+            assertTrue(errorSum / 50 <= 0.13, n + " distinct mean error " + errorSum / 50);
+        }
+    }
+
+    @Test
+    void distinctWindowCoversCurrentAndPreviousPeriod() {
+        CustomerSketchTable table = table();
+        for (int i = 0; i < 10; i++) {
+            observe(table, "CUST-1", "TX-" + i, "city-" + i, null, M0);
+        }
+
+        double[] nextWindow = observe(table, "CUST-1", "TX-10", "city-10", null, M0 + WINDOW);
+        double[] afterGap = observe(table, "CUST-1", "TX-11", "city-11", null, M0 + 3 * WINDOW);
+
+        assertEquals(11, nextWindow[LOCATION_DISTINCT], 0.5);
+        assertEquals(1, afterGap[LOCATION_DISTINCT], 0.05);
+    }
+
+    @Test
+    void countsHalveEveryDecayPeriod() {
+        CustomerSketchTable table = table();
+        for (int i = 0; i < 8; i++) {
+            observe(table, "CUST-1", "TX-" + i, "Istanbul", "grocery", M0);
+        }
+
+        double[] out = observe(table, "CUST-1", "TX-8", "Istanbul", "grocery", M0 + DECAY_WINDOWS * WINDOW);
+
+        assertEquals(4, out[LOCATION_SEEN]);
+        assertEquals(4, out[MERCHANT_SEEN]);
+        assertEquals(4, out[HISTORY]);
+    }
+
+    @Test
+    void changelogValueRestoresSameAnswers() {
+        CustomerSketchTable source = table();
+        Map<String, byte[]> changelog = new HashMap<>();
+        source.setChangeListener(changelog::put);
+        for (int i = 0; i < 20; i++) {
+            observe(source, "CUST-1", "TX-" + i, "city-" + (i % 7), "category-" + (i % 3), M0 + i);
+        }
+
+        CustomerSketchTable target = table();
+        target.restore("CUST-1", changelog.get("CUST-1"));
+        target.restore("CUST-2", new byte[3]);
+
+        assertEquals(CustomerSketchTable.VALUE_BYTES, changelog.get("CUST-1").length);
+        assertArrayEquals(observe(source, "CUST-1", "TX-20", "city-3", "category-9", M0 + 30),
+                observe(target, "CUST-1", "TX-20", "city-3", "category-9", M0 + 30));
+        assertEquals(1, target.size());
+    }
+
+    @Test
+    void restoreIgnoresOlderPeriod() {
+        CustomerSketchTable source = table();
+        Map<String, byte[]> changelog = new HashMap<>();
+        source.setChangeListener(changelog::put);
+        observe(source, "CUST-1", "TX-1", "Istanbul", "grocery", M0);
+
+        CustomerSketchTable target = table();
+        observe(target, "CUST-1", "TX-9", "Ankara", "fuel", M0 + WINDOW);
+        target.restore("CUST-1", changelog.get("CUST-1"));
+
+        assertEquals(0, observe(target, "CUST-1", "TX-10", "Istanbul", null, M0 + WINDOW)[LOCATION_SEEN]);
+    }
+
+    @Test
+    void fullSegmentsAreClearedToBoundMemory() {
+        CustomerSketchTable table = new CustomerSketchTable(1_024, WINDOW, DECAY_WINDOWS);
+        for (int i = 0; i < 20_000; i++) {
+            observe(table, "CUST-" + i, "TX-" + i, "Istanbul", "grocery", M0);
+        }
+
+        assertTrue(table.size() <= 1_024, "size " + table.size());
+    }
+}
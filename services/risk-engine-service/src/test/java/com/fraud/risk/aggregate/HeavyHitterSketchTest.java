@@ -0,0 +1,146 @@
+package com.fraud.risk.aggregate;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HeavyHitterSketchTest {
+
+    private static final long BUCKET = 60;
+    private static final int BASELINE = 10;
+    // Dakika başı: bucket sınırına hizalı
+    private static final long E0 = 1_767_600_000L;
+
+    private static HeavyHitterSketch sketch() {
+        return new HeavyHitterSketch(BUCKET, BASELINE, 4, 8);
+    }
+
+    private static void add(HeavyHitterSketch sketch, String key, int bucket, int count) {
+        for (int i = 0; i < count; i++) {
+            sketch.add(key, E0 + bucket * BUCKET + i % BUCKET);
+        }
+    }
+
+    private static HeavyHitterSketch.Hitter find(List<HeavyHitterSketch.Hitter> hitters, String key) {
+        return hitters.stream().filter(hitter -> hitter.getKey().equals(key)).findFirst().orElse(null);
+    }
+
+    @Test
+    void emptySketchHasNoHitters() {
+        HeavyHitterSketch sketch = sketch();
+
+        assertTrue(sketch.evaluate(3.0, 1, 0).isEmpty());
+        assertEquals(0, sketch.getLatestBucketEpochSecond());
+    }
+
+    @Test
+    void ranksCandidatesOfCurrentAndLastBucket() {
+        HeavyHitterSketch sketch = sketch();
+        add(sketch, "fuel", 0, 10);
+        add(sketch, "grocery", 1, 30);
+        add(sketch, "travel", 1, 1);
+
+        List<HeavyHitterSketch.Hitter> hitters = sketch.evaluate(3.0, 1, 1);
+
+        assertEquals(List.of("grocery", "fuel", "travel"), hitters.stream().map(HeavyHitterSketch.Hitter::getKey).toList());
+        assertEquals(30, hitters.get(0).getCurrentCount());
+        assertEquals(10, find(hitters, "fuel").getPreviousCount());
+        // Geçmiş bucket yok: spike üretilmez
+        assertTrue(hitters.stream().noneMatch(HeavyHitterSketch.Hitter::isSpiking));
+        assertEquals(E0 + BUCKET, sketch.getLatestBucketEpochSecond());
+    }
+
+    @Test
+    void flagsSpikeAgainstBaselineButNotSteadyTraffic() {
+        HeavyHitterSketch sketch = sketch();
+        Random random = new Random(42);
+        for (int bucket = 0; bucket <= BASELINE; bucket++) {
+            add(sketch, "grocery", bucket, 8 + random.nextInt(5));
+            add(sketch, "electronics", bucket, 2);
+        }
+        add(sketch, "grocery", BASELINE + 1, 10);
+        add(sketch, "electronics", BASELINE + 1, 60);
+
+        List<HeavyHitterSketch.Hitter> hitters = sketch.evaluate(3.0, 20, 5);
+
+        HeavyHitterSketch.Hitter electronics = find(hitters, "electronics");
+        assertTrue(electronics.isSpiking());
+        assertEquals(2.0, electronics.getBaselineMean(), 1e-9);
+        assertTrue(electronics.getZScore() > 10, "z " + electronics.getZScore());
+        assertFalse(find(hitters, "grocery").isSpiking());
+    }
+
+    @Test
+    void noSpikeWithoutEnoughHistoryOrVolume() {
+        HeavyHitterSketch sketch = sketch();
+        add(sketch, "electronics", 0, 2);
+        add(sketch, "electronics", 1, 2);
+        add(sketch, "electronics", 2, 2);
+        add(sketch, "electronics", 3, 60);
+
+        assertFalse(find(sketch.evaluate(3.0, 20, 5), "electronics").isSpiking());
+        assertTrue(find(sketch.evaluate(3.0, 20, 2), "electronics").isSpiking());
+        assertFalse(find(sketch.evaluate(3.0, 100, 2), "electronics").isSpiking());
+    }
+
+    @Test
+    void lateEventCountsOnlyWhileItsBucketIsInRing() {
+        HeavyHitterSketch sketch = sketch();
+        int ring = BASELINE + 2;
+        add(sketch, "grocery", ring, 1);
+
+        assertTrue(sketch.add("fuel", E0 + (ring - 1) * BUCKET));
+        assertFalse(sketch.add("fuel", E0));
+        assertEquals(1, find(sketch.evaluate(3.0, 1, 0), "fuel").getPreviousCount());
+    }
+
+    @Test
+    void reusedSlotForgetsOldBucket() {
+        HeavyHitterSketch sketch = sketch();
+        add(sketch, "grocery", 0, 50);
+        // Tam bir tur sonra aynı halka slot'u
+        add(sketch, "fuel", BASELINE + 2, 1);
+
+        List<HeavyHitterSketch.Hitter> hitters = sketch.evaluate(3.0, 1, 0);
+
+        assertEquals(1, hitters.size());
+        assertEquals("fuel", hitters.get(0).getKey());
+    }
+
+    @Test
+    void heavyKeySurvivesSpaceSavingEviction() {
+        HeavyHitterSketch sketch = sketch();
+        for (int i = 0; i < 200; i++) {
+            sketch.add("merchant-" + i, E0);
+            if (i % 2 == 0) {
+                sketch.add("grocery", E0);
+            }
+        }
+
+        // Space-saving: N / k'dan sık değer aday listesinde kalır (100 > 300 / 8)
+        HeavyHitterSketch.Hitter grocery = find(sketch.evaluate(3.0, 1, 0), "grocery");
+        assertEquals(100, grocery.getCurrentCount());
+    }
+
+    @Test
+    void stripesFromManyThreadsMergeExactly() throws Exception {
+        HeavyHitterSketch sketch = sketch();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> add(sketch, "grocery", 0, 10_000));
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80_000, find(sketch.evaluate(3.0, 1, 0), "grocery").getCurrentCount());
+    }
+}
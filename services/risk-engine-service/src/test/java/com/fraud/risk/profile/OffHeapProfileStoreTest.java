@@ -0,0 +1,215 @@
+package com.fraud.risk.profile;
+
+import com.fraud.risk.model.CustomerProfile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapProfileStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private OffHeapProfileStore store;
+
+    @BeforeEach
+    void createStore() {
+        store = new OffHeapProfileStore(directory.toString(), 1_024);
+    }
+
+    @AfterEach
+    void destroyStore() throws Exception {
+        store.destroy();
+    }
+
+    private static CustomerProfile profile(String customerId, String avg, List<String> locations) {
+        CustomerProfile profile = new CustomerProfile();
+        profile.setCustomerId(customerId);
+        profile.setAvgAmount(new BigDecimal(avg));
+        profile.setMedianAmount(new BigDecimal(avg));
+        profile.setStdAmount(new BigDecimal("12.5"));
+        profile.setFrequentLocations(locations);
+        profile.setMerchantCategories(Map.of("grocery", 0.75, "fuel", 0.25));
+        profile.setTimeDistribution(Map.of("morning", 0.5, "evening", 0.5));
+        profile.setTransactionCount(42);
+        profile.setFirstTransactionDate(LocalDate.of(2025, 3, 1));
+        profile.setLastTransactionDate(LocalDate.of(2026, 1, 4));
+        profile.setLastUpdated(LocalDateTime.of(2026, 1, 5, 8, 30, 15, 123_000_000));
+        return profile;
+    }
+
+    @Test
+    void viewReadsBackEveryField() {
+        store.put(profile("CUST-1", "123.456", List.of("Istanbul", "Ankara")));
+
+        CustomerProfile view = store.get("CUST-1");
+
+        assertEquals("CUST-1", view.getCustomerId());
+        // DECIMAL(10, 2): kuruşa yuvarlanır
+        assertEquals(new BigDecimal("123.46"), view.getAvgAmount());
+        assertEquals(new BigDecimal("12.50"), view.getStdAmount());
+        assertEquals(List.of("Istanbul", "Ankara"), view.getFrequentLocations());
+        assertEquals(Map.of("grocery", 0.75, "fuel", 0.25), view.getMerchantCategories());
+        assertEquals(Map.of("morning", 0.5, "evening", 0.5), view.getTimeDistribution());
+        assertEquals(42, view.getTransactionCount());
+        assertEquals(LocalDate.of(2025, 3, 1), view.getFirstTransactionDate());
+        assertEquals(LocalDate.of(2026, 1, 4), view.getLastTransactionDate());
+        assertEquals(LocalDateTime.of(2026, 1, 5, 8, 30, 15, 123_000_000), view.getLastUpdated());
+        assertTrue(view.isLocationFrequent("Ankara"));
+        assertFalse(view.isLocationFrequent("Berlin"));
+        assertTrue(view.hasMerchantCategory("fuel"));
+        assertNull(store.get("CUST-2"));
+    }
+
+    @Test
+    void missingFieldsStayNull() {
+        CustomerProfile profile = new CustomerProfile();
+        profile.setCustomerId("CUST-1");
+        store.put(profile);
+
+        CustomerProfile view = store.get("CUST-1");
+
+        assertNull(view.getAvgAmount());
+        assertNull(view.getFrequentLocations());
+        assertNull(view.getTransactionCount());
+        assertNull(view.getLastUpdated());
+        // Profil istatistiği yoksa tutar normal kabul edilir
+        assertTrue(view.isAmountNormal(new BigDecimal("1000000")));
+        assertEquals(1.0, view.getAmountMultiplier(new BigDecimal("50")));
+    }
+
+    @Test
+    void updateIsVisibleThroughExistingView() {
+        store.put(profile("CUST-1", "100", List.of("Istanbul")));
+        CustomerProfile view = store.get("CUST-1");
+
+        store.put(profile("CUST-1", "250", List.of("Izmir")));
+
+        // Flyweight: kopya değil, kayda bakar
+        assertEquals(new BigDecimal("250.00"), view.getAvgAmount());
+        assertEquals(List.of("Izmir"), view.getFrequentLocations());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void keepsFirstLocationsAndHeaviestMerchants() {
+        List<String> locations = new ArrayList<>();
+        Map<String, Double> merchants = new LinkedHashMap<>();
+        for (int i = 0; i < 12; i++) {
+            locations.add("city-" + i);
+            merchants.put("category-" + i, i / 100.0);
+        }
+        CustomerProfile profile = profile("CUST-1", "100", locations);
+        profile.setMerchantCategories(merchants);
+        store.put(profile);
+
+        CustomerProfile view = store.get("CUST-1");
+
+        assertEquals(locations.subList(0, OffHeapProfileStore.MAX_LOCATIONS), view.getFrequentLocations());
+        assertEquals(OffHeapProfileStore.MAX_MERCHANTS, view.getMerchantCategories().size());
+        assertTrue(view.hasMerchantCategory("category-11"));
+        assertFalse(view.hasMerchantCategory("category-0"));
+    }
+
+    @Test
+    void removeHidesProfileAndPutRevivesIt() {
+        store.put(profile("CUST-1", "100", List.of("Istanbul")));
+        store.put(profile("CUST-2", "200", List.of("Ankara")));
+
+        store.remove("CUST-1");
+        store.remove("CUST-1");
+
+        assertNull(store.get("CUST-1"));
+        assertEquals(1, store.size());
+        List<String> visited = new ArrayList<>();
+        store.forEach(profile -> visited.add(profile.getCustomerId()));
+        assertEquals(List.of("CUST-2"), visited);
+
+        store.put(profile("CUST-1", "300", List.of("Izmir")));
+
+        assertEquals(new BigDecimal("300.00"), store.get("CUST-1").getAvgAmount());
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void fullStoreIgnoresNewCustomersButUpdatesExisting() {
+        for (int i = 0; i < 1_024; i++) {
+            store.put(profile("CUST-" + i, "100", List.of("Istanbul")));
+        }
+
+        store.put(profile("CUST-new", "100", List.of("Istanbul")));
+        store.put(profile("CUST-7", "700", List.of("Istanbul")));
+
+        assertNull(store.get("CUST-new"));
+        assertEquals(new BigDecimal("700.00"), store.get("CUST-7").getAvgAmount());
+        assertEquals(1_024, store.size());
+    }
+
+    @Test
+    void viewIsReadOnly() {
+        store.put(profile("CUST-1", "100", List.of("Istanbul")));
+
+        assertThrows(UnsupportedOperationException.class,
+                () -> store.get("CUST-1").setAvgAmount(BigDecimal.ONE));
+    }
+
+    @Test
+    void readersNeverSeeHalfWrittenRecord() throws Exception {
+        List<String> first = List.of("a-1", "a-2", "a-3", "a-4");
+        List<String> second = List.of("b-1", "b-2", "b-3", "b-4", "b-5");
+        CustomerProfile a = profile("CUST-1", "100", first);
+        a.setLastUpdated(LocalDateTime.of(2026, 1, 1, 0, 0, 1, 111));
+        CustomerProfile b = profile("CUST-1", "200", second);
+        b.setLastUpdated(LocalDateTime.of(2027, 6, 1, 0, 0, 2, 222));
+        store.put(a);
+        CustomerProfile view = store.get("CUST-1");
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; running.get(); i++) {
+                store.put(i % 2 == 0 ? b : a);
+            }
+        });
+        writer.start();
+
+        // Çok alanlı getter'lar tek seqlock okuması: ya tamamen a ya tamamen b
+        AtomicReference<String> torn = new AtomicReference<>();
+        try {
+            for (int i = 0; i < 200_000 && torn.get() == null; i++) {
+                List<String> locations = view.getFrequentLocations();
+                if (!locations.equals(first) && !locations.equals(second)) {
+                    torn.set("locations " + locations);
+                }
+                LocalDateTime updated = view.getLastUpdated();
+                if (!updated.equals(a.getLastUpdated()) && !updated.equals(b.getLastUpdated())) {
+                    torn.set("lastUpdated " + updated);
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+
+        assertNull(torn.get(), () -> "torn read: " + torn.get());
+        assertNotNull(view.getAvgAmount());
+    }
+}
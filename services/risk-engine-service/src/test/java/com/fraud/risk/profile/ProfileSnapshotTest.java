@@ -0,0 +1,114 @@
+package com.fraud.risk.profile;
+
+import com.fraud.risk.model.CustomerProfile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProfileSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static CustomerProfile profile(String customerId) {
+        CustomerProfile profile = new CustomerProfile();
+        profile.setCustomerId(customerId);
+        profile.setAvgAmount(new BigDecimal("123.45"));
+        profile.setMedianAmount(new BigDecimal("99.5"));
+        profile.setStdAmount(new BigDecimal("12.345"));
+        profile.setFrequentLocations(List.of("Istanbul", "Ankara"));
+        profile.setMerchantCategories(Map.of("grocery", 0.75, "fuel", 0.25));
+        profile.setTimeDistribution(Map.of("morning", 1.0));
+        profile.setTransactionCount(42);
+        profile.setFirstTransactionDate(LocalDate.of(2025, 3, 1));
+        profile.setLastTransactionDate(LocalDate.of(2026, 1, 4));
+        profile.setLastUpdated(LocalDateTime.of(2026, 1, 5, 8, 30, 15, 123_456_789));
+        return profile;
+    }
+
+    private ProfileStore roundTrip(ProfileStore source, long createdAtMillis, long expectedRecords) throws Exception {
+        Path snapshot = directory.resolve("profiles.snapshot");
+        assertEquals(expectedRecords, ProfileSnapshot.write(snapshot, source, createdAtMillis));
+        // Yazım .tmp + rename: geride geçici dosya kalmaz
+        assertFalse(Files.exists(directory.resolve("profiles.snapshot.tmp")));
+
+        HeapProfileStore target = new HeapProfileStore(16);
+        ProfileSnapshot.Header header = ProfileSnapshot.read(snapshot, target::put, executor);
+        assertEquals(createdAtMillis, header.createdAtMillis);
+        assertEquals(expectedRecords, header.records);
+        return target;
+    }
+
+    @Test
+    void roundTripKeepsEveryFieldIncludingScaleAndNulls() throws Exception {
+        HeapProfileStore source = new HeapProfileStore(16);
+        source.put(profile("CUST-1"));
+        CustomerProfile empty = new CustomerProfile();
+        empty.setCustomerId("MÜŞTERİ-ş");  // UTF-8 id
+        source.put(empty);
+
+        ProfileStore target = roundTrip(source, 1_767_600_000_000L, 2);
+
+        assertEquals(2, target.size());
+        assertEquals(profile("CUST-1"), target.get("CUST-1"));
+        assertEquals(new BigDecimal("12.345"), target.get("CUST-1").getStdAmount());
+        assertEquals(empty, target.get("MÜŞTERİ-ş"));
+    }
+
+    @Test
+    void offHeapStoreSnapshotsAsPlainProfiles() throws Exception {
+        OffHeapProfileStore source = new OffHeapProfileStore(directory.resolve("offheap").toString(), 1_024);
+        try {
+            for (int i = 0; i < 500; i++) {
+                source.put(profile("CUST-" + i));
+            }
+            source.remove("CUST-7");
+
+            ProfileStore target = roundTrip(source, 42L, 499);
+
+            assertEquals(new BigDecimal("123.45"), target.get("CUST-499").getAvgAmount());
+            assertEquals(List.of("Istanbul", "Ankara"), target.get("CUST-0").getFrequentLocations());
+            assertNull(target.get("CUST-7"));
+        } finally {
+            source.destroy();
+        }
+    }
+
+    @Test
+    void emptyStoreWritesReadableSnapshot() throws Exception {
+        ProfileStore target = roundTrip(new HeapProfileStore(16), 7L, 0);
+
+        assertEquals(0, target.size());
+    }
+
+    @Test
+    void rejectsForeignFile() throws Exception {
+        Path file = directory.resolve("not-a-snapshot");
+        Files.write(file, new byte[32]);
+
+        assertThrows(IOException.class, () -> ProfileSnapshot.read(file, profile -> { }, executor));
+    }
+}
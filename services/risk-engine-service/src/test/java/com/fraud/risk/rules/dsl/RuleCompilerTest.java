@@ -0,0 +1,180 @@
+package com.fraud.risk.rules.dsl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraud.risk.model.CustomerProfile;
+import com.fraud.risk.rules.ReasonParams;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RuleCompilerTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // Pazartesi
+    private static final LocalDateTime NOON = LocalDateTime.of(2026, 1, 5, 12, 0);
+
+    private final RuleCompiler compiler = new RuleCompiler();
+
+    private CompiledRule compile(String json) throws Exception {
+        return compiler.compile(MAPPER.readValue(json.replace('\'', '"'), RuleDefinition.class));
+    }
+
+    private static CustomerProfile profile() {
+        CustomerProfile profile = new CustomerProfile();
+        profile.setCustomerId("CUST-1");
+        profile.setAvgAmount(new BigDecimal("100.00"));
+        profile.setFrequentLocations(List.of("Istanbul", "Ankara"));
+        profile.setMerchantCategories(Map.of("grocery", 1.0));
+        profile.setTransactionCount(40);
+        return profile;
+    }
+
+    private static int evaluate(CompiledRule rule, String amount, String merchantCategory, String location,
+                                LocalDateTime timestamp, CustomerProfile profile) {
+        return rule.evaluate("TX-1", "CUST-1", amount == null ? null : new BigDecimal(amount),
+                merchantCategory, location, timestamp, profile);
+    }
+
+    @Test
+    void comparesAgainstProfileReferenceWithFactor() throws Exception {
+        CompiledRule rule = compile("""
+                {'name': 'high_amount', 'priority': 7, 'score': 30,
+                 'when': {'field': 'amount', 'op': 'gt', 'ref': 'profile.avgAmount', 'factor': 3}}
+                """);
+
+        assertEquals(30, evaluate(rule, "400", "grocery", "Istanbul", NOON, profile()));
+        assertEquals(0, evaluate(rule, "300", "grocery", "Istanbul", NOON, profile()));
+        // Profil yok → NaN → tetiklenmez
+        assertEquals(0, evaluate(rule, "400", "grocery", "Istanbul", NOON, null));
+        assertEquals("high_amount", rule.getRuleName());
+        assertEquals(7, rule.getPriority());
+    }
+
+    @Test
+    void constantComparisonsAndBetween() throws Exception {
+        CompiledRule night = compile("""
+                {'name': 'night', 'score': 10, 'when': {'field': 'hour', 'op': 'between', 'values': [0, 5]}}
+                """);
+        CompiledRule weekend = compile("""
+                {'name': 'weekend', 'score': 10, 'when': {'field': 'dayOfWeek', 'op': 'gte', 'value': 6}}
+                """);
+
+        assertEquals(10, evaluate(night, "1", null, null, NOON.withHour(5), null));
+        assertEquals(0, evaluate(night, "1", null, null, NOON, null));
+        assertEquals(0, evaluate(night, "1", null, null, null, null));
+        assertEquals(0, evaluate(weekend, "1", null, null, NOON, null));
+        assertEquals(10, evaluate(weekend, "1", null, null, NOON.plusDays(5), null));
+    }
+
+    @Test
+    void combinesAllAnyAndNot() throws Exception {
+        CompiledRule rule = compile("""
+                {'name': 'risky_category', 'score': 25,
+                 'when': {'all': [
+                    {'any': [
+                        {'field': 'merchantCategory', 'op': 'in', 'values': ['jewelry', 'electronics']},
+                        {'field': 'amount', 'op': 'gte', 'value': 5000}
+                    ]},
+                    {'not': {'field': 'location', 'op': 'in', 'values': ['Istanbul']}}
+                 ]}}
+                """);
+
+        assertEquals(25, evaluate(rule, "10", "jewelry", "Berlin", NOON, null));
+        assertEquals(25, evaluate(rule, "5000", "grocery", "Berlin", NOON, null));
+        assertEquals(0, evaluate(rule, "10", "jewelry", "Istanbul", NOON, null));
+        assertEquals(0, evaluate(rule, "10", "grocery", "Berlin", NOON, null));
+    }
+
+    @Test
+    void membershipAgainstProfileSetNeedsProfileAndValue() throws Exception {
+        CompiledRule rule = compile("""
+                {'name': 'new_location', 'score': 20,
+                 'when': {'field': 'location', 'op': 'notIn', 'ref': 'profile.frequentLocations'}}
+                """);
+
+        assertEquals(20, evaluate(rule, "10", "grocery", "Berlin", NOON, profile()));
+        assertEquals(0, evaluate(rule, "10", "grocery", "Ankara", NOON, profile()));
+        assertEquals(0, evaluate(rule, "10", "grocery", null, NOON, profile()));
+        assertEquals(0, evaluate(rule, "10", "grocery", "Berlin", NOON, null));
+    }
+
+    @Test
+    void existsAndMissingTreatNaNAndNullAsAbsent() throws Exception {
+        CompiledRule noProfile = compile("""
+                {'name': 'no_profile', 'score': 5, 'when': {'field': 'profile.avgAmount', 'op': 'missing'}}
+                """);
+        CompiledRule hasLocation = compile("""
+                {'name': 'has_location', 'score': 5, 'when': {'field': 'location', 'op': 'exists'}}
+                """);
+
+        assertEquals(5, evaluate(noProfile, "10", null, null, NOON, null));
+        assertEquals(0, evaluate(noProfile, "10", null, null, NOON, profile()));
+        assertEquals(5, evaluate(hasLocation, "10", null, "Berlin", NOON, null));
+        assertEquals(0, evaluate(hasLocation, "10", null, null, NOON, null));
+    }
+
+    @Test
+    void reasonTemplateCapturesNumbersThenTexts() throws Exception {
+        CompiledRule rule = compile("""
+                {'name': 'high_amount', 'score': 30,
+                 'when': {'field': 'amount', 'op': 'gt', 'ref': 'profile.avgAmount', 'factor': 3},
+                 'reason': 'Amount ({amount}) at {location} is {amount/profile.avgAmount:%.1f}x average'}
+                """);
+        evaluate(rule, "450", "grocery", "Berlin", NOON, profile());
+
+        String expected = "Amount (" + String.format("%.2f", 450.0) + ") at Berlin is "
+                + String.format("%.1f", 4.5) + "x average";
+        assertEquals(expected, rule.getReason());
+        assertEquals(2, rule.getReasonNumberCount());
+
+        ReasonParams captured = new ReasonParams();
+        rule.captureReason(captured);
+        assertEquals(2, captured.numberCount());
+        assertEquals(1, captured.textCount());
+        // Kaydedilmiş parametrelerden (risk_scores) aynı metin
+        assertEquals(expected, rule.renderReason(ReasonParams.of(new double[]{450, 4.5}, new String[]{"Berlin"})));
+    }
+
+    @Test
+    void missingReasonFallsBackToRuleName() throws Exception {
+        CompiledRule rule = compile("""
+                {'name': 'big', 'score': 10, 'when': {'field': 'amount', 'op': 'gt', 'value': 1}}
+                """);
+        evaluate(rule, "10", null, null, NOON, null);
+
+        assertEquals("Rule big triggered", rule.getReason());
+        assertEquals(0, rule.getReasonNumberCount());
+    }
+
+    @Test
+    void rejectsInvalidDefinitions() {
+        List<String> invalid = List.of(
+                "{'score': 10, 'when': {'field': 'amount', 'op': 'gt', 'value': 1}}",
+                "{'name': 'bad', 'score': 10}",
+                "{'name': 'bad', 'score': 0, 'when': {'field': 'amount', 'op': 'gt', 'value': 1}}",
+                "{'name': 'bad', 'score': 101, 'when': {'field': 'amount', 'op': 'gt', 'value': 1}}",
+                "{'name': 'bad', 'score': 10, 'when': {'field': 'balance', 'op': 'gt', 'value': 1}}",
+                "{'name': 'bad', 'score': 10, 'when': {'field': 'amount', 'op': 'like', 'value': 1}}",
+                "{'name': 'bad', 'score': 10, 'when': {'field': 'amount', 'op': 'gt', 'value': 'x'}}",
+                "{'name': 'bad', 'score': 10, 'when': {'field': 'hour', 'op': 'between', 'values': [1]}}",
+                "{'name': 'bad', 'score': 10, 'when': {'field': 'location', 'op': 'in'}}",
+                "{'name': 'bad', 'score': 10, 'when': {'field': 'location', 'op': 'in', 'ref': 'profile.cities'}}",
+                "{'name': 'bad', 'score': 10, 'when': {'all': []}}",
+                "{'name': 'bad', 'score': 10, 'when': {'op': 'gt', 'value': 1}}",
+                "{'name': 'bad', 'score': 10, 'when': {'field': 'amount', 'op': 'gt', 'value': 1}, 'reason': 'x {amount'}",
+                "{'name': 'bad', 'score': 10, 'when': {'field': 'amount', 'op': 'gt', 'value': 1}, 'reason': '{balance}'}"
+        );
+
+        for (String json : invalid) {
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> compile(json), json);
+            assertTrue(error.getMessage().contains("bad") || error.getMessage().contains("name"), error.getMessage());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.fraud.risk.rules.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LastSeenTableTest {
+
+    private static final long T0 = 1_767_600_000L;
+
+    @Test
+    void packKeepsLocationAndSeconds() {
+        long packed = LastSeenTable.pack(0xABCDEF, T0);
+
+        assertEquals(0xABCDEF, LastSeenTable.locationId(packed));
+        assertEquals(T0, LastSeenTable.epochSecond(packed));
+    }
+
+    @Test
+    void returnsPreviousSightingAndStoresNewOne() {
+        LastSeenTable table = new LastSeenTable(1_000);
+
+        assertEquals(LastSeenTable.NONE, table.getAndUpdate("CUST-1", "TX-1", 3, T0));
+        long previous = table.getAndUpdate("CUST-1", "TX-2", 5, T0 + 60);
+
+        assertEquals(3, LastSeenTable.locationId(previous));
+        assertEquals(T0, LastSeenTable.epochSecond(previous));
+        assertEquals(LastSeenTable.pack(5, T0 + 60), table.getAndUpdate("CUST-1", "TX-3", 7, T0 + 120));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void redeliveredTransactionSeesTheSameAnswer() {
+        LastSeenTable table = new LastSeenTable(1_000);
+        table.getAndUpdate("CUST-1", "TX-1", 3, T0);
+
+        long first = table.getAndUpdate("CUST-1", "TX-2", 5, T0 + 60);
+        long again = table.getAndUpdate("CUST-1", "TX-2", 5, T0 + 60);
+
+        // Kendi yazdığı değeri değil, ondan öncekini görür
+        assertEquals(first, again);
+        assertEquals(LastSeenTable.pack(3, T0), again);
+    }
+
+    @Test
+    void lateEventDoesNotMoveLastSeenBackwards() {
+        LastSeenTable table = new LastSeenTable(1_000);
+        table.getAndUpdate("CUST-1", "TX-2", 5, T0 + 60);
+
+        assertEquals(LastSeenTable.pack(5, T0 + 60), table.getAndUpdate("CUST-1", "TX-1", 3, T0));
+        assertEquals(LastSeenTable.pack(5, T0 + 60), table.getAndUpdate("CUST-1", "TX-3", 7, T0 + 120));
+    }
+
+    @Test
+    void notifiesRealChangesOnlyAndRestoreIsSilent() {
+        LastSeenTable table = new LastSeenTable(1_000);
+        List<Long> changes = new ArrayList<>();
+        table.setChangeListener((customerId, value) -> changes.add(value));
+
+        table.getAndUpdate("CUST-1", "TX-1", 3, T0);
+        table.getAndUpdate("CUST-1", "TX-1", 3, T0);
+        table.getAndUpdate("CUST-1", "TX-0", 1, T0 - 60);
+        table.restore("CUST-1", LastSeenTable.pack(9, T0 + 300));
+        table.restore("CUST-2", LastSeenTable.pack(9, T0));
+
+        assertEquals(List.of(LastSeenTable.pack(3, T0)), changes);
+        assertEquals(LastSeenTable.pack(9, T0 + 300), table.getAndUpdate("CUST-1", "TX-5", 4, T0 + 360));
+        assertEquals(LastSeenTable.pack(9, T0), table.getAndUpdate("CUST-2", "TX-6", 4, T0 + 60));
+    }
+
+    @Test
+    void restoreNeverOverwritesNewerValue() {
+        LastSeenTable table = new LastSeenTable(1_000);
+        table.getAndUpdate("CUST-1", "TX-2", 5, T0 + 60);
+
+        table.restore("CUST-1", LastSeenTable.pack(3, T0));
+
+        assertEquals(LastSeenTable.pack(5, T0 + 60), table.getAndUpdate("CUST-1", "TX-3", 7, T0 + 120));
+    }
+
+    @Test
+    void fullSegmentsAreClearedToBoundMemory() {
+        // 64 segment x en az 16 müşteri
+        LastSeenTable table = new LastSeenTable(1_024);
+        for (int i = 0; i < 20_000; i++) {
+            table.getAndUpdate("CUST-" + i, "TX-" + i, 1, T0 + i);
+        }
+
+        assertTrue(table.size() <= 1_024, "size " + table.size());
+        assertTrue(table.size() > 0);
+    }
+}
@@ -0,0 +1,338 @@
+package com.fraud.risk.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fraud.risk.aggregate.AmountAggregates;
+import com.fraud.risk.aggregate.CustomerSketches;
+import com.fraud.risk.aggregate.GlobalHotspots;
+import com.fraud.risk.alert.AlertBatchWriter;
+import com.fraud.risk.kafka.AlertProducer;
+import com.fraud.risk.kafka.ShadowScoreProducer;
+import com.fraud.risk.ml.MlScoringClient;
+import com.fraud.risk.model.CustomerProfile;
+import com.fraud.risk.model.RiskScore;
+import com.fraud.risk.model.Transaction;
+import com.fraud.risk.profile.CustomerProfileProvider;
+import com.fraud.risk.profile.HeapProfileStore;
+import com.fraud.risk.profile.ProfileStore;
+import com.fraud.risk.repository.CustomerProfileQueryRepository;
+import com.fraud.risk.repository.RiskScoreWriteRepository;
+import com.fraud.risk.rules.FraudRule;
+import com.fraud.risk.rules.GlobalHotspotRule;
+import com.fraud.risk.rules.HighAmountRule;
+import com.fraud.risk.rules.ImpossibleTravelRule;
+import com.fraud.risk.rules.LocationAnomalyRule;
+import com.fraud.risk.rules.NoveltyRule;
+import com.fraud.risk.rules.RollingAmountRule;
+import com.fraud.risk.rules.RuleRegistry;
+import com.fraud.risk.rules.SprayingRule;
+import com.fraud.risk.rules.VelocityRule;
+import com.fraud.risk.rules.dsl.FileRuleDefinitionSource;
+import com.fraud.risk.rules.dsl.RuleCompiler;
+import com.fraud.risk.rules.geo.GeoTable;
+import com.fraud.risk.shadow.ShadowScoringService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Canlı kural seti (@Component kuralları + classpath DSL kuralları) ile işlem başına ayrılan byte'ı
+ * ve steady-state young GC trendini sabit bir korpus üzerinde ölçer:
+ * - RiskScorer.score: sadece kural + skor birleştirme
+ * - RiskEngineService.analyzeTransaction (listener yolu): profil lookup (HeapProfileStore), ML
+ *   (ml.service.enabled=false → sabit skor), RuleReasons / ReasonParams, Evaluation + alert,
+ *   shadow submit (kapalı), RiskScoreCache. DB / Kafka yazımı stub (insertIfAbsent → true).
+ *   RiskEngineService'in işlem başına INFO satırları logback-test'te kapalı: ölçüm appender'ı değil
+ *   skorlama yolunu kapsar
+ *
+ * Korpus sabit seed ile önceden üretilir: ölçülen pencerelerde sadece skorlama allocation'ı vardır.
+ * Isınmadan (JIT, kural state tabloları) sonra WINDOWS x WINDOW_SIZE işlem ölçülür.
+ * İki test ayrı günlerde ayrı işlem id'leri kullanır: kural state'i birbirini etkilemez.
+ */
+@SpringJUnitConfig(RiskScorerAllocationTest.Config.class)
+@TestPropertySource(properties = "ml.service.enabled=false")
+class RiskScorerAllocationTest {
+
+    // Bütçe: ölçülen ~1 KB / işlem + %50 pay. Aşılırsa hot path'e allocation eklenmiş demektir
+    private static final long BUDGET_BYTES_PER_TRANSACTION = 1_536;
+    // Listener yolu (profil / ML / Evaluation / cache dahil): ölçülen ~1.05 KB / işlem + %50 pay
+    private static final long SERVICE_BUDGET_BYTES_PER_TRANSACTION = 1_600;
+    // İkinci yarı pencereler ilk yarıdan en fazla bu oranda fazla olabilir
+    private static final double MAX_GROWTH = 1.25;
+
+    private static final int CUSTOMERS = 5_000;
+    private static final int WARMUP = 30_000;
+    private static final int WINDOWS = 10;
+    private static final int WINDOW_SIZE = 10_000;
+
+    private static final String[] CITIES = {
+            "Istanbul", "Ankara", "Izmir", "Bursa", "Antalya", "Konya", "Gaziantep", "Trabzon", "London", "Berlin"
+    };
+    private static final String[] CATEGORIES = {
+            "grocery", "food", "fuel", "clothing", "electronics", "travel", "jewelry"
+    };
+
+    @Configuration
+    @Import({RiskScorer.class, RuleRegistry.class, RuleCompiler.class, FileRuleDefinitionSource.class,
+            HighAmountRule.class, VelocityRule.class, LocationAnomalyRule.class, ImpossibleTravelRule.class,
+            NoveltyRule.class, SprayingRule.class, RollingAmountRule.class, GlobalHotspotRule.class,
+            GeoTable.class, CustomerSketches.class, AmountAggregates.class, GlobalHotspots.class,
+            RiskEngineService.class, CustomerProfileProvider.class, HeapProfileStore.class,
+            MlScoringClient.class, ShadowScoringService.class, RiskScoreCache.class})
+    static class Config {
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        WebClient.Builder webClientBuilder() {
+            return WebClient.builder();
+        }
+
+        // İşlem başına çağrılır: Mockito stub'ı çağrı başına ~3.5 KB ayırır, ölçümü bozar → elle stub
+        @Bean
+        RiskScoreWriteRepository riskScoreWriteRepository() {
+            return new RiskScoreWriteRepository(null) {
+                @Override
+                public boolean insertIfAbsent(RiskScore score) {
+                    return true;
+                }
+            };
+        }
+
+        // Nadiren (alert) ya da hiç çağrılmaz; stubOnly: çağrılar kaydedilmez
+
+        @Bean
+        CustomerProfileQueryRepository customerProfileQueryRepository() {
+            return mock(CustomerProfileQueryRepository.class, withSettings().stubOnly());
+        }
+
+        @Bean
+        AlertProducer alertProducer() {
+            return mock(AlertProducer.class, withSettings().stubOnly());
+        }
+
+        @Bean
+        AlertBatchWriter alertBatchWriter() {
+            return mock(AlertBatchWriter.class, withSettings().stubOnly());
+        }
+
+        @Bean
+        ShadowScoreProducer shadowScoreProducer() {
+            return mock(ShadowScoreProducer.class, withSettings().stubOnly());
+        }
+    }
+
+    @Autowired
+    private RiskScorer riskScorer;
+
+    @Autowired
+    private RuleRegistry ruleRegistry;
+
+    @Autowired
+    private RiskEngineService riskEngineService;
+
+    @Autowired
+    private ProfileStore profileStore;
+
+    @Autowired
+    private RiskScoreCache riskScoreCache;
+
+    @Test
+    void scoringStaysWithinAllocationBudgetWithFlatYoungGcTrend() {
+        List<FraudRule> rules = ruleRegistry.current();
+        Random random = new Random(43L);
+        CustomerProfile[] profiles = profiles(random);
+        Transaction[] corpus = corpus(random, profiles, "TX-", LocalDateTime.of(2026, 1, 5, 8, 0));
+
+        measure(corpus, transaction -> score(transaction, profiles, rules), BUDGET_BYTES_PER_TRANSACTION);
+    }
+
+    @Test
+    void listenerPathStaysWithinAllocationBudgetWithFlatYoungGcTrend() {
+        Random random = new Random(47L);
+        CustomerProfile[] profiles = profiles(random);
+        for (CustomerProfile profile : profiles) {
+            profileStore.put(profile);
+        }
+        Transaction[] corpus = corpus(random, profiles, "LTX-", LocalDateTime.of(2026, 3, 2, 8, 0));
+
+        measure(corpus, transaction -> {
+            riskEngineService.analyzeTransaction(transaction);
+            return riskScoreCache.get(transaction.getTransactionId());
+        }, SERVICE_BUDGET_BYTES_PER_TRANSACTION);
+    }
+
+    private void measure(Transaction[] corpus, Function<Transaction, RiskScore> scoring, long budget) {
+        com.sun.management.ThreadMXBean threads = threadBean();
+        assumeTrue(threads != null, "Thread allocation counters not supported by this JVM");
+        List<GarbageCollectorMXBean> youngCollectors = ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .filter(RiskScorerAllocationTest::isYoung)
+                .toList();
+
+        long triggered = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            triggered += scoring.apply(corpus[i]).getRuleScore();
+        }
+
+        double[] bytes = new double[WINDOWS];
+        double[] youngGcCounts = new double[WINDOWS];
+        double[] youngGcMillis = new double[WINDOWS];
+        for (int window = 0; window < WINDOWS; window++) {
+            int from = WARMUP + window * WINDOW_SIZE;
+            long gcCount = youngCollections(youngCollectors);
+            long gcMillis = youngCollectionMillis(youngCollectors);
+            long allocated = threads.getCurrentThreadAllocatedBytes();
+
+            for (int i = from; i < from + WINDOW_SIZE; i++) {
+                triggered += scoring.apply(corpus[i]).getRuleScore();
+            }
+
+            bytes[window] = (double) (threads.getCurrentThreadAllocatedBytes() - allocated) / WINDOW_SIZE;
+            youngGcCounts[window] = youngCollections(youngCollectors) - gcCount;
+            youngGcMillis[window] = youngCollectionMillis(youngCollectors) - gcMillis;
+        }
+
+        assertTrue(triggered > 0, "corpus did not trigger any rule");
+
+        double perTransaction = average(bytes, 0, WINDOWS);
+        assertTrue(perTransaction <= budget, String.format(
+                "allocated %.0f bytes/transaction, budget %d", perTransaction, budget));
+        assertFlat("bytes/transaction", bytes, 0);
+        // Nesilsiz collector'da (ZGC, Shenandoah) young GC yok → sayılar 0, trend kontrolü geçer
+        assertFlat("young GC count per window", youngGcCounts, 1);
+        assertFlat("young GC millis per window", youngGcMillis, 10);
+    }
+
+    private RiskScore score(Transaction transaction, CustomerProfile[] profiles, List<FraudRule> rules) {
+        CustomerProfile profile = profiles[Integer.parseInt(transaction.getCustomerId().substring(5))];
+        return riskScorer.score(transaction, profile, rules, new BigDecimal("0.5"));
+    }
+
+    /**
+     * İkinci yarının ortalaması ilk yarının MAX_GROWTH katını (+ slack) aşmamalı
+     */
+    private static void assertFlat(String metric, double[] windows, double slack) {
+        int half = windows.length / 2;
+        double first = average(windows, 0, half);
+        double second = average(windows, windows.length - half, windows.length);
+        assertTrue(second <= first * MAX_GROWTH + slack,
+                String.format("%s grew from %.1f to %.1f", metric, first, second));
+    }
+
+    // ============================================
+    // CORPUS
+    // ============================================
+
+    private static CustomerProfile[] profiles(Random random) {
+        CustomerProfile[] profiles = new CustomerProfile[CUSTOMERS];
+        for (int customer = 0; customer < CUSTOMERS; customer++) {
+            CustomerProfile profile = new CustomerProfile();
+            profile.setCustomerId(customerId(customer));
+            BigDecimal average = BigDecimal.valueOf(50 + random.nextInt(450));
+            profile.setAvgAmount(average);
+            profile.setMedianAmount(average);
+            profile.setStdAmount(average.divide(BigDecimal.valueOf(3), 2, RoundingMode.HALF_UP));
+            String home = CITIES[random.nextInt(CITIES.length - 2)];
+            profile.setFrequentLocations(List.of(home, CITIES[random.nextInt(CITIES.length - 2)]));
+            profile.setMerchantCategories(Map.of(
+                    CATEGORIES[random.nextInt(3)], 0.6,
+                    CATEGORIES[3 + random.nextInt(CATEGORIES.length - 3)], 0.4));
+            profile.setTransactionCount(50 + random.nextInt(500));
+            profiles[customer] = profile;
+        }
+        return profiles;
+    }
+
+    /**
+     * ~30 sn arayla işlemler (müşteri başına günde ~1 işlem); %3 sık olmayan şehir, %2 yüksek tutar
+     */
+    private static Transaction[] corpus(Random random, CustomerProfile[] profiles, String idPrefix,
+                                        LocalDateTime start) {
+        Transaction[] corpus = new Transaction[WARMUP + WINDOWS * WINDOW_SIZE];
+        LocalDateTime timestamp = start;
+        for (int i = 0; i < corpus.length; i++) {
+            CustomerProfile profile = profiles[random.nextInt(CUSTOMERS)];
+            String location = random.nextInt(33) == 0
+                    ? CITIES[random.nextInt(CITIES.length)]
+                    : profile.getFrequentLocations().get(random.nextInt(2));
+            int multiplier = random.nextInt(50) == 0 ? 5 + random.nextInt(6) : 1;
+            BigDecimal amount = profile.getAvgAmount()
+                    .multiply(BigDecimal.valueOf(multiplier * (0.5 + random.nextDouble())))
+                    .setScale(2, RoundingMode.HALF_UP);
+            timestamp = timestamp.plusSeconds(15 + random.nextInt(30));
+
+            corpus[i] = new Transaction(idPrefix + i, profile.getCustomerId(), amount,
+                    CATEGORIES[random.nextInt(CATEGORIES.length)], location, timestamp);
+        }
+        return corpus;
+    }
+
+    private static String customerId(int customer) {
+        return "CUST-" + customer;
+    }
+
+    // ============================================
+    // JMX
+    // ============================================
+
+    private static long youngCollections(List<GarbageCollectorMXBean> collectors) {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            count += Math.max(0, collector.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long youngCollectionMillis(List<GarbageCollectorMXBean> collectors) {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        return millis;
+    }
+
+    private static boolean isYoung(GarbageCollectorMXBean collector) {
+        String name = collector.getName();
+        return name.contains("Young") || name.contains("Scavenge") || name.equals("Copy")
+                || name.equals("ParNew") || name.contains("Minor");
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+            return bean;
+        }
+        return null;
+    }
+
+    private static double average(double[] values, int from, int to) {
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += values[i];
+        }
+        return sum / (to - from);
+    }
+}
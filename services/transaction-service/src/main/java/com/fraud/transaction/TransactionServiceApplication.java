@@ -49,7 +49,7 @@ public class TransactionServiceApplication {
         // 2. Tüm Bean'leri yükler
         // 3. Embedded Tomcat başlatır
         // 4. Application çalışmaya başlar
-        SpringApplication.run(TransactionServiceApplication.java, args);
+        SpringApplication.run(TransactionServiceApplication.class, args);
 
         System.out.println("""
 
@@ -1,6 +1,7 @@
 package com.fraud.transaction.controller;
 
 import com.fraud.transaction.model.Transaction;
+import com.fraud.transaction.service.RecentTransactionIndex;
 import com.fraud.transaction.service.TransactionService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -10,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * ============================================
@@ -35,9 +37,12 @@ public class TransactionController {
     private static final Logger logger = LoggerFactory.getLogger(TransactionController.class);
 
     private final TransactionService transactionService;
+    private final RecentTransactionIndex recentTransactionIndex;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService,
+                                 RecentTransactionIndex recentTransactionIndex) {
         this.transactionService = transactionService;
+        this.recentTransactionIndex = recentTransactionIndex;
     }
 
     /**
@@ -150,6 +155,8 @@ public class TransactionController {
      *
      * Response: 200 OK + List<Transaction>
      *
+     * Pencere bellekteki index'in kapsamındaysa DB'ye gidilmez (bkz. RecentTransactionIndex)
+     *
      * @RequestParam nedir?
      * - Query string'den parameter alır
      * - ?minutes=30 → @RequestParam int minutes
@@ -169,6 +176,19 @@ public class TransactionController {
         return ResponseEntity.ok(transactions);
     }
 
+    /**
+     * ============================================
+     * RECENT INDEX STATS
+     * ============================================
+     * Endpoint: GET /api/transactions/recent-index/stats
+     *
+     * Response: 200 OK + müşteri / işlem sayısı, hit oranı, LRU eviction sayısı
+     */
+    @GetMapping("/recent-index/stats")
+    public ResponseEntity<Map<String, Object>> getRecentIndexStats() {
+        return ResponseEntity.ok(recentTransactionIndex.getStats());
+    }
+
     /**
      * ============================================
      * GET ALL TRANSACTIONS
@@ -0,0 +1,119 @@
+package com.fraud.transaction.grpc;
+
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ============================================
+ * gRPC SERVER LIFECYCLE
+ * ============================================
+ * Ne yapar?
+ * - TransactionIngestService'i ayrı bir portta (HTTP/2, Netty) yayınlar
+ * - Spring context ile birlikte başlar / durur (REST portundan bağımsız)
+ *
+ * Ayarlar:
+ * - threads: Sabit boyutlu executor → eşzamanlı DB kaydı sınırlı (gRPC varsayılanı sınırsız cached pool)
+ * - flow-control-window-bytes: Stream başına HTTP/2 penceresi; dolunca producer bekler
+ * - max-inbound-message-bytes: Tek işlem mesajı küçük, büyük mesaj reddedilir
+ * - keep-alive: Uzun ömürlü producer bağlantıları NAT / load balancer'da düşmesin
+ *
+ * Kapanış: yeni çağrı kabul edilmez, açık stream'ler shutdown-timeout kadar beklenir
+ */
+@Component
+@ConditionalOnProperty(name = "fraud.grpc.enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcServerLifecycle implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(GrpcServerLifecycle.class);
+
+    private final TransactionIngestService ingestService;
+
+    @Value("${fraud.grpc.port:9091}")
+    private int port;
+
+    @Value("${fraud.grpc.threads:16}")
+    private int threads;
+
+    @Value("${fraud.grpc.flow-control-window-bytes:1048576}")
+    private int flowControlWindowBytes;
+
+    @Value("${fraud.grpc.max-inbound-message-bytes:65536}")
+    private int maxInboundMessageBytes;
+
+    @Value("${fraud.grpc.keep-alive-seconds:60}")
+    private long keepAliveSeconds;
+
+    @Value("${fraud.grpc.shutdown-timeout-seconds:10}")
+    private long shutdownTimeoutSeconds;
+
+    private volatile Server server;
+    private ExecutorService executor;
+
+    public GrpcServerLifecycle(TransactionIngestService ingestService) {
+        this.ingestService = ingestService;
+    }
+
+    @Override
+    public void start() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "grpc-ingest-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            server = NettyServerBuilder.forPort(port)
+                    .addService(ingestService)
+                    .executor(executor)
+                    .flowControlWindow(flowControlWindowBytes)
+                    .maxInboundMessageSize(maxInboundMessageBytes)
+                    .keepAliveTime(keepAliveSeconds, TimeUnit.SECONDS)
+                    .permitKeepAliveTime(Math.max(1, keepAliveSeconds / 2), TimeUnit.SECONDS)
+                    .permitKeepAliveWithoutCalls(true)
+                    .build()
+                    .start();
+        } catch (IOException e) {
+            executor.shutdownNow();
+            throw new IllegalStateException("Failed to start gRPC server on port " + port, e);
+        }
+        logger.info("gRPC ingest server started: Port={}, Threads={}", port, threads);
+    }
+
+    @Override
+    public void stop() {
+        Server current = server;
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS)) {
+                logger.warn("gRPC server did not terminate in {}s, cancelling open calls", shutdownTimeoutSeconds);
+                current.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            current.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdown();
+        server = null;
+        logger.info("gRPC ingest server stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
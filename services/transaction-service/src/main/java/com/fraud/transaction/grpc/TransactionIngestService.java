@@ -0,0 +1,175 @@
+package com.fraud.transaction.grpc;
+
+import com.fraud.transaction.grpc.proto.StreamSummary;
+import com.fraud.transaction.grpc.proto.SubmitResult;
+import com.fraud.transaction.grpc.proto.SubmitStatus;
+import com.fraud.transaction.grpc.proto.TransactionIngestGrpc;
+import com.fraud.transaction.grpc.proto.TransactionRequest;
+import com.fraud.transaction.model.Transaction;
+import com.fraud.transaction.service.TransactionService;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * ============================================
+ * TRANSACTION INGEST (gRPC SERVICE)
+ * ============================================
+ * Ne yapar?
+ * - Submit: tek işlem (unary) → REST'teki POST /api/transactions karşılığı
+ * - SubmitStream: client-streaming; producer tek bir uzun ömürlü stream üzerinden sürekli işlem
+ *   gönderir, stream kapanınca özet (kabul / red / hata sayıları) döner
+ * - Her iki yol da TransactionService.createTransaction'a gider: aynı doğrulama, kayıt, Kafka
+ *
+ * Neden?
+ * - JSON parse + Jackson + Bean Validation, transaction-service'te işlem başına en büyük CPU maliyeti
+ * - Protobuf: sabit alanlı binary, tutar kuruş cinsinden long (BigDecimal parse yok)
+ * - HTTP/2: tek bağlantı üzerinde çoklu stream, bağlantı kurma maliyeti bir kez
+ *
+ * Doğrulama: Transaction üzerindeki Bean Validation kuralları (@NotBlank, @DecimalMin) burada
+ * elle kontrol edilir (reflection yok); iş kuralları TransactionService'te (duplicate, gelecek tarih)
+ *
+ * Akış kontrolü (SubmitStream):
+ * - Otomatik request kapalı; başta stream-prefetch kadar mesaj istenir, her işlenen mesaj için bir tane daha
+ * - Sunucu yavaşlarsa mesajlar okunmaz → HTTP/2 penceresi dolar → producer'ın onNext'i bekler
+ */
+@Component
+@ConditionalOnProperty(name = "fraud.grpc.enabled", havingValue = "true", matchIfMissing = true)
+public class TransactionIngestService extends TransactionIngestGrpc.TransactionIngestImplBase {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionIngestService.class);
+
+    private final TransactionService transactionService;
+
+    @Value("${fraud.grpc.stream-prefetch:32}")
+    private int streamPrefetch;
+
+    @Value("${fraud.grpc.max-reported-failures:100}")
+    private int maxReportedFailures;
+
+    public TransactionIngestService(TransactionService transactionService) {
+        this.transactionService = transactionService;
+    }
+
+    // ============================================
+    // UNARY
+    // ============================================
+    @Override
+    public void submit(TransactionRequest request, StreamObserver<SubmitResult> responseObserver) {
+        SubmitResult result = process(request);
+        switch (result.getStatus()) {
+            case ACCEPTED -> {
+                responseObserver.onNext(result);
+                responseObserver.onCompleted();
+            }
+            case REJECTED -> responseObserver.onError(
+                    Status.INVALID_ARGUMENT.withDescription(result.getError()).asRuntimeException());
+            default -> responseObserver.onError(
+                    Status.INTERNAL.withDescription(result.getError()).asRuntimeException());
+        }
+    }
+
+    // ============================================
+    // CLIENT STREAMING
+    // ============================================
+    @Override
+    public StreamObserver<TransactionRequest> submitStream(StreamObserver<StreamSummary> responseObserver) {
+        ServerCallStreamObserver<StreamSummary> call = (ServerCallStreamObserver<StreamSummary>) responseObserver;
+        call.disableAutoRequest();
+        call.request(Math.max(1, streamPrefetch));
+
+        // gRPC bir çağrının callback'lerini sıralı çağırır → alanlar için senkronizasyon gerekmez
+        return new StreamObserver<>() {
+
+            private final StreamSummary.Builder summary = StreamSummary.newBuilder();
+
+            @Override
+            public void onNext(TransactionRequest request) {
+                SubmitResult result = process(request);
+                summary.setReceived(summary.getReceived() + 1);
+                switch (result.getStatus()) {
+                    case ACCEPTED -> summary.setAccepted(summary.getAccepted() + 1);
+                    case REJECTED -> summary.setRejected(summary.getRejected() + 1);
+                    default -> summary.setFailed(summary.getFailed() + 1);
+                }
+                if (result.getStatus() != SubmitStatus.ACCEPTED && summary.getFailuresCount() < maxReportedFailures) {
+                    summary.addFailures(result);
+                }
+                // İşlendi: bir sonraki mesaj
+                call.request(1);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                // Producer stream'i iptal etti / bağlantı koptu; kabul edilenler zaten kaydedildi
+                logger.warn("Ingest stream aborted after {} transactions: {}",
+                        summary.getReceived(), Status.fromThrowable(t));
+            }
+
+            @Override
+            public void onCompleted() {
+                logger.info("Ingest stream completed: Received={}, Accepted={}, Rejected={}, Failed={}",
+                        summary.getReceived(), summary.getAccepted(), summary.getRejected(), summary.getFailed());
+                responseObserver.onNext(summary.build());
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    /**
+     * REST controller'daki hata eşlemesiyle aynı: IllegalArgumentException → REJECTED (400),
+     * diğerleri → FAILED (500)
+     */
+    private SubmitResult process(TransactionRequest request) {
+        SubmitResult.Builder result = SubmitResult.newBuilder().setTransactionId(request.getTransactionId());
+        try {
+            transactionService.createTransaction(toTransaction(request));
+            return result.setStatus(SubmitStatus.ACCEPTED).build();
+        } catch (IllegalArgumentException e) {
+            logger.error("Validation error: {}", e.getMessage());
+            return result.setStatus(SubmitStatus.REJECTED).setError(e.getMessage()).build();
+        } catch (Exception e) {
+            logger.error("Error creating transaction: {}", e.getMessage(), e);
+            return result.setStatus(SubmitStatus.FAILED).setError(String.valueOf(e.getMessage())).build();
+        }
+    }
+
+    /**
+     * Protobuf → entity; Transaction üzerindeki Bean Validation kurallarının karşılığı
+     * Boş string (proto3 varsayılanı) = alan yok
+     */
+    static Transaction toTransaction(TransactionRequest request) {
+        if (request.getTransactionId().isBlank()) {
+            throw new IllegalArgumentException("Transaction ID cannot be blank");
+        }
+        if (request.getCustomerId().isBlank()) {
+            throw new IllegalArgumentException("Customer ID cannot be blank");
+        }
+        if (request.getAmountMinor() < 1) {
+            throw new IllegalArgumentException("Amount must be greater than 0");
+        }
+
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(request.getTransactionId());
+        transaction.setCustomerId(request.getCustomerId());
+        transaction.setAmount(BigDecimal.valueOf(request.getAmountMinor(), 2));
+        transaction.setMerchantCategory(request.getMerchantCategory().isEmpty() ? null : request.getMerchantCategory());
+        transaction.setLocation(request.getLocation().isEmpty() ? null : request.getLocation());
+        if (request.getTimestampEpochMillis() != 0) {
+            // LocalDateTime.now() ile aynı saat dilimi (TransactionService gelecek tarih kontrolü)
+            transaction.setTimestamp(LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(request.getTimestampEpochMillis()), ZoneId.systemDefault()));
+        }
+        return transaction;
+    }
+}
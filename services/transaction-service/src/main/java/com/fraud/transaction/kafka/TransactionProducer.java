@@ -64,10 +64,11 @@ public class TransactionProducer {
                     transaction.getAmount());
 
             // Kafka'ya gönder
-            // Key: transaction_id (aynı transaction_id hep aynı partition'a gider)
+            // Key: customer_id (aynı müşterinin işlemleri hep aynı partition'a, sıralı gider)
+            // Neden? Risk engine müşteri state'ini (son lokasyon vb.) partition bazında tutar / restore eder
             // Value: transaction object (JSON'a serialize edilir)
             CompletableFuture<SendResult<String, Transaction>> future =
-                    kafkaTemplate.send(transactionsTopic, transaction.getTransactionId(), transaction);
+                    kafkaTemplate.send(transactionsTopic, transaction.getCustomerId(), transaction);
 
             // ============================================
             // CALLBACK (İşlem tamamlandığında)
@@ -116,7 +117,7 @@ public class TransactionProducer {
             logger.info("Sending transaction synchronously: ID={}", transaction.getTransactionId());
 
             SendResult<String, Transaction> result =
-                    kafkaTemplate.send(transactionsTopic, transaction.getTransactionId(), transaction)
+                    kafkaTemplate.send(transactionsTopic, transaction.getCustomerId(), transaction)
                             .get();  // .get() = BLOCK until complete
 
             logger.info("Transaction sent successfully (sync): Partition={}, Offset={}",
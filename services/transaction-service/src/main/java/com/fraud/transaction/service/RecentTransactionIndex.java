@@ -0,0 +1,280 @@
+package com.fraud.transaction.service;
+
+import com.fraud.transaction.model.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ============================================
+ * RECENT TRANSACTION INDEX (MÜŞTERİ BAŞINA SON İŞLEMLER)
+ * ============================================
+ * Ne yapar?
+ * - Müşteri başına son N işlemi timestamp sırasıyla bellekte tutar
+ * - Yazma anında doldurulur (commit sonrası), /recent önce buraya bakar
+ * - Her müşteri halkasının bir "horizon"u vardır: horizon'dan sonraki işlemlerin TAMAMI halkada
+ *   → since >= horizon olan sorgu bellekten, daha eskisi PostgreSQL'den
+ *
+ * Halka ne zaman açılır?
+ * - İlk /recent sorgusu boş halka açar ve DB'ye gider; DB sonucu halkaya eklenir (seed),
+ *   horizon = o pencerenin başı. DB okunurken gelen yazmalar da boş halkaya düşer → kaybolmaz
+ * - Sonraki yazmalar halkaya eklenir; hiç poll edilmeyen müşteri için halka açılmaz
+ *   (bellek sadece izlenen müşterilere harcanır)
+ * - Halka dolunca en eski işlem çıkar, horizon onun timestamp'inden sonrasına kayar
+ *
+ * Neden?
+ * - Destek / fraud-ops ekranları /recent'i sürekli poll eder; her çağrı DB sorgusuydu
+ * - Sorguların neredeyse hepsi son dakikalar için → bellekten
+ *
+ * Bellek sınırı: toplam işlem + müşteri sayısı (max-transactions), aşılınca en uzun süredir
+ * erişilmeyen müşteri çıkarılır (LRU). Kilit çekişmesi olmasın diye SEGMENTS parçaya bölünür,
+ * her parça kendi payı kadar tutar (yaklaşık global LRU).
+ *
+ * Not: Tek instance varsayımı - birden fazla transaction-service instance'ı varsa her biri
+ * sadece kendi yazdıklarını görür (o durumda index Kafka topic'inden beslenmeli)
+ */
+@Component
+public class RecentTransactionIndex {
+
+    private static final int SEGMENTS = 16;
+
+    private final boolean enabled;
+    private final int perCustomer;
+    private final long maxPerSegment;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder seeds = new LongAdder();
+    private final LongAdder evictedCustomers = new LongAdder();
+
+    public RecentTransactionIndex(@Value("${fraud.transactions.recent-index.enabled:true}") boolean enabled,
+                                  @Value("${fraud.transactions.recent-index.per-customer:50}") int perCustomer,
+                                  @Value("${fraud.transactions.recent-index.max-transactions:500000}") long maxTransactions) {
+        this.enabled = enabled;
+        this.perCustomer = Math.max(1, perCustomer);
+        this.maxPerSegment = Math.max(this.perCustomer, maxTransactions / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Yeni işlemi müşterinin halkası varsa ekler; transaction içinde çağrılırsa commit sonrası
+     * (rollback olan işlem görünmez)
+     */
+    public void add(Transaction transaction) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    segment(transaction.getCustomerId()).add(transaction);
+                }
+            });
+        } else {
+            segment(transaction.getCustomerId()).add(transaction);
+        }
+    }
+
+    /**
+     * @return since'ten bu yana işlemler (yeniden eskiye) veya null: pencere halkanın horizon'undan eski
+     */
+    public List<Transaction> findSince(String customerId, LocalDateTime since) {
+        if (!enabled) {
+            return null;
+        }
+        List<Transaction> transactions = segment(customerId).findSince(customerId, since);
+        if (transactions != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return transactions;
+    }
+
+    /**
+     * DB'den okunan pencereyi halkaya ekler → aynı pencerenin sonraki poll'ları bellekten
+     * Pencere halkaya sığmıyorsa sadece en yeniler kalır, horizon ona göre kayar
+     *
+     * @param transactions since'ten bu yana işlemlerin tamamı (sıra önemsiz)
+     */
+    public void seed(String customerId, LocalDateTime since, List<Transaction> transactions) {
+        if (!enabled) {
+            return;
+        }
+        segment(customerId).seed(customerId, since, transactions);
+        seeds.increment();
+    }
+
+    public Map<String, Object> getStats() {
+        long customers = 0;
+        long transactions = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                customers += segment.rings.size();
+                transactions += segment.transactions;
+            }
+        }
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("perCustomer", perCustomer);
+        stats.put("maxTransactions", maxPerSegment * SEGMENTS);
+        stats.put("customers", customers);
+        stats.put("transactions", transactions);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("seeds", seeds.sum());
+        stats.put("evictedCustomers", evictedCustomers.sum());
+        return stats;
+    }
+
+    private Segment segment(String customerId) {
+        int hash = customerId.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    // ============================================
+    // SEGMENT (erişim sıralı LinkedHashMap = LRU)
+    // ============================================
+    private final class Segment {
+
+        private final LinkedHashMap<String, Ring> rings = new LinkedHashMap<>(64, 0.75f, true);
+        private long transactions;
+
+        synchronized void add(Transaction transaction) {
+            Ring ring = rings.get(transaction.getCustomerId());
+            if (ring != null) {
+                transactions += ring.insert(transaction);
+                evict();
+            }
+        }
+
+        synchronized List<Transaction> findSince(String customerId, LocalDateTime since) {
+            Ring ring = rings.get(customerId);
+            if (ring == null) {
+                // Çağıran DB'ye gidecek: okuma sırasında gelen yazmalar bu halkada toplanır
+                rings.put(customerId, new Ring());
+                evict();
+                return null;
+            }
+            if (!ring.seeded || since.isBefore(ring.horizon)) {
+                return null;
+            }
+            return ring.since(since);
+        }
+
+        synchronized void seed(String customerId, LocalDateTime since, List<Transaction> loaded) {
+            Ring ring = rings.get(customerId);
+            if (ring == null) {
+                ring = new Ring();
+                rings.put(customerId, ring);
+            }
+            if (!ring.seeded) {
+                // DB okunurken halka dolup taşmışsa horizon zaten ileride
+                if (ring.horizon == null || since.isAfter(ring.horizon)) {
+                    ring.horizon = since;
+                }
+                ring.seeded = true;
+            } else if (since.isBefore(ring.horizon)) {
+                ring.horizon = since;
+            } else {
+                return;  // Halka bu pencereyi zaten kapsıyor
+            }
+            for (Transaction transaction : loaded) {
+                transactions += ring.insert(transaction);
+            }
+            evict();
+        }
+
+        /**
+         * Segment payını aşınca en uzun süredir erişilmeyen müşterilerden başlayarak çıkarır
+         * (en son erişilen müşteri hariç). Boş halka da yer tutar: müşteri başına 1 sayılır
+         */
+        private void evict() {
+            Iterator<Ring> iterator = rings.values().iterator();
+            while (transactions + rings.size() > maxPerSegment && rings.size() > 1 && iterator.hasNext()) {
+                transactions -= iterator.next().size;
+                iterator.remove();
+                evictedCustomers.increment();
+            }
+        }
+    }
+
+    // ============================================
+    // RING (müşteri başına, timestamp'e göre artan sıralı)
+    // ============================================
+    private final class Ring {
+
+        private Transaction[] items = new Transaction[Math.min(4, perCustomer)];
+        private int size;
+        private LocalDateTime horizon;  // seed'den önce null (taşma olmadıysa)
+        private boolean seeded;
+
+        /**
+         * Sıralı ekleme; doluysa en eski çıkar ve horizon onun sonrasına kayar
+         *
+         * @return işlem sayısındaki değişim (0 veya 1)
+         */
+        int insert(Transaction transaction) {
+            LocalDateTime timestamp = transaction.getTimestamp();
+            if (timestamp == null || (horizon != null && timestamp.isBefore(horizon))) {
+                return 0;  // Kapsam dışı (geriye tarihli): sorgusu zaten DB'ye gider
+            }
+            for (int i = 0; i < size; i++) {
+                if (items[i].getTransactionId().equals(transaction.getTransactionId())) {
+                    return 0;
+                }
+            }
+
+            int delta = 1;
+            if (size == perCustomer) {
+                if (!timestamp.isAfter(items[0].getTimestamp())) {
+                    horizon = timestamp.plusNanos(1);
+                    return 0;  // Halkadaki her şeyden eski: kendisi çıkan olur
+                }
+                horizon = items[0].getTimestamp().plusNanos(1);
+                System.arraycopy(items, 1, items, 0, size - 1);
+                size--;
+                delta = 0;
+            } else if (size == items.length) {
+                items = Arrays.copyOf(items, Math.min(items.length * 2, perCustomer));
+            }
+
+            int position = size;
+            while (position > 0 && items[position - 1].getTimestamp().isAfter(timestamp)) {
+                position--;
+            }
+            System.arraycopy(items, position, items, position + 1, size - position);
+            items[position] = transaction;
+            size++;
+            return delta;
+        }
+
+        /**
+         * Yeniden eskiye (DB sorgusuyla aynı sıra)
+         */
+        List<Transaction> since(LocalDateTime since) {
+            List<Transaction> result = new ArrayList<>();
+            for (int i = size - 1; i >= 0 && !items[i].getTimestamp().isBefore(since); i--) {
+                result.add(items[i]);
+            }
+            return result;
+        }
+    }
+}
@@ -35,13 +35,16 @@ public class TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final TransactionProducer transactionProducer;
+    private final RecentTransactionIndex recentTransactionIndex;
 
     // Constructor injection (best practice)
     // Neden? Field injection yerine constructor tercih edilir (testable, immutable)
     public TransactionService(TransactionRepository transactionRepository,
-                              TransactionProducer transactionProducer) {
+                              TransactionProducer transactionProducer,
+                              RecentTransactionIndex recentTransactionIndex) {
         this.transactionRepository = transactionRepository;
         this.transactionProducer = transactionProducer;
+        this.recentTransactionIndex = recentTransactionIndex;
     }
 
     /**
@@ -79,6 +82,9 @@ public class TransactionService {
         Transaction savedTransaction = transactionRepository.save(transaction);
         logger.info("Transaction saved to database: ID={}", savedTransaction.getTransactionId());
 
+        // /recent index'i (commit sonrası görünür olur)
+        recentTransactionIndex.add(savedTransaction);
+
         // ============================================
         // SEND TO KAFKA
         // ============================================
@@ -162,11 +168,23 @@ public class TransactionService {
      * - Velocity rule için kullanılır
      *
      * Örnek: Son 10 dakikada 5'ten fazla işlem varsa → fraud şüphesi
+     *
+     * Önce RecentTransactionIndex: pencere müşterinin halkasının kapsamındaysa DB'ye gidilmez.
+     * Kapsam dışıysa DB'den okunur ve halkaya eklenir → aynı pencerenin sonraki poll'ları bellekten
      */
     public List<Transaction> getRecentTransactionsByCustomer(String customerId, int minutes) {
         LocalDateTime since = LocalDateTime.now().minusMinutes(minutes);
+
+        List<Transaction> cached = recentTransactionIndex.findSince(customerId, since);
+        if (cached != null) {
+            logger.debug("Recent transactions from index: Customer={}, Since={}", customerId, since);
+            return cached;
+        }
+
         logger.debug("Fetching recent transactions: Customer={}, Since={}", customerId, since);
-        return transactionRepository.findRecentTransactionsByCustomer(customerId, since);
+        List<Transaction> transactions = transactionRepository.findRecentTransactionsByCustomer(customerId, since);
+        recentTransactionIndex.seed(customerId, since, transactions);
+        return transactions;
     }
 
     /**
@@ -0,0 +1,193 @@
+package com.fraud.transaction.service;
+
+import com.fraud.transaction.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecentTransactionIndexTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 5, 10, 0);
+
+    private static Transaction transaction(String transactionId, String customerId, int minute) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionId);
+        transaction.setCustomerId(customerId);
+        transaction.setAmount(new BigDecimal("100.00"));
+        transaction.setTimestamp(T0.plusMinutes(minute));
+        return transaction;
+    }
+
+    private static List<String> ids(List<Transaction> transactions) {
+        return transactions.stream().map(Transaction::getTransactionId).toList();
+    }
+
+    @Test
+    void firstPollMissesThenSeededWindowIsServedFromMemory() {
+        RecentTransactionIndex index = new RecentTransactionIndex(true, 50, 10_000);
+
+        assertNull(index.findSince("CUST-1", T0));
+        index.seed("CUST-1", T0, List.of(transaction("TX-2", "CUST-1", 5), transaction("TX-1", "CUST-1", 1)));
+
+        // DB sorgusuyla aynı sıra: yeniden eskiye
+        assertEquals(List.of("TX-2", "TX-1"), ids(index.findSince("CUST-1", T0)));
+        assertEquals(List.of("TX-2"), ids(index.findSince("CUST-1", T0.plusMinutes(2))));
+        // Horizon'dan eski pencere DB'ye gider
+        assertNull(index.findSince("CUST-1", T0.minusMinutes(1)));
+    }
+
+    @Test
+    void unpolledCustomerIsNotIndexed() {
+        RecentTransactionIndex index = new RecentTransactionIndex(true, 50, 10_000);
+        index.add(transaction("TX-1", "CUST-1", 1));
+
+        assertNull(index.findSince("CUST-1", T0));
+        index.seed("CUST-1", T0, List.of());
+
+        assertTrue(index.findSince("CUST-1", T0).isEmpty());
+        assertEquals(0L, index.getStats().get("transactions"));
+    }
+
+    @Test
+    void commitDuringDatabaseReadIsNotLost() {
+        RecentTransactionIndex index = new RecentTransactionIndex(true, 50, 10_000);
+        assertNull(index.findSince("CUST-1", T0));
+
+        // DB okuması TX-3'ten önceki snapshot'ı gördü, TX-3 arada commit oldu
+        index.add(transaction("TX-3", "CUST-1", 9));
+        index.seed("CUST-1", T0, List.of(transaction("TX-1", "CUST-1", 1), transaction("TX-2", "CUST-1", 5)));
+
+        assertEquals(List.of("TX-3", "TX-2", "TX-1"), ids(index.findSince("CUST-1", T0)));
+    }
+
+    @Test
+    void transactionSeenByBothSeedAndCommitIsStoredOnce() {
+        RecentTransactionIndex index = new RecentTransactionIndex(true, 50, 10_000);
+        assertNull(index.findSince("CUST-1", T0));
+
+        index.add(transaction("TX-2", "CUST-1", 5));
+        index.seed("CUST-1", T0, List.of(transaction("TX-1", "CUST-1", 1), transaction("TX-2", "CUST-1", 5)));
+        index.add(transaction("TX-2", "CUST-1", 5));
+
+        assertEquals(List.of("TX-2", "TX-1"), ids(index.findSince("CUST-1", T0)));
+        assertEquals(2L, index.getStats().get("transactions"));
+    }
+
+    @Test
+    void overflowDuringDatabaseReadKeepsHorizonAhead() {
+        RecentTransactionIndex index = new RecentTransactionIndex(true, 3, 10_000);
+        assertNull(index.findSince("CUST-1", T0));
+
+        for (int i = 1; i <= 5; i++) {
+            index.add(transaction("TX-" + i, "CUST-1", 10 + i));
+        }
+        index.seed("CUST-1", T0, List.of(transaction("TX-0", "CUST-1", 1)));
+
+        // TX-1 ve TX-2 halkadan düştü: T0 penceresi artık eksik
+        assertNull(index.findSince("CUST-1", T0));
+        assertEquals(List.of("TX-5", "TX-4", "TX-3"), ids(index.findSince("CUST-1", T0.plusMinutes(13))));
+    }
+
+    @Test
+    void fullRingEvictsOldestAndMovesHorizon() {
+        RecentTransactionIndex index = new RecentTransactionIndex(true, 3, 10_000);
+        index.findSince("CUST-1", T0);
+        index.seed("CUST-1", T0, List.of());
+
+        index.add(transaction("TX-1", "CUST-1", 1));
+        index.add(transaction("TX-3", "CUST-1", 3));
+        index.add(transaction("TX-2", "CUST-1", 2));
+        assertEquals(List.of("TX-3", "TX-2", "TX-1"), ids(index.findSince("CUST-1", T0)));
+
+        index.add(transaction("TX-4", "CUST-1", 4));
+        // Halkadaki her şeyden eski: kendisi çıkar, horizon yine kayar
+        index.add(transaction("TX-0", "CUST-1", 0));
+
+        assertNull(index.findSince("CUST-1", T0));
+        assertNull(index.findSince("CUST-1", T0.plusMinutes(1)));
+        assertEquals(List.of("TX-4", "TX-3", "TX-2"), ids(index.findSince("CUST-1", T0.plusMinutes(2))));
+    }
+
+    @Test
+    void backdatedTransactionBeforeHorizonIsIgnored() {
+        RecentTransactionIndex index = new RecentTransactionIndex(true, 50, 10_000);
+        index.findSince("CUST-1", T0);
+        index.seed("CUST-1", T0, List.of(transaction("TX-1", "CUST-1", 1)));
+
+        index.add(transaction("TX-0", "CUST-1", -5));
+
+        assertEquals(List.of("TX-1"), ids(index.findSince("CUST-1", T0)));
+    }
+
+    @Test
+    void widerSeedMovesHorizonBack() {
+        RecentTransactionIndex index = new RecentTransactionIndex(true, 50, 10_000);
+        index.findSince("CUST-1", T0);
+        index.seed("CUST-1", T0, List.of(transaction("TX-1", "CUST-1", 1)));
+
+        assertNull(index.findSince("CUST-1", T0.minusMinutes(30)));
+        index.seed("CUST-1", T0.minusMinutes(30),
+                List.of(transaction("TX-0", "CUST-1", -20), transaction("TX-1", "CUST-1", 1)));
+
+        assertEquals(List.of("TX-1", "TX-0"), ids(index.findSince("CUST-1", T0.minusMinutes(30))));
+    }
+
+    @Test
+    void leastRecentlyPolledCustomersAreEvicted() {
+        // 16 segment x 6 (işlem + müşteri başına 1)
+        RecentTransactionIndex index = new RecentTransactionIndex(true, 2, 16 * 6);
+        for (int c = 0; c < 200; c++) {
+            String customerId = "CUST-" + c;
+            index.findSince(customerId, T0);
+            index.seed(customerId, T0, List.of(transaction("TX-" + c + "-1", customerId, 1),
+                    transaction("TX-" + c + "-2", customerId, 2)));
+        }
+
+        long customers = (Long) index.getStats().get("customers");
+        long transactions = (Long) index.getStats().get("transactions");
+        assertTrue(customers + transactions <= 16 * 6, customers + " customers, " + transactions + " transactions");
+        assertTrue((Long) index.getStats().get("evictedCustomers") > 0);
+        assertNotNull(index.findSince("CUST-199", T0));
+        assertNull(index.findSince("CUST-0", T0));
+    }
+
+    @Test
+    void writeInsideTransactionIsVisibleOnlyAfterCommit() {
+        RecentTransactionIndex index = new RecentTransactionIndex(true, 50, 10_000);
+        index.findSince("CUST-1", T0);
+        index.seed("CUST-1", T0, List.of());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.add(transaction("TX-1", "CUST-1", 1));
+            index.add(transaction("TX-2", "CUST-1", 2));
+            assertTrue(index.findSince("CUST-1", T0).isEmpty());
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            // Sadece ilki commit oldu, ikincisi rollback
+            synchronizations.get(0).afterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of("TX-1"), ids(index.findSince("CUST-1", T0)));
+    }
+
+    @Test
+    void disabledIndexAlwaysMisses() {
+        RecentTransactionIndex index = new RecentTransactionIndex(false, 50, 10_000);
+        index.findSince("CUST-1", T0);
+        index.seed("CUST-1", T0, List.of(transaction("TX-1", "CUST-1", 1)));
+
+        assertNull(index.findSince("CUST-1", T0));
+    }
+}